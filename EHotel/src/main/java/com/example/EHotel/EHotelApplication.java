@@ -4,6 +4,8 @@ package com.example.EHotel;
 import org.springframework.boot.SpringApplication;
 // Annotation composite qui active la configuration automatique de Spring Boot
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+// Active l'exécution des tâches planifiées (@Scheduled)
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principale de l'application E-Hotel.
@@ -15,8 +17,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *
  * Cette application est un système complet de gestion hôtelière multi-établissements
  * permettant la recherche de chambres, les réservations, la gestion des locations et paiements.
+ *
+ * @EnableScheduling active les tâches planifiées (@Scheduled), comme le vidage périodique
+ * de la file d'archivage asynchrone (ArchiveWriter).
  */
 @SpringBootApplication
+@EnableScheduling
 public class EHotelApplication {
 
     /**
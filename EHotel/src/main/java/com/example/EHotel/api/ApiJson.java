@@ -0,0 +1,170 @@
+package com.example.EHotel.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+// Enveloppe de pagination : ses propriétés ne sont jamais filtrées
+import com.example.EHotel.dtos.KeysetPage;
+
+/**
+ * Écriture des réponses de l'API JSON (/api/v1), avec sélection des champs.
+ *
+ * Paramètre fields (optionnel) : liste des propriétés à garder dans chaque ligne, séparées
+ * par des virgules (ex : ?fields=idHotel,name). Les propriétés des enveloppes de pagination
+ * (items, nextDate, nextId) sont toujours écrites. Sans fields, toutes les propriétés sont
+ * écrites.
+ *
+ * Deux formes de réponse :
+ *   - json()   : valeur entière sérialisée en une fois (pages, objets, listes courtes)
+ *   - stream() : tableau JSON écrit au fil des lots de lignes (listes complètes), sans
+ *                jamais construire la liste en mémoire, comme les vues "Tout afficher"
+ *
+ * Le mapper est une copie de celui de Spring Boot (dates ISO, mêmes modules), auquel un
+ * mix-in applique le filtre "fields" à toutes les classes.
+ */
+@Component
+public class ApiJson {
+
+    /** Identifiant du filtre de sélection des champs */
+    private static final String FIELDS_FILTER = "fields";
+
+    /** Enveloppes dont les propriétés sont toujours écrites */
+    private static final Set<Class<?>> ENVELOPES = Set.of(KeysetPage.class);
+
+    /** Applique le filtre "fields" à toutes les classes sérialisées */
+    @JsonFilter(FIELDS_FILTER)
+    private interface FieldsMixIn {
+    }
+
+    /** Mapper de l'API (copie configurée de celui de Spring Boot) */
+    private final ObjectMapper mapper;
+
+    /**
+     * @param objectMapper Le mapper configuré par Spring Boot
+     */
+    public ApiJson(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy().addMixIn(Object.class, FieldsMixIn.class);
+    }
+
+    /**
+     * Sérialise une valeur en une réponse JSON.
+     *
+     * @param status Le statut HTTP
+     * @param value  La valeur (projection, page, liste)
+     * @param fields Les propriétés à garder (null ou vide : toutes)
+     * @return La réponse
+     */
+    public ResponseEntity<byte[]> json(HttpStatus status, Object value, String fields) {
+        try {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(writer(fields).writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation JSON impossible", e);
+        }
+    }
+
+    /**
+     * Réponse 400 : le message de chaque champ en erreur, comme le chemin réactif.
+     *
+     * @param bindingResult Le résultat de la liaison et de la validation
+     * @return La réponse
+     */
+    public ResponseEntity<byte[]> badRequest(BindingResult bindingResult) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : bindingResult.getFieldErrors()) {
+            errors.putIfAbsent(error.getField(), error.isBindingFailure()
+                    ? "Valeur invalide : " + error.getRejectedValue()
+                    : error.getDefaultMessage());
+        }
+        return json(HttpStatus.BAD_REQUEST, errors, null);
+    }
+
+    /**
+     * Prépare une réponse JSON en flux : un tableau dont les éléments sont écrits et envoyés
+     * lot par lot, au rythme de la lecture (ListExportService).
+     *
+     * @param rows   Le producteur des lignes : reçoit le consommateur des lots
+     * @param fields Les propriétés à garder (null ou vide : toutes)
+     * @return La réponse, écrite au fil des lots
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<List<T>>> rows, String fields) {
+        ObjectWriter writer = writer(fields);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter array = writer.writeValuesAsArray(out)) {
+                rows.accept(chunk -> {
+                    try {
+                        array.writeAll(chunk);
+                        array.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Construit le writer qui n'écrit que les propriétés demandées.
+     *
+     * @param fields Les propriétés à garder, séparées par des virgules
+     * @return Le writer
+     */
+    private ObjectWriter writer(String fields) {
+        Set<String> selected = fields == null || fields.isBlank() ? null
+                : Stream.of(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+        return mapper.writer(new SimpleFilterProvider().addFilter(FIELDS_FILTER, new FieldsFilter(selected)));
+    }
+
+    /**
+     * Filtre des propriétés : garde celles des enveloppes et celles demandées.
+     */
+    private static class FieldsFilter extends SimpleBeanPropertyFilter {
+
+        /** Propriétés demandées (null : toutes) */
+        private final Set<String> selected;
+
+        FieldsFilter(Set<String> selected) {
+            this.selected = selected;
+        }
+
+        @Override
+        protected boolean include(BeanPropertyWriter writer) {
+            return include((PropertyWriter) writer);
+        }
+
+        @Override
+        protected boolean include(PropertyWriter writer) {
+            return selected == null
+                    || selected.contains(writer.getName())
+                    || (writer.getMember() != null && ENVELOPES.contains(writer.getMember().getDeclaringClass()));
+        }
+    }
+}
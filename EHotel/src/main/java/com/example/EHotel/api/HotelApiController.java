@@ -0,0 +1,73 @@
+package com.example.EHotel.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Projections à plat des hôtels et de leurs chambres
+import com.example.EHotel.dtos.HotelRowDTO;
+import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.RoomService;
+
+/**
+ * API JSON des hôtels (bornes, application mobile).
+ *
+ * Routes disponibles (paramètre optionnel fields, voir ApiJson) :
+ *   GET /api/v1/hotels             → Tous les hôtels (HotelRowDTO), par nom
+ *   GET /api/v1/hotels/{id}        → Un hôtel, 404 s'il n'existe pas
+ *   GET /api/v1/hotels/{id}/rooms  → Les chambres de l'hôtel (RoomRowDTO), par numéro
+ */
+@RestController
+@RequestMapping("/api/v1/hotels")
+public class HotelApiController {
+
+    /** Service de gestion des hôtels */
+    @Autowired
+    private HotelService hotelService;
+
+    /** Service de gestion des chambres */
+    @Autowired
+    private RoomService roomService;
+
+    /** Écriture des réponses JSON */
+    @Autowired
+    private ApiJson apiJson;
+
+    /**
+     * @param fields Les propriétés à garder dans chaque hôtel
+     * @return Les hôtels
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> hotels(@RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.json(HttpStatus.OK, hotelService.getHotelRows(), fields);
+    }
+
+    /**
+     * @param id     Identifiant de l'hôtel
+     * @param fields Les propriétés à garder
+     * @return L'hôtel, ou 404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> hotel(@PathVariable("id") int id, @RequestParam(name = "fields", required = false) String fields) {
+        HotelRowDTO hotel = hotelService.getHotelRow(id);
+        if (hotel == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return apiJson.json(HttpStatus.OK, hotel, fields);
+    }
+
+    /**
+     * @param id     Identifiant de l'hôtel
+     * @param fields Les propriétés à garder dans chaque chambre
+     * @return Les chambres de l'hôtel
+     */
+    @GetMapping("/{id}/rooms")
+    public ResponseEntity<byte[]> rooms(@PathVariable("id") int id, @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.json(HttpStatus.OK, roomService.findRoomRowsByHotelId(id), fields);
+    }
+}
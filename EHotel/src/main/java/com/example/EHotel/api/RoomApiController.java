@@ -0,0 +1,113 @@
+package com.example.EHotel.api;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// DTOs des critères de recherche, de la réservation et de la projection des chambres
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.RoomRowDTO;
+import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.services.BookingService;
+import com.example.EHotel.services.RoomService;
+import com.example.EHotel.services.SqlStates;
+
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Valid;
+
+/**
+ * API JSON des chambres : consultation, recherche et réservation (bornes, application mobile).
+ *
+ * Routes disponibles (paramètre optionnel fields, voir ApiJson) :
+ *   GET  /api/v1/rooms/{id}     → Une chambre (RoomRowDTO), 404 si elle n'existe pas
+ *   GET  /api/v1/rooms/search   → Chambres disponibles ; critères en paramètres, mêmes noms
+ *                                 que le formulaire de recherche ; 400 si invalides
+ *   POST /api/v1/bookings       → Réservation (corps JSON d'un BookingDTO) : 201 avec
+ *                                 l'identifiant, 400 si invalide, 409 si la chambre est refusée
+ *
+ * Mêmes services et mêmes règles que les formulaires (POST /room/booking).
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class RoomApiController {
+
+    /** Service de gestion des chambres */
+    @Autowired
+    private RoomService roomService;
+
+    /** Service de gestion des réservations */
+    @Autowired
+    private BookingService bookingService;
+
+    /** Écriture des réponses JSON */
+    @Autowired
+    private ApiJson apiJson;
+
+    /**
+     * @param id     Identifiant de la chambre
+     * @param fields Les propriétés à garder
+     * @return La chambre, ou 404
+     */
+    @GetMapping("/rooms/{id}")
+    public ResponseEntity<byte[]> room(@PathVariable("id") int id,
+                                       @RequestParam(name = "fields", required = false) String fields) {
+        RoomRowDTO room = roomService.findRoomRow(id);
+        if (room == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return apiJson.json(HttpStatus.OK, room, fields);
+    }
+
+    /**
+     * @param criteria      Les critères de recherche (paramètres de l'URL)
+     * @param bindingResult Résultat de la validation
+     * @param fields        Les propriétés à garder dans chaque chambre
+     * @return Les chambres disponibles, par prix, ou 400
+     */
+    @GetMapping("/rooms/search")
+    public ResponseEntity<byte[]> search(@Valid @ModelAttribute RoomSearchCriteriaDTO criteria,
+                                         BindingResult bindingResult,
+                                         @RequestParam(name = "fields", required = false) String fields) {
+        if (bindingResult.hasErrors()) {
+            return apiJson.badRequest(bindingResult);
+        }
+        return apiJson.json(HttpStatus.OK, roomService.findAvailableRoomRows(criteria), fields);
+    }
+
+    /**
+     * @param bookingDTO    La réservation (client, chambre, dates)
+     * @param bindingResult Résultat de la validation
+     * @return 201 avec l'identifiant de la réservation, 400 ou 409
+     */
+    @PostMapping("/bookings")
+    public ResponseEntity<byte[]> book(@Valid @RequestBody BookingDTO bookingDTO, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return apiJson.badRequest(bindingResult);
+        }
+        try {
+            Booking booking = bookingService.bookRoom(bookingDTO);
+            return apiJson.json(HttpStatus.CREATED, Map.of("idBooking", booking.getIdBooking()), null);
+        } catch (DataAccessException | PersistenceException e) {
+            // Seul le refus du trigger check_room_availability (introuvable ou indisponible)
+            // donne un 409 ; toute autre erreur remonte (500)
+            if (!SqlStates.is(e, SqlStates.ROOM_UNAVAILABLE)) {
+                throw e;
+            }
+            return apiJson.json(HttpStatus.CONFLICT,
+                    Map.of("idRoom", "La chambre sélectionnée est introuvable ou n'est plus disponible."), null);
+        }
+    }
+}
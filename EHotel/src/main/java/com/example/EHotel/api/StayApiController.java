@@ -0,0 +1,110 @@
+package com.example.EHotel.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Filtres des listes (mêmes paramètres que les pages HTML)
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.services.BookingService;
+import com.example.EHotel.services.ListExportService;
+import com.example.EHotel.services.PaymentService;
+import com.example.EHotel.services.RentalService;
+
+/**
+ * API JSON des réservations, locations et paiements.
+ *
+ * Routes disponibles (paramètre optionnel fields, voir ApiJson) :
+ *   GET /api/v1/bookings      → Une page de réservations (StayRowDTO)
+ *   GET /api/v1/rentals       → Une page de locations (StayRowDTO)
+ *   GET /api/v1/rentals/all   → Toutes les locations, tableau JSON écrit en flux
+ *   GET /api/v1/payments      → Une page de paiements (PaymentRowDTO)
+ *   GET /api/v1/payments/all  → Tous les paiements, tableau JSON écrit en flux
+ *
+ * Les pages acceptent les filtres et la position des pages HTML (ListFilterDTO : idHotel,
+ * sinCustomer, status, from, to, afterDate, afterId) et renvoient { items, nextDate, nextId } :
+ * nextDate et nextId, s'ils sont présents, désignent la page suivante.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class StayApiController {
+
+    /** Service de gestion des réservations */
+    @Autowired
+    private BookingService bookingService;
+
+    /** Service de gestion des locations */
+    @Autowired
+    private RentalService rentalService;
+
+    /** Service de gestion des paiements */
+    @Autowired
+    private PaymentService paymentService;
+
+    /** Lecture des listes complètes par curseur */
+    @Autowired
+    private ListExportService listExportService;
+
+    /** Écriture des réponses JSON */
+    @Autowired
+    private ApiJson apiJson;
+
+    /**
+     * @param filter Les filtres et la position de la page (paramètres de l'URL)
+     * @param fields Les propriétés à garder dans chaque ligne
+     * @return La page de réservations
+     */
+    @GetMapping("/bookings")
+    public ResponseEntity<byte[]> bookings(@ModelAttribute ListFilterDTO filter,
+                                           @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.json(HttpStatus.OK, bookingService.getBookings(filter), fields);
+    }
+
+    /**
+     * @param filter Les filtres et la position de la page (paramètres de l'URL)
+     * @param fields Les propriétés à garder dans chaque ligne
+     * @return La page de locations
+     */
+    @GetMapping("/rentals")
+    public ResponseEntity<byte[]> rentals(@ModelAttribute ListFilterDTO filter,
+                                          @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.json(HttpStatus.OK, rentalService.getRentals(filter), fields);
+    }
+
+    /**
+     * @param fields Les propriétés à garder dans chaque ligne
+     * @return Toutes les locations, par date d'arrivée
+     */
+    @GetMapping("/rentals/all")
+    public ResponseEntity<StreamingResponseBody> allRentals(
+            @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.stream(listExportService::streamRentals, fields);
+    }
+
+    /**
+     * @param filter Les filtres et la position de la page (paramètres de l'URL)
+     * @param fields Les propriétés à garder dans chaque ligne
+     * @return La page de paiements
+     */
+    @GetMapping("/payments")
+    public ResponseEntity<byte[]> payments(@ModelAttribute ListFilterDTO filter,
+                                           @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.json(HttpStatus.OK, paymentService.getPayments(filter), fields);
+    }
+
+    /**
+     * @param fields Les propriétés à garder dans chaque ligne
+     * @return Tous les paiements, du plus récent au plus ancien
+     */
+    @GetMapping("/payments/all")
+    public ResponseEntity<StreamingResponseBody> allPayments(
+            @RequestParam(name = "fields", required = false) String fields) {
+        return apiJson.stream(listExportService::streamPayments, fields);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.EHotel.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+// Imports des DTOs et modèles nécessaires
+import com.example.EHotel.dtos.AllotmentDTO;
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.ReferenceData;
+import com.example.EHotel.model.hotel.Allotment;
+// Imports des services utilisés
+import com.example.EHotel.services.AllotmentService;
+import com.example.EHotel.services.ReferenceDataService;
+import com.example.EHotel.services.SqlStates;
+
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+
+/**
+ * Contrôleur Spring MVC gérant les blocs de chambres de groupe (congrès, voyages organisés).
+ *
+ * Préfixe de route : /allotment
+ *
+ * Routes disponibles :
+ *   GET  /allotment/list         → Afficher la liste des blocs et leurs chambres restantes
+ *   GET  /allotment/add          → Afficher le formulaire de création d'un bloc
+ *   POST /allotment/add          → Créer le bloc et retenir ses chambres
+ *   GET  /allotment/pickup/{id}  → Afficher le formulaire de réservation d'un participant
+ *   POST /allotment/pickup/{id}  → Prendre une chambre du bloc pour un participant
+ */
+@Controller
+@RequestMapping("/allotment")
+public class AllotmentController {
+
+    /** Service des blocs de groupe (création, prise d'une chambre) */
+    @Autowired
+    private AllotmentService allotmentService;
+
+    /** Listes déroulantes du formulaire (hôtels, capacités) */
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    /** Validateur Bean Validation (formulaire de réservation d'un participant) */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Affiche la liste des blocs.
+     *
+     * GET /allotment/list → vue "allotments.html"
+     *
+     * @param model Le modèle Spring MVC
+     * @return Le template "allotments"
+     */
+    @GetMapping("/list")
+    public String showAllotments(Model model) {
+        model.addAttribute("allotments", allotmentService.getAllotments());
+        return "allotments";
+    }
+
+    /**
+     * Affiche le formulaire de création d'un bloc.
+     *
+     * GET /allotment/add → vue "add-allotment-form.html"
+     *
+     * @param model Le modèle Spring MVC
+     * @return Le template "add-allotment-form"
+     */
+    @GetMapping("/add")
+    public String showAddAllotmentForm(Model model) {
+        model.addAttribute("allotment", new AllotmentDTO());
+        addFormLists(model);
+        return "add-allotment-form";
+    }
+
+    /**
+     * Crée un bloc : ses chambres sont retenues et ses compteurs de nuits initialisés
+     * en une seule écriture.
+     *
+     * POST /allotment/add
+     *
+     * @param allotment     Les données du formulaire (validées)
+     * @param bindingResult Résultat de la validation Bean Validation
+     * @param model         Le modèle Spring MVC
+     * @return Redirection vers la liste des blocs, ou le formulaire si erreur
+     */
+    @PostMapping("/add")
+    public String addAllotment(@Valid @ModelAttribute("allotment") AllotmentDTO allotment,
+                               BindingResult bindingResult, Model model) {
+        if (!bindingResult.hasErrors() && allotmentService.createAllotment(allotment) == null) {
+            bindingResult.rejectValue("roomsCount", "allotment.roomsCount",
+                    "L'hôtel n'a pas assez de chambres libres de cette capacité sur la période.");
+        }
+        if (bindingResult.hasErrors()) {
+            addFormLists(model);
+            return "add-allotment-form";
+        }
+        return "redirect:/allotment/list";
+    }
+
+    /**
+     * Affiche le formulaire de réservation d'un participant (formulaire de réservation
+     * habituel, envoyé vers /allotment/pickup/{id}, dates du bloc pré-remplies).
+     *
+     * GET /allotment/pickup/{id} → vue "booking-form.html"
+     *
+     * @param id    Identifiant du bloc
+     * @param model Le modèle Spring MVC
+     * @return Le template "booking-form", ou redirection si le bloc est introuvable ou libéré
+     */
+    @GetMapping("/pickup/{id}")
+    public String showPickUpForm(@PathVariable("id") int id, Model model) {
+        Allotment allotment = allotmentService.getAllotment(id);
+        if (allotment == null || !Allotment.HELD.equals(allotment.getStatus())) {
+            return "redirect:/allotment/list";
+        }
+        BookingDTO booking = new BookingDTO();
+        booking.setStartDate(allotment.getStartDate());
+        booking.setEndDate(allotment.getEndDate());
+        model.addAttribute("booking", booking);
+        model.addAttribute("action", "/allotment/pickup/" + id);
+        return "booking-form";
+    }
+
+    /**
+     * Prend une chambre du bloc pour un participant.
+     *
+     * POST /allotment/pickup/{id}
+     * La chambre n'est pas choisie dans le formulaire : AllotmentService la choisit parmi
+     * les chambres du bloc libres sur les dates demandées. Le formulaire est donc validé
+     * après avoir renseigné une chambre provisoire.
+     *
+     * @param id            Identifiant du bloc
+     * @param bookingDTO    Les données du participant et ses dates
+     * @param bindingResult Résultat de la liaison et de la validation
+     * @param model         Le modèle Spring MVC
+     * @return Redirection vers la liste des blocs après succès, ou le formulaire si erreur
+     */
+    @PostMapping("/pickup/{id}")
+    public String pickUp(@PathVariable("id") int id, @ModelAttribute("booking") BookingDTO bookingDTO,
+                         BindingResult bindingResult, Model model) {
+        bookingDTO.setIdRoom(0);
+        new SpringValidatorAdapter(validator).validate(bookingDTO, bindingResult);
+        model.addAttribute("action", "/allotment/pickup/" + id);
+        if (bindingResult.hasErrors()) {
+            return "booking-form";
+        }
+
+        try {
+            if (allotmentService.pickUp(id, bookingDTO) == null) {
+                bindingResult.reject("allotment.full",
+                        "Le bloc n'a plus de chambre pour ces dates (ou sa date limite est passée).");
+                return "booking-form";
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            // Seul le refus du trigger check_room_availability (chambre reprise entre-temps)
+            // concerne la saisie ; toute autre erreur remonte
+            if (!SqlStates.is(e, SqlStates.ROOM_UNAVAILABLE)) {
+                throw e;
+            }
+            bindingResult.reject("allotment.refused", "La chambre du bloc n'est plus disponible pour ces dates.");
+            return "booking-form";
+        }
+        return "redirect:/allotment/list";
+    }
+
+    /**
+     * Ajoute au modèle les listes du formulaire de bloc (hôtels, capacités), tirées des
+     * données de référence en mémoire.
+     *
+     * @param model Le modèle Spring MVC
+     */
+    private void addFormLists(Model model) {
+        ReferenceData referenceData = referenceDataService.get();
+        model.addAttribute("hotels", referenceData.getHotels());
+        model.addAttribute("capacities", referenceData.getCapacities());
+    }
+}
@@ -1,19 +1,46 @@
 package com.example.EHotel.controllers;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+// Imports des DTOs (modification des dates, page de liste, ses filtres et ses lignes)
+import com.example.EHotel.dtos.KeysetPage;
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.ModifyBookingDTO;
+import com.example.EHotel.dtos.StayRowDTO;
 // Imports des modèles nécessaires
 import com.example.EHotel.model.hotel.Booking;
 import com.example.EHotel.model.hotel.Rental;
 // Imports des services nécessaires
 import com.example.EHotel.services.BookingService;
+import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.ListExportService;
 import com.example.EHotel.services.RentalService;
+import com.example.EHotel.services.TableVersionService.Table;
+// GET conditionnel (ETag) et rendu en flux des listes complètes
+import com.example.EHotel.web.ConditionalGet;
+import com.example.EHotel.web.StreamingTemplateRenderer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 
 /**
  * Contrôleur Spring MVC gérant l'affichage des réservations, leur transformation en locations,
@@ -22,9 +49,15 @@ import com.example.EHotel.services.RentalService;
  * Préfixe de route : /booking
  *
  * Routes disponibles :
- *   GET  /booking/bookings         → Afficher toutes les réservations actives
+ *   GET  /booking/bookings         → Afficher une page des réservations actives (filtres, pagination par clé)
  *   POST /booking/transform/{id}   → Transformer une réservation en location (check-in)
- *   GET  /booking/rentals          → Afficher toutes les locations actives
+ *   POST /booking/checkin          → Check-in groupé des arrivées d'un hôtel à une date
+ *   POST /booking/checkin/selected → Check-in groupé des réservations cochées
+ *   POST /booking/cancel/{id}      → Annuler une réservation
+ *   GET  /booking/modify/{id}      → Afficher le formulaire de modification des dates
+ *   POST /booking/modify/{id}      → Modifier les dates d'une réservation (avec contrôle de conflit)
+ *   GET  /booking/rentals          → Afficher une page des locations actives (filtres, pagination par clé)
+ *   GET  /booking/rentals/all      → Afficher toutes les locations (rendu en flux)
  *
  * Ce contrôleur implémente le processus clé du check-in :
  * lorsqu'un client arrive à l'hôtel, sa réservation (Booking) est "transformée"
@@ -42,18 +75,48 @@ public class BookingController {
     @Autowired
     private RentalService rentalService;
 
+    /** Lecture en flux de la liste complète des locations */
+    @Autowired
+    private ListExportService listExportService;
+
+    /** Rendu Thymeleaf en flux des listes complètes */
+    @Autowired
+    private StreamingTemplateRenderer streamingTemplateRenderer;
+
+    /** Service de gestion des hôtels (sélecteur du check-in groupé et filtre des listes) */
+    @Autowired
+    private HotelService hotelService;
+
+    /** GET conditionnel de la liste des réservations (ETag) */
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     /**
-     * Affiche la liste de toutes les réservations actives dans le système.
+     * Affiche une page de la liste des réservations actives, filtrée.
      *
-     * GET /booking/bookings → vue "bookings.html"
+     * GET /booking/bookings?idHotel=&sinCustomer=&from=&to=&afterDate=&afterId= → vue "bookings.html"
+     * Répond 304 sans lire la base si les tables affichées (réservations, clients, chambres,
+     * hôtels) n'ont pas changé et que la date du jour (pré-remplie) est la même.
      *
-     * @param model Le modèle Spring MVC
-     * @return Le template "bookings"
+     * @param filter  Les filtres et la position de la page (paramètres de l'URL)
+     * @param model   Le modèle Spring MVC
+     * @param request La requête (en-tête If-None-Match)
+     * @return Le template "bookings", ou null si 304
      */
     @GetMapping("/bookings")
-    public String showBookings(Model model) {
-        // Récupère toutes les réservations actives et les passe au template
-        model.addAttribute("bookings", bookingService.getBookings());
+    public String showBookings(@ModelAttribute("filter") ListFilterDTO filter, Model model,
+                               ServletWebRequest request) {
+        if (conditionalGet.notModified(request, "-" + LocalDate.now(),
+                Table.BOOKING, Table.CUSTOMER, Table.ROOM, Table.HOTEL)) {
+            return null;
+        }
+        // Récupère la page demandée et la passe au template avec la position de la page suivante
+        KeysetPage<StayRowDTO> page = bookingService.getBookings(filter);
+        model.addAttribute("page", page);
+        model.addAttribute("bookings", page.getItems());
+        // Hôtels et date du jour pour pré-remplir le formulaire de check-in groupé
+        model.addAttribute("hotels", hotelService.getHotelOptions());
+        model.addAttribute("arrivalDate", LocalDate.now());
         return "bookings";
     }
 
@@ -96,20 +159,156 @@ public class BookingController {
     }
 
     /**
-     * Affiche la liste de toutes les locations actives dans le système.
+     * Annule une réservation.
      *
-     * GET /booking/rentals → vue "rentals.html"
-     * Depuis cette page, le personnel peut enregistrer un paiement pour une location.
+     * POST /booking/cancel/{id}
+     *
+     * @param id                 L'identifiant de la réservation à annuler (extrait de l'URL)
+     * @param redirectAttributes Attributs flash (confirmation de l'annulation)
+     * @return Redirection vers la liste des réservations
+     */
+    @PostMapping("/cancel/{id}")
+    public String cancelBooking(@PathVariable("id") int id, RedirectAttributes redirectAttributes) {
+        if (bookingService.cancelBooking(id)) {
+            redirectAttributes.addFlashAttribute("cancelled", id);
+        }
+        return "redirect:/booking/bookings";
+    }
+
+    /**
+     * Affiche le formulaire de modification des dates d'une réservation.
      *
+     * GET /booking/modify/{id} → vue "modify-booking-form.html"
+     *
+     * @param id    L'identifiant de la réservation à modifier (extrait de l'URL)
      * @param model Le modèle Spring MVC
+     * @return Le template "modify-booking-form", ou redirection si la réservation est introuvable
+     */
+    @GetMapping("/modify/{id}")
+    public String showModifyBookingForm(@PathVariable("id") int id, Model model) {
+        Booking booking = bookingService.getBooking(id);
+        if (booking == null) {
+            return "redirect:/booking/bookings";
+        }
+
+        model.addAttribute("booking", booking);
+        model.addAttribute("dates", new ModifyBookingDTO(id, booking.getStartDate(), booking.getEndDate()));
+        return "modify-booking-form";
+    }
+
+    /**
+     * Modifie les dates d'une réservation.
+     *
+     * POST /booking/modify/{id}
+     * Seules les nuits ajoutées à la réservation sont revérifiées contre les autres
+     * réservations et locations de la chambre ; en cas de conflit, le formulaire est réaffiché.
+     *
+     * @param id                 L'identifiant de la réservation à modifier (extrait de l'URL)
+     * @param dates              Les nouvelles dates (validées)
+     * @param bindingResult      Résultat de la validation Bean Validation
+     * @param model              Le modèle Spring MVC
+     * @param redirectAttributes Attributs flash (confirmation de la modification)
+     * @return Redirection vers la liste des réservations, ou le formulaire si erreur ou conflit
+     */
+    @PostMapping("/modify/{id}")
+    public String modifyBooking(@PathVariable("id") int id,
+                                @Valid @ModelAttribute("dates") ModifyBookingDTO dates,
+                                BindingResult bindingResult, Model model,
+                                RedirectAttributes redirectAttributes) {
+        Booking booking = bookingService.getBooking(id);
+        if (booking == null) {
+            return "redirect:/booking/bookings";
+        }
+        model.addAttribute("booking", booking);
+        if (bindingResult.hasErrors()) {
+            return "modify-booking-form";
+        }
+
+        if (!bookingService.changeDates(id, dates.getStartDate(), dates.getEndDate())) {
+            bindingResult.rejectValue("startDate", "booking.dates",
+                    "Ces dates chevauchent une autre réservation ou location de la chambre.");
+            return "modify-booking-form";
+        }
+
+        redirectAttributes.addFlashAttribute("modified", id);
+        return "redirect:/booking/bookings";
+    }
+
+    /**
+     * Check-in groupé de toutes les réservations d'un hôtel arrivant à une date donnée.
+     *
+     * POST /booking/checkin
+     * Les réservations sont déplacées vers les locations par une seule instruction SQL
+     * (DELETE ... RETURNING + INSERT ... SELECT) dans une seule transaction,
+     * au lieu d'un chargement, d'un INSERT et d'un DELETE par réservation.
+     *
+     * @param idHotel            L'identifiant de l'hôtel
+     * @param arrivalDate        La date d'arrivée des réservations à transformer
+     * @param redirectAttributes Attributs flash (nombre de check-ins effectués)
+     * @return Redirection vers la liste des réservations
+     */
+    @PostMapping("/checkin")
+    public String checkInByHotel(@RequestParam("idHotel") int idHotel,
+                                 @RequestParam("arrivalDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalDate,
+                                 RedirectAttributes redirectAttributes) {
+        int count = rentalService.checkIn(idHotel, arrivalDate);
+        redirectAttributes.addFlashAttribute("checkedIn", count);
+        return "redirect:/booking/bookings";
+    }
+
+    /**
+     * Check-in groupé des réservations cochées dans la liste.
+     *
+     * POST /booking/checkin/selected
+     *
+     * @param bookingIds         Les identifiants des réservations cochées (peut être absent)
+     * @param redirectAttributes Attributs flash (nombre de check-ins effectués)
+     * @return Redirection vers la liste des réservations
+     */
+    @PostMapping("/checkin/selected")
+    public String checkInSelected(@RequestParam(name = "bookingIds", required = false) List<Integer> bookingIds,
+                                  RedirectAttributes redirectAttributes) {
+        int count = rentalService.checkIn(bookingIds);
+        redirectAttributes.addFlashAttribute("checkedIn", count);
+        return "redirect:/booking/bookings";
+    }
+
+    /**
+     * Affiche une page de la liste des locations actives, filtrée.
+     *
+     * GET /booking/rentals?idHotel=&sinCustomer=&from=&to=&afterDate=&afterId= → vue "rentals.html"
+     * Depuis cette page, le personnel peut enregistrer un paiement pour une location.
+     *
+     * @param filter Les filtres et la position de la page (paramètres de l'URL)
+     * @param model  Le modèle Spring MVC
      * @return Le template "rentals"
      */
     @GetMapping("/rentals")
-    public String showRentals(Model model) {
-        // Récupère toutes les locations actives et les passe au template
-        model.addAttribute("rentals", rentalService.getRentals());
+    public String showRentals(@ModelAttribute("filter") ListFilterDTO filter, Model model) {
+        // Récupère la page demandée et la passe au template avec la position de la page suivante
+        KeysetPage<StayRowDTO> page = rentalService.getRentals(filter);
+        model.addAttribute("page", page);
+        model.addAttribute("rentals", page.getItems());
+        model.addAttribute("hotels", hotelService.getHotelOptions());
         return "rentals";
     }
 
+    /**
+     * Affiche toutes les locations, sans pagination, en rendu Thymeleaf en flux : les lignes
+     * sont lues par un curseur JDBC et envoyées au navigateur par lots (mémoire constante).
+     *
+     * GET /booking/rentals/all → vue "rentals-all.html"
+     *
+     * @param request  La requête
+     * @param response La réponse
+     * @return La page, écrite au fil de la lecture des locations
+     */
+    @GetMapping("/rentals/all")
+    public ResponseEntity<StreamingResponseBody> showAllRentals(HttpServletRequest request,
+                                                                HttpServletResponse response) {
+        return streamingTemplateRenderer.render("rentals-all", Map.of(),
+                listExportService::streamRentals, request, response);
+    }
+
 
 }
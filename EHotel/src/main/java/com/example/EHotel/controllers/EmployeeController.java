@@ -1,7 +1,9 @@
 package com.example.EHotel.controllers;
 
-import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -10,14 +12,24 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 // Import du DTO pour la gestion des clients
 import com.example.EHotel.dtos.AddCustomerDTO;
+// Critères et page de la recherche de clients
+import com.example.EHotel.dtos.CustomerPage;
+import com.example.EHotel.dtos.CustomerSearchDTO;
 // Import du modèle Client
 import com.example.EHotel.model.customer.Customer;
 // Import du service de gestion des clients
 import com.example.EHotel.services.CustomerService;
+import com.example.EHotel.services.ListExportService;
+import com.example.EHotel.services.SqlStates;
+// Rendu en flux des listes complètes
+import com.example.EHotel.web.StreamingTemplateRenderer;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -28,7 +40,8 @@ import jakarta.validation.Valid;
  * Cet contrôleur permet aux employés de gérer les clients (CRUD complet) :
  * Routes disponibles :
  *   GET  /employee/              → Page d'accueil du portail employé
- *   GET  /employee/customers     → Afficher la liste de tous les clients
+ *   GET  /employee/customers     → Rechercher des clients (NAS, nom, ville), par page
+ *   GET  /employee/customers/all → Afficher tous les clients (rendu en flux)
  *   GET  /employee/customer/add  → Formulaire d'ajout d'un client
  *   POST /employee/customer/add  → Traiter l'ajout d'un nouveau client
  *   POST /employee/customer/delete/{sin} → Supprimer un client par son NAS
@@ -45,6 +58,14 @@ public class EmployeeController {
     @Autowired
     private CustomerService customerService;
 
+    /** Lecture en flux de la liste complète des clients */
+    @Autowired
+    private ListExportService listExportService;
+
+    /** Rendu Thymeleaf en flux des listes complètes */
+    @Autowired
+    private StreamingTemplateRenderer streamingTemplateRenderer;
+
     /**
      * Affiche la page d'accueil du portail employé.
      *
@@ -59,20 +80,42 @@ public class EmployeeController {
     }
 
     /**
-     * Affiche la liste de tous les clients enregistrés dans le système.
+     * Recherche des clients (début de NAS, nom, ville), une page à la fois.
+     * Sans critère, la première page de tous les clients par nom.
      *
-     * GET /employee/customers → vue "customers.html"
+     * GET /employee/customers?sin=&name=&city=&afterLastname=&afterFirstname=&afterSin=
+     *   → vue "customers.html"
      *
-     * @param model Le modèle Spring MVC
+     * @param search Les critères et la position de la page (paramètres de l'URL)
+     * @param model  Le modèle Spring MVC
      * @return Le template "customers"
      */
     @GetMapping("/customers")
-    public String showCustomers(Model model) {
-        List<Customer> customers = customerService.getCustomers();
-        model.addAttribute("customers", customers);
+    public String showCustomers(@ModelAttribute("search") CustomerSearchDTO search, Model model) {
+        // Récupère la page demandée et la passe au template avec la position de la page suivante
+        CustomerPage page = customerService.searchCustomers(search);
+        model.addAttribute("page", page);
+        model.addAttribute("customers", page.getItems());
         return "customers";
     }
 
+    /**
+     * Affiche tous les clients en rendu Thymeleaf en flux : les lignes sont lues par un
+     * curseur JDBC et envoyées au navigateur par lots, sans construire la liste en mémoire.
+     *
+     * GET /employee/customers/all → vue "customers-all.html"
+     *
+     * @param request  La requête
+     * @param response La réponse
+     * @return La page, écrite au fil de la lecture des clients
+     */
+    @GetMapping("/customers/all")
+    public ResponseEntity<StreamingResponseBody> showAllCustomers(HttpServletRequest request,
+                                                                  HttpServletResponse response) {
+        return streamingTemplateRenderer.render("customers-all", Map.of(),
+                listExportService::streamCustomers, request, response);
+    }
+
     /**
      * Affiche le formulaire d'ajout d'un nouveau client.
      *
@@ -102,6 +145,10 @@ public class EmployeeController {
     public String addCustomer(@Valid @ModelAttribute("customer") AddCustomerDTO customerDTO,
                                BindingResult result) {
 
+        // Le NAS est la clé du client : un NAS déjà utilisé ferait échouer l'INSERT
+        if (!result.hasFieldErrors("sinCustomer") && customerService.customerExists(customerDTO.getSinCustomer())) {
+            result.rejectValue("sinCustomer", "customer.sinCustomer", "Un client existe déjà avec ce NAS.");
+        }
         if (result.hasErrors()) {
             // Erreurs de validation : réaffiche le formulaire avec les messages d'erreur
             return "add-customer-form";
@@ -120,7 +167,16 @@ public class EmployeeController {
         newCustomer.setCountry(customerDTO.getCountry());
 
         // Persiste le nouveau client en base de données
-        customerService.addCustomer(newCustomer);
+        try {
+            customerService.addCustomer(newCustomer);
+        } catch (DataIntegrityViolationException e) {
+            // Même NAS ajouté entre la vérification et l'INSERT ; toute autre erreur remonte
+            if (!SqlStates.is(e, SqlStates.UNIQUE_VIOLATION)) {
+                throw e;
+            }
+            result.rejectValue("sinCustomer", "customer.sinCustomer", "Un client existe déjà avec ce NAS.");
+            return "add-customer-form";
+        }
 
         // Redirige vers la liste des clients après ajout réussi
         return "redirect:/employee/customers";
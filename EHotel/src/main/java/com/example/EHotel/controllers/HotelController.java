@@ -8,9 +8,13 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
 // Imports des DTOs et modèles nécessaires
 import com.example.EHotel.dtos.CreateHotelDTO;
+import com.example.EHotel.dtos.ManagerOptionDTO;
 import com.example.EHotel.model.employee.Employee;
 import com.example.EHotel.model.hotel.Hotel;
 import com.example.EHotel.model.hotelchain.HotelChain;
@@ -18,6 +22,9 @@ import com.example.EHotel.model.hotelchain.HotelChain;
 import com.example.EHotel.services.EmployeeService;
 import com.example.EHotel.services.HotelChainService;
 import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.ReferenceDataService;
+import com.example.EHotel.services.TableVersionService.Table;
+import com.example.EHotel.web.ConditionalGet;
 
 import jakarta.validation.Valid;
 
@@ -37,6 +44,7 @@ import org.springframework.validation.BindingResult;
  *   POST /hotel/hotel/delete/{id} → Supprimer un hôtel par son ID
  *   GET  /hotel/hotel/update/{id} → Afficher le formulaire de modification
  *   POST /hotel/hotel/update/{id} → Traiter la soumission du formulaire de modification
+ *   GET  /hotel/managers        → Rechercher les gérants possibles (sélecteur, JSON)
  *
  * @Controller : déclare cette classe comme contrôleur Spring MVC (retourne des vues HTML)
  * @RequestMapping : définit le préfixe d'URL commun à toutes les routes de ce contrôleur
@@ -49,24 +57,37 @@ public class HotelController {
     @Autowired
     private HotelService hotelService;
 
-    /** Service de gestion des chaînes hôtelières (pour les listes déroulantes) */
+    /** Service de gestion des chaînes hôtelières (vérification de la chaîne choisie) */
     @Autowired
     private HotelChainService hotelChainService;
 
-    /** Service de gestion des employés (pour la sélection du gérant) */
+    /** Service de gestion des employés (vérification du gérant choisi) */
     @Autowired
     private EmployeeService employeeService;
 
+    /** Listes déroulantes des formulaires et recherche des gérants possibles */
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    /** GET conditionnel de la liste des hôtels (ETag) */
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     /**
      * Affiche la liste de tous les hôtels enregistrés dans le système.
      *
      * GET /hotel/hotels → vue "hotels.html"
+     * Répond 304 sans lire la base si la table hotel n'a pas changé depuis l'ETag du navigateur.
      *
-     * @param model Le modèle Spring MVC pour passer des données à la vue
-     * @return Le nom du template Thymeleaf à afficher ("hotels")
+     * @param model   Le modèle Spring MVC pour passer des données à la vue
+     * @param request La requête (en-tête If-None-Match)
+     * @return Le nom du template Thymeleaf à afficher ("hotels"), ou null si 304
      */
     @GetMapping("/hotels")
-    public String showsHotels(Model model) {
+    public String showsHotels(Model model, ServletWebRequest request) {
+        if (conditionalGet.notModified(request, "", Table.HOTEL)) {
+            return null;
+        }
         // Récupère tous les hôtels et les passe au template via le modèle
         List<Hotel> hotels = hotelService.getHotels();
         model.addAttribute("hotels", hotels);
@@ -77,21 +98,18 @@ public class HotelController {
      * Affiche le formulaire de création d'un nouvel hôtel.
      *
      * GET /hotel/hotel/add → vue "add-hotel-form.html"
-     * Pré-remplit les listes déroulantes avec les chaînes et employés disponibles.
+     * Pré-remplit la liste déroulante des chaînes ; le gérant est cherché par préfixe.
      *
      * @param model Le modèle Spring MVC
      * @return Le nom du template "add-hotel-form"
      */
     @GetMapping("/hotel/add")
     public String showAddHotelForm(Model model) {
-        // Charge toutes les chaînes hôtelières pour le sélecteur
-        List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-        // Charge tous les employés pour le sélecteur de gérant
-        List<Employee> employees = employeeService.getEmployees();
         // Crée un DTO vide pour lier le formulaire (Thymeleaf th:object)
-        model.addAttribute("hotel", new CreateHotelDTO());
-        model.addAttribute("hotelChains", hotelChains);
-        model.addAttribute("employees", employees);
+        CreateHotelDTO hotel = new CreateHotelDTO();
+        model.addAttribute("hotel", hotel);
+        // Chaînes pour le sélecteur (le gérant est cherché par le formulaire)
+        addFormLists(model, hotel);
 
         return "add-hotel-form";
     }
@@ -113,10 +131,7 @@ public class HotelController {
 
         // Si le formulaire contient des erreurs de validation, on réaffiche le formulaire
         if (result.hasErrors()) {
-            List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-            List<Employee> employees = employeeService.getEmployees();
-            model.addAttribute("hotelChains", hotelChains);
-            model.addAttribute("employees", employees);
+            addFormLists(model, hotel);
             return "add-hotel-form";
         }
 
@@ -129,10 +144,7 @@ public class HotelController {
 
         // Vérifie que la chaîne et le gérant existent réellement en BDD
         if (hotelChain == null || manager == null) {
-            List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-            List<Employee> employees = employeeService.getEmployees();
-            model.addAttribute("hotelChains", hotelChains);
-            model.addAttribute("employees", employees);
+            addFormLists(model, hotel);
             return "add-hotel-form";
         }
 
@@ -198,6 +210,7 @@ public class HotelController {
         hotelDTO.setIdHotel(existingHotel.getIdHotel());
         hotelDTO.setName(existingHotel.getName());
         hotelDTO.setRoomsNumber(existingHotel.getRoomsNumber());
+        hotelDTO.setDisplayedRoomsNumber(existingHotel.getRoomsNumber());
         hotelDTO.setStartNumber(existingHotel.getStartNumber());
         hotelDTO.setEmail(existingHotel.getEmail());
         hotelDTO.setStreetName(existingHotel.getStreetName());
@@ -207,13 +220,9 @@ public class HotelController {
         hotelDTO.setIdHotelChain(existingHotel.getHotelChain().getId());
         hotelDTO.setSinManager(existingHotel.getManager().getSinEmployee());
 
-        // Charge les listes pour les sélecteurs du formulaire
-        List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-        List<Employee> employees = employeeService.getEmployees();
-
         model.addAttribute("hotel", hotelDTO);
-        model.addAttribute("hotelChains", hotelChains);
-        model.addAttribute("employees", employees);
+        // Charge les listes pour les sélecteurs du formulaire
+        addFormLists(model, hotelDTO);
 
         return "update-hotel-form";
     }
@@ -239,10 +248,7 @@ public class HotelController {
     ) {
         // Si le formulaire contient des erreurs, on réaffiche le formulaire avec les erreurs
         if (result.hasErrors()) {
-            List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-            List<Employee> employees = employeeService.getEmployees();
-            model.addAttribute("hotelChains", hotelChains);
-            model.addAttribute("employees", employees);
+            addFormLists(model, hotel);
             return "update-hotel-form";
         }
 
@@ -256,16 +262,18 @@ public class HotelController {
         HotelChain hotelChain = hotelChainService.getHotelChain(hotel.getIdHotelChain());
         Employee manager = employeeService.getEmployee(hotel.getSinManager());
         if (hotelChain == null || manager == null) {
-            List<HotelChain> hotelChains = hotelChainService.getHotelChains();
-            List<Employee> employees = employeeService.getEmployees();
-            model.addAttribute("hotelChains", hotelChains);
-            model.addAttribute("employees", employees);
+            addFormLists(model, hotel);
             return "update-hotel-form";
         }
 
+        // Chambres ajoutées ou retirées par la saisie, par rapport au nombre affiché à l'ouverture
+        // du formulaire (à défaut, par rapport au nombre actuel)
+        int shownRooms = hotel.getDisplayedRoomsNumber() != null
+                ? hotel.getDisplayedRoomsNumber() : updatedHotel.getRoomsNumber();
+        int addedRooms = hotel.getRoomsNumber() - shownRooms;
+
         // Met à jour tous les champs de l'hôtel avec les nouvelles valeurs
         updatedHotel.setName(hotel.getName());
-        updatedHotel.setRoomsNumber(hotel.getRoomsNumber());
         updatedHotel.setStartNumber(hotel.getStartNumber());
         updatedHotel.setEmail(hotel.getEmail());
         updatedHotel.setStreetName(hotel.getStreetName());
@@ -276,10 +284,41 @@ public class HotelController {
         updatedHotel.setManager(manager);
 
         // Persiste les modifications en base de données
-        hotelService.updateHotel(updatedHotel);
+        hotelService.updateHotel(updatedHotel, addedRooms);
 
         return "redirect:/hotel/hotels";
     }
 
+    /**
+     * Recherche les gérants possibles d'un hôtel, pour le sélecteur des formulaires d'hôtel.
+     *
+     * GET /hotel/managers?q=…[&idHotel=…][&idHotelChain=…] → tableau JSON de ManagerOptionDTO
+     * Le début saisi est comparé au prénom, au nom et au NAS des employés de rôle "Manager"
+     * (et des gérants actuels), dans l'index en mémoire des données de référence.
+     *
+     * @param q            Le début saisi (vide : les premiers gérants par nom)
+     * @param idHotel      Seulement les employés de cet hôtel (optionnel)
+     * @param idHotelChain Seulement les employés d'un hôtel de cette chaîne (optionnel)
+     * @return Au plus 20 gérants possibles
+     */
+    @GetMapping("/managers")
+    @ResponseBody
+    public List<ManagerOptionDTO> searchManagers(@RequestParam(name = "q", required = false) String q,
+                                                 @RequestParam(name = "idHotel", required = false) Integer idHotel,
+                                                 @RequestParam(name = "idHotelChain", required = false) Integer idHotelChain) {
+        return referenceDataService.findManagers(q, idHotel, idHotelChain);
+    }
 
+    /**
+     * Ajoute au modèle les listes des sélecteurs des formulaires d'hôtel, tirées des données
+     * de référence en mémoire (aucune requête tant que les hôtels et employés n'ont pas changé) :
+     * les chaînes, et le seul gérant déjà choisi (les autres sont cherchés par le formulaire).
+     *
+     * @param model Le modèle Spring MVC
+     * @param hotel Le formulaire affiché
+     */
+    private void addFormLists(Model model, CreateHotelDTO hotel) {
+        model.addAttribute("hotelChains", referenceDataService.get().getChains());
+        model.addAttribute("selectedManager", referenceDataService.getManager(hotel.getSinManager()));
+    }
 }
@@ -5,15 +5,20 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 // Import du DTO pour la gestion des employés
 import com.example.EHotel.dtos.AddEmployeeDTO;
+import com.example.EHotel.dtos.ReferenceData;
 // Imports des modèles nécessaires
 import com.example.EHotel.model.employee.Employee;
 import com.example.EHotel.model.hotel.Hotel;
 // Imports des services nécessaires
 import com.example.EHotel.services.EmployeeService;
 import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.ReferenceDataService;
+import com.example.EHotel.services.TableVersionService.Table;
+import com.example.EHotel.web.ConditionalGet;
 
 import jakarta.validation.Valid;
 
@@ -46,10 +51,18 @@ public class ManagerController {
     @Autowired
     private EmployeeService employeeService;
 
-    /** Service de gestion des hôtels (pour la sélection de l'hôtel d'affectation) */
+    /** Service de gestion des hôtels (lecture de l'hôtel d'affectation choisi) */
     @Autowired
     private HotelService hotelService;
 
+    /** Listes déroulantes des formulaires (hôtels, rôles) */
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    /** GET conditionnel de la liste des employés (ETag) */
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     /**
      * Affiche la page d'accueil du portail gérant.
      *
@@ -66,12 +79,17 @@ public class ManagerController {
      * Affiche la liste de tous les employés enregistrés dans le système.
      *
      * GET /manager/employees → vue "employees.html"
+     * Répond 304 sans lire la base si les employés et les hôtels n'ont pas changé.
      *
-     * @param model Le modèle Spring MVC
-     * @return Le template "employees"
+     * @param model   Le modèle Spring MVC
+     * @param request La requête (en-tête If-None-Match)
+     * @return Le template "employees", ou null si 304
      */
     @GetMapping("/employees")
-    public String showsEmployees(Model model) {
+    public String showsEmployees(Model model, ServletWebRequest request) {
+        if (conditionalGet.notModified(request, "", Table.EMPLOYEE, Table.HOTEL)) {
+            return null;
+        }
         List<Employee> employees = employeeService.getEmployees();
         model.addAttribute("employees", employees);
         return "employees";
@@ -81,18 +99,17 @@ public class ManagerController {
      * Affiche le formulaire d'ajout d'un nouvel employé.
      *
      * GET /manager/employee/add → vue "add-employee-form.html"
-     * Charge la liste des hôtels pour le sélecteur d'affectation.
+     * Les sélecteurs (hôtel d'affectation, rôle) viennent des données de référence en mémoire.
      *
      * @param model Le modèle Spring MVC
      * @return Le template "add-employee-form"
      */
     @GetMapping("/employee/add")
     public String showAddEmployeeForm(Model model) {
-        // Charge tous les hôtels pour le sélecteur d'hôtel d'affectation
-        List<Hotel> hotels = hotelService.getHotels();
         // Crée un DTO vide pour le formulaire
         model.addAttribute("employee", new AddEmployeeDTO());
-        model.addAttribute("hotels", hotels);
+        // Hôtels d'affectation et rôles pour les sélecteurs
+        addFormLists(model);
         return "add-employee-form";
     }
 
@@ -112,9 +129,8 @@ public class ManagerController {
                                BindingResult result, Model model) {
 
         if (result.hasErrors()) {
-            // Erreurs de validation : recharge la liste des hôtels et réaffiche le formulaire
-            List<Hotel> hotels = hotelService.getHotels();
-            model.addAttribute("hotels", hotels);
+            // Erreurs de validation : réaffiche le formulaire avec ses sélecteurs
+            addFormLists(model);
             return "add-employee-form";
         }
 
@@ -185,9 +201,8 @@ public class ManagerController {
         employeeDTO.setPostalCode(existingEmployee.getPostalCode());
         employeeDTO.setCountry(existingEmployee.getCountry());
 
-        List<Hotel> hotels = hotelService.getHotels();
         model.addAttribute("employee", employeeDTO);
-        model.addAttribute("hotels", hotels);
+        addFormLists(model);
         return "update-employee-form";
     }
 
@@ -211,8 +226,7 @@ public class ManagerController {
             Model model
     ) {
         if (result.hasErrors()) {
-            List<Hotel> hotels = hotelService.getHotels();
-            model.addAttribute("hotels", hotels);
+            addFormLists(model);
             return "update-employee-form";
         }
 
@@ -224,8 +238,7 @@ public class ManagerController {
         // Récupère le nouvel hôtel d'affectation depuis la BDD
         Hotel hotel = hotelService.getHotel(employeeDTO.getIdHotel());
         if (hotel == null) {
-            List<Hotel> hotels = hotelService.getHotels();
-            model.addAttribute("hotels", hotels);
+            addFormLists(model);
             return "update-employee-form";
         }
 
@@ -247,4 +260,15 @@ public class ManagerController {
         return "redirect:/manager/employees";
     }
 
+    /**
+     * Ajoute au modèle les listes des sélecteurs des formulaires d'employé, tirées des données
+     * de référence en mémoire (aucune requête tant que les hôtels n'ont pas changé).
+     *
+     * @param model Le modèle Spring MVC
+     */
+    private void addFormLists(Model model) {
+        ReferenceData referenceData = referenceDataService.get();
+        model.addAttribute("hotels", referenceData.getHotels());
+        model.addAttribute("roles", referenceData.getRoles());
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.EHotel.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Contrôleur de la page "service surchargé".
+ *
+ * Route : /overloaded (toutes méthodes), atteinte uniquement par redirection interne (forward)
+ * depuis AdmissionControlFilter lorsqu'une requête est refusée par le contrôle d'admission.
+ * La requête d'origine peut être un POST : le forward conserve la méthode HTTP.
+ */
+@Controller
+public class OverloadController {
+
+    /**
+     * Affiche la page invitant l'utilisateur à réessayer.
+     *
+     * @return Le template "overloaded" (statut 503, l'en-tête Retry-After est posé par le filtre)
+     */
+    @RequestMapping("/overloaded")
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String showOverloaded() {
+        return "overloaded";
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.EHotel.controllers;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -9,16 +12,26 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-// Import du DTO pour la saisie d'un paiement
+// Imports des DTOs (saisie d'un paiement, page de liste, ses filtres et ses lignes)
 import com.example.EHotel.dtos.AddPaymentDTO;
+import com.example.EHotel.dtos.KeysetPage;
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.PaymentRowDTO;
 // Imports des modèles nécessaires
 import com.example.EHotel.model.hotel.Payment;
 import com.example.EHotel.model.hotel.Rental;
 // Imports des services nécessaires
+import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.ListExportService;
 import com.example.EHotel.services.PaymentService;
 import com.example.EHotel.services.RentalService;
+// Rendu en flux des listes complètes
+import com.example.EHotel.web.StreamingTemplateRenderer;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -30,7 +43,8 @@ import jakarta.validation.Valid;
  * Le personnel de l'hôtel accède à ce contrôleur depuis la liste des locations (/booking/rentals).
  *
  * Routes disponibles :
- *   GET  /payment/payments  → Afficher l'historique de tous les paiements
+ *   GET  /payment/payments  → Afficher une page de l'historique des paiements (filtres, pagination par clé)
+ *   GET  /payment/payments/all → Afficher tout l'historique (rendu en flux)
  *   GET  /payment/add/{id}  → Formulaire d'enregistrement d'un paiement pour une location
  *   POST /payment/add/{id}  → Traiter l'enregistrement du paiement
  */
@@ -46,21 +60,54 @@ public class PaymentController {
     @Autowired
     private RentalService rentalService;
 
+    /** Lecture en flux de l'historique complet */
+    @Autowired
+    private ListExportService listExportService;
+
+    /** Rendu Thymeleaf en flux des listes complètes */
+    @Autowired
+    private StreamingTemplateRenderer streamingTemplateRenderer;
+
+    /** Service de gestion des hôtels (filtre de l'historique) */
+    @Autowired
+    private HotelService hotelService;
+
     /**
-     * Affiche l'historique complet de tous les paiements enregistrés.
+     * Affiche une page de l'historique des paiements, filtrée, du plus récent au plus ancien.
      *
-     * GET /payment/payments → vue "payments.html"
+     * GET /payment/payments?idHotel=&sinCustomer=&status=&from=&to=&afterDate=&afterId= → vue "payments.html"
      *
-     * @param model Le modèle Spring MVC
+     * @param filter Les filtres et la position de la page (paramètres de l'URL)
+     * @param model  Le modèle Spring MVC
      * @return Le template "payments"
      */
     @GetMapping("/payments")
-    public String showPayments(Model model) {
-        // Récupère tous les paiements et les passe au template
-        model.addAttribute("payments", paymentService.getPayments());
+    public String showPayments(@ModelAttribute("filter") ListFilterDTO filter, Model model) {
+        // Récupère la page demandée et la passe au template avec la position de la page suivante
+        KeysetPage<PaymentRowDTO> page = paymentService.getPayments(filter);
+        model.addAttribute("page", page);
+        model.addAttribute("payments", page.getItems());
+        model.addAttribute("hotels", hotelService.getHotelOptions());
         return "payments";
     }
 
+    /**
+     * Affiche tout l'historique des paiements, sans pagination, en rendu Thymeleaf en flux :
+     * les lignes sont lues par un curseur JDBC et envoyées au navigateur par lots.
+     *
+     * GET /payment/payments/all → vue "payments-all.html"
+     *
+     * @param request  La requête
+     * @param response La réponse
+     * @return La page, écrite au fil de la lecture des paiements
+     */
+    @GetMapping("/payments/all")
+    public ResponseEntity<StreamingResponseBody> showAllPayments(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        return streamingTemplateRenderer.render("payments-all", Map.of(),
+                listExportService::streamPayments, request, response);
+    }
+
     /**
      * Affiche le formulaire d'enregistrement d'un paiement pour une location spécifique.
      *
@@ -1,8 +1,10 @@
 package com.example.EHotel.controllers;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -10,24 +12,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 // Imports des DTOs utilisés
 import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.BookingResultDTO;
 import com.example.EHotel.dtos.CreateRoomDTO;
+import com.example.EHotel.dtos.HotelOptionDTO;
+import com.example.EHotel.dtos.ReferenceData;
 import com.example.EHotel.dtos.RoomSearchByIdHotel;
 import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
+import com.example.EHotel.dtos.WaitlistDTO;
 // Imports des modèles nécessaires
-import com.example.EHotel.model.customer.Customer;
-import com.example.EHotel.model.hotel.Booking;
 import com.example.EHotel.model.hotel.Hotel;
 import com.example.EHotel.model.hotel.Room;
 // Imports des services utilisés
 import com.example.EHotel.services.BookingService;
-import com.example.EHotel.services.CustomerService;
 import com.example.EHotel.services.HotelService;
+import com.example.EHotel.services.ReferenceDataService;
 import com.example.EHotel.services.RoomService;
+import com.example.EHotel.services.SqlStates;
+import com.example.EHotel.services.WaitlistService;
 
+import jakarta.persistence.PersistenceException;
 import jakarta.validation.Valid;
 
 /**
@@ -42,6 +51,9 @@ import jakarta.validation.Valid;
  *   GET  /room/select/{id}     → Rediriger vers le formulaire de réservation d'une chambre
  *   GET  /room/book/{idRoom}   → Afficher le formulaire de réservation pour une chambre
  *   POST /room/booking         → Traiter la soumission du formulaire de réservation
+ *   POST /room/booking/bulk    → Réservation groupée (JSON, agences de voyage)
+ *   GET  /room/waitlist        → Afficher le formulaire d'inscription en liste d'attente
+ *   POST /room/waitlist        → Inscrire le client en liste d'attente
  *   GET  /room/list/{idHotel}  → Afficher toutes les chambres d'un hôtel
  *   POST /room/delete/{id}     → Supprimer une chambre
  *   GET  /room/update/{id}     → Afficher le formulaire de modification d'une chambre
@@ -57,18 +69,22 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
-    /** Service de gestion des clients (pour vérifier/créer le client lors d'une réservation) */
-    @Autowired
-    private CustomerService customerService;
-
-    /** Service de gestion des réservations (ajout d'un Booking) */
+    /** Service de gestion des réservations (ajout d'un Booking, upsert du client) */
     @Autowired
     private BookingService bookingService;
 
-    /** Service de gestion des hôtels (pour la sélection d'hôtel) */
+    /** Service de gestion des hôtels (lecture de l'hôtel choisi) */
     @Autowired
     private HotelService hotelService;
 
+    /** Listes déroulantes des formulaires (hôtels, chaînes, capacités, vues) */
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    /** Service de liste d'attente (inscription lorsqu'aucune chambre n'est disponible) */
+    @Autowired
+    private WaitlistService waitlistService;
+
     /**
      * Affiche le formulaire de recherche de chambres disponibles.
      *
@@ -82,6 +98,7 @@ public class RoomController {
     public String showSearchForm(Model model) {
         // Crée un DTO vide pour initialiser le formulaire de recherche
         model.addAttribute("criteria", new RoomSearchCriteriaDTO());
+        addSearchLists(model);
         return "search";
     }
 
@@ -100,6 +117,7 @@ public class RoomController {
     public String searchRooms(@Valid @ModelAttribute("criteria") RoomSearchCriteriaDTO criteria,
                                Model model, BindingResult bindingResult) {
 
+        addSearchLists(model);
         // Si les critères contiennent des erreurs, réaffiche le formulaire sans résultats
         if (bindingResult.hasErrors()) {
             return "search";
@@ -158,6 +176,8 @@ public class RoomController {
      * POST /room/booking
      * Crée le client s'il n'existe pas, puis crée la réservation.
      * Implémente la logique "upsert client" : si le NAS existe, on utilise le client existant.
+     * Le tout est délégué à BookingService.bookRoom(), qui n'émet qu'un INSERT ... ON CONFLICT
+     * pour le client et un INSERT pour la réservation.
      *
      * @param bookingDTO    Les données de réservation soumises (NAS, dates, adresse, etc.)
      * @param bindingResult Résultat de la validation Bean Validation
@@ -173,47 +193,100 @@ public class RoomController {
             return "booking-form";
         }
 
-        // Vérifie que la chambre sélectionnée existe toujours en base
-        Room room = roomService.findRoomById(bookingDTO.getIdRoom());
-        if (room == null) {
-            bindingResult.rejectValue("idRoom", "booking.idRoom", "La chambre sélectionnée est introuvable.");
+        try {
+            // Upsert du client et création de la réservation (la chambre est vérifiée par la base)
+            bookingService.bookRoom(bookingDTO);
+        } catch (DataAccessException | PersistenceException e) {
+            // Seul le refus du trigger check_room_availability (introuvable ou indisponible)
+            // concerne la chambre ; toute autre erreur remonte
+            if (!SqlStates.is(e, SqlStates.ROOM_UNAVAILABLE)) {
+                throw e;
+            }
+            bindingResult.rejectValue("idRoom", "booking.idRoom", "La chambre sélectionnée est introuvable ou n'est plus disponible.");
             return "booking-form";
         }
 
-        // Vérifie si le client existe déjà en base (recherche par NAS)
-        Customer existingCustomer = customerService.getCustomer(bookingDTO.getSinCustomer());
-
-        // Logique "upsert" : si le client n'existe pas, on le crée automatiquement
-        Customer customer = existingCustomer;
-        if (customer == null) {
-            // Crée un nouveau client avec les informations saisies dans le formulaire
-            customer = new Customer(
-                bookingDTO.getSinCustomer(),
-                bookingDTO.getFirstname(),
-                bookingDTO.getLastname(),
-                bookingDTO.getCheckInDate(),
-                bookingDTO.getStreetNumber(),
-                bookingDTO.getStreetName(),
-                bookingDTO.getCity(),
-                bookingDTO.getPostalCode(),
-                bookingDTO.getCountry()
-            );
-            // Persiste le nouveau client en base de données
-            customerService.addCustomer(customer);
+        // Redirige vers la page de recherche après réservation réussie
+        return "redirect:/room/search";
+    }
+
+    /**
+     * Traite une réservation groupée envoyée en JSON (agences de voyage, groupes).
+     *
+     * POST /room/booking/bulk
+     * Corps : tableau JSON de BookingDTO. Réponse : tableau JSON de BookingResultDTO,
+     * un résultat par élément et dans le même ordre, indiquant le succès ou la raison du refus.
+     *
+     * Les éléments invalides ou indisponibles sont refusés individuellement ; les autres
+     * sont enregistrés ensemble. Si la base rejette malgré tout l'écriture du lot
+     * (ex : réservation concurrente sur la même chambre), la transaction est annulée
+     * et tous les éléments acceptés sont signalés en échec.
+     *
+     * @param bookings Les réservations à créer
+     * @return Le résultat de chaque réservation
+     */
+    @PostMapping("/booking/bulk")
+    @ResponseBody
+    public List<BookingResultDTO> bookRooms(@RequestBody List<BookingDTO> bookings) {
+        try {
+            return bookingService.addBookings(bookings);
+        } catch (DataAccessException | PersistenceException e) {
+            // Chambre prise entre la validation et l'écriture (trigger check_room_availability) :
+            // la transaction du lot a été annulée, aucune réservation n'a été enregistrée.
+            // Toute autre erreur remonte
+            if (!SqlStates.is(e, SqlStates.ROOM_UNAVAILABLE)) {
+                throw e;
+            }
+            List<BookingResultDTO> results = new ArrayList<>(bookings.size());
+            for (int i = 0; i < bookings.size(); i++) {
+                results.add(BookingResultDTO.failure(i,
+                        "Le lot a été annulé : une chambre a été réservée entre-temps."));
+            }
+            return results;
         }
+    }
 
-        // Crée l'objet Booking liant le client à la chambre sur les dates spécifiées
-        Booking booking = new Booking(
-            customer,
-            room,
-            bookingDTO.getStartDate(),
-            bookingDTO.getEndDate()
-        );
+    /**
+     * Affiche le formulaire d'inscription en liste d'attente.
+     *
+     * GET /room/waitlist → vue "waitlist-form.html"
+     * Appelé depuis la page de recherche lorsqu'aucune chambre n'est disponible :
+     * les critères de la recherche (dates, capacité, prix, chaîne) sont passés en paramètres
+     * et pré-remplissent le formulaire.
+     *
+     * @param waitlist Les critères de recherche repris (liés depuis les paramètres de l'URL)
+     * @param model    Le modèle Spring MVC
+     * @return Le template "waitlist-form"
+     */
+    @GetMapping("/waitlist")
+    public String showWaitlistForm(@ModelAttribute("waitlist") WaitlistDTO waitlist, Model model) {
+        addSearchLists(model);
+        model.addAttribute("hotels", referenceDataService.get().getHotels());
+        return "waitlist-form";
+    }
 
-        // Persiste la réservation en base de données
-        bookingService.addBooking(booking);
+    /**
+     * Traite l'inscription en liste d'attente.
+     *
+     * POST /room/waitlist
+     * Crée le client s'il n'existe pas, puis enregistre la demande. Dès qu'une chambre
+     * correspondante se libère, la demande est promue automatiquement en réservation.
+     *
+     * @param waitlist      Les données du formulaire (validées)
+     * @param bindingResult Résultat de la validation Bean Validation
+     * @param model         Le modèle Spring MVC
+     * @return Redirection vers la page de recherche après succès, ou le formulaire si erreur
+     */
+    @PostMapping("/waitlist")
+    public String joinWaitlist(@Valid @ModelAttribute("waitlist") WaitlistDTO waitlist,
+                               BindingResult bindingResult, Model model) {
+        if (bindingResult.hasErrors()) {
+            addSearchLists(model);
+            model.addAttribute("hotels", referenceDataService.get().getHotels());
+            return "waitlist-form";
+        }
 
-        // Redirige vers la page de recherche après réservation réussie
+        waitlistService.join(waitlist);
         return "redirect:/room/search";
     }
 
@@ -231,8 +304,8 @@ public class RoomController {
     public String listRooms(@PathVariable("idHotel") int idHotel, Model model) {
         // Récupère toutes les chambres de l'hôtel sélectionné
         List<Room> rooms = roomService.findRoomsByHotelId(idHotel);
-        // Récupère tous les hôtels pour le sélecteur permettant de changer d'hôtel
-        List<Hotel> hotels = hotelService.getHotels();
+        // Hôtels du sélecteur permettant de changer d'hôtel (données de référence en mémoire)
+        List<HotelOptionDTO> hotels = referenceDataService.get().getHotels();
         // Crée un DTO pré-sélectionné avec l'hôtel actuel pour le sélecteur
         RoomSearchByIdHotel roomSearch = new RoomSearchByIdHotel();
         roomSearch.setHotelId(idHotel);
@@ -285,6 +358,7 @@ public class RoomController {
 
         // Passe la chambre existante au formulaire pour pré-remplissage
         model.addAttribute("room", existingRoom);
+        addRoomLists(model);
         return "update-room-form";
     }
 
@@ -293,31 +367,33 @@ public class RoomController {
      *
      * POST /room/update/{id}
      * Met à jour les champs modifiables de la chambre (sans changer l'hôtel associé).
+     * Le formulaire renvoie la version de la chambre qu'il affichait : si la chambre a été
+     * modifiée entre-temps (autre gestionnaire, réservation), le formulaire est réaffiché
+     * avec les valeurs actuelles au lieu d'écraser cette modification.
      *
-     * @param id   L'identifiant de la chambre à modifier (extrait de l'URL)
-     * @param room L'objet Room contenant les nouvelles valeurs (depuis le formulaire)
-     * @return Redirection vers la liste des chambres de l'hôtel parent
+     * @param id    L'identifiant de la chambre à modifier (extrait de l'URL)
+     * @param room  L'objet Room contenant les nouvelles valeurs et la version (depuis le formulaire)
+     * @param model Le modèle Spring MVC
+     * @return Redirection vers la liste des chambres de l'hôtel parent, ou le formulaire en cas de conflit
      */
     @PostMapping("/update/{id}")
-    public String updateRoom(@PathVariable("id") int id, @ModelAttribute("room") Room room) {
-        Room updatedRoom = roomService.findRoomById(id);
-        if (updatedRoom == null || updatedRoom.getHotel() == null) {
+    public String updateRoom(@PathVariable("id") int id, @ModelAttribute("room") Room room, Model model) {
+        Room existingRoom = roomService.findRoomById(id);
+        if (existingRoom == null || existingRoom.getHotel() == null) {
             return "redirect:/room/list/1";
         }
 
         // Mémorise l'ID de l'hôtel pour la redirection après mise à jour
-        int hotelId = updatedRoom.getHotel().getIdHotel();
-
-        // Met à jour uniquement les champs modifiables (l'hôtel associé reste inchangé)
-        updatedRoom.setRoomNumber(room.getRoomNumber());
-        updatedRoom.setAvailability(room.getAvailability());
-        updatedRoom.setPrice(room.getPrice());
-        updatedRoom.setView(room.getView());
-        updatedRoom.setExtensible(room.getExtensible());
-        updatedRoom.setCapacity(room.getCapacity());
-
-        // Persiste les modifications en base de données
-        roomService.updateRoom(updatedRoom);
+        int hotelId = existingRoom.getHotel().getIdHotel();
+
+        // Met à jour uniquement les champs modifiables, si la version n'a pas changé
+        if (!roomService.updateRoom(id, room)) {
+            // Conflit : réaffiche le formulaire avec les valeurs (et la version) actuelles
+            model.addAttribute("room", roomService.findRoomById(id));
+            model.addAttribute("conflict", true);
+            addRoomLists(model);
+            return "update-room-form";
+        }
         return "redirect:/room/list/" + hotelId;
     }
 
@@ -325,16 +401,16 @@ public class RoomController {
      * Affiche le formulaire d'ajout d'une nouvelle chambre.
      *
      * GET /room/add → vue "add-room-form.html"
-     * Charge la liste des hôtels pour le sélecteur.
+     * Les sélecteurs (hôtel, capacité, vue) viennent des données de référence en mémoire.
      *
      * @param model Le modèle Spring MVC
      * @return Le template "add-room-form"
      */
     @GetMapping("/add")
     public String showAddRoomForm(Model model) {
-        // Charge tous les hôtels pour le sélecteur d'affectation de la chambre
-        List<Hotel> hotels = hotelService.getHotels();
-        model.addAttribute("hotels", hotels);
+        // Hôtels d'affectation, capacités et vues pour les sélecteurs
+        addRoomLists(model);
+        model.addAttribute("hotels", referenceDataService.get().getHotels());
         // Crée un DTO vide pour le formulaire
         model.addAttribute("room", new CreateRoomDTO());
 
@@ -356,9 +432,9 @@ public class RoomController {
     public String addRoom(@Valid @ModelAttribute("room") CreateRoomDTO roomInfo,
                            BindingResult bindingResult, Model model) {
         if (bindingResult.hasErrors()) {
-            // Recharge la liste des hôtels pour le sélecteur
-            List<Hotel> hotels = hotelService.getHotels();
-            model.addAttribute("hotels", hotels);
+            // Recharge les listes des sélecteurs
+            addRoomLists(model);
+            model.addAttribute("hotels", referenceDataService.get().getHotels());
             return "add-room-form";
         }
 
@@ -368,8 +444,8 @@ public class RoomController {
         if (hotel == null) {
             // L'hôtel sélectionné n'existe pas
             bindingResult.rejectValue("idHotel", "room.idHotel", "L'hôtel sélectionné est introuvable.");
-            List<Hotel> hotels = hotelService.getHotels();
-            model.addAttribute("hotels", hotels);
+            addRoomLists(model);
+            model.addAttribute("hotels", referenceDataService.get().getHotels());
             return "add-room-form";
         }
 
@@ -391,4 +467,26 @@ public class RoomController {
         return "redirect:/room/list/" + hotel.getIdHotel();
     }
 
+    /**
+     * Ajoute au modèle les listes des formulaires de recherche et de liste d'attente
+     * (chaînes, capacités), tirées des données de référence en mémoire.
+     *
+     * @param model Le modèle Spring MVC
+     */
+    private void addSearchLists(Model model) {
+        ReferenceData referenceData = referenceDataService.get();
+        model.addAttribute("hotelChains", referenceData.getChains());
+        model.addAttribute("capacities", referenceData.getCapacities());
+    }
+
+    /**
+     * Ajoute au modèle les listes des formulaires de chambre (capacités, vues).
+     *
+     * @param model Le modèle Spring MVC
+     */
+    private void addRoomLists(Model model) {
+        ReferenceData referenceData = referenceDataService.get();
+        model.addAttribute("capacities", referenceData.getCapacities());
+        model.addAttribute("views", referenceData.getViews());
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.EHotel.datasource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Source de données JDBC de l'application (pool Hikari), déclarée explicitement.
+ *
+ * La configuration automatique de Spring Boot ne crée pas de DataSource dès qu'une
+ * ConnectionFactory R2DBC existe (chemin réactif, spring.r2dbc.*) : JPA, les JdbcTemplate
+ * et les dépôts Spring Data n'auraient alors plus de base. Ce bean reprend exactement ce
+ * qu'elle aurait créé : propriétés spring.datasource.* et spring.datasource.hikari.*.
+ *
+ * Le bean s'appelle "dataSource", nom attendu par ReplicaDataSourcePostProcessor.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class JdbcDataSourceConfiguration {
+
+    /**
+     * @param properties Les propriétés spring.datasource.* (URL, identifiants)
+     * @return Le pool Hikari, configuré par spring.datasource.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
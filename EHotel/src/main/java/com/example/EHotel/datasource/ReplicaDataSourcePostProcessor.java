@@ -0,0 +1,79 @@
+package com.example.EHotel.datasource;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Ajoute un réplica en lecture seule à la source de données de l'application.
+ *
+ * Actif si ehotel.replica.enabled=true. La DataSource configurée par Spring Boot
+ * (spring.datasource.*, pool Hikari) reste la source primaire ; elle est remplacée, pour
+ * JPA comme pour les JdbcTemplate, par :
+ *
+ *   LazyConnectionDataSourceProxy → ReplicaRoutingDataSource → primaire | réplica
+ *
+ * Le réplica a son propre pool Hikari (ehotel.replica.url, username, password, pool-size),
+ * en lecture seule. Sans réplica, la DataSource de Spring Boot est utilisée telle quelle.
+ */
+@Component
+@ConditionalOnProperty(name = "ehotel.replica.enabled", havingValue = "true")
+public class ReplicaDataSourcePostProcessor implements BeanPostProcessor, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSourcePostProcessor.class);
+
+    /** Configuration du réplica (lue directement : un BeanPostProcessor est créé très tôt) */
+    private final Environment environment;
+
+    /** Pool primaire : enveloppé, il n'est plus fermé par Spring (voir destroy()) */
+    private HikariDataSource primary;
+
+    /** Pool du réplica, fermé avec le contexte */
+    private HikariDataSource replica;
+
+    /**
+     * @param environment L'environnement Spring (propriétés ehotel.replica.*)
+     */
+    public ReplicaDataSourcePostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource hikari) || !"dataSource".equals(beanName)) {
+            return bean;
+        }
+        primary = hikari;
+        replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(environment.getRequiredProperty("ehotel.replica.url"));
+        replica.setUsername(environment.getProperty("ehotel.replica.username", primary.getUsername()));
+        replica.setPassword(environment.getProperty("ehotel.replica.password", primary.getPassword()));
+        replica.setMaximumPoolSize(environment.getProperty("ehotel.replica.pool-size", Integer.class,
+                primary.getMaximumPoolSize()));
+        replica.setReadOnly(true);
+        log.info("Réplica en lecture seule : {} (transactions readOnly)", replica.getJdbcUrl());
+
+        DataSource routing = new ReplicaRoutingDataSource(primary, replica);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void destroy() {
+        if (replica != null) {
+            replica.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.EHotel.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Source de données qui route les transactions en lecture seule vers le réplica.
+ *
+ * Chaque connexion est prise sur le primaire, sauf si la transaction courante est en lecture
+ * seule (ReadOnlyTransactional, TransactionTemplate.setReadOnly) et que le thread n'est pas
+ * dans une fenêtre read-your-writes (requirePrimary, posé par ReadYourWritesFilter après une
+ * écriture de l'utilisateur). Hors transaction (démarrage, tâches sans transaction), le
+ * primaire est utilisé.
+ *
+ * Le choix se fait à l'obtention de la connexion : la source doit être enveloppée dans un
+ * LazyConnectionDataSourceProxy, qui ne la demande qu'à la première instruction, une fois
+ * la transaction déclarée en lecture seule (JpaTransactionManager ouvre la connexion avant
+ * de publier ce statut).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** Clé de la source primaire (lectures et écritures) */
+    static final String PRIMARY = "primary";
+
+    /** Clé du réplica (transactions en lecture seule) */
+    static final String REPLICA = "replica";
+
+    /** Fenêtre read-your-writes du thread courant : toutes les lectures vont au primaire */
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    /**
+     * @param primary La source primaire
+     * @param replica Le réplica en lecture seule
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Force (ou non) le primaire pour toutes les connexions du thread courant.
+     * À remettre à false en fin de requête.
+     *
+     * @param required true pendant la fenêtre read-your-writes de l'utilisateur
+     */
+    public static void requirePrimary(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && PRIMARY_REQUIRED.get() == null ? REPLICA : PRIMARY;
+    }
+}
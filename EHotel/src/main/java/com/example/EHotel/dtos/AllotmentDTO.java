@@ -0,0 +1,76 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations de validation Jakarta (Bean Validation)
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) pour la création d'un bloc de chambres de groupe (/allotment/add).
+ *
+ * Un bloc retient roomsCount chambres de la capacité demandée dans un hôtel, sur toutes
+ * les nuits du startDate au endDate (inclus). Les participants prennent leurs chambres
+ * dans le bloc jusqu'au cutoffDate ; les chambres restantes sont ensuite libérées.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllotmentDTO {
+
+    /** Nom du groupe ou de l'événement (2 à 100 caractères) */
+    @NotNull
+    @Size(min = 2, max = 100)
+    private String name;
+
+    /** Hôtel dans lequel les chambres sont retenues */
+    @NotNull
+    private Integer idHotel;
+
+    /** Capacité des chambres retenues (Simple, Double, ...) */
+    @NotNull
+    private String capacity;
+
+    /** Nombre de chambres à retenir (minimum 1) */
+    @NotNull
+    @Min(1)
+    private Integer roomsCount;
+
+    /** Première nuit du bloc */
+    @NotNull
+    @FutureOrPresent
+    private LocalDate startDate;
+
+    /** Dernière nuit du bloc */
+    @NotNull
+    private LocalDate endDate;
+
+    /** Date limite de prise des chambres (au plus tard la première nuit) */
+    @NotNull
+    @FutureOrPresent
+    private LocalDate cutoffDate;
+
+    /**
+     * Validation croisée : la date de fin suit la date de début et la date limite la précède.
+     *
+     * @return true si les dates sont cohérentes
+     */
+    @AssertTrue(message = "Les dates doivent respecter : date limite <= début <= fin.")
+    public boolean isDateRangeValid() {
+        if (startDate == null || endDate == null || cutoffDate == null) {
+            return true;
+        }
+        return !endDate.isBefore(startDate) && !cutoffDate.isAfter(startDate);
+    }
+}
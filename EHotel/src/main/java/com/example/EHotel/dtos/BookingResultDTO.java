@@ -0,0 +1,56 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) décrivant le résultat d'une réservation au sein d'un lot.
+ *
+ * Ce DTO est renvoyé en JSON par la réservation groupée (POST /room/booking/bulk).
+ * Chaque élément du lot reçoit son propre résultat, dans le même ordre que la requête :
+ *   - success = true  : la réservation a été créée (idBooking est renseigné)
+ *   - success = false : la réservation a été refusée (message explique pourquoi)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResultDTO {
+
+    /** Position de la réservation dans le lot reçu (à partir de 0) */
+    private int index;
+
+    /** true si la réservation a été enregistrée, false sinon */
+    private boolean success;
+
+    /** Identifiant de la réservation créée (null en cas d'échec) */
+    private Integer idBooking;
+
+    /** Raison du refus (null en cas de succès) */
+    private String message;
+
+    /**
+     * Construit le résultat d'une réservation acceptée.
+     *
+     * @param index     Position de la réservation dans le lot
+     * @param idBooking Identifiant de la réservation créée
+     * @return Le résultat de succès
+     */
+    public static BookingResultDTO success(int index, Integer idBooking) {
+        return new BookingResultDTO(index, true, idBooking, null);
+    }
+
+    /**
+     * Construit le résultat d'une réservation refusée.
+     *
+     * @param index   Position de la réservation dans le lot
+     * @param message Raison du refus
+     * @return Le résultat d'échec
+     */
+    public static BookingResultDTO failure(int index, String message) {
+        return new BookingResultDTO(index, false, null, message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) représentant une réservation future déplaçable d'une chambre à une autre.
+ *
+ * Projection légère construite par BookingRepository.findMovable() pour l'optimiseur
+ * d'affectation des chambres (RoomAssignmentService) : seuls l'identifiant, le client,
+ * la chambre actuelle et les dates sont chargés.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSlotDTO {
+
+    /** Identifiant de la réservation */
+    private Integer idBooking;
+
+    /** NAS du client (contenu de l'événement publié en cas de déplacement) */
+    private String sinCustomer;
+
+    /** Chambre actuellement affectée */
+    private Integer idRoom;
+
+    /** Premier jour d'occupation */
+    private LocalDate startDate;
+
+    /** Dernier jour d'occupation */
+    private LocalDate endDate;
+}
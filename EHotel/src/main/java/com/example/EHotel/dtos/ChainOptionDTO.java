@@ -0,0 +1,23 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO (Data Transfer Object) d'une chaîne hôtelière dans une liste déroulante (formulaires
+ * d'hôtel, recherche de chambres, liste d'attente).
+ *
+ * Projection construite par HotelChainRepository.findOptions() : seuls l'identifiant et le
+ * nom sont lus, sans le nombre d'hôtels (sous-requête sur counter_delta).
+ */
+@Getter
+@AllArgsConstructor
+public class ChainOptionDTO {
+
+    /** Identifiant de la chaîne */
+    private final Integer id;
+
+    /** Nom de la chaîne */
+    private final String name;
+}
@@ -0,0 +1,22 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Une valeur permise d'une colonne contrainte (capacité, vue, rôle) et son libellé affiché.
+ *
+ * La valeur est celle stockée en base (anglais, contrainte CHECK du schéma), le libellé
+ * celui des listes déroulantes (français).
+ */
+@Getter
+@AllArgsConstructor
+public class ChoiceDTO {
+
+    /** Valeur stockée en base (ex : "Sea") */
+    private final String value;
+
+    /** Libellé affiché (ex : "Mer") */
+    private final String label;
+}
@@ -47,6 +47,13 @@ public class CreateHotelDTO {
     @Min(1)
     private Integer roomsNumber;
 
+    /**
+     * Nombre de chambres affiché à l'ouverture du formulaire de modification (champ caché).
+     * Seul l'écart entre la saisie et cette valeur est appliqué : les chambres ajoutées ou
+     * supprimées depuis l'affichage restent comptées (voir HotelService.updateHotel).
+     */
+    private Integer displayedRoomsNumber;
+
     /**
      * Classement en étoiles de l'hôtel (entre 1 et 5, obligatoire).
      * 1 étoile = économique, 5 étoiles = luxe
@@ -0,0 +1,55 @@
+package com.example.EHotel.dtos;
+
+import java.util.List;
+
+// Import de l'entité Customer
+import com.example.EHotel.model.customer.Customer;
+
+// Annotation Lombok pour la génération des getters
+import lombok.Getter;
+
+/**
+ * Une page de la recherche de clients (voir CustomerSearchDTO).
+ *
+ * Contient les clients de la page et, s'il en reste, le dernier client affiché : ses nom,
+ * prénom et NAS désignent la page suivante.
+ */
+@Getter
+public class CustomerPage {
+
+    /** Clients de la page (au plus CustomerSearchDTO.PAGE_SIZE) */
+    private final List<Customer> items;
+
+    /** Dernier client de la page, position de la page suivante (null sur la dernière page) */
+    private final Customer last;
+
+    private CustomerPage(List<Customer> items, Customer last) {
+        this.items = items;
+        this.last = last;
+    }
+
+    /**
+     * Construit une page à partir des clients lus : la requête en demande un de plus que
+     * la taille de la page, sa présence indique qu'une page suivante existe.
+     *
+     * @param rows Les clients lus (au plus size + 1)
+     * @param size La taille de la page
+     * @return La page
+     */
+    public static CustomerPage of(List<Customer> rows, int size) {
+        if (rows.size() <= size) {
+            return new CustomerPage(rows, null);
+        }
+        List<Customer> items = rows.subList(0, size);
+        return new CustomerPage(items, items.get(size - 1));
+    }
+
+    /**
+     * Indique s'il reste des clients après cette page.
+     *
+     * @return true si une page suivante existe
+     */
+    public boolean hasNext() {
+        return last != null;
+    }
+}
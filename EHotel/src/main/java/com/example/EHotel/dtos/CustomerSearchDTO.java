@@ -0,0 +1,81 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) des critères et de la position de la recherche de clients,
+ * lié aux paramètres de l'URL (GET /employee/customers).
+ *
+ * Critères, tous optionnels et combinés (ET) ; un champ vide équivaut à un critère absent :
+ *   - sin  : début du NAS (ex : "123-4")
+ *   - name : prénom et/ou nom, approximatif (fautes de frappe tolérées, index trigrammes)
+ *   - city : ville, approximative
+ *
+ * Pagination par clé, comme ListFilterDTO : les résultats sont triés par nom, prénom et NAS,
+ * et la page suivante est désignée par ces trois valeurs pour la dernière ligne affichée.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchDTO {
+
+    /** Nombre de clients par page */
+    public static final int PAGE_SIZE = 50;
+
+    /** Début du NAS */
+    private String sin;
+
+    /** Prénom et/ou nom */
+    private String name;
+
+    /** Ville */
+    private String city;
+
+    /** Nom du dernier client de la page précédente (null : première page) */
+    private String afterLastname;
+
+    /** Prénom du dernier client de la page précédente */
+    private String afterFirstname;
+
+    /** NAS du dernier client de la page précédente */
+    private String afterSin;
+
+    /**
+     * @param sin Le début du NAS saisi (vide : pas de critère)
+     */
+    public void setSin(String sin) {
+        this.sin = blankToNull(sin);
+    }
+
+    /**
+     * @param name Le nom saisi (vide : pas de critère)
+     */
+    public void setName(String name) {
+        this.name = blankToNull(name);
+    }
+
+    /**
+     * @param city La ville saisie (vide : pas de critère)
+     */
+    public void setCity(String city) {
+        this.city = blankToNull(city);
+    }
+
+    /**
+     * Indique si la page demandée est la première (pas de position de départ).
+     *
+     * @return true pour la première page
+     */
+    public boolean isFirstPage() {
+        return afterLastname == null || afterFirstname == null || afterSin == null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
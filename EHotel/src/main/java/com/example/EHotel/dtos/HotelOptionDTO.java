@@ -0,0 +1,27 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) d'un hôtel dans une liste déroulante (filtres des listes,
+ * check-in groupé).
+ *
+ * Projection construite par HotelRepository.findOptions() : seuls l'identifiant et le nom
+ * sont lus, sans la chaîne ni le gérant de l'hôtel.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelOptionDTO {
+
+    /** Identifiant de l'hôtel */
+    private Integer idHotel;
+
+    /** Nom de l'hôtel */
+    private String name;
+}
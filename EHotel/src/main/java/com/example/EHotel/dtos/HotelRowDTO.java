@@ -0,0 +1,53 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) d'un hôtel de l'API JSON (GET /api/v1/hotels).
+ *
+ * Projection à plat construite par HotelRepository.findRows() ("SELECT new ...HotelRowDTO(...)") :
+ * la chaîne est réduite à son nom et le gérant n'est pas lu, aucune entité n'est sérialisée.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelRowDTO {
+
+    /** Identifiant de l'hôtel */
+    private Integer idHotel;
+
+    /** Nom de l'hôtel */
+    private String name;
+
+    /** Nom de la chaîne hôtelière */
+    private String chainName;
+
+    /** Classement (1 à 5 étoiles) */
+    private Integer startNumber;
+
+    /** Nombre de chambres (valeur stockée et deltas en attente, voir CounterService) */
+    private Integer roomsNumber;
+
+    /** Adresse e-mail de l'hôtel */
+    private String email;
+
+    /** Numéro de rue */
+    private Integer streetNumber;
+
+    /** Nom de rue */
+    private String streetName;
+
+    /** Ville */
+    private String city;
+
+    /** Code postal */
+    private String postalCode;
+
+    /** Pays (US, CA, MX) */
+    private String country;
+}
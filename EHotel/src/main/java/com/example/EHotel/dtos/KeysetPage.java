@@ -0,0 +1,64 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// Annotation Lombok pour la génération des getters
+import lombok.Getter;
+
+/**
+ * Une page d'une liste paginée par clé (voir ListFilterDTO).
+ *
+ * Contient les lignes de la page et, s'il reste des lignes, la position de la page
+ * suivante : la date et l'identifiant de la dernière ligne affichée.
+ *
+ * @param <T> Le type des lignes
+ */
+@Getter
+public class KeysetPage<T> {
+
+    /** Lignes de la page (au plus ListFilterDTO.PAGE_SIZE) */
+    private final List<T> items;
+
+    /** Date de la dernière ligne, à passer en afterDate (null sur la dernière page) */
+    private final LocalDate nextDate;
+
+    /** Identifiant de la dernière ligne, à passer en afterId (null sur la dernière page) */
+    private final Integer nextId;
+
+    private KeysetPage(List<T> items, LocalDate nextDate, Integer nextId) {
+        this.items = items;
+        this.nextDate = nextDate;
+        this.nextId = nextId;
+    }
+
+    /**
+     * Construit une page à partir des lignes lues : la requête en demande une de plus que
+     * la taille de la page, sa présence indique qu'une page suivante existe.
+     *
+     * @param rows Les lignes lues (au plus size + 1)
+     * @param size La taille de la page
+     * @param date La date de tri d'une ligne
+     * @param id   L'identifiant d'une ligne
+     * @return La page
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, LocalDate> date, Function<T, Integer> id) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null, null);
+        }
+        List<T> items = rows.subList(0, size);
+        T last = items.get(size - 1);
+        return new KeysetPage<>(items, date.apply(last), id.apply(last));
+    }
+
+    /**
+     * Indique s'il reste des lignes après cette page.
+     *
+     * @return true si une page suivante existe
+     */
+    public boolean hasNext() {
+        return nextId != null;
+    }
+}
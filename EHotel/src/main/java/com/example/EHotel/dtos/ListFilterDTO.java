@@ -0,0 +1,81 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Format ISO des dates reçues en paramètres d'URL (aaaa-mm-jj)
+import org.springframework.format.annotation.DateTimeFormat;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) des filtres et de la position des pages de liste
+ * (réservations, locations, paiements), lié aux paramètres de l'URL.
+ *
+ * Pagination par clé (keyset) : au lieu d'un numéro de page (OFFSET, qui relit toutes les
+ * lignes précédentes), la page suivante est désignée par la date et l'identifiant de la
+ * dernière ligne affichée (afterDate, afterId). Chaque page lit donc au plus PAGE_SIZE + 1
+ * lignes dans l'ordre d'un index, quelle que soit sa position dans la liste.
+ *
+ * Tous les filtres sont optionnels ; un champ texte vide équivaut à un filtre absent.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListFilterDTO {
+
+    /** Nombre de lignes par page */
+    public static final int PAGE_SIZE = 50;
+
+    /** Hôtel (null : tous les hôtels) */
+    private Integer idHotel;
+
+    /** NAS du client (null : tous les clients) */
+    private String sinCustomer;
+
+    /** Statut de paiement : Paid, Pending, Refunded (paiements uniquement ; null : tous) */
+    private String status;
+
+    /** Début de la période (date d'arrivée ou date du paiement), incluse */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Fin de la période, incluse */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /** Date de la dernière ligne de la page précédente (null : première page) */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate afterDate;
+
+    /** Identifiant de la dernière ligne de la page précédente */
+    private Integer afterId;
+
+    /**
+     * @param sinCustomer Le NAS saisi (vide : pas de filtre)
+     */
+    public void setSinCustomer(String sinCustomer) {
+        this.sinCustomer = sinCustomer == null || sinCustomer.isBlank() ? null : sinCustomer.trim();
+    }
+
+    /**
+     * @param status Le statut choisi (vide : pas de filtre)
+     */
+    public void setStatus(String status) {
+        this.status = status == null || status.isBlank() ? null : status;
+    }
+
+    /**
+     * Indique si la page demandée est la première (pas de position de départ).
+     *
+     * @return true pour la première page
+     */
+    public boolean isFirstPage() {
+        return afterDate == null || afterId == null;
+    }
+}
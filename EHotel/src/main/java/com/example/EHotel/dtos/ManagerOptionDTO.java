@@ -0,0 +1,31 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO (Data Transfer Object) d'un gérant possible dans le sélecteur des formulaires d'hôtel.
+ *
+ * Projection construite par EmployeeRepository.findManagerOptions() : employés de rôle
+ * "Manager" et gérants actuels d'un hôtel, sans leur adresse ni leur hôtel complet.
+ */
+@Getter
+@AllArgsConstructor
+public class ManagerOptionDTO {
+
+    /** NAS de l'employé (valeur envoyée par le formulaire) */
+    private final String sinEmployee;
+
+    /** Prénom de l'employé */
+    private final String firstname;
+
+    /** Nom de l'employé */
+    private final String lastname;
+
+    /** Identifiant de l'hôtel d'affectation (null si aucun) */
+    private final Integer idHotel;
+
+    /** Identifiant de la chaîne de l'hôtel d'affectation (null si aucun) */
+    private final Integer idHotelChain;
+}
@@ -0,0 +1,57 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations de validation Jakarta (Bean Validation)
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) pour la modification des dates d'une réservation.
+ *
+ * Utilisé dans le formulaire /booking/modify/{id} : seules les dates sont modifiables,
+ * le client et la chambre restent ceux de la réservation d'origine.
+ *
+ * Les règles reprennent les contraintes CHECK de la table booking (chk_start_date,
+ * chk_end_date) : une saisie invalide est signalée sur le formulaire au lieu d'échouer au COMMIT.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModifyBookingDTO {
+
+    /** Identifiant de la réservation modifiée */
+    private Integer idBooking;
+
+    /** Nouvelle date de début (premier jour d'occupation, pas avant aujourd'hui) */
+    @NotNull
+    @FutureOrPresent(message = "La date de début ne peut pas être passée.")
+    private LocalDate startDate;
+
+    /** Nouvelle date de fin (dernier jour d'occupation) */
+    @NotNull
+    private LocalDate endDate;
+
+    /**
+     * Validation croisée : vérifie que la date de fin est strictement postérieure à la date de début
+     * (chk_end_date : end_date > start_date).
+     *
+     * @return true si la plage de dates est valide, false sinon
+     */
+    @AssertTrue(message = "La date de fin doit être après la date de début.")
+    public boolean isDateRangeValid() {
+        if (startDate == null || endDate == null) {
+            return true;
+        }
+        return endDate.isAfter(startDate);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) d'une ligne de l'historique des paiements.
+ *
+ * Projection construite directement par la requête JPQL de PaymentService.getPayments()
+ * ("SELECT new ...PaymentRowDTO(...)") : le paiement, le client, l'hôtel et la chambre
+ * de la location sont lus en une seule instruction, sans charger les entités.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRowDTO {
+
+    /** Identifiant du paiement */
+    private Integer idPayment;
+
+    /** Prénom du client */
+    private String firstname;
+
+    /** Nom de famille du client */
+    private String lastname;
+
+    /** Nom de l'hôtel */
+    private String hotelName;
+
+    /** Numéro de la chambre louée */
+    private Integer roomNumber;
+
+    /** Montant du paiement */
+    private Double amount;
+
+    /** Date du paiement */
+    private LocalDate paymentDate;
+
+    /** Méthode de paiement (carte, espèces, ...) */
+    private String paymentMethod;
+
+    /** Statut du paiement (Paid, Pending, Refunded) */
+    private String paymentStatus;
+}
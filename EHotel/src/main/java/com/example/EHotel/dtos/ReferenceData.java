@@ -0,0 +1,55 @@
+package com.example.EHotel.dtos;
+
+import java.util.List;
+
+// Annotation Lombok pour la génération des getters
+import lombok.Getter;
+
+/**
+ * Données de référence des formulaires : chaînes, hôtels, gérants possibles, capacités,
+ * vues et rôles.
+ *
+ * Instantané immuable (listes non modifiables) construit par ReferenceDataService et
+ * partagé par toutes les requêtes : il n'est jamais modifié, mais remplacé par un nouvel
+ * instantané après une écriture dans les tables lues.
+ */
+@Getter
+public class ReferenceData {
+
+    /** Versions des tables lues (TableVersionService.etag) au moment de la construction */
+    private final String version;
+
+    /** Instant de construction (System.nanoTime) */
+    private final long builtAt;
+
+    /** Chaînes hôtelières, par identifiant (ordre des listes déroulantes existantes) */
+    private final List<ChainOptionDTO> chains;
+
+    /** Hôtels, par nom */
+    private final List<HotelOptionDTO> hotels;
+
+    /** Gérants possibles, par nom puis prénom (cherchés par préfixe : ReferenceDataService.findManagers) */
+    private final List<ManagerOptionDTO> managers;
+
+    /** Capacités de chambre */
+    private final List<ChoiceDTO> capacities;
+
+    /** Vues de chambre */
+    private final List<ChoiceDTO> views;
+
+    /** Rôles des employés */
+    private final List<ChoiceDTO> roles;
+
+    public ReferenceData(String version, long builtAt, List<ChainOptionDTO> chains, List<HotelOptionDTO> hotels,
+                         List<ManagerOptionDTO> managers, List<ChoiceDTO> capacities, List<ChoiceDTO> views,
+                         List<ChoiceDTO> roles) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.chains = List.copyOf(chains);
+        this.hotels = List.copyOf(hotels);
+        this.managers = List.copyOf(managers);
+        this.capacities = List.copyOf(capacities);
+        this.views = List.copyOf(views);
+        this.roles = List.copyOf(roles);
+    }
+}
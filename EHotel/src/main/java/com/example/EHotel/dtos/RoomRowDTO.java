@@ -0,0 +1,53 @@
+package com.example.EHotel.dtos;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) d'une chambre de l'API JSON (GET /api/v1/rooms/...).
+ *
+ * Projection à plat construite par les requêtes de RoomRepository ("SELECT new ...RoomRowDTO(...)") :
+ * l'hôtel est réduit à son identifiant, son nom, sa ville et son classement.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRowDTO {
+
+    /** Identifiant de la chambre */
+    private Integer idRoom;
+
+    /** Numéro de la chambre dans l'hôtel */
+    private Integer roomNumber;
+
+    /** Prix par nuit */
+    private Double price;
+
+    /** Vue (mer, montagne, ...) */
+    private String view;
+
+    /** Lit d'appoint possible */
+    private Boolean extensible;
+
+    /** Capacité (simple, double, ...) */
+    private String capacity;
+
+    /** Disponible à la réservation */
+    private Boolean availability;
+
+    /** Identifiant de l'hôtel */
+    private Integer idHotel;
+
+    /** Nom de l'hôtel */
+    private String hotelName;
+
+    /** Ville de l'hôtel */
+    private String city;
+
+    /** Classement de l'hôtel */
+    private Integer startNumber;
+}
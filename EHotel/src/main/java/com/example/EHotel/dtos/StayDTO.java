@@ -0,0 +1,73 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) représentant l'occupation d'une chambre sur une période.
+ *
+ * Projection légère construite directement par les requêtes JPQL
+ * ("SELECT new ...StayDTO(...)") : on ne charge que la chambre et les dates,
+ * sans le client ni l'hôtel associés (évite les sélections en cascade).
+ *
+ * Les deux dates sont incluses, comme dans RoomRepository.findAvailableRooms().
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StayDTO {
+
+    /** Identifiant de la chambre occupée */
+    private Integer idRoom;
+
+    /** Premier jour d'occupation */
+    private LocalDate startDate;
+
+    /** Dernier jour d'occupation */
+    private LocalDate endDate;
+
+    /**
+     * Indique si cette occupation chevauche la période [startDate, endDate] (bornes incluses).
+     *
+     * @param start Premier jour de la période testée
+     * @param end   Dernier jour de la période testée
+     * @return true si les deux périodes ont au moins un jour en commun
+     */
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return !this.startDate.isAfter(end) && !this.endDate.isBefore(start);
+    }
+
+    /**
+     * Renvoie les jours de cette occupation qui ne font pas partie de la période [start, end].
+     *
+     * Utilisé lors d'une modification de dates : seuls les jours ajoutés doivent être
+     * revérifiés, et seuls les jours retirés sont libérés.
+     *
+     * @param start Premier jour de la période à retirer
+     * @param end   Dernier jour de la période à retirer
+     * @return Zéro, une ou deux occupations (avant et après la période retirée)
+     */
+    public List<StayDTO> minus(LocalDate start, LocalDate end) {
+        List<StayDTO> parts = new ArrayList<>(2);
+        if (!overlaps(start, end)) {
+            parts.add(this);
+            return parts;
+        }
+        if (this.startDate.isBefore(start)) {
+            parts.add(new StayDTO(idRoom, this.startDate, start.minusDays(1)));
+        }
+        if (this.endDate.isAfter(end)) {
+            parts.add(new StayDTO(idRoom, end.plusDays(1), this.endDate));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) d'une ligne de la liste des réservations ou des locations.
+ *
+ * Projection construite directement par les requêtes JPQL ("SELECT new ...StayRowDTO(...)")
+ * de BookingService.getBookings() et RentalService.getRentals() : une seule instruction
+ * lit exactement les colonnes affichées. Charger les entités déclencherait, pour chaque
+ * hôtel, les sélections de sa chaîne et de son gérant (associations ManyToOne/OneToOne
+ * chargées immédiatement par défaut).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StayRowDTO {
+
+    /** Identifiant de la réservation ou de la location */
+    private Integer id;
+
+    /** Prénom du client */
+    private String firstname;
+
+    /** Nom de famille du client */
+    private String lastname;
+
+    /** Nom de l'hôtel */
+    private String hotelName;
+
+    /** Numéro de la chambre */
+    private Integer roomNumber;
+
+    /** Date d'arrivée */
+    private LocalDate startDate;
+
+    /** Date de départ */
+    private LocalDate endDate;
+}
@@ -0,0 +1,122 @@
+package com.example.EHotel.dtos;
+
+// Import pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+
+// Annotations de validation Jakarta (Bean Validation)
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO (Data Transfer Object) pour l'inscription en liste d'attente (/room/waitlist).
+ *
+ * Proposé lorsqu'une recherche ne renvoie aucune chambre : les critères de la recherche
+ * (capacité, dates, prix maximum, chaîne) sont repris et le client complète ses informations.
+ * La demande porte soit sur un hôtel précis (idHotel), soit sur toute une chaîne (hotelChainId).
+ *
+ * Comme pour BookingDTO, le client est créé s'il n'existe pas encore (identifié par son NAS).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistDTO {
+
+    /** NAS du client (format "XXX-XXX-XXX") */
+    @NotNull
+    @Pattern(regexp = "^\\d{3}-\\d{3}-\\d{3}$", message = "SIN must be in the format 123-456-789")
+    private String sinCustomer;
+
+    /** Prénom du client (2 à 50 caractères) */
+    @NotNull
+    @Size(min = 2, max = 50)
+    private String firstname;
+
+    /** Nom de famille du client (2 à 50 caractères) */
+    @NotNull
+    @Size(min = 2, max = 50)
+    private String lastname;
+
+    /** Date d'enregistrement du client (par défaut, la date du jour) */
+    private LocalDate checkInDate = LocalDate.now();
+
+    /** Numéro de rue de l'adresse du client (minimum 1) */
+    @NotNull
+    @Min(1)
+    private Integer streetNumber;
+
+    /** Nom de la rue de l'adresse du client (2 à 50 caractères) */
+    @NotNull
+    @Size(min = 2, max = 50)
+    private String streetName;
+
+    /** Ville de résidence du client (2 à 50 caractères) */
+    @NotNull
+    @Size(min = 2, max = 50)
+    private String city;
+
+    /** Code postal de l'adresse du client (format canadien "A1A 1A1") */
+    @NotNull
+    @Pattern(regexp = "^[ABCEGHJKLMNPRSTVXY]{1}\\d{1}[A-Z]{1} *\\d{1}[A-Z]{1}\\d{1}$",
+             message = "Postal code must be in the format A1A 1A1")
+    private String postalCode;
+
+    /** Pays de résidence du client (obligatoire) */
+    @NotNull
+    private String country;
+
+    /** Hôtel demandé (optionnel : si absent, la demande porte sur toute la chaîne) */
+    private Integer idHotel;
+
+    /** Chaîne hôtelière demandée (utilisée si aucun hôtel précis n'est choisi) */
+    private Integer hotelChainId;
+
+    /** Capacité de chambre demandée (Simple, Double, ...) */
+    @NotNull
+    private String roomCapacity;
+
+    /** Prix maximum par nuit accepté */
+    @NotNull
+    @Min(0)
+    private Double maxPrice;
+
+    /** Date de début souhaitée (premier jour d'occupation) */
+    @NotNull
+    private LocalDate startDate;
+
+    /** Date de fin souhaitée (dernier jour d'occupation) */
+    @NotNull
+    private LocalDate endDate;
+
+    /**
+     * Validation croisée : la demande doit porter sur un hôtel ou sur une chaîne.
+     *
+     * @return true si au moins l'un des deux est renseigné
+     */
+    @AssertTrue(message = "Choisissez un hôtel ou une chaîne hôtelière.")
+    public boolean isTargetValid() {
+        return idHotel != null || hotelChainId != null;
+    }
+
+    /**
+     * Validation croisée : vérifie que la date de fin est postérieure ou égale à la date de début.
+     *
+     * @return true si la plage de dates est valide, false sinon
+     */
+    @AssertTrue(message = "La date de fin doit être après ou égale à la date de début.")
+    public boolean isDateRangeValid() {
+        if (startDate == null || endDate == null) {
+            return true;
+        }
+        return !endDate.isBefore(startDate);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.EHotel.model;
+
+// Interface Spring Data permettant à l'entité d'indiquer elle-même si elle est nouvelle
+import org.springframework.data.domain.Persistable;
+
+// Annotations JPA pour le mapping objet-relationnel et les callbacks de cycle de vie
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+
+/**
+ * Classe de base des entités dont la clé primaire est assignée par l'application
+ * (NAS du client, ID de la chambre ou de l'hôtel calculé par findUnusedId()).
+ *
+ * Sans cette classe, Spring Data considère qu'une entité dont l'ID est déjà renseigné
+ * n'est pas nouvelle : save() appelle alors merge(), qui émet un SELECT préalable
+ * avant chaque INSERT. En implémentant Persistable, l'entité porte elle-même cet état :
+ *   - une instance créée avec "new" est nouvelle → save() appelle persist() (INSERT direct)
+ *   - une instance chargée depuis la base (@PostLoad) ou déjà persistée (@PostPersist)
+ *     ne l'est plus → save() appelle merge() comme auparavant
+ *
+ * @param <ID> Type de la clé primaire de l'entité
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity<ID> implements Persistable<ID> {
+
+    /** Vrai tant que l'entité n'a été ni chargée ni persistée (non mappé en base) */
+    @Transient
+    private boolean newEntity = true;
+
+    /**
+     * Indique à Spring Data si l'entité doit être insérée (persist) ou fusionnée (merge).
+     *
+     * @return true si l'entité n'existe pas encore en base
+     */
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Callback JPA : après chargement ou insertion, l'entité n'est plus considérée comme nouvelle.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
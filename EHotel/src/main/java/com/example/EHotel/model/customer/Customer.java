@@ -6,6 +6,9 @@ import java.time.LocalDate;
 // Import du DTO client (utilisé pour le constructeur de conversion)
 import com.example.EHotel.dtos.AddCustomerDTO;
 
+// Classe de base des entités à clé assignée (évite le SELECT de fusion de save())
+import com.example.EHotel.model.AssignedIdEntity;
+
 // Annotations JPA pour le mapping objet-relationnel
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -38,7 +41,7 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "customer") // Lie cette classe à la table "customer" en base de données
-public class Customer {
+public class Customer extends AssignedIdEntity<String> {
 
     /**
      * NAS (Numéro d'Assurance Sociale) du client - clé primaire naturelle.
@@ -106,4 +109,14 @@ public class Customer {
         this.postalCode = customer.getPostalCode();
         this.country = customer.getCountry();
     }
+
+    /**
+     * Clé primaire exposée à Spring Data (interface Persistable).
+     *
+     * @return L'identifiant assigné de l'entité
+     */
+    @Override
+    public String getId() {
+        return sinCustomer;
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.EHotel.model.hotel;
+
+// Imports pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Valeur calculée par une sous-requête SQL (chambres restantes dans le bloc)
+import org.hibernate.annotations.Formula;
+
+// Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entité JPA représentant un bloc de chambres réservé pour un groupe (congrès, voyage organisé).
+ *
+ * Correspond à la table "allotment" en base de données.
+ * Un bloc retient roomsCount chambres d'une même capacité dans un hôtel, du startDate au
+ * endDate. Les chambres retenues (table allotment_room) sortent de l'inventaire général :
+ * la recherche ne les propose plus et le trigger check_room_availability n'y accepte que
+ * les réservations prises dans le bloc. Le nombre de chambres encore disponibles est tenu
+ * par nuit dans la table allotment_night (voir AllotmentService).
+ *
+ * Cycle de vie d'un bloc (champ status) :
+ *   1. Held     : les participants prennent leurs chambres dans le bloc jusqu'au cutoffDate
+ *   2. Released : date limite passée, les chambres non utilisées retournent à l'inventaire général
+ */
+@Entity
+@Getter           // Génère automatiquement tous les getters
+@Setter           // Génère automatiquement tous les setters
+@NoArgsConstructor    // Constructeur par défaut requis par JPA
+@AllArgsConstructor   // Constructeur avec tous les champs
+@Table(name = "allotment") // Lie cette classe à la table "allotment" en base de données
+public class Allotment {
+
+    /** Statuts possibles d'un bloc */
+    public static final String HELD = "Held";
+    public static final String RELEASED = "Released";
+
+    /** Identifiant unique du bloc (clé primaire, SERIAL) */
+    @Id
+    @Column(name = "id_allotment")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer idAllotment;
+
+    /** Nom du groupe ou de l'événement (ex : "Congrès médical 2026") */
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    /** Hôtel dans lequel les chambres sont retenues */
+    @ManyToOne
+    @JoinColumn(name = "id_hotel", nullable = false)
+    private Hotel hotel;
+
+    /** Capacité des chambres retenues (Simple, Double, ...) */
+    @Column(name = "capacity", nullable = false)
+    private String capacity;
+
+    /** Première nuit du bloc */
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    /** Dernière nuit du bloc */
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    /** Nombre de chambres retenues */
+    @Column(name = "rooms_count", nullable = false)
+    private Integer roomsCount;
+
+    /** Dernier jour où les participants peuvent prendre une chambre dans le bloc */
+    @Column(name = "cutoff_date", nullable = false)
+    private LocalDate cutoffDate;
+
+    /** Statut du bloc (Held, Released) */
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    /** Date et heure de création du bloc */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Chambres retenues par le bloc (table de liaison allotment_room).
+     * Vidée à la libération du bloc ; écrite en SQL par AllotmentService, jamais par JPA.
+     */
+    @ManyToMany
+    @JoinTable(name = "allotment_room",
+               joinColumns = @JoinColumn(name = "id_allotment"),
+               inverseJoinColumns = @JoinColumn(name = "id_room"))
+    private Set<Room> rooms = new HashSet<>();
+
+    /**
+     * Chambres encore disponibles dans le bloc sur toutes ses nuits
+     * (minimum des compteurs de allotment_night ; lecture seule).
+     */
+    @Formula("(SELECT min(n.remaining) FROM allotment_night n WHERE n.id_allotment = id_allotment)")
+    private Integer remainingRooms;
+}
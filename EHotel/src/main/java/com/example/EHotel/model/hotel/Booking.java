@@ -15,6 +15,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Valeur par défaut de la colonne version (lignes insérées en SQL natif ou existantes)
+import org.hibernate.annotations.ColumnDefault;
 
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
@@ -81,6 +85,23 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDate endDate;
 
+    /**
+     * Bloc de groupe d'où la chambre a été prise (null pour une réservation individuelle).
+     * Voir Allotment et AllotmentService.
+     */
+    @Column(name = "id_allotment")
+    private Integer idAllotment;
+
+    /**
+     * Version de la ligne (verrouillage optimiste) : incrémentée à chaque modification.
+     * Une mise à jour faite à partir d'une copie périmée de la ligne échoue au lieu
+     * d'écraser la modification concurrente (voir OptimisticRetry).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Constructeur personnalisé sans l'identifiant (utilisé lors de la création d'une nouvelle réservation).
      * L'ID sera généré automatiquement par la base de données.
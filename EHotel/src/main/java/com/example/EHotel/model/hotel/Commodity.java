@@ -1,11 +1,16 @@
 package com.example.EHotel.model.hotel;
 
 // Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+// Cache de second niveau (Hibernate, voir EntityCacheService)
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -29,6 +34,8 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "commodity") // Lie cette classe à la table "commodity" en base de données
+@Cacheable            // Entité en lecture majoritaire : cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "commodity")
 public class Commodity {
 
     /**
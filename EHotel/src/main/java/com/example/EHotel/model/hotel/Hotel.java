@@ -5,14 +5,27 @@ import com.example.EHotel.model.employee.Employee;
 // Import de l'entité chaîne hôtelière (propriétaire de l'hôtel)
 import com.example.EHotel.model.hotelchain.HotelChain;
 
+// Classe de base des entités à clé assignée (évite le SELECT de fusion de save())
+import com.example.EHotel.model.AssignedIdEntity;
+
 // Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Cache de second niveau, valeur par défaut de la colonne version et colonne calculée
+// (deltas de compteur en attente)
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;  // Génère un constructeur avec tous les champs
@@ -36,7 +49,9 @@ import lombok.Setter;              // Génère les méthodes setXxx()
 @AllArgsConstructor   // Constructeur avec tous les champs pour les tests et instanciations
 @Entity               // Marque cette classe comme entité persistante JPA
 @Table(name = "hotel") // Lie cette classe à la table "hotel" en base de données
-public class Hotel {
+@Cacheable            // Entité en lecture majoritaire : cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hotel")
+public class Hotel extends AssignedIdEntity<Integer> {
 
     /** Identifiant unique de l'hôtel (clé primaire, géré manuellement) */
     @Id
@@ -47,10 +62,26 @@ public class Hotel {
     @Column(name = "name", nullable = false)
     private String name;
 
-    /** Nombre total de chambres dans l'hôtel (obligatoire, doit être >= 1) */
-    @Column(name = "rooms_number", nullable = false)
+    /**
+     * Nombre total de chambres dans l'hôtel (obligatoire, doit être >= 1).
+     * Valeur stockée : les ajouts et suppressions de chambres récents sont encore dans
+     * counter_delta (voir pendingRooms et getRoomsNumber()).
+     * Écrite à la création seulement : ensuite, seul CounterService.fold() la modifie, par une
+     * instruction relative, et une mise à jour de l'hôtel ne peut pas écraser son résultat.
+     */
+    @Column(name = "rooms_number", nullable = false, updatable = false)
     private Integer roomsNumber;
 
+    /**
+     * Somme des deltas de chambres pas encore intégrés à rooms_number par CounterService.
+     * Lecture seule, calculée à chaque chargement de l'hôtel depuis la base ; la copie du
+     * cache de second niveau est évincée quand une chambre est ajoutée ou supprimée
+     * (RoomService) et quand un delta est saisi (HotelService.updateHotel).
+     */
+    @Formula("(SELECT COALESCE(SUM(d.delta), 0) FROM counter_delta d"
+            + " WHERE d.counter_name = 'hotel.rooms' AND d.owner_id = id_hotel)")
+    private int pendingRooms;
+
     /** Classement en étoiles de l'hôtel (1 à 5, obligatoire) */
     @Column(name = "start_number", nullable = false)
     private Integer startNumber;
@@ -79,6 +110,16 @@ public class Hotel {
     @Column(name = "country", nullable = false)
     private String country;
 
+    /**
+     * Version de la ligne (verrouillage optimiste) : incrémentée à chaque modification.
+     * Une mise à jour faite à partir d'une copie périmée de la ligne échoue au lieu
+     * d'écraser la modification concurrente (voir OptimisticRetry).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Chaîne hôtelière à laquelle appartient cet hôtel.
      * Relation ManyToOne : plusieurs hôtels peuvent appartenir à la même chaîne.
@@ -92,8 +133,31 @@ public class Hotel {
      * Gérant de l'hôtel (employé responsable).
      * Relation OneToOne : un seul gérant par hôtel.
      * La colonne "sin_manager" stocke le NAS (Numéro d'Assurance Sociale) du gérant.
+     *
+     * Chargé à la demande : l'employé n'est pas dans le cache de second niveau, un hôtel lu
+     * depuis le cache ferait sinon une requête par gérant. getManager().getSinEmployee()
+     * ne charge pas l'employé (identifiant connu du proxy).
      */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sin_manager")
     private Employee manager;
+
+    /**
+     * Nombre de chambres à jour : valeur stockée plus les deltas en attente.
+     *
+     * @return Le nombre de chambres de l'hôtel, ou null si non renseigné
+     */
+    public Integer getRoomsNumber() {
+        return roomsNumber == null ? null : roomsNumber + pendingRooms;
+    }
+
+    /**
+     * Clé primaire exposée à Spring Data (interface Persistable).
+     *
+     * @return L'identifiant assigné de l'entité
+     */
+    @Override
+    public Integer getId() {
+        return idHotel;
+    }
 }
@@ -12,6 +12,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Valeur par défaut de la colonne version (lignes insérées en SQL natif ou existantes)
+import org.hibernate.annotations.ColumnDefault;
 
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
@@ -77,4 +81,14 @@ public class Payment {
      */
     @Column(name = "payment_status", nullable = false)
     private String paymentStatus;
+
+    /**
+     * Version de la ligne (verrouillage optimiste) : incrémentée à chaque modification.
+     * Une mise à jour faite à partir d'une copie périmée de la ligne échoue au lieu
+     * d'écraser la modification concurrente (voir OptimisticRetry).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -1,6 +1,7 @@
 package com.example.EHotel.model.hotel;
 
 // Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +9,10 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+// Cache de second niveau (Hibernate, voir EntityCacheService)
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -34,6 +39,8 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "problem") // Lie cette classe à la table "problem" en base de données
+@Cacheable            // Entité en lecture majoritaire : cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "problem")
 public class Problem {
 
     /**
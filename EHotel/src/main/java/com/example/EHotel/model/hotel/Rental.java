@@ -14,7 +14,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Valeur par défaut de la colonne version (lignes insérées en SQL natif ou existantes)
+import org.hibernate.annotations.ColumnDefault;
 
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
@@ -50,10 +55,13 @@ public class Rental {
     /**
      * Identifiant unique de la location (clé primaire).
      * Généré automatiquement par une séquence SQL.
+     * Le nom de la séquence est fixé explicitement car le check-in groupé
+     * (RentalRepository.checkIn*) l'utilise aussi directement en SQL via nextval().
      */
     @Id
     @Column(name = "id_rental")
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_seq")
+    @SequenceGenerator(name = "rental_seq", sequenceName = "rental_seq", allocationSize = 50)
     private Integer idRental;
 
     /**
@@ -81,4 +89,14 @@ public class Rental {
     /** Date de fin prévue de la location (date de départ du client) */
     @Column(name = "end_date", nullable = false)
     private LocalDate endDate;
+
+    /**
+     * Version de la ligne (verrouillage optimiste) : incrémentée à chaque modification.
+     * Une mise à jour faite à partir d'une copie périmée de la ligne échoue au lieu
+     * d'écraser la modification concurrente (voir OptimisticRetry).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -1,5 +1,8 @@
 package com.example.EHotel.model.hotel;
 
+// Classe de base des entités à clé assignée (évite le SELECT de fusion de save())
+import com.example.EHotel.model.AssignedIdEntity;
+
 // Annotations JPA pour le mapping objet-relationnel
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -7,6 +10,13 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+// Valeur par défaut de la colonne version (lignes insérées en SQL natif ou existantes)
+// et chargement de l'hôtel par identifiant (cache de second niveau)
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
@@ -30,7 +40,7 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "room") // Lie cette classe à la table "room" en base de données
-public class Room {
+public class Room extends AssignedIdEntity<Integer> {
 
     /** Identifiant unique de la chambre (clé primaire, géré manuellement) */
     @Id
@@ -71,12 +81,36 @@ public class Room {
     @Column(name = "capacity", nullable = false)
     private String capacity;
 
+    /**
+     * Version de la ligne (verrouillage optimiste) : incrémentée à chaque modification.
+     * Une mise à jour faite à partir d'une copie périmée de la ligne échoue au lieu
+     * d'écraser la modification concurrente (voir OptimisticRetry).
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Hôtel auquel appartient cette chambre.
      * Relation ManyToOne : plusieurs chambres peuvent appartenir au même hôtel.
      * La colonne "id_hotel" est la clé étrangère en base.
+     *
+     * Chargé par identifiant plutôt que par jointure : l'hôtel est alors pris dans le cache
+     * de second niveau (une seule lecture par hôtel, quel que soit le nombre de chambres).
      */
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "id_hotel", nullable = false)
     private Hotel hotel;
+
+    /**
+     * Clé primaire exposée à Spring Data (interface Persistable).
+     *
+     * @return L'identifiant assigné de l'entité
+     */
+    @Override
+    public Integer getId() {
+        return idRoom;
+    }
 }
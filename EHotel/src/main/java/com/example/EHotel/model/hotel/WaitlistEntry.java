@@ -0,0 +1,103 @@
+package com.example.EHotel.model.hotel;
+
+// Imports pour la gestion des dates (Java 8+)
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Imports des entités associées à la demande
+import com.example.EHotel.model.customer.Customer;
+import com.example.EHotel.model.hotelchain.HotelChain;
+
+// Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entité JPA représentant une demande en liste d'attente.
+ *
+ * Correspond à la table "waitlist_entry" en base de données.
+ * Lorsqu'une recherche ne trouve aucune chambre, le client peut s'inscrire en liste d'attente
+ * pour un hôtel précis ou pour toute une chaîne, avec une capacité, des dates et un prix maximum.
+ *
+ * Cycle de vie d'une demande (champ status) :
+ *   1. Waiting  : en attente d'une chambre
+ *   2. Promoted : une chambre s'est libérée, une réservation a été créée (idBooking)
+ *   3. Expired  : la date d'arrivée est passée sans qu'une chambre se libère
+ */
+@Entity
+@Getter           // Génère automatiquement tous les getters
+@Setter           // Génère automatiquement tous les setters
+@NoArgsConstructor    // Constructeur par défaut requis par JPA
+@AllArgsConstructor   // Constructeur avec tous les champs
+@Table(name = "waitlist_entry") // Lie cette classe à la table "waitlist_entry" en base de données
+public class WaitlistEntry {
+
+    /** Statuts possibles d'une demande */
+    public static final String WAITING = "Waiting";
+    public static final String PROMOTED = "Promoted";
+    public static final String EXPIRED = "Expired";
+
+    /**
+     * Identifiant unique de la demande (clé primaire).
+     * Croissant dans l'ordre d'inscription : sert d'ordre de priorité (premier arrivé, premier servi).
+     */
+    @Id
+    @Column(name = "id_waitlist")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer idWaitlist;
+
+    /** Client en attente */
+    @ManyToOne
+    @JoinColumn(name = "sin_customer", nullable = false)
+    private Customer customer;
+
+    /** Hôtel demandé (null si la demande porte sur toute une chaîne) */
+    @ManyToOne
+    @JoinColumn(name = "id_hotel")
+    private Hotel hotel;
+
+    /** Chaîne hôtelière demandée (null si la demande porte sur un hôtel précis) */
+    @ManyToOne
+    @JoinColumn(name = "id_hotel_chain")
+    private HotelChain hotelChain;
+
+    /** Capacité de chambre demandée (Simple, Double, ...) */
+    @Column(name = "capacity", nullable = false)
+    private String capacity;
+
+    /** Date de début souhaitée */
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    /** Date de fin souhaitée */
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    /** Prix maximum par nuit accepté */
+    @Column(name = "max_price", nullable = false)
+    private Double maxPrice;
+
+    /** Statut de la demande (Waiting, Promoted, Expired) */
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    /** Date et heure d'inscription */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Réservation créée lors de la promotion (null tant que la demande est en attente) */
+    @Column(name = "id_booking")
+    private Integer idBooking;
+}
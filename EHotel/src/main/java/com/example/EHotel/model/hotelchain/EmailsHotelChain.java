@@ -1,12 +1,17 @@
 package com.example.EHotel.model.hotelchain;
 
 // Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+// Cache de second niveau (Hibernate, voir EntityCacheService)
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -30,6 +35,8 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "emails_hotel_chain") // Lie cette classe à la table correspondante en base de données
+@Cacheable            // Entité en lecture majoritaire : cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "emails-hotel-chain")
 public class EmailsHotelChain {
 
     /**
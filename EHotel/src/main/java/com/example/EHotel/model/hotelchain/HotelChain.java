@@ -1,6 +1,7 @@
 package com.example.EHotel.model.hotelchain;
 
 // Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +9,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+// Cache de second niveau et colonne calculée par une sous-requête SQL (deltas de compteur en attente)
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
+
 // Annotations Lombok pour la génération automatique de code boilerplate
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -34,6 +40,8 @@ import lombok.Setter;
 @NoArgsConstructor    // Constructeur par défaut requis par JPA
 @AllArgsConstructor   // Constructeur avec tous les champs
 @Table(name = "hotel_chain") // Lie cette classe à la table "hotel_chain" en base de données
+@Cacheable            // Entité en lecture majoritaire : cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hotel-chain")
 public class HotelChain {
 
     /**
@@ -60,4 +68,22 @@ public class HotelChain {
     @Column(name = "hotels_number")
     private int numberOfHotels;
 
+    /**
+     * Somme des deltas d'hôtels pas encore intégrés à hotels_number par CounterService.
+     * Lecture seule, calculée à chaque chargement de la chaîne depuis la base ; la copie du
+     * cache de second niveau est évincée quand un hôtel est ajouté ou supprimé (HotelService).
+     */
+    @Formula("(SELECT COALESCE(SUM(d.delta), 0) FROM counter_delta d"
+            + " WHERE d.counter_name = 'chain.hotels' AND d.owner_id = id_hotel_chain)")
+    private int pendingHotels;
+
+    /**
+     * Nombre d'hôtels à jour : valeur stockée plus les deltas en attente.
+     *
+     * @return Le nombre d'hôtels de la chaîne
+     */
+    public int getNumberOfHotels() {
+        return numberOfHotels + pendingHotels;
+    }
+
 }
@@ -0,0 +1,54 @@
+package com.example.EHotel.model.outbox;
+
+// Import pour l'horodatage de la dernière lecture
+import java.time.LocalDateTime;
+
+// Annotation Hibernate : valeur par défaut de la colonne dans le DDL généré
+import org.hibernate.annotations.ColumnDefault;
+
+// Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entité JPA représentant la position de lecture d'un consommateur de l'outbox.
+ *
+ * Correspond à la table "outbox_consumer_offset" en base de données.
+ * Chaque consommateur (OutboxListener) possède une ligne contenant la transaction et l'ID du
+ * dernier événement traité (les événements sont lus dans l'ordre (tx_id, id)). Cette position n'avance qu'une fois le lot traité avec succès :
+ * la livraison est donc "au moins une fois" (un lot en échec est relu au passage suivant).
+ */
+@Entity
+@Getter           // Génère automatiquement tous les getters
+@Setter           // Génère automatiquement tous les setters
+@NoArgsConstructor    // Constructeur par défaut requis par JPA
+@AllArgsConstructor   // Constructeur avec tous les champs
+@Table(name = "outbox_consumer_offset") // Lie cette classe à la table "outbox_consumer_offset"
+public class OutboxConsumerOffset {
+
+    /** Nom unique du consommateur (clé primaire) */
+    @Id
+    @Column(name = "consumer", length = 100)
+    private String consumer;
+
+    /** Transaction (tx_id) du dernier événement traité avec succès (0 si aucun) */
+    @ColumnDefault("0")
+    @Column(name = "last_tx_id", nullable = false)
+    private Long lastTxId;
+
+    /** ID du dernier événement traité avec succès (0 si aucun) */
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    /** Date et heure de la dernière avancée de la position */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
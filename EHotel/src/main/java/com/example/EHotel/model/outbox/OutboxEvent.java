@@ -0,0 +1,95 @@
+package com.example.EHotel.model.outbox;
+
+// Import pour l'horodatage des événements
+import java.time.LocalDateTime;
+
+// Annotation Hibernate : valeur par défaut de la colonne dans le DDL généré
+import org.hibernate.annotations.ColumnDefault;
+
+// Annotations JPA pour le mapping objet-relationnel
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// Annotations Lombok pour la génération automatique de code boilerplate
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entité JPA représentant un événement de la boîte d'envoi transactionnelle ("outbox").
+ *
+ * Correspond à la table "outbox_event" en base de données.
+ * Chaque modification d'une réservation, d'une location, d'un paiement ou d'une chambre, et chaque
+ * inscription en liste d'attente, écrit un événement dans cette table, dans la même transaction
+ * que la modification elle-même :
+ * l'événement existe si et seulement si la modification a été validée (COMMIT).
+ *
+ * Les consommateurs (rapports, caches, ménage) lisent ces événements dans l'ordre (tx_id, id)
+ * via OutboxService, au lieu d'interroger les tables métier avec findAll().
+ */
+@Entity
+@Getter           // Génère automatiquement tous les getters
+@Setter           // Génère automatiquement tous les setters
+@NoArgsConstructor    // Constructeur par défaut requis par JPA
+@AllArgsConstructor   // Constructeur avec tous les champs
+@Table(name = "outbox_event") // Lie cette classe à la table "outbox_event" en base de données
+public class OutboxEvent {
+
+    /** Types d'agrégats émettant des événements */
+    public static final String BOOKING = "booking";
+    public static final String RENTAL = "rental";
+    public static final String PAYMENT = "payment";
+    public static final String ROOM = "room";
+    public static final String WAITLIST = "waitlist";
+
+    /** Types d'événements */
+    public static final String CREATED = "Created";
+    public static final String UPDATED = "Updated";
+    public static final String DELETED = "Deleted";
+
+    /**
+     * Identifiant de l'événement (clé primaire). Réservé par blocs de 50 par chaque instance :
+     * il ne suit ni l'ordre d'insertion ni celui des COMMIT entre transactions.
+     * Séquence plutôt qu'IDENTITY pour que les événements d'un lot soient insérés par lots JDBC.
+     */
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    /** Type de l'agrégat concerné ("booking", "rental", "payment", "room") */
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    /** Identifiant de l'agrégat concerné (ID de la réservation, de la location, du paiement ou de la chambre) */
+    @Column(name = "aggregate_id", nullable = false, length = 50)
+    private String aggregateId;
+
+    /** Type d'événement ("Created", "Updated", "Deleted") */
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    /** Contenu de l'événement au format JSON (état de l'agrégat après la modification) */
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    /** Date et heure de création de l'événement */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Identifiant de la transaction PostgreSQL ayant écrit l'événement (txid_current()).
+     * Renseigné par la base : permet au lecteur de ne lire que les événements dont toutes
+     * les transactions antérieures sont terminées (aucun "trou" dans la suite (tx_id, id)).
+     */
+    @ColumnDefault("txid_current()")
+    @Column(name = "tx_id", insertable = false, updatable = false)
+    private Long txId;
+}
@@ -0,0 +1,142 @@
+package com.example.EHotel.reactive;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+// Mêmes DTO (et mêmes règles de validation) que le chemin MVC
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
+import com.example.EHotel.reactive.ReactiveRoomRepository.RoomView;
+import com.example.EHotel.services.SqlStates;
+import com.example.EHotel.services.TableVersionService;
+import com.example.EHotel.services.TableVersionService.Table;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Traitement des requêtes du chemin réactif (recherche et réservation), en JSON.
+ *
+ *   - GET  /reactive/room/search  : critères en paramètres (mêmes noms que le formulaire
+ *                                   de recherche), réponse : liste de RoomView
+ *   - POST /reactive/room/booking : corps JSON d'un BookingDTO, réponse 201 avec l'identifiant
+ *                                   de la réservation, 409 si la chambre est refusée
+ *
+ * Seules les erreurs attendues de la base ont une réponse dédiée (codes SQLSTATE, SqlStates) :
+ * refus du trigger check_room_availability → 409, violation de contrainte (CHECK, clé
+ * étrangère, unicité) → 400. Les autres (connexion perdue, erreur SQL) donnent une erreur 500.
+ * Les critères et réservations sont validés par les mêmes contraintes Bean Validation que
+ * les formulaires MVC (400 avec le message de chaque champ en erreur). Aucun appel bloquant :
+ * la validation est purement en mémoire et l'accès à la base passe par R2DBC.
+ */
+@Component
+@ConditionalOnProperty(name = "ehotel.reactive.enabled", havingValue = "true")
+public class ReactiveRoomHandler {
+
+    /** Conversion des paramètres de recherche (nombres, dates ISO yyyy-MM-dd) */
+    private static final FormattingConversionService CONVERSIONS = conversions();
+
+    /** Accès R2DBC aux chambres et réservations */
+    private final ReactiveRoomRepository repository;
+
+    /** Validateur Bean Validation (contraintes des DTO) */
+    private final Validator validator;
+
+    /** Compteurs de modification des tables (ETags des pages de liste MVC) */
+    private final TableVersionService tableVersionService;
+
+    /**
+     * @param repository          L'accès R2DBC, injecté par Spring
+     * @param validator           Le validateur Bean Validation, injecté par Spring
+     * @param tableVersionService Les compteurs de modification, injectés par Spring
+     */
+    public ReactiveRoomHandler(ReactiveRoomRepository repository, Validator validator,
+                               TableVersionService tableVersionService) {
+        this.repository = repository;
+        this.validator = validator;
+        this.tableVersionService = tableVersionService;
+    }
+
+    /**
+     * Recherche des chambres disponibles.
+     *
+     * @param request La requête (critères en paramètres)
+     * @return 200 avec les chambres, ou 400 si les critères sont invalides
+     */
+    public Mono<ServerResponse> search(ServerRequest request) {
+        return request.bind(RoomSearchCriteriaDTO.class, binder -> binder.setConversionService(CONVERSIONS))
+                .flatMap(criteria -> {
+                    Map<String, String> errors = errors(validator.validate(criteria));
+                    if (!errors.isEmpty()) {
+                        return ServerResponse.badRequest().bodyValue(errors);
+                    }
+                    return ServerResponse.ok().body(repository.search(criteria), RoomView.class);
+                })
+                // Paramètre non convertible (ex : date mal formée)
+                .onErrorResume(BindException.class, e -> ServerResponse.badRequest().bodyValue(
+                        e.getFieldErrors().stream().collect(Collectors.toMap(
+                                FieldError::getField, f -> "Valeur invalide : " + f.getRejectedValue(), (a, b) -> a))));
+    }
+
+    /**
+     * Réservation d'une chambre, avec création du client s'il est inconnu.
+     *
+     * @param request La requête (BookingDTO en JSON)
+     * @return 201 avec l'identifiant de la réservation, 400 si invalide ou refusée par une contrainte,
+     *         409 si la chambre est refusée
+     */
+    public Mono<ServerResponse> book(ServerRequest request) {
+        return request.bodyToMono(BookingDTO.class)
+                .flatMap(booking -> {
+                    Map<String, String> errors = errors(validator.validate(booking));
+                    if (!errors.isEmpty()) {
+                        return ServerResponse.badRequest().bodyValue(errors);
+                    }
+                    return repository.book(booking)
+                            // Réservation validée (R2DBC, hors transaction Spring) : incrément immédiat
+                            .doOnNext(id -> tableVersionService.bump(Table.BOOKING, Table.CUSTOMER))
+                            .flatMap(id -> ServerResponse.status(HttpStatus.CREATED)
+                                    .bodyValue(Map.of("idBooking", id)))
+                            // Le trigger check_room_availability a refusé la chambre (introuvable ou indisponible)
+                            .onErrorResume(e -> SqlStates.is(e, SqlStates.ROOM_UNAVAILABLE),
+                                    e -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(Map.of("idRoom",
+                                            "La chambre sélectionnée est introuvable ou n'est plus disponible.")))
+                            // Contrainte de la base non couverte par la validation (ex : date passée)
+                            .onErrorResume(SqlStates::isConstraintViolation,
+                                    e -> ServerResponse.badRequest().bodyValue(Map.of("booking",
+                                            "La réservation ne respecte pas les contraintes de la base.")));
+                });
+    }
+
+    /**
+     * Service de conversion des paramètres de requête, avec les dates au format ISO.
+     */
+    private static FormattingConversionService conversions() {
+        DefaultFormattingConversionService service = new DefaultFormattingConversionService(false);
+        DateTimeFormatterRegistrar registrar = new DateTimeFormatterRegistrar();
+        registrar.setUseIsoFormat(true);
+        registrar.registerFormatters(service);
+        return service;
+    }
+
+    /**
+     * Messages d'erreur de validation, par champ (ou par méthode @AssertTrue).
+     */
+    private static <T> Map<String, String> errors(Set<ConstraintViolation<T>> violations) {
+        return violations.stream().collect(Collectors.toMap(
+                v -> v.getPropertyPath().toString(), ConstraintViolation::getMessage, (a, b) -> a));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.EHotel.reactive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+// Critères de recherche et formulaire de réservation (mêmes DTO que le chemin MVC)
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
+// Constantes des événements de l'outbox (même format que OutboxService.stay())
+import com.example.EHotel.model.outbox.OutboxEvent;
+
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Accès non bloquant (R2DBC) aux chambres et aux réservations, pour le chemin réactif.
+ *
+ * Les requêtes reprennent exactement la sémantique du chemin MVC :
+ *   - search() : mêmes filtres que RoomRepository.findAvailableRooms (disponibilité,
+ *     capacité, prix, chaîne, étoiles, nombre de chambres stocké + deltas en attente,
+ *     aucune réservation qui chevauche la période)
+ *   - book() : même effet que BookingService.bookRoom(BookingDTO) — upsert du client,
+ *     INSERT de la réservation (refusé par le trigger check_room_availability si la chambre
+ *     est introuvable ou indisponible), ligne d'archive et événement "booking Created"
+ *     dans l'outbox. Le tout en une seule instruction, donc atomique sans transaction réactive.
+ */
+@Repository
+@ConditionalOnProperty(name = "ehotel.reactive.enabled", havingValue = "true")
+public class ReactiveRoomRepository {
+
+    /**
+     * Chambre disponible, à plat (pas de graphe d'entités côté réactif).
+     */
+    public record RoomView(Integer idRoom, Integer roomNumber, BigDecimal price, String view,
+                           Boolean extensible, String capacity, Integer idHotel, String hotelName,
+                           String city, Integer startNumber) {
+    }
+
+    private static final String SEARCH = """
+            SELECT r.id_room, r.room_number, r.price, r.view, r.extensible, r.capacity,
+                   h.id_hotel, h.name, h.city, h.start_number
+            FROM room r
+            JOIN hotel h ON h.id_hotel = r.id_hotel
+            WHERE r.availability = TRUE
+              AND r.capacity = :capacity
+              AND r.price <= :maxPrice
+              AND h.id_hotel_chain = :hotelChainId
+              AND h.start_number >= :startNumber
+              AND h.rooms_number + (SELECT COALESCE(SUM(d.delta), 0) FROM counter_delta d
+                                    WHERE d.counter_name = 'hotel.rooms' AND d.owner_id = h.id_hotel)
+                  >= :roomsNumber
+              AND NOT EXISTS (
+                    SELECT 1
+                    FROM booking b
+                    WHERE b.id_room = r.id_room
+                      AND b.start_date <= :endDate
+                      AND b.end_date >= :startDate
+                  )
+              AND NOT EXISTS (
+                    SELECT 1
+                    FROM allotment_room ar
+                    JOIN allotment a ON a.id_allotment = ar.id_allotment
+                    WHERE ar.id_room = r.id_room
+                      AND a.status = 'Held'
+                      AND a.start_date <= :endDate
+                      AND a.end_date >= :startDate
+                  )
+            ORDER BY r.id_room
+            """;
+
+    private static final String BOOK = """
+            WITH customer AS (
+                INSERT INTO customer (sin_customer, firstname, lastname, check_in_date, street_number,
+                                      street_name, city, postal_code, country)
+                VALUES (:sin, :firstname, :lastname, :checkInDate, :streetNumber,
+                        :streetName, :city, :postalCode, :country)
+                ON CONFLICT (sin_customer) DO NOTHING
+            ), booked AS (
+                INSERT INTO booking (id_booking, sin_customer, id_room, start_date, end_date)
+                VALUES (nextval('booking_seq'), :sin, :idRoom, :startDate, :endDate)
+                RETURNING id_booking, sin_customer, id_room, start_date, end_date
+            ), archived AS (
+                INSERT INTO booking_archieve (id_booking, sin_customer, id_room, start_date, end_date)
+                SELECT id_booking, sin_customer, id_room, start_date, end_date
+                FROM booked
+                ON CONFLICT DO NOTHING
+            ), published AS (
+                INSERT INTO outbox_event (id, aggregate_type, aggregate_id, event_type, payload, created_at)
+                SELECT nextval('outbox_event_seq'), :aggregateType, id_booking::text, :eventType,
+                       json_build_object('sinCustomer', sin_customer, 'idRoom', id_room,
+                                         'startDate', start_date, 'endDate', end_date)::text,
+                       LOCALTIMESTAMP
+                FROM booked
+            )
+            SELECT id_booking FROM booked
+            """;
+
+    /** Client SQL réactif, sur le pool de connexions R2DBC (spring.r2dbc.*) */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @param connectionFactory Le pool de connexions R2DBC configuré par Spring Boot
+     */
+    public ReactiveRoomRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Recherche les chambres disponibles selon les critères (voir RoomRepository.findAvailableRooms).
+     *
+     * @param criteria Les critères, déjà validés
+     * @return Les chambres disponibles, par identifiant croissant
+     */
+    public Flux<RoomView> search(RoomSearchCriteriaDTO criteria) {
+        return databaseClient.sql(SEARCH)
+                .bind("capacity", criteria.getRoomCapacity())
+                .bind("maxPrice", BigDecimal.valueOf(criteria.getMaxPrice()))
+                .bind("hotelChainId", criteria.getHotelChainId())
+                .bind("startNumber", criteria.getStartNumber())
+                .bind("roomsNumber", criteria.getRoomsNumber())
+                .bind("startDate", criteria.getStartDate())
+                .bind("endDate", criteria.getEndDate())
+                .map((row, metadata) -> new RoomView(
+                        row.get("id_room", Integer.class),
+                        row.get("room_number", Integer.class),
+                        row.get("price", BigDecimal.class),
+                        row.get("view", String.class),
+                        row.get("extensible", Boolean.class),
+                        row.get("capacity", String.class),
+                        row.get("id_hotel", Integer.class),
+                        row.get("name", String.class),
+                        row.get("city", String.class),
+                        row.get("start_number", Integer.class)))
+                .all();
+    }
+
+    /**
+     * Crée le client s'il est inconnu, puis la réservation, en un seul aller-retour.
+     *
+     * @param booking Le formulaire de réservation, déjà validé
+     * @return L'identifiant de la réservation créée ; erreur R2DBC si la chambre est refusée
+     */
+    public Mono<Integer> book(BookingDTO booking) {
+        return databaseClient.sql(BOOK)
+                .bind("sin", booking.getSinCustomer())
+                .bind("firstname", booking.getFirstname())
+                .bind("lastname", booking.getLastname())
+                .bind("checkInDate", booking.getCheckInDate() != null ? booking.getCheckInDate() : LocalDate.now())
+                .bind("streetNumber", booking.getStreetNumber())
+                .bind("streetName", booking.getStreetName())
+                .bind("city", booking.getCity())
+                .bind("postalCode", booking.getPostalCode())
+                .bind("country", booking.getCountry())
+                .bind("idRoom", booking.getIdRoom())
+                .bind("startDate", booking.getStartDate())
+                .bind("endDate", booking.getEndDate())
+                .bind("aggregateType", OutboxEvent.BOOKING)
+                .bind("eventType", OutboxEvent.CREATED)
+                .map((row, metadata) -> row.get("id_booking", Integer.class))
+                .one();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.EHotel.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serveur HTTP non bloquant (Reactor Netty) du chemin réactif, à côté de Tomcat.
+ *
+ * L'application reste une application Spring MVC (Thymeleaf, Tomcat sur server.port) ;
+ * ce serveur écoute sur son propre port (ehotel.reactive.port) et ne sert que les routes
+ * fonctionnelles WebFlux de ReactiveRoomHandler. Il tourne sur un petit nombre de threads
+ * d'événements (ehotel.reactive.event-loop-threads) : un client lent n'occupe aucun thread
+ * pendant qu'il envoie sa requête ou lit la réponse, ni pendant l'attente de la base (R2DBC).
+ *
+ * Démarré et arrêté avec le contexte Spring (SmartLifecycle).
+ */
+@Component
+@ConditionalOnProperty(name = "ehotel.reactive.enabled", havingValue = "true")
+public class ReactiveServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveServer.class);
+
+    /** Traitement des requêtes de recherche et de réservation */
+    private final ReactiveRoomHandler handler;
+
+    /** Sérialisation JSON configurée par Spring Boot (dates ISO, comme le reste de l'application) */
+    private final ObjectMapper objectMapper;
+
+    /** Port d'écoute du serveur réactif */
+    @Value("${ehotel.reactive.port:8081}")
+    private int port;
+
+    /** Nombre de threads d'événements Netty (0 : un par cœur) */
+    @Value("${ehotel.reactive.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    /** Threads d'événements dédiés au serveur réactif */
+    private LoopResources loops;
+
+    /** Serveur en cours d'exécution (null s'il est arrêté) */
+    private volatile DisposableServer server;
+
+    /**
+     * @param handler      Le traitement des routes, injecté par Spring
+     * @param objectMapper L'ObjectMapper de Spring Boot, injecté par Spring
+     */
+    public ReactiveServer(ReactiveRoomHandler handler, ObjectMapper objectMapper) {
+        this.handler = handler;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Routes du chemin réactif.
+     */
+    private RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/reactive/room/search", handler::search)
+                .POST("/reactive/room/booking", handler::book)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(), strategies);
+
+        int threads = eventLoopThreads > 0 ? eventLoopThreads : Runtime.getRuntime().availableProcessors();
+        loops = LoopResources.create("ehotel-reactive", threads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Serveur réactif démarré sur le port {} ({} threads d'événements)", port, threads);
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow();
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
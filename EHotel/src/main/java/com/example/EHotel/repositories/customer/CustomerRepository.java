@@ -2,6 +2,9 @@ package com.example.EHotel.repositories.customer;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 // Import de l'entité Customer
@@ -16,6 +19,7 @@ import com.example.EHotel.model.customer.Customer;
  * Ajoute des méthodes personnalisées générées par convention de nommage Spring Data JPA :
  *   - findBySinCustomer() : recherche par NAS (équivalent au findById mais plus explicite)
  *   - deleteBySinCustomer() : suppression par NAS (nécessaire car la clé est de type String)
+ *   - insertIfAbsent() : "upsert" du client en une seule instruction SQL (INSERT ... ON CONFLICT)
  *
  * @Repository : déclare cette interface comme composant Spring de la couche d'accès aux données
  */
@@ -43,4 +47,25 @@ public interface CustomerRepository extends JpaRepository<Customer, String> {
      * @param sinCustomer Le NAS du client à supprimer
      */
     void deleteBySinCustomer(String sinCustomer);
+
+    /**
+     * Insère le client s'il n'existe pas encore, en un seul aller-retour avec la base.
+     *
+     * Requête SQL native PostgreSQL : INSERT ... ON CONFLICT (sin_customer) DO NOTHING.
+     * Remplace la séquence findBySinCustomer() + save() (qui ajoutait un SELECT de fusion).
+     * Si le NAS existe déjà, le client existant est conservé tel quel.
+     *
+     * @param customer Le client à insérer
+     * @return 1 si le client a été créé, 0 s'il existait déjà
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customer (sin_customer, firstname, lastname, check_in_date, street_number,
+                                  street_name, city, postal_code, country)
+            VALUES (:#{#customer.sinCustomer}, :#{#customer.firstname}, :#{#customer.lastname},
+                    :#{#customer.checkInDate}, :#{#customer.streetNumber}, :#{#customer.streetName},
+                    :#{#customer.city}, :#{#customer.postalCode}, :#{#customer.country})
+            ON CONFLICT (sin_customer) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("customer") Customer customer);
 }
@@ -1,9 +1,14 @@
 package com.example.EHotel.repositories.employee;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
+// Projection des gérants possibles (sélecteur des formulaires d'hôtel)
+import com.example.EHotel.dtos.ManagerOptionDTO;
+
 // Import de l'entité Employee
 import com.example.EHotel.model.employee.Employee;
 
@@ -17,6 +22,8 @@ import com.example.EHotel.model.employee.Employee;
  *   - findBySinEmployee()   : recherche par NAS de l'employé
  *   - deleteBySinEmployee() : suppression par NAS
  *
+ * findManagerOptions() lit les gérants possibles des hôtels, à plat (ManagerOptionDTO).
+ *
  * @Repository : déclare cette interface comme composant Spring de la couche d'accès aux données
  */
 @Repository
@@ -43,4 +50,24 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
      * @param sinEmployee Le NAS de l'employé à supprimer
      */
     void deleteBySinEmployee(String sinEmployee);
+
+    /**
+     * Récupère les gérants possibles d'un hôtel : les employés de rôle "Manager" et ceux qui
+     * gèrent déjà un hôtel (pour que le gérant actuel reste sélectionnable), par nom et prénom.
+     * Une seule instruction : l'hôtel et la chaîne d'affectation sont joints pour leur seul
+     * identifiant.
+     *
+     * @return Les gérants possibles
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.ManagerOptionDTO(
+                e.sinEmployee, e.firstname, e.lastname, h.idHotel, c.id)
+            FROM Employee e
+            LEFT JOIN e.hotel h
+            LEFT JOIN h.hotelChain c
+            WHERE e.role = 'Manager'
+               OR e.sinEmployee IN (SELECT m.manager.sinEmployee FROM Hotel m)
+            ORDER BY e.lastname, e.firstname, e.sinEmployee
+            """)
+    List<ManagerOptionDTO> findManagerOptions();
 }
@@ -0,0 +1,104 @@
+package com.example.EHotel.repositories.hotel;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Import de la projection légère (chambre retenue sur une période)
+import com.example.EHotel.dtos.StayDTO;
+// Import de l'entité Allotment
+import com.example.EHotel.model.hotel.Allotment;
+
+/**
+ * Interface dépôt JPA pour les blocs de chambres de groupe (table "allotment").
+ *
+ * La création d'un bloc, la prise d'une chambre et la libération sont des instructions
+ * SQL ensemblistes exécutées par AllotmentService ; ce dépôt sert aux lectures et au
+ * rendu des nuits d'une réservation annulée.
+ *
+ * Ajoute des méthodes personnalisées :
+ *   - findAllWithHotel() : liste des blocs, avec leur hôtel
+ *   - findNights()       : chambres restantes par nuit d'un bloc
+ *   - findHeld()         : chambres retenues d'un hôtel et d'une capacité (affectation des chambres)
+ *   - restoreNights()    : rend au bloc les nuits d'une réservation annulée
+ */
+@Repository
+public interface AllotmentRepository extends JpaRepository<Allotment, Integer> {
+
+    /**
+     * Projection d'une nuit d'un bloc.
+     */
+    interface AllotmentNight {
+        LocalDate getNight();
+        Integer getRemaining();
+    }
+
+    /**
+     * Récupère tous les blocs avec leur hôtel, les plus proches d'abord.
+     *
+     * @return Les blocs triés par date de début
+     */
+    @Query("SELECT a FROM Allotment a JOIN FETCH a.hotel ORDER BY a.startDate, a.idAllotment")
+    List<Allotment> findAllWithHotel();
+
+    /**
+     * Récupère le nombre de chambres restantes de chaque nuit d'un bloc.
+     *
+     * @param idAllotment Le bloc
+     * @return Les nuits du bloc, dans l'ordre
+     */
+    @Query(value = """
+            SELECT night, remaining
+            FROM allotment_night
+            WHERE id_allotment = :idAllotment
+            ORDER BY night
+            """, nativeQuery = true)
+    List<AllotmentNight> findNights(@Param("idAllotment") int idAllotment);
+
+    /**
+     * Récupère les chambres retenues par les blocs actifs d'un hôtel pour une capacité,
+     * avec la période du bloc (occupation fixée pour l'affectation des chambres).
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité de chambre
+     * @param today    La date du jour
+     * @return Les chambres retenues et leur période
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.StayDTO(r.idRoom, a.startDate, a.endDate)
+            FROM Allotment a
+            JOIN a.rooms r
+            WHERE a.hotel.idHotel = :idHotel
+              AND a.capacity = :capacity
+              AND a.status = 'Held'
+              AND a.endDate >= :today
+            """)
+    List<StayDTO> findHeld(@Param("idHotel") int idHotel, @Param("capacity") String capacity,
+                           @Param("today") LocalDate today);
+
+    /**
+     * Rend au bloc les nuits d'une réservation prise dans le bloc puis annulée.
+     * Sans effet si le bloc a déjà été libéré.
+     *
+     * @param idAllotment Le bloc d'où la réservation a été prise
+     * @param startDate   Première nuit de la réservation
+     * @param endDate     Dernière nuit de la réservation
+     * @return Le nombre de nuits rendues
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE allotment_night n
+            SET remaining = n.remaining + 1
+            FROM allotment a
+            WHERE a.id_allotment = n.id_allotment
+              AND n.id_allotment = :idAllotment
+              AND a.status = 'Held'
+              AND n.night BETWEEN :startDate AND :endDate
+            """, nativeQuery = true)
+    int restoreNights(@Param("idAllotment") int idAllotment, @Param("startDate") LocalDate startDate,
+                      @Param("endDate") LocalDate endDate);
+}
@@ -1,10 +1,17 @@
 package com.example.EHotel.repositories.hotel;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+// Imports des projections légères (occupation d'une chambre, réservation déplaçable)
+import com.example.EHotel.dtos.BookingSlotDTO;
+import com.example.EHotel.dtos.StayDTO;
 // Import de l'entité Booking
 import com.example.EHotel.model.hotel.Booking;
 
@@ -17,12 +24,29 @@ import com.example.EHotel.model.hotel.Booking;
  *   - findById(int) : redéfinit pour utiliser un int primitif
  *   - findByCustomerSinCustomer() : convention de nommage Spring Data JPA
  *     pour rechercher les réservations d'un client par son NAS
+ *   - findStays() : occupations de plusieurs chambres sur une période (réservation groupée)
+ *   - existsOverlap() : conflit d'une autre réservation sur une période (modification de dates)
+ *   - findMovable() / findStarted() : réservations d'un hôtel et d'une capacité (affectation des chambres)
+ *   - findNewSlots() : réservations à placer à leur création (affectation des chambres)
  *
  * @Repository : déclare cette interface comme composant Spring de la couche d'accès aux données
  */
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
+    /**
+     * Projection d'une réservation à placer, avec le groupe (hôtel, capacité) de sa chambre.
+     */
+    interface NewSlot {
+        Integer getIdBooking();
+        String getSinCustomer();
+        Integer getIdRoom();
+        Integer getIdHotel();
+        String getCapacity();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
     /**
      * Récupère une réservation par son identifiant.
      * Redéfinit la méthode héritée pour utiliser un int (primitif) au lieu d'Integer.
@@ -44,4 +68,120 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
      * @return Liste des réservations actives du client (vide si aucune)
      */
     List<Booking> findByCustomerSinCustomer(String sinCustomer);
+
+    /**
+     * Récupère, en une seule requête, les réservations de plusieurs chambres
+     * qui chevauchent la période [startDate, endDate].
+     *
+     * Utilisée par la réservation groupée pour valider tout un lot en une passe.
+     * Seuls l'ID de la chambre et les dates sont chargés (projection StayDTO),
+     * ce qui évite de charger le client et la chambre de chaque réservation.
+     *
+     * @param roomIds   Identifiants des chambres concernées par le lot
+     * @param startDate Premier jour de la période couverte par le lot
+     * @param endDate   Dernier jour de la période couverte par le lot
+     * @return Occupations existantes de ces chambres sur la période (vide si aucune)
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.StayDTO(b.room.idRoom, b.startDate, b.endDate)
+            FROM Booking b
+            WHERE b.room.idRoom IN :roomIds
+              AND b.startDate <= :endDate
+              AND b.endDate >= :startDate
+            """)
+    List<StayDTO> findStays(@Param("roomIds") Collection<Integer> roomIds,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Indique si une autre réservation de la chambre chevauche la période [startDate, endDate].
+     *
+     * Toutes les réservations de la chambre commençant au plus tard le jour endDate sont
+     * examinées (parcours de l'index (id_room, start_date), arrêté à la première trouvée) :
+     * rien n'empêche en base deux réservations de la même chambre de se chevaucher, la dernière
+     * commencée n'est donc pas forcément celle qui finit le plus tard.
+     *
+     * @param idRoom    La chambre
+     * @param idBooking La réservation modifiée (exclue de la vérification)
+     * @param startDate Premier jour de la période
+     * @param endDate   Dernier jour de la période
+     * @return true si la période est déjà réservée par une autre réservation
+     */
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM booking b
+                WHERE b.id_room = :idRoom
+                  AND b.id_booking <> :idBooking
+                  AND b.start_date <= :endDate
+                  AND b.end_date >= :startDate
+            )
+            """, nativeQuery = true)
+    boolean existsOverlap(@Param("idRoom") int idRoom, @Param("idBooking") int idBooking,
+                          @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Récupère les réservations futures (pas encore commencées) d'un hôtel pour une capacité,
+     * hors réservations prises dans un bloc de groupe (elles restent sur une chambre du bloc),
+     * triées par date de début puis par durée décroissante (ordre de l'affectation gloutonne).
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité de chambre
+     * @param today    La date du jour
+     * @return Les réservations déplaçables
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.BookingSlotDTO(
+                b.idBooking, b.customer.sinCustomer, b.room.idRoom, b.startDate, b.endDate)
+            FROM Booking b
+            WHERE b.room.hotel.idHotel = :idHotel
+              AND b.room.capacity = :capacity
+              AND b.startDate > :today
+              AND b.idAllotment IS NULL
+            ORDER BY b.startDate, b.endDate DESC, b.idBooking
+            """)
+    List<BookingSlotDTO> findMovable(@Param("idHotel") int idHotel, @Param("capacity") String capacity,
+                                     @Param("today") LocalDate today);
+
+    /**
+     * Récupère les réservations déjà commencées et non terminées d'un hôtel pour une capacité,
+     * ainsi que les réservations à venir prises dans un bloc de groupe (fixées sur leur chambre).
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité de chambre
+     * @param today    La date du jour
+     * @return Les occupations fixées
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.StayDTO(b.room.idRoom, b.startDate, b.endDate)
+            FROM Booking b
+            WHERE b.room.hotel.idHotel = :idHotel
+              AND b.room.capacity = :capacity
+              AND b.endDate >= :today
+              AND (b.startDate <= :today OR b.idAllotment IS NOT NULL)
+            """)
+    List<StayDTO> findStarted(@Param("idHotel") int idHotel, @Param("capacity") String capacity,
+                              @Param("today") LocalDate today);
+
+    /**
+     * Récupère des réservations venant d'être créées, encore déplaçables : pas commencées
+     * et hors bloc de groupe (mêmes critères que findMovable()). Une seule requête pour tout
+     * un lot d'événements.
+     *
+     * @param ids   Les identifiants des réservations créées
+     * @param today La date du jour
+     * @return Celles de ces réservations encore déplaçables, avec leur groupe
+     */
+    @Query("""
+            SELECT b.idBooking AS idBooking, b.customer.sinCustomer AS sinCustomer, r.idRoom AS idRoom,
+                   r.hotel.idHotel AS idHotel, r.capacity AS capacity,
+                   b.startDate AS startDate, b.endDate AS endDate
+            FROM Booking b
+            JOIN b.room r
+            WHERE b.idBooking IN :ids
+              AND b.startDate > :today
+              AND b.idAllotment IS NULL
+            ORDER BY b.idBooking
+            """)
+    List<NewSlot> findNewSlots(@Param("ids") Collection<Integer> ids, @Param("today") LocalDate today);
 }
@@ -1,7 +1,13 @@
 package com.example.EHotel.repositories.hotel;
 
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.EHotel.dtos.HotelOptionDTO;
+import com.example.EHotel.dtos.HotelRowDTO;
 import com.example.EHotel.model.hotel.Hotel;
 
 /**
@@ -13,10 +19,47 @@ import com.example.EHotel.model.hotel.Hotel;
  *   - save(hotel)    : sauvegarde ou met à jour un hôtel
  *   - deleteById(id) : supprime un hôtel par son ID
  *
- * Pas de méthode personnalisée requise : les opérations standard suffisent.
+ * findOptions() lit l'identifiant et le nom des hôtels pour les listes déroulantes.
+ * findRows() et findRow() lisent les hôtels à plat pour l'API JSON (HotelRowDTO).
  * La logique de génération d'ID se fait dans HotelService (findUnusedId).
  */
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Integer> {
-    // Toutes les méthodes nécessaires sont héritées de JpaRepository
+
+    /**
+     * Récupère l'identifiant et le nom de tous les hôtels, par nom, en une seule instruction
+     * (sans la chaîne ni le gérant de chaque hôtel).
+     *
+     * @return Les hôtels des listes déroulantes
+     */
+    @Query("SELECT new com.example.EHotel.dtos.HotelOptionDTO(h.idHotel, h.name) FROM Hotel h ORDER BY h.name")
+    List<HotelOptionDTO> findOptions();
+
+    /**
+     * Sélection des hôtels à plat : la chaîne est jointe pour son seul nom, le gérant n'est pas lu.
+     */
+    String ROW = """
+            SELECT new com.example.EHotel.dtos.HotelRowDTO(
+                h.idHotel, h.name, c.name, h.startNumber, h.roomsNumber + h.pendingRooms, h.email,
+                h.streetNumber, h.streetName, h.city, h.postalCode, h.country)
+            FROM Hotel h
+            JOIN h.hotelChain c
+            """;
+
+    /**
+     * Récupère tous les hôtels à plat, par nom, en une seule instruction.
+     *
+     * @return Les hôtels
+     */
+    @Query(ROW + "ORDER BY h.name")
+    List<HotelRowDTO> findRows();
+
+    /**
+     * Récupère un hôtel à plat.
+     *
+     * @param id L'identifiant de l'hôtel
+     * @return L'hôtel, ou vide s'il n'existe pas
+     */
+    @Query(ROW + "WHERE h.idHotel = :id")
+    Optional<HotelRowDTO> findRow(@Param("id") int id);
 }
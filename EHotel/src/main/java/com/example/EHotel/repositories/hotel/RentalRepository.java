@@ -1,17 +1,173 @@
 package com.example.EHotel.repositories.hotel;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.EHotel.dtos.StayDTO;
 import com.example.EHotel.model.hotel.Rental;
 
 /**
  * Interface dépôt JPA pour les opérations sur les locations actives (table "rental").
  *
  * Étend JpaRepository<Rental, Integer> pour bénéficier des opérations CRUD standard.
- * Toutes les opérations nécessaires (findAll, findById, save, deleteById)
+ * Toutes les opérations unitaires (findAll, findById, save, deleteById)
  * sont héritées de JpaRepository.
+ *
+ * Ajoute le check-in groupé ensembliste :
+ *   - checkInByHotelAndDate() : toutes les arrivées d'un hôtel à une date
+ *   - checkInByBookingIds()   : une sélection de réservations
+ *
+ * existsOverlap() vérifie un conflit de location lors de la modification d'une réservation.
+ * findStays() lit l'occupation de chambres sur une période (promotion de la liste d'attente).
+ *
+ * Les deux requêtes de check-in déplacent les réservations vers les locations en une seule instruction :
+ * un DELETE ... RETURNING sur booking alimente un INSERT ... SELECT sur rental (CTE PostgreSQL).
+ * Le trigger AFTER INSERT de disponibilité de la table rental s'exécute pour chaque ligne insérée,
+ * comme lors d'un check-in unitaire. Chaque location créée est renvoyée avec la réservation dont
+ * elle provient, pour que le service la transmette à l'archivage asynchrone (ArchiveWriter) et
+ * publie, comme le check-in unitaire, la création de la location et la suppression de la réservation.
+ * Le CTE "numbered", lu deux fois, est matérialisé : nextval() n'est évalué qu'une fois par ligne.
+ *
+ * Note sur les identifiants : la séquence rental_seq est partagée avec Hibernate, qui réserve
+ * des blocs de 50 valeurs (allocationSize). Chaque valeur renvoyée par nextval() appartient à un
+ * bloc qu'Hibernate n'utilisera jamais : l'utiliser telle quelle en SQL évite toute collision.
  */
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Integer> {
-    // Toutes les méthodes nécessaires sont héritées de JpaRepository
+
+    /**
+     * Projection d'une location créée par le check-in groupé (colonnes renvoyées par RETURNING).
+     */
+    interface CheckedInRental {
+        Integer getIdRental();
+        Integer getIdBooking();
+        String getSinCustomer();
+        Integer getIdRoom();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+    }
+
+    /**
+     * Transforme en locations toutes les réservations d'un hôtel arrivant à une date donnée.
+     *
+     * @param idHotel     L'identifiant de l'hôtel
+     * @param arrivalDate La date d'arrivée (start_date des réservations)
+     * @return Les locations créées
+     */
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM booking b
+                USING room r
+                WHERE b.id_room = r.id_room
+                  AND r.id_hotel = :idHotel
+                  AND b.start_date = :arrivalDate
+                RETURNING b.id_booking, b.sin_customer, b.id_room, b.start_date, b.end_date
+            ),
+            numbered AS (
+                SELECT nextval('rental_seq') AS id_rental, m.* FROM moved m
+            ),
+            inserted AS (
+                INSERT INTO rental (id_rental, sin_customer, id_room, start_date, end_date)
+                SELECT id_rental, sin_customer, id_room, start_date, end_date
+                FROM numbered
+                RETURNING id_rental
+            )
+            SELECT n.id_rental AS idRental, n.id_booking AS idBooking, n.sin_customer AS sinCustomer,
+                   n.id_room AS idRoom, n.start_date AS startDate, n.end_date AS endDate
+            FROM numbered n
+            JOIN inserted i ON i.id_rental = n.id_rental
+            """, nativeQuery = true)
+    List<CheckedInRental> checkInByHotelAndDate(@Param("idHotel") int idHotel, @Param("arrivalDate") LocalDate arrivalDate);
+
+    /**
+     * Transforme en locations une sélection de réservations.
+     *
+     * @param bookingIds Les identifiants des réservations à transformer
+     * @return Les locations créées
+     */
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM booking
+                WHERE id_booking IN (:bookingIds)
+                RETURNING id_booking, sin_customer, id_room, start_date, end_date
+            ),
+            numbered AS (
+                SELECT nextval('rental_seq') AS id_rental, m.* FROM moved m
+            ),
+            inserted AS (
+                INSERT INTO rental (id_rental, sin_customer, id_room, start_date, end_date)
+                SELECT id_rental, sin_customer, id_room, start_date, end_date
+                FROM numbered
+                RETURNING id_rental
+            )
+            SELECT n.id_rental AS idRental, n.id_booking AS idBooking, n.sin_customer AS sinCustomer,
+                   n.id_room AS idRoom, n.start_date AS startDate, n.end_date AS endDate
+            FROM numbered n
+            JOIN inserted i ON i.id_rental = n.id_rental
+            """, nativeQuery = true)
+    List<CheckedInRental> checkInByBookingIds(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    /**
+     * Indique si une location de la chambre chevauche la période [startDate, endDate].
+     * Même principe que BookingRepository.existsOverlap() : toutes les locations de la chambre
+     * commençant au plus tard le jour endDate sont examinées (index (id_room, start_date)).
+     *
+     * @param idRoom    La chambre
+     * @param startDate Premier jour de la période
+     * @param endDate   Dernier jour de la période
+     * @return true si la chambre est louée sur au moins un jour de la période
+     */
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM rental r
+                WHERE r.id_room = :idRoom
+                  AND r.start_date <= :endDate
+                  AND r.end_date >= :startDate
+            )
+            """, nativeQuery = true)
+    boolean existsOverlap(@Param("idRoom") int idRoom,
+                          @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Récupère les locations de plusieurs chambres qui chevauchent la période [startDate, endDate]
+     * (ID de la chambre et dates seulement, comme BookingRepository.findStays()).
+     *
+     * @param roomIds   Identifiants des chambres
+     * @param startDate Premier jour de la période
+     * @param endDate   Dernier jour de la période
+     * @return Occupations de ces chambres sur la période (vide si aucune)
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.StayDTO(r.room.idRoom, r.startDate, r.endDate)
+            FROM Rental r
+            WHERE r.room.idRoom IN :roomIds
+              AND r.startDate <= :endDate
+              AND r.endDate >= :startDate
+            """)
+    List<StayDTO> findStays(@Param("roomIds") Collection<Integer> roomIds,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Récupère les locations en cours d'un hôtel pour une capacité (fixées sur leur chambre).
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité de chambre
+     * @param today    La date du jour
+     * @return Les occupations fixées
+     */
+    @Query("""
+            SELECT new com.example.EHotel.dtos.StayDTO(r.room.idRoom, r.startDate, r.endDate)
+            FROM Rental r
+            WHERE r.room.hotel.idHotel = :idHotel
+              AND r.room.capacity = :capacity
+              AND r.endDate >= :today
+            """)
+    List<StayDTO> findCurrent(@Param("idHotel") int idHotel, @Param("capacity") String capacity,
+                              @Param("today") LocalDate today);
 }
@@ -2,16 +2,20 @@ package com.example.EHotel.repositories.hotel;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 // Import du DTO de critères de recherche (utilisé dans la requête JPQL)
+import com.example.EHotel.dtos.RoomRowDTO;
 import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
 // Import de l'entité Room
 import com.example.EHotel.model.hotel.Room;
 import java.util.List;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Interface dépôt JPA pour les opérations sur les chambres (table "room").
  *
@@ -26,12 +30,48 @@ import java.util.List;
  * Ajoute des méthodes personnalisées :
  *   - findAvailableRooms() : recherche avancée avec JPQL et critères multiples
  *   - findByHotelId()      : récupère les chambres d'un hôtel spécifique
+ *   - findAvailableRows(), findRowsByHotelId(), findRow() : mêmes lectures en projection
+ *     à plat (RoomRowDTO) pour l'API JSON
+ *   - lockById()           : verrouille une chambre (modification des dates d'une réservation)
+ *   - findGroups() / lockGroup() / findGroupRooms() : chambres par hôtel et capacité
+ *     (affectation des chambres)
  *
  * @Repository : déclare cette interface comme composant Spring de la couche d'accès aux données
  */
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Integer> {
 
+    /**
+     * Chambres disponibles selon les critères (partie commune de findAvailableRooms()
+     * et findAvailableRows()), voir findAvailableRooms().
+     */
+    String AVAILABLE = """
+            FROM Room r
+            JOIN r.hotel h
+            WHERE r.availability = true
+              AND r.capacity = :#{#criteria.roomCapacity}
+              AND r.price <= :#{#criteria.maxPrice}
+              AND h.hotelChain.id = :#{#criteria.hotelChainId}
+              AND h.startNumber >= :#{#criteria.startNumber}
+              AND h.roomsNumber + h.pendingRooms >= :#{#criteria.roomsNumber}
+              AND NOT EXISTS (
+                    SELECT 1
+                    FROM Booking b
+                    WHERE b.room.idRoom = r.idRoom
+                      AND b.startDate <= :#{#criteria.endDate}
+                      AND b.endDate >= :#{#criteria.startDate}
+                  )
+              AND NOT EXISTS (
+                    SELECT 1
+                    FROM Allotment a
+                    JOIN a.rooms held
+                    WHERE held.idRoom = r.idRoom
+                      AND a.status = 'Held'
+                      AND a.startDate <= :#{#criteria.endDate}
+                      AND a.endDate >= :#{#criteria.startDate}
+                  )
+            """;
+
     /**
      * Recherche les chambres disponibles selon des critères multiples.
      *
@@ -41,8 +81,10 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
      *   - price <= maxPrice            : prix inférieur ou égal au budget maximum
      *   - hotel.hotelChain.id = hotelChainId : appartient à la chaîne hôtelière sélectionnée
      *   - hotel.startNumber >= startNumber   : classement étoiles minimum de l'hôtel
-     *   - hotel.roomsNumber >= roomsNumber   : taille minimale de l'hôtel
+     *   - hotel.roomsNumber + pendingRooms >= roomsNumber : taille minimale de l'hôtel
+     *     (valeur stockée plus les deltas pas encore intégrés, voir CounterService)
      *   - Non réservée sur la période        : aucun chevauchement avec les réservations existantes
+     *   - Non retenue sur la période         : pas de bloc de groupe actif (Allotment) sur ces dates
      *
      * La sous-requête élimine les chambres déjà réservées pour la période demandée
      * en vérifiant qu'aucun Booking ne chevauche les dates startDate et endDate.
@@ -50,26 +92,46 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
      * @param criteria L'objet DTO contenant tous les critères de filtrage
      * @return Liste des chambres disponibles correspondant à tous les critères
      */
-    @Query("""
-            SELECT r
-            FROM Room r
-            JOIN r.hotel h
-            WHERE r.availability = true
-              AND r.capacity = :#{#criteria.roomCapacity}
-              AND r.price <= :#{#criteria.maxPrice}
-              AND h.hotelChain.id = :#{#criteria.hotelChainId}
-              AND h.startNumber >= :#{#criteria.startNumber}
-              AND h.roomsNumber >= :#{#criteria.roomsNumber}
-              AND NOT EXISTS (
-                    SELECT 1
-                    FROM Booking b
-                    WHERE b.room.idRoom = r.idRoom
-                      AND b.startDate <= :#{#criteria.endDate}
-                      AND b.endDate >= :#{#criteria.startDate}
-                  )
-            """)
+    @Query("SELECT r " + AVAILABLE)
     List<Room> findAvailableRooms(@Param("criteria") RoomSearchCriteriaDTO criteria);
 
+    /**
+     * Sélection des chambres à plat pour l'API JSON : l'hôtel est joint pour quelques colonnes,
+     * sa chaîne et son gérant ne sont pas lus.
+     */
+    String ROW = """
+            SELECT new com.example.EHotel.dtos.RoomRowDTO(
+                r.idRoom, r.roomNumber, r.price, r.view, r.extensible, r.capacity, r.availability,
+                h.idHotel, h.name, h.city, h.startNumber)
+            """;
+
+    /**
+     * Même recherche que findAvailableRooms(), en projection à plat (une seule instruction).
+     *
+     * @param criteria Les critères de recherche
+     * @return Les chambres disponibles, par prix
+     */
+    @Query(ROW + AVAILABLE + "ORDER BY r.price, r.idRoom")
+    List<RoomRowDTO> findAvailableRows(@Param("criteria") RoomSearchCriteriaDTO criteria);
+
+    /**
+     * Récupère les chambres d'un hôtel à plat, par numéro.
+     *
+     * @param hotelId L'identifiant de l'hôtel
+     * @return Les chambres de l'hôtel
+     */
+    @Query(ROW + "FROM Room r JOIN r.hotel h WHERE h.idHotel = :hotelId ORDER BY r.roomNumber")
+    List<RoomRowDTO> findRowsByHotelId(@Param("hotelId") int hotelId);
+
+    /**
+     * Récupère une chambre à plat.
+     *
+     * @param id L'identifiant de la chambre
+     * @return La chambre, ou vide si elle n'existe pas
+     */
+    @Query(ROW + "FROM Room r JOIN r.hotel h WHERE r.idRoom = :id")
+    Optional<RoomRowDTO> findRow(@Param("id") int id);
+
     /**
      * Récupère une chambre par son identifiant.
      * Redéfinit la méthode héritée pour utiliser un int (primitif) au lieu d'Integer.
@@ -89,4 +151,67 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
      */
     @Query("SELECT r FROM Room r WHERE r.hotel.idHotel = :hotelId")
     List<Room> findByHotelId(@Param("hotelId") int hotelId);
+
+    /**
+     * Verrouille une chambre jusqu'à la fin de la transaction (SELECT ... FOR UPDATE).
+     * Sérialise les modifications de réservations d'une même chambre : la vérification
+     * de conflit et la mise à jour des dates ne peuvent pas être entrelacées.
+     *
+     * @param id L'identifiant de la chambre
+     * @return Un Optional contenant la chambre verrouillée, vide si introuvable
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.idRoom = :id")
+    Optional<Room> lockById(@Param("id") int id);
+
+    /**
+     * Projection d'un groupe de chambres interchangeables : même hôtel, même capacité.
+     */
+    interface RoomGroup {
+        Integer getIdHotel();
+        String getCapacity();
+    }
+
+    /**
+     * Récupère tous les groupes (hôtel, capacité) existants.
+     *
+     * @return Les groupes de chambres
+     */
+    @Query("SELECT DISTINCT r.hotel.idHotel AS idHotel, r.capacity AS capacity FROM Room r")
+    List<RoomGroup> findGroups();
+
+    /**
+     * Verrouille toutes les chambres d'un groupe (hôtel, capacité), dans l'ordre des ID
+     * pour éviter les interblocages entre deux affectations concurrentes.
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité
+     * @return Les chambres verrouillées
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.hotel.idHotel = :idHotel AND r.capacity = :capacity ORDER BY r.idRoom")
+    List<Room> lockGroup(@Param("idHotel") int idHotel, @Param("capacity") String capacity);
+
+    /**
+     * Projection d'une chambre d'un groupe : identifiant et disponibilité.
+     */
+    interface GroupRoom {
+        Integer getIdRoom();
+        Boolean getAvailability();
+    }
+
+    /**
+     * Lit, sans les verrouiller, les chambres d'un groupe (hôtel, capacité).
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité
+     * @return Les chambres du groupe, par ID
+     */
+    @Query("""
+            SELECT r.idRoom AS idRoom, r.availability AS availability
+            FROM Room r
+            WHERE r.hotel.idHotel = :idHotel AND r.capacity = :capacity
+            ORDER BY r.idRoom
+            """)
+    List<GroupRoom> findGroupRooms(@Param("idHotel") int idHotel, @Param("capacity") String capacity);
 }
@@ -0,0 +1,90 @@
+package com.example.EHotel.repositories.hotel;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.example.EHotel.model.hotel.WaitlistEntry;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Interface dépôt JPA pour la liste d'attente (table "waitlist_entry").
+ *
+ * Ajoute des méthodes personnalisées :
+ *   - findWaiting()      : toutes les demandes en attente (construction de l'index mémoire)
+ *   - findWaitingByIds() : chargement des demandes inscrites sur une autre instance
+ *   - lockById()         : verrouillage d'une demande avant sa promotion (SELECT ... FOR UPDATE)
+ *   - expireBefore()     : expiration groupée des demandes dont la date d'arrivée est passée
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    /**
+     * Récupère toutes les demandes en attente, au démarrage et à la reconstruction nocturne
+     * de l'index. Le client, l'hôtel et la chaîne sont chargés avec la demande.
+     *
+     * @return Les demandes en attente, par ordre d'inscription
+     */
+    @Query("""
+            SELECT w
+            FROM WaitlistEntry w
+            JOIN FETCH w.customer
+            LEFT JOIN FETCH w.hotel
+            LEFT JOIN FETCH w.hotelChain
+            WHERE w.status = 'Waiting'
+            ORDER BY w.idWaitlist
+            """)
+    List<WaitlistEntry> findWaiting();
+
+    /**
+     * Récupère des demandes en attente par identifiant.
+     * Le client, l'hôtel et la chaîne sont chargés avec la demande (clés de l'index).
+     *
+     * @param ids Identifiants des demandes
+     * @return Celles de ces demandes encore en attente, par ordre d'inscription
+     */
+    @Query("""
+            SELECT w
+            FROM WaitlistEntry w
+            JOIN FETCH w.customer
+            LEFT JOIN FETCH w.hotel
+            LEFT JOIN FETCH w.hotelChain
+            WHERE w.status = 'Waiting'
+              AND w.idWaitlist IN :ids
+            ORDER BY w.idWaitlist
+            """)
+    List<WaitlistEntry> findWaitingByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Verrouille une demande jusqu'à la fin de la transaction (deux promotions concurrentes
+     * de la même demande sont ainsi impossibles).
+     *
+     * @param id Identifiant de la demande
+     * @return La demande verrouillée, ou vide si elle n'existe plus
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.idWaitlist = :id")
+    Optional<WaitlistEntry> lockById(@Param("id") int id);
+
+    /**
+     * Passe au statut Expired les demandes en attente dont la date d'arrivée est passée.
+     *
+     * @param today La date du jour
+     * @return Le nombre de demandes expirées
+     */
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntry w
+            SET w.status = 'Expired'
+            WHERE w.status = 'Waiting'
+              AND w.startDate < :today
+            """)
+    int expireBefore(@Param("today") LocalDate today);
+}
@@ -1,7 +1,12 @@
 package com.example.EHotel.repositories.hotelchain;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import com.example.EHotel.dtos.ChainOptionDTO;
 import com.example.EHotel.model.hotelchain.HotelChain;
 
 /**
@@ -10,8 +15,18 @@ import com.example.EHotel.model.hotelchain.HotelChain;
  * Étend JpaRepository<HotelChain, Integer> pour bénéficier des opérations CRUD standard.
  * Les chaînes hôtelières sont des données de référence utilisées dans les formulaires
  * de création d'hôtel et de recherche de chambres.
+ *
+ * findOptions() lit l'identifiant et le nom des chaînes pour les listes déroulantes.
  */
 @Repository
 public interface HotelChainRepository extends JpaRepository<HotelChain, Integer> {
-    // Toutes les méthodes nécessaires sont héritées de JpaRepository
+
+    /**
+     * Récupère l'identifiant et le nom de toutes les chaînes, par identifiant, en une seule
+     * instruction (sans le nombre d'hôtels, calculé par une sous-requête).
+     *
+     * @return Les chaînes des listes déroulantes
+     */
+    @Query("SELECT new com.example.EHotel.dtos.ChainOptionDTO(c.id, c.name) FROM HotelChain c ORDER BY c.id")
+    List<ChainOptionDTO> findOptions();
 }
@@ -0,0 +1,47 @@
+package com.example.EHotel.repositories.outbox;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.example.EHotel.model.outbox.OutboxConsumerOffset;
+
+/**
+ * Interface dépôt JPA pour les positions de lecture des consommateurs de l'outbox
+ * (table "outbox_consumer_offset").
+ *
+ * La ligne d'un consommateur sert aussi de verrou : une seule instance de l'application
+ * traite un consommateur donné à un instant donné (SELECT ... FOR UPDATE SKIP LOCKED),
+ * les autres passent leur tour sans attendre.
+ */
+@Repository
+public interface OutboxConsumerOffsetRepository extends JpaRepository<OutboxConsumerOffset, String> {
+
+    /**
+     * Crée la position d'un consommateur (à (0, 0)) si elle n'existe pas encore.
+     *
+     * @param consumer Nom du consommateur
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO outbox_consumer_offset (consumer, last_tx_id, last_event_id, updated_at)
+            VALUES (:consumer, 0, 0, now())
+            ON CONFLICT (consumer) DO NOTHING
+            """, nativeQuery = true)
+    void createIfAbsent(@Param("consumer") String consumer);
+
+    /**
+     * Verrouille la position d'un consommateur jusqu'à la fin de la transaction.
+     *
+     * @param consumer Nom du consommateur
+     * @return La position, ou vide si une autre instance la traite déjà
+     */
+    @Query(value = """
+            SELECT * FROM outbox_consumer_offset
+            WHERE consumer = :consumer
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<OutboxConsumerOffset> lock(@Param("consumer") String consumer);
+}
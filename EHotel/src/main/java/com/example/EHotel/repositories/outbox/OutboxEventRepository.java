@@ -0,0 +1,60 @@
+package com.example.EHotel.repositories.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.example.EHotel.model.outbox.OutboxEvent;
+
+/**
+ * Interface dépôt JPA pour les événements de l'outbox (table "outbox_event").
+ *
+ * L'écriture passe par save() (héritée de JpaRepository), dans la transaction métier.
+ * La lecture se fait par lots ordonnés par (tx_id, id), à partir de la position d'un consommateur.
+ *
+ * Les ID ne suivent pas l'ordre des COMMIT : ils sont réservés par blocs (séquence à pas de 50)
+ * et une transaction d'ID 10 peut se terminer après celle d'ID 60. Une position faite du seul
+ * ID sauterait alors l'événement 10. La position est donc le couple (tx_id, id), et
+ * findBatchAfter() ne renvoie que les événements écrits par des transactions antérieures à la
+ * plus ancienne transaction encore en cours (tx_id < txid_snapshot_xmin) : aucune transaction
+ * de tx_id inférieur ne peut plus écrire, tous ses événements sont déjà visibles.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lit le prochain lot d'événements visibles sans trou après une position donnée.
+     *
+     * @param afterTx Transaction du dernier événement déjà traité
+     * @param afterId ID du dernier événement déjà traité
+     * @param limit   Taille maximale du lot
+     * @return Les événements suivants, triés par (tx_id, id) croissant
+     */
+    @Query(value = """
+            SELECT * FROM outbox_event
+            WHERE (tx_id, id) > (:afterTx, :afterId)
+              AND tx_id < txid_snapshot_xmin(txid_current_snapshot())
+            ORDER BY tx_id, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OutboxEvent> findBatchAfter(@Param("afterTx") long afterTx, @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Supprime les événements déjà traités par tous les consommateurs et plus anciens qu'une date.
+     *
+     * @param before Date limite de conservation
+     * @return Le nombre d'événements supprimés
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM outbox_event
+            WHERE created_at < :before
+              AND (tx_id, id) <= (SELECT last_tx_id, last_event_id FROM outbox_consumer_offset
+                                  ORDER BY last_tx_id, last_event_id LIMIT 1)
+            """, nativeQuery = true)
+    int purgeConsumedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,352 @@
+package com.example.EHotel.services;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Imports des DTOs utilisés
+import com.example.EHotel.dtos.AllotmentDTO;
+import com.example.EHotel.dtos.BookingDTO;
+// Imports des entités manipulées
+import com.example.EHotel.model.hotel.Allotment;
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.model.outbox.OutboxEvent;
+// Import du dépôt JPA des blocs
+import com.example.EHotel.repositories.hotel.AllotmentRepository;
+import com.example.EHotel.repositories.hotel.AllotmentRepository.AllotmentNight;
+
+// Micrometer : métriques exposées par Spring Boot Actuator (/actuator/metrics)
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+
+/**
+ * Service des blocs de chambres de groupe (congrès, voyages organisés).
+ *
+ * Un bloc retient N chambres d'une capacité dans un hôtel sur une période, sans créer
+ * N réservations :
+ *   1. Création : une seule instruction SQL crée le bloc, retient les N premières chambres
+ *      libres du groupe (hôtel, capacité) dans allotment_room et crée un compteur par nuit
+ *      (allotment_night.remaining = N). Les chambres retenues disparaissent de la recherche
+ *      et le trigger check_room_availability n'y accepte plus que les réservations du bloc.
+ *   2. Prise d'une chambre par un participant : un UPDATE conditionnel décrémente les
+ *      compteurs des nuits demandées (remaining > 0) ; si une nuit est épuisée, rien n'est
+ *      écrit. Une chambre du bloc libre sur ces nuits est ensuite choisie et la réservation
+ *      est créée par BookingService. Chaque candidate est verrouillée (FOR UPDATE, sans
+ *      SKIP LOCKED) puis revérifiée : une chambre prise au même moment par un autre
+ *      participant, pour d'autres nuits, est attendue plutôt qu'ignorée, et le bloc n'est
+ *      jamais déclaré plein à tort.
+ *   3. Libération : chaque nuit, les blocs dont la date limite est passée sont libérés en
+ *      une instruction ; leurs chambres retournent à l'inventaire général et un événement
+ *      ROOM est publié pour chacune (la liste d'attente les réexamine).
+ *
+ * L'annulation d'une réservation prise dans un bloc rend ses nuits au bloc
+ * (BookingService.cancelBooking). Les compteurs ehotel.allotment.rooms (étiquette "kind")
+ * comptent les chambres retenues, prises et libérées.
+ */
+@Service
+@Transactional
+public class AllotmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AllotmentService.class);
+
+    /**
+     * Crée un bloc, retient ses chambres et initialise ses compteurs de nuits.
+     * Seules les chambres disponibles, sans réservation ni location sur la période et non
+     * retenues par un autre bloc actif sont prises ; celles verrouillées par une autre
+     * transaction sont ignorées.
+     */
+    private static final String CREATE = """
+            WITH block AS (
+                INSERT INTO allotment (name, id_hotel, capacity, start_date, end_date, rooms_count,
+                                       cutoff_date, status, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, 'Held', now())
+                RETURNING id_allotment, start_date, end_date, rooms_count
+            ), held AS (
+                INSERT INTO allotment_room (id_allotment, id_room)
+                SELECT block.id_allotment, free.id_room
+                FROM block, (
+                    SELECT r.id_room
+                    FROM room r
+                    WHERE r.id_hotel = ?
+                      AND r.capacity = ?
+                      AND r.availability = TRUE
+                      AND NOT EXISTS (
+                            SELECT 1 FROM booking b
+                            WHERE b.id_room = r.id_room AND b.start_date <= ? AND b.end_date >= ?
+                          )
+                      AND NOT EXISTS (
+                            SELECT 1 FROM rental l
+                            WHERE l.id_room = r.id_room AND l.start_date <= ? AND l.end_date >= ?
+                          )
+                      AND NOT EXISTS (
+                            SELECT 1
+                            FROM allotment_room ar
+                            JOIN allotment a ON a.id_allotment = ar.id_allotment
+                            WHERE ar.id_room = r.id_room AND a.status = 'Held'
+                              AND a.start_date <= ? AND a.end_date >= ?
+                          )
+                    ORDER BY r.id_room
+                    LIMIT ?
+                    FOR UPDATE OF r SKIP LOCKED
+                ) free
+                RETURNING id_room
+            ), nights AS (
+                INSERT INTO allotment_night (id_allotment, night, remaining)
+                SELECT block.id_allotment, night::date, block.rooms_count
+                FROM block, generate_series(block.start_date, block.end_date, interval '1 day') night
+            )
+            SELECT block.id_allotment, (SELECT COUNT(*) FROM held)
+            FROM block
+            """;
+
+    /** Décrémente les compteurs des nuits demandées, si aucune n'est épuisée */
+    private static final String PICK_UP = """
+            UPDATE allotment_night n
+            SET remaining = n.remaining - 1
+            FROM allotment a
+            WHERE a.id_allotment = n.id_allotment
+              AND n.id_allotment = ?
+              AND a.status = 'Held'
+              AND a.cutoff_date >= ?
+              AND n.night BETWEEN ? AND ?
+              AND n.remaining > 0
+            """;
+
+    /** Chambres du bloc sans réservation sur la période, d'après l'instantané de la requête */
+    private static final String CANDIDATE_ROOMS = """
+            SELECT ar.id_room
+            FROM allotment_room ar
+            WHERE ar.id_allotment = ?
+              AND NOT EXISTS (
+                    SELECT 1 FROM booking b
+                    WHERE b.id_room = ar.id_room AND b.start_date <= ? AND b.end_date >= ?
+                  )
+            ORDER BY ar.id_room
+            """;
+
+    /** Verrouille une chambre du bloc, en attendant la fin d'une prise concurrente */
+    private static final String LOCK_ROOM = """
+            SELECT 1 FROM allotment_room
+            WHERE id_allotment = ? AND id_room = ?
+            FOR UPDATE
+            """;
+
+    /**
+     * Revérifie la période d'une chambre verrouillée : lancée après l'attente du verrou,
+     * l'instruction voit la réservation validée par la prise concurrente.
+     */
+    private static final String ROOM_FREE = """
+            SELECT NOT EXISTS (
+                SELECT 1 FROM booking b
+                WHERE b.id_room = ? AND b.start_date <= ? AND b.end_date >= ?
+            )
+            """;
+
+    /** Libère les blocs dont la date limite est passée et rend leurs chambres à l'inventaire */
+    private static final String RELEASE = """
+            WITH due AS (
+                UPDATE allotment
+                SET status = 'Released'
+                WHERE status = 'Held' AND cutoff_date < ?
+                RETURNING id_allotment
+            ), freed AS (
+                DELETE FROM allotment_room ar
+                USING due
+                WHERE ar.id_allotment = due.id_allotment
+                RETURNING ar.id_room
+            )
+            SELECT DISTINCT r.id_room, r.id_hotel, r.capacity, r.price
+            FROM freed f
+            JOIN room r ON r.id_room = f.id_room
+            """;
+
+    /** Dépôt JPA des blocs (lectures, rendu des nuits) */
+    @Autowired
+    private AllotmentRepository allotmentRepository;
+
+    /** Service des réservations : création de la réservation d'un participant */
+    @Autowired
+    private BookingService bookingService;
+
+    /** Accès JDBC direct : création, prise et libération sont des instructions SQL ensemblistes */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Outbox : publication des chambres libérées */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Registre Micrometer pour les compteurs de chambres */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Gestionnaire de transactions, pour annuler une création ou une prise incomplète */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Transaction de création ou de prise, annulée sans exception si le bloc ne suffit pas */
+    private TransactionTemplate transaction;
+
+    /**
+     * Prépare la transaction de création et de prise.
+     */
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Récupère tous les blocs, avec leur hôtel.
+     *
+     * @return Les blocs triés par date de début
+     */
+    @ReadOnlyTransactional
+    public List<Allotment> getAllotments() {
+        return allotmentRepository.findAllWithHotel();
+    }
+
+    /**
+     * Récupère un bloc par son identifiant.
+     *
+     * @param id Identifiant du bloc
+     * @return Le bloc, ou null s'il n'existe pas
+     */
+    @ReadOnlyTransactional
+    public Allotment getAllotment(int id) {
+        return allotmentRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Récupère le nombre de chambres restantes de chaque nuit d'un bloc.
+     *
+     * @param id Identifiant du bloc
+     * @return Les nuits du bloc, dans l'ordre
+     */
+    @ReadOnlyTransactional
+    public List<AllotmentNight> getNights(int id) {
+        return allotmentRepository.findNights(id);
+    }
+
+    /**
+     * Crée un bloc et retient ses chambres en une seule instruction.
+     * Si l'hôtel n'a pas assez de chambres libres sur la période, rien n'est enregistré.
+     *
+     * @param dto Les données du formulaire de création
+     * @return L'identifiant du bloc créé, ou null si les chambres libres ne suffisent pas
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Integer createAllotment(AllotmentDTO dto) {
+        return transaction.execute(status -> {
+            int[] created = jdbcTemplate.queryForObject(CREATE,
+                    (rs, rowNum) -> new int[] { rs.getInt(1), rs.getInt(2) },
+                    dto.getName(), dto.getIdHotel(), dto.getCapacity(), dto.getStartDate(), dto.getEndDate(),
+                    dto.getRoomsCount(), dto.getCutoffDate(),
+                    dto.getIdHotel(), dto.getCapacity(),
+                    dto.getEndDate(), dto.getStartDate(),
+                    dto.getEndDate(), dto.getStartDate(),
+                    dto.getEndDate(), dto.getStartDate(),
+                    dto.getRoomsCount());
+            if (created[1] < dto.getRoomsCount()) {
+                log.info("Bloc \"{}\" refusé : {} chambres libres sur {} demandées",
+                        dto.getName(), created[1], dto.getRoomsCount());
+                status.setRollbackOnly();
+                return null;
+            }
+            meterRegistry.counter("ehotel.allotment.rooms", "kind", "held").increment(created[1]);
+            return created[0];
+        });
+    }
+
+    /**
+     * Prend une chambre du bloc pour un participant : décrémente les compteurs des nuits
+     * demandées puis réserve une chambre du bloc (le client est créé s'il est inconnu).
+     * Si une nuit est épuisée, si la période sort du bloc ou si la date limite est passée,
+     * rien n'est enregistré.
+     *
+     * @param idAllotment Le bloc
+     * @param bookingDTO  Les données du participant et ses dates (la chambre est choisie ici)
+     * @return La réservation créée, ou null si le bloc ne peut pas l'accueillir
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Booking pickUp(int idAllotment, BookingDTO bookingDTO) {
+        LocalDate startDate = bookingDTO.getStartDate();
+        LocalDate endDate = bookingDTO.getEndDate();
+        int nights = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return transaction.execute(status -> {
+            int decremented = jdbcTemplate.update(PICK_UP, idAllotment, LocalDate.now(), startDate, endDate);
+            Integer idRoom = decremented == nights ? chooseRoom(idAllotment, startDate, endDate) : null;
+            if (idRoom == null) {
+                status.setRollbackOnly();
+                return null;
+            }
+            bookingDTO.setIdRoom(idRoom);
+            Booking booking = bookingService.bookRoom(bookingDTO, idAllotment);
+            meterRegistry.counter("ehotel.allotment.rooms", "kind", "picked").increment();
+            return booking;
+        });
+    }
+
+    /**
+     * Choisit une chambre du bloc libre sur la période. Les candidates sont verrouillées une à
+     * une par ID croissant (pas d'interblocage entre deux prises) ; une candidate réservée
+     * entre-temps par une prise concurrente est écartée au profit de la suivante.
+     *
+     * @return La chambre verrouillée, ou null si aucune chambre du bloc n'est libre
+     */
+    private Integer chooseRoom(int idAllotment, LocalDate startDate, LocalDate endDate) {
+        for (Integer idRoom : jdbcTemplate.queryForList(CANDIDATE_ROOMS, Integer.class,
+                idAllotment, endDate, startDate)) {
+            jdbcTemplate.queryForList(LOCK_ROOM, Integer.class, idAllotment, idRoom);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(ROOM_FREE, Boolean.class, idRoom, endDate, startDate))) {
+                return idRoom;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Libération de nuit des blocs dont la date limite est passée.
+     */
+    @Scheduled(cron = "${ehotel.allotment.release-cron:0 10 0 * * *}")
+    public void releaseDue() {
+        release(LocalDate.now());
+    }
+
+    /**
+     * Libère en une instruction les blocs dont la date limite est antérieure à une date :
+     * leurs chambres retournent à l'inventaire général (les réservations déjà prises dans
+     * le bloc restent sur leur chambre) et un événement ROOM est publié pour chacune.
+     *
+     * @param today Premier jour où la prise n'est plus possible pour les blocs libérés
+     * @return Le nombre de chambres rendues à l'inventaire
+     */
+    public int release(LocalDate today) {
+        List<Map<String, Object>> rooms = jdbcTemplate.queryForList(RELEASE, today);
+        for (Map<String, Object> room : rooms) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("idRoom", room.get("id_room"));
+            payload.put("idHotel", room.get("id_hotel"));
+            payload.put("capacity", room.get("capacity"));
+            payload.put("price", room.get("price"));
+            payload.put("availability", true);
+            outboxService.publish(OutboxEvent.ROOM, room.get("id_room"), OutboxEvent.UPDATED, payload);
+        }
+        if (!rooms.isEmpty()) {
+            meterRegistry.counter("ehotel.allotment.rooms", "kind", "released").increment(rooms.size());
+            log.info("Blocs de groupe : {} chambres rendues à l'inventaire", rooms.size());
+        }
+        return rooms.size();
+    }
+}
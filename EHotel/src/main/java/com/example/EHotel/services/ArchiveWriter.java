@@ -0,0 +1,523 @@
+package com.example.EHotel.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Entités dont on archive les lignes
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.model.hotel.Rental;
+
+// Micrometer : métriques exposées par Spring Boot Actuator (/actuator/metrics)
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service d'archivage asynchrone ("write-behind") des réservations et des locations.
+ *
+ * Remplace les triggers archieve_booking / archieve_rental, qui copiaient chaque nouvelle ligne
+ * dans booking_archieve / rental_archieve à l'intérieur de la transaction de l'utilisateur
+ * (allongeant la durée des verrous sur le chemin critique).
+ *
+ * Fonctionnement :
+ *   1. Les services appellent archiveBooking() / archiveRental() juste après l'INSERT
+ *   2. Après le COMMIT, toutes les lignes de la transaction sont écrites dans un journal
+ *      local (fichier en ajout seul, forcé sur disque), puis placées dans une file bornée en
+ *      mémoire. Le journal ne contient donc que des lignes validées : son rejeu ne crée jamais
+ *      d'archive pour une transaction annulée
+ *   3. Une tâche planifiée vide la file par lots et les insère avec un INSERT multi-lignes
+ *      (... ON CONFLICT DO NOTHING : le rejeu du journal est idempotent)
+ *   4. Dès que la file est vide et que plus aucune ligne journalisée n'attend d'être écrite,
+ *      le journal est tronqué ; au démarrage, son contenu restant est rejoué. Si l'écriture
+ *      directe d'une ligne échoue (file pleine, base indisponible), le journal est conservé
+ *      et rejoué au vidage suivant
+ *   5. Au démarrage, après le rejeu, les réservations et locations encore présentes sans ligne
+ *      d'archive sont archivées depuis les tables booking / rental (réconciliation) : un arrêt
+ *      brutal entre le COMMIT et l'écriture du journal ne perd donc pas leur archive
+ *
+ * Métriques : ehotel.archive.queue.size (lignes en attente) et ehotel.archive.lag
+ * (âge en secondes de la plus ancienne ligne en attente).
+ * À l'arrêt de l'application (@PreDestroy), la file est entièrement vidée en base.
+ */
+@Service
+public class ArchiveWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveWriter.class);
+
+    /** Archive les réservations validées dont la ligne d'archive manque (réconciliation) */
+    private static final String RECONCILE_BOOKINGS = """
+            INSERT INTO booking_archieve (id_booking, sin_customer, id_room, start_date, end_date)
+            SELECT b.id_booking, b.sin_customer, b.id_room, b.start_date, b.end_date
+            FROM booking b
+            WHERE NOT EXISTS (SELECT 1 FROM booking_archieve a WHERE a.id_booking = b.id_booking)
+            ON CONFLICT (id_booking) DO NOTHING
+            """;
+
+    /** Archive les locations validées dont la ligne d'archive manque (réconciliation) */
+    private static final String RECONCILE_RENTALS = """
+            INSERT INTO rental_archieve (id_rental, sin_customer, id_room, start_date, end_date)
+            SELECT l.id_rental, l.sin_customer, l.id_room, l.start_date, l.end_date
+            FROM rental l
+            WHERE NOT EXISTS (SELECT 1 FROM rental_archieve a WHERE a.id_rental = l.id_rental)
+            ON CONFLICT (id_rental) DO NOTHING
+            """;
+
+    /** Type de ligne archivée : réservation (booking_archieve) ou location (rental_archieve) */
+    public enum Kind { BOOKING, RENTAL }
+
+    /**
+     * Ligne à archiver, telle qu'elle a été insérée dans booking ou rental.
+     *
+     * @param kind       Table d'archive cible
+     * @param id         Identifiant de la réservation ou de la location
+     * @param sin        NAS du client
+     * @param idRoom     Identifiant de la chambre
+     * @param startDate  Date de début
+     * @param endDate    Date de fin
+     * @param enqueuedAt Instant de mise en file (calcul du retard)
+     */
+    public record Entry(Kind kind, Integer id, String sin, Integer idRoom,
+                        LocalDate startDate, LocalDate endDate, Instant enqueuedAt) {
+    }
+
+    /** Clé de la liste des lignes à archiver attachée à la transaction courante */
+    private static final Object TX_KEY = new Object();
+
+    /** Accès JDBC direct pour les INSERT multi-lignes */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Registre Micrometer pour les métriques de retard */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Nombre maximal de lignes en attente dans la file mémoire */
+    @Value("${ehotel.archive.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /** Nombre maximal de lignes par INSERT multi-lignes */
+    @Value("${ehotel.archive.batch-size:500}")
+    private int batchSize;
+
+    /** Chemin du journal local */
+    @Value("${ehotel.archive.journal:data/archive-journal.log}")
+    private Path journalPath;
+
+    /** File bornée des lignes validées (COMMIT) en attente d'écriture */
+    private BlockingDeque<Entry> queue;
+
+    /**
+     * Nombre de lignes journalisées mais ni en file ni écrites (entre la journalisation et la
+     * mise en file, ou pendant l'écriture directe d'une file pleine) : le journal n'est pas
+     * tronqué tant qu'il n'est pas nul.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Verrou du journal (ajout, troncature) */
+    private final ReentrantLock journalLock = new ReentrantLock();
+
+    /** Verrou de vidage de la file (tâche planifiée, arrêt) */
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    /** Canal d'écriture du journal, ouvert en ajout */
+    private FileChannel journal;
+
+    /**
+     * Vrai une fois le journal rejoué (sinon, pas de troncature) : faux au démarrage, et de
+     * nouveau après l'échec d'une écriture directe, pour que le vidage suivant rejoue le journal.
+     */
+    private volatile boolean replayed;
+
+    /** Vrai une fois la réconciliation de démarrage faite (retentée au vidage suivant si elle échoue) */
+    private volatile boolean reconciled;
+
+    /**
+     * Ouvre le journal et enregistre les métriques.
+     *
+     * @throws IOException si le journal ne peut pas être ouvert
+     */
+    @PostConstruct
+    void open() throws IOException {
+        queue = new LinkedBlockingDeque<>(queueCapacity);
+        if (journalPath.getParent() != null) {
+            Files.createDirectories(journalPath.getParent());
+        }
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        Gauge.builder("ehotel.archive.queue.size", queue, BlockingDeque::size)
+                .description("Lignes d'archive en attente d'écriture")
+                .register(meterRegistry);
+        Gauge.builder("ehotel.archive.lag", this, ArchiveWriter::lagSeconds)
+                .description("Âge de la plus ancienne ligne d'archive en attente")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Programme l'archivage d'une réservation qui vient d'être insérée.
+     *
+     * @param booking La réservation insérée (son ID doit être attribué)
+     */
+    public void archiveBooking(Booking booking) {
+        archive(new Entry(Kind.BOOKING, booking.getIdBooking(), booking.getCustomer().getSinCustomer(),
+                booking.getRoom().getIdRoom(), booking.getStartDate(), booking.getEndDate(), Instant.now()));
+    }
+
+    /**
+     * Programme l'archivage d'une location qui vient d'être insérée.
+     *
+     * @param rental La location insérée (son ID doit être attribué)
+     */
+    public void archiveRental(Rental rental) {
+        archiveRental(rental.getIdRental(), rental.getCustomer().getSinCustomer(), rental.getRoom().getIdRoom(),
+                rental.getStartDate(), rental.getEndDate());
+    }
+
+    /**
+     * Programme l'archivage d'une location insérée directement en SQL (check-in groupé).
+     *
+     * @param idRental  Identifiant de la location
+     * @param sin       NAS du client
+     * @param idRoom    Identifiant de la chambre
+     * @param startDate Date de début
+     * @param endDate   Date de fin
+     */
+    public void archiveRental(Integer idRental, String sin, Integer idRoom, LocalDate startDate, LocalDate endDate) {
+        archive(new Entry(Kind.RENTAL, idRental, sin, idRoom, startDate, endDate, Instant.now()));
+    }
+
+    /**
+     * Rattache la ligne à la transaction courante : journalisée puis mise en file après le
+     * COMMIT, oubliée en cas de ROLLBACK. Hors transaction, la ligne est journalisée et mise
+     * en file immédiatement.
+     *
+     * @param entry La ligne à archiver
+     */
+    @SuppressWarnings("unchecked")
+    private void archive(Entry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journalAndEnqueue(List.of(entry));
+            return;
+        }
+        List<Entry> pending = (List<Entry>) TransactionSynchronizationManager.getResource(TX_KEY);
+        if (pending == null) {
+            List<Entry> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(TX_KEY, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    journalAndEnqueue(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+                }
+            });
+            pending = entries;
+        }
+        pending.add(entry);
+    }
+
+    /**
+     * Journalise des lignes validées (une seule écriture forcée sur disque), puis les met en file.
+     * La transaction est déjà validée : si le journal ne peut pas être écrit, les lignes sont
+     * tout de même archivées depuis la mémoire (un arrêt avant leur écriture est rattrapé par
+     * la réconciliation du démarrage suivant).
+     *
+     * @param entries Les lignes validées
+     */
+    private void journalAndEnqueue(List<Entry> entries) {
+        try {
+            appendToJournal(entries);
+        } catch (UncheckedIOException e) {
+            log.error("Journalisation de {} ligne(s) d'archive impossible, archivage depuis la mémoire",
+                    entries.size(), e);
+        }
+        enqueueAll(entries);
+    }
+
+    /**
+     * Ajoute des lignes au journal et force leur écriture sur disque. Les lignes sont comptées
+     * dans inFlight même si l'écriture échoue : enqueueAll() les décompte ensuite.
+     *
+     * @param entries Les lignes à journaliser
+     */
+    private void appendToJournal(List<Entry> entries) {
+        StringBuilder lines = new StringBuilder();
+        for (Entry e : entries) {
+            lines.append(e.kind() == Kind.BOOKING ? 'B' : 'R').append(';')
+                 .append(e.id()).append(';').append(e.sin()).append(';').append(e.idRoom()).append(';')
+                 .append(e.startDate()).append(';').append(e.endDate()).append('\n');
+        }
+        journalLock.lock();
+        try {
+            inFlight.addAndGet(entries.size());
+            journal.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+            journal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'écrire dans le journal d'archivage", e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Place des lignes journalisées dans la file. Si la file est pleine, les lignes restantes
+     * sont écrites immédiatement par le thread appelant (contre-pression).
+     *
+     * Chaque ligne ne quitte le compte inFlight qu'une fois en file, ou une fois son écriture
+     * directe terminée : le journal ne peut pas être tronqué pendant cette écriture.
+     *
+     * @param entries Les lignes journalisées
+     */
+    private void enqueueAll(List<Entry> entries) {
+        List<Entry> overflow = new ArrayList<>();
+        for (Entry e : entries) {
+            if (queue.offerLast(e)) {
+                inFlight.decrementAndGet();
+            } else {
+                overflow.add(e);
+            }
+        }
+        if (overflow.isEmpty()) {
+            return;
+        }
+        try {
+            write(overflow);
+        } catch (RuntimeException ex) {
+            // Les lignes restent dans le journal, qui est conservé et rejoué au vidage suivant
+            replayed = false;
+            log.error("Archivage de {} ligne(s) impossible, conservées dans le journal", overflow.size(), ex);
+        } finally {
+            inFlight.addAndGet(-overflow.size());
+        }
+    }
+
+    /**
+     * Tâche planifiée : vide la file par lots d'INSERT multi-lignes,
+     * puis tronque le journal si plus rien n'est en attente.
+     */
+    @Scheduled(fixedDelayString = "${ehotel.archive.flush-interval-ms:200}")
+    public void drain() {
+        drainLock.lock();
+        try {
+            if (!replayed) {
+                // Le rejeu initial a échoué (base indisponible au démarrage) : on le retente
+                replayJournal();
+            }
+            List<Entry> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    write(batch);
+                } catch (DataAccessException e) {
+                    // Remet le lot en tête de file (dans l'ordre) et réessaie au prochain passage
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        queue.offerFirst(batch.get(i));
+                    }
+                    log.warn("Échec de l'écriture d'un lot d'archives, nouvel essai au prochain passage", e);
+                    return;
+                }
+                batch.clear();
+            }
+            truncateJournalIfIdle();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Écrit des lignes dans booking_archieve / rental_archieve avec un INSERT multi-lignes par table.
+     *
+     * @param entries Les lignes à écrire
+     */
+    private void write(List<Entry> entries) {
+        List<Entry> bookings = new ArrayList<>();
+        List<Entry> rentals = new ArrayList<>();
+        for (Entry e : entries) {
+            (e.kind() == Kind.BOOKING ? bookings : rentals).add(e);
+        }
+        insertRows("booking_archieve", "id_booking", bookings);
+        insertRows("rental_archieve", "id_rental", rentals);
+    }
+
+    /**
+     * Construit et exécute un INSERT multi-lignes idempotent (ON CONFLICT DO NOTHING).
+     *
+     * @param table    Table d'archive cible
+     * @param idColumn Colonne clé primaire de la table
+     * @param entries  Les lignes à insérer
+     */
+    private void insertRows(String table, String idColumn, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (").append(idColumn)
+                .append(", sin_customer, id_room, start_date, end_date) VALUES ");
+        Object[] args = new Object[entries.size() * 5];
+        int i = 0;
+        for (Entry e : entries) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+            args[i++] = e.id();
+            args[i++] = e.sin();
+            args[i++] = e.idRoom();
+            args[i++] = e.startDate();
+            args[i++] = e.endDate();
+        }
+        sql.append(" ON CONFLICT (").append(idColumn).append(") DO NOTHING");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * Tronque le journal lorsque tout ce qu'il contient est écrit en base :
+     * file vide et aucune transaction entre journalisation et mise en file.
+     */
+    private void truncateJournalIfIdle() {
+        journalLock.lock();
+        try {
+            if (replayed && queue.isEmpty() && inFlight.get() == 0 && journal.size() > 0) {
+                journal.truncate(0);
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            log.warn("Impossible de tronquer le journal d'archivage", e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Rejoue les lignes restées dans le journal : au démarrage (arrêt brutal, base
+     * indisponible), puis au vidage qui suit un échec d'écriture directe. Toutes ses lignes
+     * sont validées ; elles sont réinsérées sans doublon grâce à ON CONFLICT DO NOTHING.
+     * Au premier rejeu réussi, les tables booking et rental sont ensuite réconciliées.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        // Exclusif avec le vidage : une troncature ne doit pas suivre un lot encore en écriture
+        drainLock.lock();
+        try {
+            replayJournalLocked();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void replayJournalLocked() {
+        if (replayed) {
+            return;
+        }
+        // Posé avant la lecture : un échec d'écriture directe survenu pendant le rejeu (ligne
+        // journalisée après la lecture) le remet à faux et empêche la troncature qui suit
+        replayed = true;
+        List<String> lines;
+        journalLock.lock();
+        try {
+            lines = Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            replayed = false;
+            throw new UncheckedIOException("Impossible de relire le journal d'archivage", e);
+        } finally {
+            journalLock.unlock();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines) {
+            String[] f = line.split(";");
+            if (f.length != 6) {
+                log.warn("Ligne illisible ignorée dans le journal d'archivage : {}", line);
+                continue;
+            }
+            try {
+                entries.add(new Entry("B".equals(f[0]) ? Kind.BOOKING : Kind.RENTAL, Integer.valueOf(f[1]), f[2],
+                        Integer.valueOf(f[3]), LocalDate.parse(f[4]), LocalDate.parse(f[5]), Instant.now()));
+            } catch (RuntimeException e) {
+                // Dernière ligne tronquée par un arrêt brutal pendant sa journalisation
+                log.warn("Ligne illisible ignorée dans le journal d'archivage : {}", line);
+            }
+        }
+        if (!entries.isEmpty()) {
+            log.info("Rejeu de {} ligne(s) du journal d'archivage", entries.size());
+        }
+        try {
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                write(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+            }
+            reconcile();
+        } catch (DataAccessException e) {
+            // Le journal est conservé : le rejeu sera retenté au prochain vidage
+            replayed = false;
+            log.error("Rejeu du journal d'archivage impossible, nouvel essai au prochain vidage", e);
+            return;
+        }
+        truncateJournalIfIdle();
+    }
+
+    /**
+     * Archive les réservations et locations validées dont la ligne d'archive manque : celles
+     * d'une transaction validée juste avant un arrêt brutal, avant l'écriture du journal.
+     * Faite une seule fois, au démarrage ; un anti-join par table, sans doublon.
+     */
+    private void reconcile() {
+        if (reconciled) {
+            return;
+        }
+        int bookings = jdbcTemplate.update(RECONCILE_BOOKINGS);
+        int rentals = jdbcTemplate.update(RECONCILE_RENTALS);
+        reconciled = true;
+        if (bookings + rentals > 0) {
+            log.warn("Réconciliation : {} réservation(s) et {} location(s) archivées après un arrêt brutal",
+                    bookings, rentals);
+        }
+    }
+
+    /**
+     * Arrêt de l'application : écrit toutes les lignes encore en file avant de fermer le journal.
+     *
+     * @throws IOException si le journal ne peut pas être fermé
+     */
+    @PreDestroy
+    void shutdown() throws IOException {
+        log.info("Arrêt : écriture des {} ligne(s) d'archive en attente", queue.size());
+        drain();
+        journal.close();
+    }
+
+    /**
+     * Retard de l'archivage : âge de la plus ancienne ligne en attente.
+     *
+     * @return Le retard en secondes (0 si la file est vide)
+     */
+    double lagSeconds() {
+        Entry oldest = queue.peekFirst();
+        return oldest == null ? 0 : Duration.between(oldest.enqueuedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+}
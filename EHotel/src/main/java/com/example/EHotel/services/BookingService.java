@@ -1,15 +1,44 @@
 package com.example.EHotel.services;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-// Import de l'entité Booking (réservation)
+// Imports des DTOs utilisés par la réservation groupée
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.BookingResultDTO;
+import com.example.EHotel.dtos.KeysetPage;
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.StayDTO;
+import com.example.EHotel.dtos.StayRowDTO;
+// Imports des entités manipulées
+import com.example.EHotel.model.customer.Customer;
 import com.example.EHotel.model.hotel.Booking;
-// Import du dépôt JPA pour les opérations sur les réservations
+import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.model.outbox.OutboxEvent;
+// Imports des dépôts JPA utilisés
+import com.example.EHotel.repositories.customer.CustomerRepository;
+import com.example.EHotel.repositories.hotel.AllotmentRepository;
 import com.example.EHotel.repositories.hotel.BookingRepository;
+import com.example.EHotel.repositories.hotel.RentalRepository;
+import com.example.EHotel.repositories.hotel.RoomRepository;
+import com.example.EHotel.services.TableVersionService.Table;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 /**
  * Service gérant la logique métier liée aux réservations de chambres.
@@ -23,6 +52,15 @@ import jakarta.transaction.Transactional;
 @Transactional  // Toutes les méthodes s'exécutent dans un contexte transactionnel
 public class BookingService {
 
+    /** Lignes de la liste des réservations ; getBookings() ajoute les filtres saisis */
+    private static final String BOOKING_ROWS = """
+            SELECT new com.example.EHotel.dtos.StayRowDTO(
+                   b.idBooking, c.firstname, c.lastname, h.name, r.roomNumber, b.startDate, b.endDate)
+            FROM Booking b
+            JOIN b.customer c
+            JOIN b.room r
+            JOIN r.hotel h""";
+
     /**
      * Dépôt JPA pour l'accès à la base de données (table "booking").
      * Injecté automatiquement par Spring via @Autowired.
@@ -30,6 +68,53 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    /** Archivage asynchrone des nouvelles réservations (remplace le trigger archieve_booking) */
+    @Autowired
+    private ArchiveWriter archiveWriter;
+
+    /** Outbox transactionnelle : chaque modification publie un événement dans la même transaction */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Dépôt JPA des chambres (validation d'un lot de réservations) */
+    @Autowired
+    private RoomRepository roomRepository;
+
+    /** Dépôt JPA des locations (conflits lors d'une modification de dates) */
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    /** Dépôt JPA des blocs de groupe (nuits rendues à l'annulation d'une réservation du bloc) */
+    @Autowired
+    private AllotmentRepository allotmentRepository;
+
+    /** Dépôt JPA des clients (recherche groupée des clients existants) */
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    /** Nouvel essai des modifications en conflit (verrouillage optimiste) */
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    /** Compteurs de modification des tables (ETag des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Validateur Bean Validation, pour valider chaque élément d'un lot séparément */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * EntityManager JPA : la réservation groupée appelle persist() directement
+     * pour éviter le SELECT de fusion que save() déclenche sur les clés assignées (NAS).
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Taille d'un lot JDBC : le contexte de persistance est vidé à ce rythme */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     /**
      * Enregistre une nouvelle réservation en base de données.
      *
@@ -38,6 +123,252 @@ public class BookingService {
     @SuppressWarnings("null")
     public void addBooking(Booking booking) {
         bookingRepository.save(booking);
+        archiveWriter.archiveBooking(booking);
+        publish(booking, OutboxEvent.CREATED);
+    }
+
+    /**
+     * Réserve une chambre pour un client, en créant le client s'il est inconnu.
+     *
+     * Chemin optimisé du formulaire de réservation (POST /room/booking) :
+     *   1. Un seul INSERT ... ON CONFLICT DO NOTHING pour le client (pas de SELECT préalable)
+     *   2. Un seul INSERT pour la réservation : le client et la chambre sont référencés
+     *      par getReference() (proxys sans requête), l'ID vient de la séquence Hibernate
+     *
+     * L'existence et la disponibilité de la chambre sont vérifiées par le trigger
+     * check_room_availability : si la chambre est introuvable ou indisponible,
+     * l'INSERT échoue et une PersistenceException est levée par flush().
+     *
+     * @param bookingDTO Les données du formulaire de réservation
+     * @return La réservation créée
+     */
+    public Booking bookRoom(BookingDTO bookingDTO) {
+        return bookRoom(bookingDTO, null);
+    }
+
+    /**
+     * Réserve une chambre pour un client, éventuellement dans un bloc de groupe
+     * (prise d'une chambre par un participant, voir AllotmentService).
+     *
+     * @param bookingDTO  Les données du formulaire de réservation
+     * @param idAllotment Le bloc d'où la chambre est prise (null hors bloc)
+     * @return La réservation créée
+     */
+    public Booking bookRoom(BookingDTO bookingDTO, Integer idAllotment) {
+        customerRepository.insertIfAbsent(new Customer(
+            bookingDTO.getSinCustomer(),
+            bookingDTO.getFirstname(),
+            bookingDTO.getLastname(),
+            bookingDTO.getCheckInDate(),
+            bookingDTO.getStreetNumber(),
+            bookingDTO.getStreetName(),
+            bookingDTO.getCity(),
+            bookingDTO.getPostalCode(),
+            bookingDTO.getCountry()
+        ));
+        tableVersionService.bump(Table.CUSTOMER);
+        return bookRoom(bookingDTO.getSinCustomer(), bookingDTO.getIdRoom(),
+                bookingDTO.getStartDate(), bookingDTO.getEndDate(), idAllotment);
+    }
+
+    /**
+     * Réserve une chambre pour un client existant (ex : promotion depuis la liste d'attente).
+     * Même chemin que bookRoom(BookingDTO), sans l'upsert du client.
+     *
+     * @param sinCustomer NAS du client (doit exister en base)
+     * @param idRoom      Identifiant de la chambre
+     * @param startDate   Date de début
+     * @param endDate     Date de fin
+     * @return La réservation créée
+     */
+    public Booking bookRoom(String sinCustomer, int idRoom, LocalDate startDate, LocalDate endDate) {
+        return bookRoom(sinCustomer, idRoom, startDate, endDate, null);
+    }
+
+    /**
+     * Réserve une chambre pour un client existant, éventuellement dans un bloc de groupe.
+     * Le trigger check_room_availability n'accepte une chambre retenue par un bloc
+     * que pour une réservation de ce bloc.
+     */
+    private Booking bookRoom(String sinCustomer, int idRoom, LocalDate startDate, LocalDate endDate,
+                             Integer idAllotment) {
+        Booking booking = new Booking(
+            entityManager.getReference(Customer.class, sinCustomer),
+            entityManager.getReference(Room.class, idRoom),
+            startDate,
+            endDate
+        );
+        booking.setIdAllotment(idAllotment);
+        entityManager.persist(booking);
+        // Force l'INSERT maintenant pour que le refus du trigger remonte à l'appelant
+        entityManager.flush();
+        archiveWriter.archiveBooking(booking);
+        publish(booking, OutboxEvent.CREATED);
+        return booking;
+    }
+
+    /**
+     * Enregistre un lot de réservations (agences de voyage, groupes) en une seule transaction.
+     *
+     * Le lot est validé en une passe avant toute écriture :
+     *   1. Chaque élément est validé (Bean Validation + règles de dates du schéma SQL)
+     *   2. Les chambres et les clients du lot sont chargés en deux requêtes (findAllById)
+     *   3. Les réservations existantes qui chevauchent le lot sont chargées en une requête
+     *   4. Chaque élément est refusé si sa chambre est indisponible, déjà réservée sur la
+     *      période, ou déjà prise sur une période qui chevauche la sienne par un élément
+     *      précédent du lot. L'insertion d'une réservation ne rend pas la chambre indisponible
+     *      (la dernière définition de update_room_availability ne fait que libérer les chambres
+     *      dont le séjour est terminé) : deux séjours disjoints du lot dans une même chambre
+     *      sont donc acceptés, comme ils le seraient un par un
+     *
+     * Les éléments acceptés sont ensuite insérés par lots JDBC (hibernate.jdbc.batch_size,
+     * order_inserts) : les nouveaux clients et les réservations sont persistés avec persist()
+     * et le contexte de persistance est vidé tous les batchSize éléments.
+     *
+     * @param bookings Les réservations à créer, dans l'ordre reçu
+     * @return Un résultat par réservation, dans le même ordre (succès ou raison du refus)
+     */
+    public List<BookingResultDTO> addBookings(List<BookingDTO> bookings) {
+        List<BookingResultDTO> results = new ArrayList<>(bookings.size());
+        LocalDate today = LocalDate.now();
+
+        // Première passe : validation individuelle, sans accès à la base
+        List<String> errors = new ArrayList<>(bookings.size());
+        Set<Integer> roomIds = new HashSet<>();
+        Set<String> sins = new HashSet<>();
+        LocalDate minStart = null;
+        LocalDate maxEnd = null;
+        for (BookingDTO dto : bookings) {
+            String error = validate(dto, today);
+            errors.add(error);
+            if (error != null) {
+                continue;
+            }
+            roomIds.add(dto.getIdRoom());
+            sins.add(dto.getSinCustomer());
+            minStart = minStart == null || dto.getStartDate().isBefore(minStart) ? dto.getStartDate() : minStart;
+            maxEnd = maxEnd == null || dto.getEndDate().isAfter(maxEnd) ? dto.getEndDate() : maxEnd;
+        }
+
+        // Chargement groupé : chambres, clients et occupations existantes (3 requêtes pour tout le lot)
+        Map<Integer, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getIdRoom, Function.identity()));
+        Map<String, Customer> customers = customerRepository.findAllById(sins).stream()
+                .collect(Collectors.toMap(Customer::getSinCustomer, Function.identity()));
+        Map<Integer, List<StayDTO>> staysByRoom = roomIds.isEmpty()
+                ? new HashMap<>()
+                : bookingRepository.findStays(roomIds, minStart, maxEnd).stream()
+                        .collect(Collectors.groupingBy(StayDTO::getIdRoom));
+
+        // Deuxième passe : contrôle de disponibilité puis persistance des éléments acceptés
+        Map<Integer, List<StayDTO>> claimedStays = new HashMap<>();
+        int pending = 0;
+        for (int i = 0; i < bookings.size(); i++) {
+            BookingDTO dto = bookings.get(i);
+            String error = errors.get(i);
+            Room room = error == null ? rooms.get(dto.getIdRoom()) : null;
+            if (error == null) {
+                error = checkAvailability(dto, room, staysByRoom, claimedStays);
+            }
+            if (error != null) {
+                results.add(BookingResultDTO.failure(i, error));
+                continue;
+            }
+
+            // Crée le client s'il est inconnu (une seule fois par NAS dans le lot)
+            Customer customer = customers.get(dto.getSinCustomer());
+            if (customer == null) {
+                customer = new Customer(
+                    dto.getSinCustomer(),
+                    dto.getFirstname(),
+                    dto.getLastname(),
+                    dto.getCheckInDate(),
+                    dto.getStreetNumber(),
+                    dto.getStreetName(),
+                    dto.getCity(),
+                    dto.getPostalCode(),
+                    dto.getCountry()
+                );
+                entityManager.persist(customer);
+                customers.put(customer.getSinCustomer(), customer);
+                tableVersionService.bump(Table.CUSTOMER);
+            }
+
+            Booking booking = new Booking(customer, room, dto.getStartDate(), dto.getEndDate());
+            entityManager.persist(booking);
+            archiveWriter.archiveBooking(booking);
+            publish(booking, OutboxEvent.CREATED);
+            claimedStays.computeIfAbsent(room.getIdRoom(), id -> new ArrayList<>())
+                    .add(new StayDTO(room.getIdRoom(), dto.getStartDate(), dto.getEndDate()));
+            results.add(BookingResultDTO.success(i, booking.getIdBooking()));
+
+            // Envoie le lot JDBC et libère le contexte de persistance
+            if (++pending % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        return results;
+    }
+
+    /**
+     * Valide un élément du lot sans accès à la base de données.
+     * Reprend les contraintes Bean Validation du BookingDTO et les CHECK de la table booking
+     * (start_date >= CURRENT_DATE, end_date > start_date), afin qu'un seul élément invalide
+     * ne fasse pas échouer l'INSERT de tout le lot.
+     *
+     * @param dto   L'élément à valider
+     * @param today La date du jour
+     * @return Le message d'erreur, ou null si l'élément est valide
+     */
+    private String validate(BookingDTO dto, LocalDate today) {
+        if (dto == null) {
+            return "Réservation vide.";
+        }
+        Set<ConstraintViolation<BookingDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<BookingDTO> violation = violations.iterator().next();
+            return violation.getPropertyPath() + " : " + violation.getMessage();
+        }
+        if (dto.getStartDate().isBefore(today)) {
+            return "La date de début ne peut pas être dans le passé.";
+        }
+        if (!dto.getEndDate().isAfter(dto.getStartDate())) {
+            return "La date de fin doit être après la date de début.";
+        }
+        return null;
+    }
+
+    /**
+     * Vérifie qu'une chambre peut recevoir la réservation, avec les mêmes règles
+     * que la recherche (RoomRepository.findAvailableRooms) et le trigger check_room_availability.
+     *
+     * @param dto          L'élément à contrôler
+     * @param room         La chambre demandée (null si introuvable)
+     * @param staysByRoom  Occupations existantes, groupées par chambre
+     * @param claimedStays Séjours acceptés plus tôt dans le lot, groupés par chambre
+     * @return Le message d'erreur, ou null si la chambre est libre
+     */
+    private String checkAvailability(BookingDTO dto, Room room, Map<Integer, List<StayDTO>> staysByRoom,
+                                     Map<Integer, List<StayDTO>> claimedStays) {
+        if (room == null) {
+            return "La chambre sélectionnée est introuvable.";
+        }
+        if (!Boolean.TRUE.equals(room.getAvailability())) {
+            return "La chambre n'est pas disponible.";
+        }
+        for (StayDTO stay : staysByRoom.getOrDefault(room.getIdRoom(), List.of())) {
+            if (stay.overlaps(dto.getStartDate(), dto.getEndDate())) {
+                return "La chambre est déjà réservée sur cette période.";
+            }
+        }
+        for (StayDTO stay : claimedStays.getOrDefault(room.getIdRoom(), List.of())) {
+            if (stay.overlaps(dto.getStartDate(), dto.getEndDate())) {
+                return "La chambre est déjà prise sur cette période par une réservation précédente du lot.";
+            }
+        }
+        return null;
     }
 
     /**
@@ -46,6 +377,7 @@ public class BookingService {
      * @param id Identifiant unique de la réservation
      * @return La réservation correspondante, ou null si non trouvée
      */
+    @ReadOnlyTransactional
     public Booking getBooking(int id) {
         return bookingRepository.findById(id).orElse(null);
     }
@@ -56,17 +388,28 @@ public class BookingService {
      * @param sinCustomer Le NAS (Numéro d'Assurance Sociale) du client
      * @return Liste des réservations du client (vide si aucune)
      */
+    @ReadOnlyTransactional
     public List<Booking> getBookings(String sinCustomer) {
         return bookingRepository.findByCustomerSinCustomer(sinCustomer);
     }
 
     /**
-     * Récupère toutes les réservations actives dans le système.
+     * Récupère une page de la liste des réservations, filtrée, par date d'arrivée.
+     * Une seule requête, d'au plus ListFilterDTO.PAGE_SIZE + 1 lignes, quelle que soit la page.
      *
-     * @return Liste complète de toutes les réservations (vide si aucune)
+     * @param filter Les filtres et la position de la page
+     * @return La page de réservations et la position de la page suivante
      */
-    public List<Booking> getBookings() {
-        return bookingRepository.findAll();
+    @ReadOnlyTransactional
+    public KeysetPage<StayRowDTO> getBookings(ListFilterDTO filter) {
+        List<StayRowDTO> rows = new ListPageQuery<>(BOOKING_ROWS, StayRowDTO.class)
+                .filter("h.idHotel = :idHotel", "idHotel", filter.getIdHotel())
+                .filter("c.sinCustomer = :sinCustomer", "sinCustomer", filter.getSinCustomer())
+                .filter("b.startDate >= :fromDate", "fromDate", filter.getFrom())
+                .filter("b.startDate <= :toDate", "toDate", filter.getTo())
+                .after("(b.startDate, b.idBooking)", ">", filter)
+                .fetch(entityManager, "b.startDate, b.idBooking", ListFilterDTO.PAGE_SIZE + 1);
+        return KeysetPage.of(rows, ListFilterDTO.PAGE_SIZE, StayRowDTO::getStartDate, StayRowDTO::getId);
     }
 
     /**
@@ -76,17 +419,146 @@ public class BookingService {
      * @param id Identifiant de la réservation à supprimer
      */
     public void deleteBooking(int id) {
-        bookingRepository.deleteById(id);
+        bookingRepository.findById(id).ifPresent(booking -> {
+            bookingRepository.delete(booking);
+            publish(booking, OutboxEvent.DELETED);
+        });
+    }
+
+    /**
+     * Annule une réservation (demande du client).
+     * Une réservation prise dans un bloc de groupe rend ses nuits au bloc.
+     * La suppression publie un événement BookingDeleted : les nuits libérées sont
+     * réévaluées par la liste d'attente, sans recalcul global.
+     *
+     * La suppression vérifie la version : si la réservation a été modifiée entre-temps
+     * (ex : déplacée par l'affectation des chambres), l'annulation est rejouée sur la
+     * version actuelle par OptimisticRetry, pour publier les bonnes nuits libérées.
+     *
+     * @param id Identifiant de la réservation à annuler
+     * @return true si la réservation existait
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public boolean cancelBooking(int id) {
+        return optimisticRetry.execute("booking.cancel", () -> {
+            Booking booking = bookingRepository.findById(id).orElse(null);
+            if (booking == null) {
+                return false;
+            }
+            bookingRepository.delete(booking);
+            if (booking.getIdAllotment() != null) {
+                // Réservation prise dans un bloc : ses nuits redeviennent disponibles pour le groupe
+                allotmentRepository.restoreNights(booking.getIdAllotment(),
+                        booking.getStartDate(), booking.getEndDate());
+            }
+            publish(booking, OutboxEvent.DELETED);
+            return true;
+        });
     }
 
     /**
-     * Met à jour une réservation existante en base de données.
+     * Modifie les dates d'une réservation, après vérification des seules nuits ajoutées.
+     *
+     * Raccourcir un séjour ne demande aucune vérification. Allonger ou décaler un séjour
+     * ne revérifie que les nuits qui n'étaient pas déjà couvertes par la réservation
+     * (au plus deux segments, avant et après), chacun par un EXISTS (existsOverlap) sur les
+     * réservations et les locations de la chambre : l'index (id_room, start_date) parcourt
+     * celles qui commencent au plus tard à la fin du segment, jusqu'à la première qui le
+     * chevauche. Des lignes d'une même chambre peuvent se chevaucher : celle qui commence
+     * le plus tard n'est donc pas forcément celle qui finit le plus tard.
+     * La chambre est verrouillée pendant la vérification pour que deux modifications
+     * concurrentes ne puissent pas réserver les mêmes nuits.
+     * Si la réservation elle-même change entre la lecture et l'écriture (version différente,
+     * ex : déplacée vers une autre chambre), la modification est rejouée par OptimisticRetry.
+     *
+     * @param id        Identifiant de la réservation à modifier
+     * @param startDate Nouvelle date de début
+     * @param endDate   Nouvelle date de fin
+     * @return true si les dates ont été modifiées, false en cas de conflit ou si la réservation n'existe pas
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public boolean changeDates(int id, LocalDate startDate, LocalDate endDate) {
+        return optimisticRetry.execute("booking.changeDates", () -> applyDates(id, startDate, endDate));
+    }
+
+    /**
+     * Modifie les dates d'une réservation dans la transaction courante (un essai de changeDates).
+     */
+    private boolean applyDates(int id, LocalDate startDate, LocalDate endDate) {
+        Booking booking = bookingRepository.findById(id).orElse(null);
+        if (booking == null) {
+            return false;
+        }
+        int idRoom = booking.getRoom().getIdRoom();
+        roomRepository.lockById(idRoom);
+
+        StayDTO requested = new StayDTO(idRoom, startDate, endDate);
+        for (StayDTO added : requested.minus(booking.getStartDate(), booking.getEndDate())) {
+            if (isTaken(idRoom, id, added.getStartDate(), added.getEndDate())) {
+                return false;
+            }
+        }
+
+        LocalDate previousStart = booking.getStartDate();
+        LocalDate previousEnd = booking.getEndDate();
+        booking.setStartDate(startDate);
+        booking.setEndDate(endDate);
+        publishUpdate(booking, previousStart, previousEnd);
+        return true;
+    }
+
+    /**
+     * Met à jour une réservation existante en base de données, si sa période
+     * (éventuellement sur une autre chambre) ne chevauche aucune autre réservation ni location.
      *
      * @param booking La réservation avec les nouvelles valeurs à persister
+     * @return true si la réservation a été mise à jour, false en cas de conflit
      */
     @SuppressWarnings("null")
-    public void updateBooking(Booking booking) {
+    public boolean updateBooking(Booking booking) {
+        int idRoom = booking.getRoom().getIdRoom();
+        roomRepository.lockById(idRoom);
+        if (isTaken(idRoom, booking.getIdBooking(), booking.getStartDate(), booking.getEndDate())) {
+            return false;
+        }
         bookingRepository.save(booking);
+        publish(booking, OutboxEvent.UPDATED);
+        return true;
+    }
+
+    /**
+     * Indique si une période d'une chambre est déjà prise par une autre réservation ou une location.
+     */
+    private boolean isTaken(int idRoom, Integer idBooking, LocalDate startDate, LocalDate endDate) {
+        return bookingRepository.existsOverlap(idRoom, idBooking != null ? idBooking : 0, startDate, endDate)
+                || rentalRepository.existsOverlap(idRoom, startDate, endDate);
+    }
+
+    /**
+     * Publie la modification des dates d'une réservation, avec les dates précédentes :
+     * les consommateurs (liste d'attente) ne réévaluent que les nuits libérées.
+     */
+    private void publishUpdate(Booking booking, LocalDate previousStart, LocalDate previousEnd) {
+        Map<String, Object> payload = OutboxService.stay(booking.getCustomer().getSinCustomer(),
+                booking.getRoom().getIdRoom(), booking.getStartDate(), booking.getEndDate());
+        payload.put("previousStartDate", previousStart);
+        payload.put("previousEndDate", previousEnd);
+        outboxService.publish(OutboxEvent.BOOKING, booking.getIdBooking(), OutboxEvent.UPDATED, payload);
+        tableVersionService.bump(Table.BOOKING);
+    }
+
+    /**
+     * Publie un événement de réservation dans l'outbox (transaction courante)
+     * et signale la modification de la table booking (ETag des listes).
+     *
+     * @param booking   La réservation concernée
+     * @param eventType Le type d'événement (OutboxEvent.CREATED, UPDATED, DELETED)
+     */
+    private void publish(Booking booking, String eventType) {
+        outboxService.publish(OutboxEvent.BOOKING, booking.getIdBooking(), eventType,
+                OutboxService.stay(booking.getCustomer().getSinCustomer(), booking.getRoom().getIdRoom(),
+                        booking.getStartDate(), booking.getEndDate()));
+        tableVersionService.bump(Table.BOOKING);
     }
 
     /**
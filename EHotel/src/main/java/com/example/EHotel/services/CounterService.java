@@ -0,0 +1,99 @@
+package com.example.EHotel.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Service des compteurs dérivés hotel.rooms_number et hotel_chain.hotels_number.
+ *
+ * Les déclencheurs de la base n'écrivent plus dans la ligne parente : chaque instruction
+ * INSERT ou DELETE sur room (ou hotel) ajoute une ligne par hôtel (ou chaîne) dans
+ * counter_delta. Des insertions concurrentes de chambres d'un même hôtel ne se disputent
+ * donc plus le verrou de la ligne de l'hôtel.
+ *
+ * Ce service intègre périodiquement les deltas dans la ligne parente, en une seule
+ * instruction : les lignes lues sont supprimées et ajoutées au compteur dans la même
+ * transaction. Entre deux passages, les lecteurs additionnent la valeur stockée et les
+ * deltas en attente (Hotel.getRoomsNumber(), HotelChain.getNumberOfHotels(), recherche).
+ *
+ * L'intégration n'incrémente pas la version de l'hôtel : elle ne change pas le nombre de
+ * chambres affiché (stocké + en attente), une modification en cours reste donc valide.
+ * Pour la même raison, les copies de Hotel et HotelChain du cache de second niveau restent
+ * justes et ne sont pas évincées (voir EntityCacheService).
+ */
+@Service
+@Transactional
+public class CounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterService.class);
+
+    /** Compteur du nombre de chambres d'un hôtel (owner_id = id_hotel) */
+    public static final String HOTEL_ROOMS = "hotel.rooms";
+
+    /** Compteur du nombre d'hôtels d'une chaîne (owner_id = id_hotel_chain) */
+    public static final String CHAIN_HOTELS = "chain.hotels";
+
+    /**
+     * Supprime tous les deltas visibles, les additionne par compteur et les reporte dans
+     * hotel et hotel_chain. Les deltas d'une transaction encore en cours ne sont pas vus :
+     * ils seront intégrés au passage suivant. Deux instances concurrentes ne peuvent pas
+     * intégrer le même delta (la seconde attend la suppression de la première).
+     */
+    private static final String FOLD = """
+            WITH folded AS (
+                DELETE FROM counter_delta
+                RETURNING counter_name, owner_id, delta
+            ), sums AS (
+                SELECT counter_name, owner_id, SUM(delta) AS delta
+                FROM folded
+                GROUP BY counter_name, owner_id
+                HAVING SUM(delta) <> 0
+            ), hotels AS (
+                UPDATE hotel h
+                SET rooms_number = GREATEST(h.rooms_number + s.delta, 0)
+                FROM sums s
+                WHERE s.counter_name = 'hotel.rooms' AND h.id_hotel = s.owner_id
+            ), chains AS (
+                UPDATE hotel_chain c
+                SET hotels_number = GREATEST(COALESCE(c.hotels_number, 0) + s.delta, 0)
+                FROM sums s
+                WHERE s.counter_name = 'chain.hotels' AND c.id_hotel_chain = s.owner_id
+            )
+            SELECT COUNT(*) FROM folded
+            """;
+
+    /** Accès JDBC direct : l'intégration est une seule instruction SQL */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Intègre les deltas en attente dans les compteurs des hôtels et des chaînes.
+     */
+    @Scheduled(fixedDelayString = "${ehotel.counters.fold-interval-ms:5000}")
+    public void fold() {
+        Integer folded = jdbcTemplate.queryForObject(FOLD, Integer.class);
+        if (folded != null && folded > 0) {
+            log.debug("Compteurs : {} deltas intégrés", folded);
+        }
+    }
+
+    /**
+     * Ajoute un delta en attente à un compteur (correction saisie dans un formulaire).
+     * La valeur stockée n'est jamais remplacée : les deltas des autres transactions, visibles
+     * ou non, restent comptés, et le delta est intégré au prochain passage de fold().
+     *
+     * @param counter Le compteur (HOTEL_ROOMS ou CHAIN_HOTELS)
+     * @param ownerId L'hôtel ou la chaîne concerné
+     * @param delta   La variation à appliquer
+     */
+    public void addPending(String counter, int ownerId, int delta) {
+        jdbcTemplate.update("INSERT INTO counter_delta (counter_name, owner_id, delta) VALUES (?, ?, ?)",
+                counter, ownerId, delta);
+    }
+}
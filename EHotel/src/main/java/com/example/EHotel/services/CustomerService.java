@@ -1,13 +1,19 @@
 package com.example.EHotel.services;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+// Critères et page de la recherche de clients
+import com.example.EHotel.dtos.CustomerPage;
+import com.example.EHotel.dtos.CustomerSearchDTO;
 // Import de l'entité Customer (client)
 import com.example.EHotel.model.customer.Customer;
 // Import du dépôt JPA pour les opérations sur les clients
 import com.example.EHotel.repositories.customer.CustomerRepository;
+import com.example.EHotel.services.TableVersionService.Table;
 
 import jakarta.transaction.Transactional;
 
@@ -25,6 +31,15 @@ import jakarta.transaction.Transactional;
 @Transactional  // Toutes les méthodes s'exécutent dans un contexte transactionnel
 public class CustomerService {
 
+    /** Début de la recherche de clients ; searchCustomers() ajoute les critères saisis */
+    private static final String SEARCH = """
+            SELECT sin_customer, firstname, lastname, street_number, street_name, city, postal_code, country
+            FROM customer
+            WHERE TRUE""";
+
+    /** Longueur minimale d'un terme pour la recherche par trigrammes (pg_trgm) */
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+
     /**
      * Dépôt JPA pour l'accès à la base de données (table "customer").
      * Injecté automatiquement par Spring via @Autowired.
@@ -32,6 +47,14 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    /** Compteurs de modification des tables (ETag des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Accès JDBC direct : requête de recherche construite selon les critères saisis */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Enregistre un nouveau client en base de données.
      *
@@ -40,6 +63,19 @@ public class CustomerService {
     @SuppressWarnings("null")
     public void addCustomer(Customer customer) {
         customerRepository.save(customer);
+        tableVersionService.bump(Table.CUSTOMER);
+    }
+
+    /**
+     * Indique si un client existe déjà avec ce NAS (clé assignée : save() ne distingue plus
+     * un ajout d'une modification, voir AssignedIdEntity).
+     *
+     * @param sinCustomer Le NAS du client (format "XXX-XXX-XXX")
+     * @return true si le NAS est déjà utilisé
+     */
+    @ReadOnlyTransactional
+    public boolean customerExists(String sinCustomer) {
+        return customerRepository.existsById(sinCustomer);
     }
 
     /**
@@ -48,6 +84,7 @@ public class CustomerService {
      * @param sinCustomer Le NAS du client (format "XXX-XXX-XXX")
      * @return Le client correspondant, ou null si non trouvé
      */
+    @ReadOnlyTransactional
     public Customer getCustomer(String sinCustomer) {
         return customerRepository.findBySinCustomer(sinCustomer).orElse(null);
     }
@@ -61,6 +98,7 @@ public class CustomerService {
      */
     public void deleteCustomer(String sinCustomer) {
         customerRepository.deleteBySinCustomer(sinCustomer);
+        tableVersionService.bump(Table.CUSTOMER);
     }
 
     /**
@@ -71,14 +109,79 @@ public class CustomerService {
     @SuppressWarnings("null")
     public void updateCustomer(Customer customer) {
         customerRepository.save(customer);
+        tableVersionService.bump(Table.CUSTOMER);
+    }
+
+    /**
+     * Recherche des clients par début de NAS, nom et ville, une page à la fois.
+     *
+     * La requête n'est construite qu'avec les critères saisis (pas de "(? IS NULL OR ...)",
+     * qui empêcherait PostgreSQL de choisir l'index du critère) :
+     *   - NAS : LIKE 'début%' sur idx_customer_sin_prefix (text_pattern_ops)
+     *   - nom, ville : sous-chaîne (ILIKE '%terme%') ou mot proche (opérateur pg_trgm <%,
+     *     fautes de frappe tolérées), tous deux servis par les index GIN trigrammes ;
+     *     un terme de moins de MIN_TRIGRAM_LENGTH caractères n'a pas de trigramme complet
+     *     et devient un début de nom (ou de ville) sur les index lower(...) text_pattern_ops
+     * Les résultats sont triés par nom, prénom et NAS et lus après la dernière ligne de la
+     * page précédente : au plus PAGE_SIZE + 1 lignes par page.
+     *
+     * @param search Les critères et la position de la page
+     * @return La page de clients (non gérés par JPA : simples porteurs de valeurs)
+     */
+    @ReadOnlyTransactional
+    public CustomerPage searchCustomers(CustomerSearchDTO search) {
+        StringBuilder sql = new StringBuilder(SEARCH);
+        List<Object> args = new ArrayList<>();
+        if (search.getSin() != null) {
+            sql.append(" AND sin_customer LIKE ?");
+            args.add(escapeLike(search.getSin()) + "%");
+        }
+        if (search.getName() != null) {
+            appendFuzzy(sql, args, "(firstname || ' ' || lastname)", "lastname", search.getName());
+        }
+        if (search.getCity() != null) {
+            appendFuzzy(sql, args, "city", "city", search.getCity());
+        }
+        if (!search.isFirstPage()) {
+            sql.append(" AND (lastname, firstname, sin_customer) > (?, ?, ?)");
+            args.add(search.getAfterLastname());
+            args.add(search.getAfterFirstname());
+            args.add(search.getAfterSin());
+        }
+        sql.append(" ORDER BY lastname, firstname, sin_customer LIMIT ?");
+        args.add(CustomerSearchDTO.PAGE_SIZE + 1);
+
+        List<Customer> rows = jdbcTemplate.query(sql.toString(), ListExportService.CUSTOMER_ROW, args.toArray());
+        return CustomerPage.of(rows, CustomerSearchDTO.PAGE_SIZE);
+    }
+
+    /**
+     * Ajoute un critère approximatif sur une colonne texte.
+     *
+     * @param sql    La requête en construction
+     * @param args   Ses paramètres
+     * @param column L'expression indexée en trigrammes
+     * @param prefix La colonne indexée en lower(...) text_pattern_ops (termes courts)
+     * @param term   Le terme saisi
+     */
+    private static void appendFuzzy(StringBuilder sql, List<Object> args, String column, String prefix, String term) {
+        if (term.length() < MIN_TRIGRAM_LENGTH) {
+            sql.append(" AND lower(").append(prefix).append(") LIKE ?");
+            args.add(escapeLike(term.toLowerCase()) + "%");
+            return;
+        }
+        sql.append(" AND (").append(column).append(" ILIKE ? OR ? <% ").append(column).append(")");
+        args.add("%" + escapeLike(term) + "%");
+        args.add(term);
     }
 
     /**
-     * Récupère la liste de tous les clients enregistrés dans le système.
+     * Protège les caractères spéciaux de LIKE (\, % et _) d'un terme saisi.
      *
-     * @return Liste complète de tous les clients (vide si aucun)
+     * @param term Le terme saisi
+     * @return Le terme, à utiliser littéralement dans un motif LIKE
      */
-    public List<Customer> getCustomers() {
-        return customerRepository.findAll();
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import com.example.EHotel.model.employee.Employee;
 // Import du dépôt JPA pour les opérations sur les employés
 import com.example.EHotel.repositories.employee.EmployeeRepository;
+import com.example.EHotel.services.TableVersionService.Table;
 
 import jakarta.transaction.Transactional;
 
@@ -35,6 +36,10 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    /** Compteurs de modification des tables (ETag des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
     /**
      * Enregistre un nouvel employé en base de données.
      *
@@ -43,6 +48,7 @@ public class EmployeeService {
     @SuppressWarnings("null")
     public void addEmployee(Employee employee) {
         employeeRepository.save(employee);
+        tableVersionService.bump(Table.EMPLOYEE);
     }
 
     /**
@@ -51,6 +57,7 @@ public class EmployeeService {
      * @param sinEmployee Le NAS de l'employé (format "XXX-XXX-XXX")
      * @return L'employé correspondant, ou null si non trouvé
      */
+    @ReadOnlyTransactional
     public Employee getEmployee(String sinEmployee) {
         return employeeRepository.findBySinEmployee(sinEmployee).orElse(null);
     }
@@ -64,6 +71,7 @@ public class EmployeeService {
      */
     public void deleteEmployee(String sinEmployee) {
         employeeRepository.deleteBySinEmployee(sinEmployee);
+        tableVersionService.bump(Table.EMPLOYEE);
     }
 
     /**
@@ -74,6 +82,7 @@ public class EmployeeService {
     @SuppressWarnings("null")
     public void updateEmployee(Employee employee) {
         employeeRepository.save(employee);
+        tableVersionService.bump(Table.EMPLOYEE);
     }
 
     /**
@@ -81,6 +90,7 @@ public class EmployeeService {
      *
      * @return Liste complète de tous les employés (vide si aucun)
      */
+    @ReadOnlyTransactional
     public List<Employee> getEmployees() {
         return employeeRepository.findAll();
     }
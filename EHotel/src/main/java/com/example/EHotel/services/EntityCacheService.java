@@ -0,0 +1,133 @@
+package com.example.EHotel.services;
+
+import java.time.Instant;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cache de second niveau de Hibernate (JCache, fournisseur Caffeine) : éviction des entrées
+ * modifiées hors de Hibernate et métriques de taux de succès.
+ *
+ * Les entités en lecture majoritaire y sont gardées entre les transactions (@Cache : Hotel,
+ * HotelChain, Commodity, Problem, téléphones des hôtels, coordonnées des chaînes ; tailles et
+ * durées dans application.conf). Hibernate met lui-même le cache à jour pour les écritures
+ * faites par JPA. Restent celles qu'il ne voit pas :
+ *   - les déclencheurs de room et hotel, qui changent Hotel.pendingRooms et
+ *     HotelChain.pendingHotels (counter_delta) à l'ajout ou la suppression d'une ligne
+ *   - l'ajout en JDBC d'un delta saisi pour un hôtel (CounterService.addPending)
+ * Les services concernés appellent evict().
+ *
+ * L'entrée est évincée tout de suite, puis de nouveau à la fin de la transaction : une
+ * lecture concurrente a pu remettre l'ancienne valeur entre-temps. Avec un réplica, une
+ * dernière éviction suit la fenêtre read-your-writes, le temps que le réplica rattrape le
+ * primaire (une lecture sur un réplica en retard remettrait aussi l'ancienne valeur).
+ *
+ * L'intégration des deltas (CounterService.fold) n'évince rien : elle ne change pas le
+ * nombre affiché (stocké + en attente). Les écritures d'une autre instance ne sont vues
+ * qu'à l'expiration des entrées.
+ *
+ * Métriques par région (hibernate.generate_statistics=true) : ehotel.cache.hit.ratio
+ * (part des lectures servies par le cache depuis le démarrage) et ehotel.cache.requests
+ * (result=hit ou miss).
+ */
+@Service
+public class EntityCacheService {
+
+    /** Fabrique JPA : accès au cache de second niveau et aux statistiques de Hibernate */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /** Registre Micrometer pour les taux de succès */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Planificateur de l'éviction qui suit la fenêtre read-your-writes */
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    /** Réplica configuré : ses lectures peuvent remettre une valeur périmée dans le cache */
+    @Value("${ehotel.replica.enabled:false}")
+    private boolean replicaEnabled;
+
+    /** Fenêtre read-your-writes, supérieure au retard habituel du réplica */
+    @Value("${ehotel.replica.read-your-writes-seconds:5}")
+    private int replicaWindowSeconds;
+
+    /**
+     * Enregistre les métriques de chaque région du cache.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("ehotel.cache.hit.ratio", statistics,
+                            s -> hitRatio(s.getDomainDataRegionStatistics(region)))
+                    .description("Part des lectures du cache de second niveau servies par le cache")
+                    .tag("region", region)
+                    .register(meterRegistry);
+            FunctionCounter.builder("ehotel.cache.requests", statistics,
+                            s -> s.getDomainDataRegionStatistics(region).getHitCount())
+                    .description("Lectures du cache de second niveau")
+                    .tags("region", region, "result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("ehotel.cache.requests", statistics,
+                            s -> s.getDomainDataRegionStatistics(region).getMissCount())
+                    .description("Lectures du cache de second niveau")
+                    .tags("region", region, "result", "miss")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Évince une entité du cache, maintenant et à la fin de la transaction courante.
+     *
+     * @param entity La classe de l'entité
+     * @param id     Son identifiant
+     */
+    public void evict(Class<?> entity, Object id) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(entity, id);
+        Runnable again = () -> {
+            cache.evict(entity, id);
+            if (replicaEnabled) {
+                taskScheduler.schedule(() -> cache.evict(entity, id),
+                        Instant.now().plusSeconds(replicaWindowSeconds));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            again.run();
+            return;
+        }
+        // Validée ou annulée : l'éviction est sans risque dans les deux cas
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                again.run();
+            }
+        });
+    }
+
+    /**
+     * @param region Les statistiques d'une région
+     * @return Succès / lectures, ou NaN si la région n'a pas encore été lue
+     */
+    private static double hitRatio(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) region.getHitCount() / lookups;
+    }
+}
@@ -40,6 +40,7 @@ public class HotelChainService {
      *
      * @return Liste de toutes les chaînes hôtelières (vide si aucune)
      */
+    @ReadOnlyTransactional
     public List<HotelChain> getHotelChains() {
         return hotelChainRepository.findAll();
     }
@@ -50,6 +51,7 @@ public class HotelChainService {
      * @param id Identifiant unique de la chaîne hôtelière
      * @return La chaîne hôtelière correspondante, ou null si non trouvée
      */
+    @ReadOnlyTransactional
     public HotelChain getHotelChain(int id) {
         return hotelChainRepository.findById(id).orElse(null);
     }
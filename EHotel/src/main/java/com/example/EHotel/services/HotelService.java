@@ -6,8 +6,13 @@ import org.springframework.stereotype.Service;
 
 // Import du dépôt JPA pour les opérations sur les hôtels
 import com.example.EHotel.repositories.hotel.HotelRepository;
+import com.example.EHotel.services.TableVersionService.Table;
+// Import de la projection des listes déroulantes
+import com.example.EHotel.dtos.HotelOptionDTO;
+import com.example.EHotel.dtos.HotelRowDTO;
 // Import de l'entité Hotel
 import com.example.EHotel.model.hotel.Hotel;
+import com.example.EHotel.model.hotelchain.HotelChain;
 import java.util.List;
 
 // Annotation pour la gestion transactionnelle
@@ -34,21 +39,66 @@ public class HotelService {
     @Autowired
     private HotelRepository hotelRepository;
 
+    /** Compteurs dérivés (deltas de rooms_number en attente) */
+    @Autowired
+    private CounterService counterService;
+
+    /** Compteurs de modification des tables (ETag des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Cache de second niveau (compteurs en attente modifiés hors de Hibernate) */
+    @Autowired
+    private EntityCacheService entityCacheService;
+
     /**
      * Récupère la liste de tous les hôtels enregistrés en base de données.
      *
      * @return Liste de tous les hôtels (vide si aucun hôtel n'existe)
      */
+    @ReadOnlyTransactional
     public List<Hotel> getHotels() {
         return hotelRepository.findAll();
     }
 
+    /**
+     * Récupère l'identifiant et le nom de tous les hôtels (listes déroulantes).
+     *
+     * @return Les hôtels, par nom
+     */
+    @ReadOnlyTransactional
+    public List<HotelOptionDTO> getHotelOptions() {
+        return hotelRepository.findOptions();
+    }
+
+    /**
+     * Récupère tous les hôtels en projection à plat (API JSON).
+     *
+     * @return Les hôtels, par nom
+     */
+    @ReadOnlyTransactional
+    public List<HotelRowDTO> getHotelRows() {
+        return hotelRepository.findRows();
+    }
+
+    /**
+     * Récupère un hôtel en projection à plat (API JSON).
+     *
+     * @param id Identifiant de l'hôtel
+     * @return L'hôtel, ou null s'il n'existe pas
+     */
+    @ReadOnlyTransactional
+    public HotelRowDTO getHotelRow(int id) {
+        return hotelRepository.findRow(id).orElse(null);
+    }
+
     /**
      * Récupère un hôtel spécifique par son identifiant.
      *
      * @param id Identifiant unique de l'hôtel
      * @return L'hôtel correspondant, ou null si non trouvé
      */
+    @ReadOnlyTransactional
     public Hotel getHotel(int id) {
         // orElse(null) convertit l'Optional en retournant null si l'hôtel n'existe pas
         return hotelRepository.findById(id).orElse(null);
@@ -63,6 +113,9 @@ public class HotelService {
     @SuppressWarnings("null")
     public void addHotel(Hotel hotel) {
         hotelRepository.save(hotel);
+        // Le déclencheur compte l'hôtel dans les hôtels en attente de la chaîne
+        entityCacheService.evict(HotelChain.class, hotel.getHotelChain().getId());
+        tableVersionService.bump(Table.HOTEL);
     }
 
     /**
@@ -71,7 +124,13 @@ public class HotelService {
      * @param id Identifiant de l'hôtel à supprimer
      */
     public void deleteHotel(int id) {
-        hotelRepository.deleteById(id);
+        // Chargé comme le ferait deleteById, pour connaître la chaîne à évincer du cache
+        hotelRepository.findById(id).ifPresent(hotel -> {
+            hotelRepository.delete(hotel);
+            entityCacheService.evict(HotelChain.class, hotel.getHotelChain().getId());
+        });
+        // Suppression en cascade des chambres (et de ce qui en dépend) par le schéma
+        tableVersionService.bump(Table.HOTEL, Table.ROOM, Table.EMPLOYEE, Table.BOOKING);
     }
 
     /**
@@ -79,11 +138,23 @@ public class HotelService {
      * JPA utilise save() pour l'insertion comme pour la mise à jour
      * (si l'entité a déjà un ID, elle est mise à jour ; sinon elle est créée).
      *
-     * @param hotel L'hôtel avec les nouvelles valeurs à persister
+     * Le nombre de chambres n'est pas réécrit : la modification saisie est ajoutée comme un
+     * delta en attente (CounterService.addPending). Les deltas arrivés entre l'affichage du
+     * formulaire et son envoi (chambres ajoutées ou supprimées entre-temps) restent ainsi
+     * comptés, et un passage concurrent de CounterService.fold() n'est pas écrasé.
+     *
+     * @param hotel      L'hôtel avec les nouvelles valeurs à persister
+     * @param addedRooms Chambres ajoutées (ou retirées si négatif) par la saisie
      */
     @SuppressWarnings("null")
-    public void updateHotel(Hotel hotel) {
+    public void updateHotel(Hotel hotel, int addedRooms) {
+        if (addedRooms != 0) {
+            counterService.addPending(CounterService.HOTEL_ROOMS, hotel.getIdHotel(), addedRooms);
+        }
         hotelRepository.save(hotel);
+        // La copie en cache (remise à jour par Hibernate) ne compte pas encore le nouveau delta
+        entityCacheService.evict(Hotel.class, hotel.getIdHotel());
+        tableVersionService.bump(Table.HOTEL);
     }
 
     /**
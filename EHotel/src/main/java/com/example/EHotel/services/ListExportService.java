@@ -0,0 +1,169 @@
+package com.example.EHotel.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Lignes des listes complètes (mêmes projections que les pages de liste)
+import com.example.EHotel.dtos.PaymentRowDTO;
+import com.example.EHotel.dtos.StayRowDTO;
+import com.example.EHotel.model.customer.Customer;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service de lecture des listes complètes (toutes les locations, tous les paiements, tous les
+ * clients) pour les vues "Tout afficher" rendues en flux.
+ *
+ * Les lignes ne sont jamais toutes en mémoire : la requête est lue par un curseur JDBC
+ * (fetchSize : le pilote PostgreSQL ne ramène que ehotel.export.fetch-size lignes à la fois,
+ * à condition d'être dans une transaction) et transmise à l'appelant par lots de
+ * ehotel.export.chunk-size lignes. L'appelant écrit chaque lot dans la réponse avant que le
+ * suivant ne soit lu ; la liste du lot est réutilisée, elle ne doit pas être conservée.
+ */
+@Service
+public class ListExportService {
+
+    private static final String RENTALS = """
+            SELECT l.id_rental, c.firstname, c.lastname, h.name, r.room_number, l.start_date, l.end_date
+            FROM rental l
+            JOIN customer c ON c.sin_customer = l.sin_customer
+            JOIN room r ON r.id_room = l.id_room
+            JOIN hotel h ON h.id_hotel = r.id_hotel
+            ORDER BY l.start_date, l.id_rental
+            """;
+
+    private static final String PAYMENTS = """
+            SELECT p.id_payment, c.firstname, c.lastname, h.name, r.room_number,
+                   p.amount, p.payment_date, p.payment_method, p.payment_status
+            FROM payment p
+            JOIN rental l ON l.id_rental = p.id_rental
+            JOIN customer c ON c.sin_customer = l.sin_customer
+            JOIN room r ON r.id_room = l.id_room
+            JOIN hotel h ON h.id_hotel = r.id_hotel
+            ORDER BY p.payment_date DESC, p.id_payment DESC
+            """;
+
+    private static final String CUSTOMERS = """
+            SELECT sin_customer, firstname, lastname, street_number, street_name, city, postal_code, country
+            FROM customer
+            ORDER BY lastname, firstname, sin_customer
+            """;
+
+    private static final RowMapper<StayRowDTO> STAY_ROW = (rs, n) -> new StayRowDTO(
+            rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+            rs.getObject(6, LocalDate.class), rs.getObject(7, LocalDate.class));
+
+    private static final RowMapper<PaymentRowDTO> PAYMENT_ROW = (rs, n) -> new PaymentRowDTO(
+            rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+            rs.getDouble(6), rs.getObject(7, LocalDate.class), rs.getString(8), rs.getString(9));
+
+    /** Conversion d'une ligne de client (colonnes de CUSTOMERS), aussi utilisée par CustomerService */
+    static final RowMapper<Customer> CUSTOMER_ROW = (rs, n) -> {
+        Customer customer = new Customer();
+        customer.setSinCustomer(rs.getString(1));
+        customer.setFirstname(rs.getString(2));
+        customer.setLastname(rs.getString(3));
+        customer.setStreetNumber(rs.getInt(4));
+        customer.setStreetName(rs.getString(5));
+        customer.setCity(rs.getString(6));
+        customer.setPostalCode(rs.getString(7));
+        customer.setCountry(rs.getString(8));
+        return customer;
+    };
+
+    /** Source de données (curseur JDBC dédié, voir init()) */
+    @Autowired
+    private DataSource dataSource;
+
+    /** Gestionnaire de transactions : le curseur PostgreSQL n'existe que dans une transaction */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Nombre de lignes ramenées par le pilote à chaque aller-retour */
+    @Value("${ehotel.export.fetch-size:500}")
+    private int fetchSize;
+
+    /** Nombre de lignes transmises à l'appelant par lot */
+    @Value("${ehotel.export.chunk-size:200}")
+    private int chunkSize;
+
+    /** JdbcTemplate à fetchSize fixé (celui de Spring Boot ramène tout le résultat) */
+    private JdbcTemplate cursor;
+
+    /** Transaction en lecture seule qui porte le curseur */
+    private TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Prépare le curseur et sa transaction.
+     */
+    @PostConstruct
+    void init() {
+        cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Lit toutes les locations, par date d'arrivée, et les transmet par lots.
+     *
+     * @param sink Reçoit chaque lot (écrit dans la réponse avant la lecture du suivant)
+     */
+    public void streamRentals(Consumer<List<StayRowDTO>> sink) {
+        stream(RENTALS, STAY_ROW, sink);
+    }
+
+    /**
+     * Lit tous les paiements, du plus récent au plus ancien, et les transmet par lots.
+     *
+     * @param sink Reçoit chaque lot (écrit dans la réponse avant la lecture du suivant)
+     */
+    public void streamPayments(Consumer<List<PaymentRowDTO>> sink) {
+        stream(PAYMENTS, PAYMENT_ROW, sink);
+    }
+
+    /**
+     * Lit tous les clients, par nom, et les transmet par lots.
+     * Les clients transmis ne sont pas des entités gérées par JPA (simples porteurs de valeurs).
+     *
+     * @param sink Reçoit chaque lot (écrit dans la réponse avant la lecture du suivant)
+     */
+    public void streamCustomers(Consumer<List<Customer>> sink) {
+        stream(CUSTOMERS, CUSTOMER_ROW, sink);
+    }
+
+    /**
+     * Parcourt le résultat d'une requête avec le curseur et le transmet par lots.
+     *
+     * @param sql    La requête
+     * @param mapper La conversion d'une ligne
+     * @param sink   Reçoit chaque lot
+     */
+    private <T> void stream(String sql, RowMapper<T> mapper, Consumer<List<T>> sink) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            cursor.query(sql, rs -> {
+                chunk.add(mapper.mapRow(rs, rs.getRow()));
+                if (chunk.size() == chunkSize) {
+                    sink.accept(chunk);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.EHotel.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.EHotel.dtos.ListFilterDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Requête JPQL d'une page de liste (réservations, locations, paiements), construite
+ * selon les filtres saisis, comme la recherche de clients (CustomerService.searchCustomers).
+ *
+ * Seuls les filtres renseignés deviennent des prédicats : une forme "(:p IS NULL OR col = :p)"
+ * empêcherait PostgreSQL de choisir l'index du filtre, le plan étant préparé pour toutes
+ * les valeurs. La position de la page est une comparaison de ligne "(date, id) > (?, ?)",
+ * que PostgreSQL résout par un parcours de l'index (date, id) à partir de la clé.
+ *
+ * La requête reste une projection JPQL ("SELECT new ..."), exécutée par Hibernate en une
+ * seule instruction.
+ *
+ * @param <T> Le type des lignes
+ */
+final class ListPageQuery<T> {
+
+    private final String select;
+
+    private final Class<T> type;
+
+    private final List<String> predicates = new ArrayList<>();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    /**
+     * @param select La clause SELECT ... FROM ... JOIN ..., sans WHERE ni ORDER BY
+     * @param type   Le type des lignes (projection)
+     */
+    ListPageQuery(String select, Class<T> type) {
+        this.select = select;
+        this.type = type;
+    }
+
+    /**
+     * Ajoute un prédicat si la valeur du filtre est renseignée.
+     *
+     * @param predicate Le prédicat JPQL, avec le paramètre nommé :name
+     * @param name      Le nom du paramètre
+     * @param value     La valeur du filtre (null : pas de prédicat)
+     * @return Cette requête
+     */
+    ListPageQuery<T> filter(String predicate, String name, Object value) {
+        if (value != null) {
+            predicates.add(predicate);
+            parameters.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Ajoute la position de la page, sauf pour la première page.
+     *
+     * @param keyset     Les colonnes de tri, ex. "(b.startDate, b.idBooking)"
+     * @param comparison ">" pour un tri croissant, "<" pour un tri décroissant
+     * @param filter     Les filtres et la position de la page
+     * @return Cette requête
+     */
+    ListPageQuery<T> after(String keyset, String comparison, ListFilterDTO filter) {
+        if (!filter.isFirstPage()) {
+            predicates.add(keyset + " " + comparison + " (:afterDate, :afterId)");
+            parameters.put("afterDate", filter.getAfterDate());
+            parameters.put("afterId", filter.getAfterId());
+        }
+        return this;
+    }
+
+    /**
+     * @param orderBy L'ordre des lignes (mêmes colonnes que la position de la page)
+     * @return Le texte JPQL de la requête
+     */
+    String jpql(String orderBy) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        return jpql.append(" ORDER BY ").append(orderBy).toString();
+    }
+
+    /**
+     * Exécute la requête.
+     *
+     * @param entityManager Le contexte de persistance
+     * @param orderBy       L'ordre des lignes
+     * @param limit         Le nombre maximal de lignes (taille de la page + 1)
+     * @return Les lignes lues
+     */
+    List<T> fetch(EntityManager entityManager, String orderBy, int limit) {
+        TypedQuery<T> query = entityManager.createQuery(jpql(orderBy), type);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
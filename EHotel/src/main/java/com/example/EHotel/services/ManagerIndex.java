@@ -0,0 +1,121 @@
+package com.example.EHotel.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Gérant possible (projection des données de référence)
+import com.example.EHotel.dtos.ManagerOptionDTO;
+
+/**
+ * Index trié en mémoire des gérants possibles, pour la recherche par préfixe du sélecteur
+ * de gérant (formulaires d'hôtel).
+ *
+ * Chaque gérant y figure sous trois clés normalisées (minuscules, sans accents) :
+ * "prénom nom", "nom prénom" et NAS. Une recherche cherche par dichotomie la première clé
+ * qui commence par le préfixe, puis parcourt les clés suivantes tant qu'elles le commencent :
+ * son coût dépend du nombre de candidats renvoyés, pas du nombre d'employés.
+ *
+ * Immuable : construit avec chaque instantané des données de référence (ReferenceDataService)
+ * et remplacé avec lui.
+ */
+class ManagerIndex {
+
+    /** Clés triées */
+    private final String[] keys;
+
+    /** Gérant de chaque clé (même position que keys) */
+    private final ManagerOptionDTO[] owners;
+
+    /** Gérants par ordre de nom, pour une recherche sans préfixe */
+    private final List<ManagerOptionDTO> managers;
+
+    /** Gérants par NAS */
+    private final Map<String, ManagerOptionDTO> bySin;
+
+    /**
+     * @param managers Les gérants possibles, triés par nom et prénom
+     */
+    ManagerIndex(List<ManagerOptionDTO> managers) {
+        this.managers = managers;
+        this.bySin = new HashMap<>();
+        List<Map.Entry<String, ManagerOptionDTO>> entries = new ArrayList<>(managers.size() * 3);
+        for (ManagerOptionDTO manager : managers) {
+            bySin.put(manager.getSinEmployee(), manager);
+            entries.add(Map.entry(normalize(manager.getFirstname() + " " + manager.getLastname()), manager));
+            entries.add(Map.entry(normalize(manager.getLastname() + " " + manager.getFirstname()), manager));
+            entries.add(Map.entry(normalize(manager.getSinEmployee()), manager));
+        }
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        this.keys = new String[entries.size()];
+        this.owners = new ManagerOptionDTO[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).getKey();
+            owners[i] = entries.get(i).getValue();
+        }
+    }
+
+    /**
+     * Recherche les gérants dont le nom, le prénom ou le NAS commence par un préfixe.
+     *
+     * @param prefix       Le début saisi (null ou vide : tous les gérants, par nom)
+     * @param idHotel      Seulement les employés de cet hôtel (null : tous)
+     * @param idHotelChain Seulement les employés d'un hôtel de cette chaîne (null : toutes)
+     * @param limit        Nombre maximal de gérants renvoyés
+     * @return Les gérants trouvés, sans doublon
+     */
+    List<ManagerOptionDTO> find(String prefix, Integer idHotel, Integer idHotelChain, int limit) {
+        String start = prefix == null ? "" : normalize(prefix);
+        Set<ManagerOptionDTO> found = new LinkedHashSet<>();
+        if (start.isEmpty()) {
+            for (ManagerOptionDTO manager : managers) {
+                if (found.size() >= limit) {
+                    break;
+                }
+                if (matches(manager, idHotel, idHotelChain)) {
+                    found.add(manager);
+                }
+            }
+            return List.copyOf(found);
+        }
+        // Première clé >= préfixe : les clés qui commencent par le préfixe la suivent
+        int position = Arrays.binarySearch(keys, start);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        for (int i = position; i < keys.length && found.size() < limit && keys[i].startsWith(start); i++) {
+            if (matches(owners[i], idHotel, idHotelChain)) {
+                found.add(owners[i]);
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    /**
+     * @param sinEmployee Le NAS d'un employé
+     * @return Le gérant possible de ce NAS, ou null s'il n'est pas dans l'index
+     */
+    ManagerOptionDTO get(String sinEmployee) {
+        return sinEmployee == null ? null : bySin.get(sinEmployee);
+    }
+
+    private static boolean matches(ManagerOptionDTO manager, Integer idHotel, Integer idHotelChain) {
+        return (idHotel == null || idHotel.equals(manager.getIdHotel()))
+                && (idHotelChain == null || idHotelChain.equals(manager.getIdHotelChain()));
+    }
+
+    /**
+     * Forme comparable d'une clé ou d'un préfixe : minuscules, sans accents, espaces réduits.
+     */
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
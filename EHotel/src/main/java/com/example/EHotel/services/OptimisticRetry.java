@@ -0,0 +1,115 @@
+package com.example.EHotel.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Micrometer : métriques exposées par Spring Boot Actuator (/actuator/metrics)
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Politique de nouvel essai des transactions en conflit (verrouillage optimiste).
+ *
+ * Les entités Room, Booking, Rental, Hotel et Payment portent une colonne version :
+ * une mise à jour concurrente fait échouer la seconde transaction à l'écriture
+ * (ObjectOptimisticLockingFailureException), au lieu d'écraser la première.
+ *
+ * execute() exécute un traitement dans une nouvelle transaction et, en cas de conflit
+ * (ConcurrencyFailureException : version périmée, interblocage, échec de sérialisation),
+ * le rejoue entièrement — relecture comprise — après une attente aléatoire
+ * ("full jitter" : entre 0 et base × 2^essai, plafonnée), au plus ehotel.retry.max-attempts fois.
+ * Le traitement doit donc relire les données qu'il modifie à chaque appel.
+ *
+ * Métriques, par opération (étiquette "operation") :
+ *   - ehotel.retry.conflicts : conflits détectés
+ *   - ehotel.retry.retries   : nouveaux essais effectués
+ *   - ehotel.retry.exhausted : opérations abandonnées après le dernier essai
+ */
+@Service
+public class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    /** Registre Micrometer pour les compteurs de conflits */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Gestionnaire de transactions, pour une transaction par essai */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Nombre maximal d'essais (le premier compris) */
+    @Value("${ehotel.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    /** Attente de base (ms), doublée à chaque essai */
+    @Value("${ehotel.retry.base-delay-ms:20}")
+    private long baseDelayMs;
+
+    /** Attente maximale (ms) entre deux essais */
+    @Value("${ehotel.retry.max-delay-ms:500}")
+    private long maxDelayMs;
+
+    /** Transaction indépendante par essai : un conflit annule seulement cet essai */
+    private TransactionTemplate attemptTransaction;
+
+    /**
+     * Prépare la transaction des essais.
+     */
+    @PostConstruct
+    void init() {
+        attemptTransaction = new TransactionTemplate(transactionManager);
+        attemptTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Exécute un traitement transactionnel, rejoué en cas de conflit.
+     *
+     * @param operation Nom de l'opération (étiquette des métriques, ex : "room.update")
+     * @param work      Le traitement (relit et modifie les données dans la transaction fournie)
+     * @param <T>       Type du résultat
+     * @return Le résultat du premier essai validé
+     * @throws ConcurrencyFailureException si le dernier essai est encore en conflit
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptTransaction.execute(status -> work.get());
+            } catch (ConcurrencyFailureException | OptimisticLockException e) {
+                meterRegistry.counter("ehotel.retry.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("ehotel.retry.exhausted", "operation", operation).increment();
+                    log.warn("Conflit persistant sur {} après {} essais", operation, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("ehotel.retry.retries", "operation", operation).increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Attend avant l'essai suivant : durée aléatoire entre 0 et base × 2^(essai - 1), plafonnée.
+     * Le tirage aléatoire évite que les transactions en conflit ne se réessaient en même temps.
+     */
+    private void backoff(int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.EHotel.services;
+
+import java.util.List;
+
+// Import de l'entité OutboxEvent (événement de l'outbox)
+import com.example.EHotel.model.outbox.OutboxEvent;
+
+/**
+ * Consommateur des événements de l'outbox (réservations, locations, paiements).
+ *
+ * Tout bean Spring implémentant cette interface est enregistré automatiquement auprès
+ * d'OutboxService, qui lui transmet les événements par lots, dans l'ordre (tx_id, id).
+ *
+ * La livraison est "au moins une fois" : si onEvents() lève une exception, la position
+ * du consommateur n'avance pas et le même lot est transmis de nouveau au passage suivant.
+ * Les traitements doivent donc être idempotents.
+ *
+ * onEvents() s'exécute dans la transaction qui fait avancer la position : ses écritures
+ * en base sont validées ou annulées en même temps qu'elle.
+ */
+public interface OutboxListener {
+
+    /**
+     * Nom unique et stable du consommateur (clé de sa position dans outbox_consumer_offset).
+     *
+     * @return Le nom du consommateur
+     */
+    String consumerName();
+
+    /**
+     * Traite un lot d'événements.
+     *
+     * @param events Les événements, triés par (tx_id, id) croissant (jamais vide)
+     */
+    void onEvents(List<OutboxEvent> events);
+}
@@ -0,0 +1,218 @@
+package com.example.EHotel.services;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Entités de l'outbox
+import com.example.EHotel.model.outbox.OutboxConsumerOffset;
+import com.example.EHotel.model.outbox.OutboxEvent;
+// Dépôts JPA de l'outbox
+import com.example.EHotel.repositories.outbox.OutboxConsumerOffsetRepository;
+import com.example.EHotel.repositories.outbox.OutboxEventRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service de la boîte d'envoi transactionnelle ("outbox") et de sa lecture en continu.
+ *
+ * Écriture : BookingService, RentalService et PaymentService appellent publish() dans leur
+ * propre transaction. L'événement est inséré dans outbox_event avec la modification :
+ * aucun événement n'est émis pour une transaction annulée, aucun n'est perdu pour une
+ * transaction validée.
+ *
+ * Lecture : une tâche planifiée parcourt chaque consommateur (OutboxListener) :
+ *   1. sa position est verrouillée (FOR UPDATE SKIP LOCKED) : si une autre instance de
+ *      l'application le traite déjà, il est ignoré pour ce passage
+ *   2. le lot d'événements suivant sa position (tx_id, id) est lu (taille ehotel.outbox.batch-size)
+ *   3. le lot est transmis au consommateur, puis la position avance, dans la même transaction
+ * Un lot complet est immédiatement suivi du suivant ; en cas d'erreur, le lot est rejoué
+ * au passage suivant (livraison "au moins une fois").
+ *
+ * Les événements lus par tous les consommateurs sont supprimés après ehotel.outbox.retention-hours.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    /** Dépôt JPA des événements (table "outbox_event") */
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    /** Dépôt JPA des positions de lecture (table "outbox_consumer_offset") */
+    @Autowired
+    private OutboxConsumerOffsetRepository offsetRepository;
+
+    /** Sérialisation JSON du contenu des événements */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Gestionnaire de transactions, pour une transaction par lot lu */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Consommateurs enregistrés (tous les beans OutboxListener), résolus à chaque passage :
+     * un consommateur peut lui-même dépendre d'un service qui publie dans l'outbox.
+     */
+    @Autowired
+    private ObjectProvider<OutboxListener> listeners;
+
+    /** Consommateurs dont la position a déjà été créée en base */
+    private final Set<String> knownConsumers = ConcurrentHashMap.newKeySet();
+
+    /** Nombre maximal d'événements par lot transmis à un consommateur */
+    @Value("${ehotel.outbox.batch-size:200}")
+    private int batchSize;
+
+    /** Durée de conservation (en heures) des événements lus par tous les consommateurs */
+    @Value("${ehotel.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    /** Une transaction par lot : le traitement et l'avancée de la position sont atomiques */
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Prépare la transaction de lecture.
+     */
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // -------------------------------------------------------------------------
+    // Écriture
+    // -------------------------------------------------------------------------
+
+    /**
+     * Écrit un événement dans l'outbox, dans la transaction courante.
+     *
+     * @param aggregateType Type de l'agrégat (OutboxEvent.BOOKING, RENTAL, PAYMENT)
+     * @param aggregateId   Identifiant de l'agrégat
+     * @param eventType     Type d'événement (OutboxEvent.CREATED, UPDATED, DELETED)
+     * @param payload       Contenu de l'événement, sérialisé en JSON
+     */
+    public void publish(String aggregateType, Object aggregateId, String eventType, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(String.valueOf(aggregateId));
+        event.setEventType(eventType);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Construit le contenu d'un événement de séjour (réservation ou location).
+     *
+     * @param sin       NAS du client
+     * @param idRoom    Identifiant de la chambre
+     * @param startDate Date de début
+     * @param endDate   Date de fin
+     * @return Le contenu, dans l'ordre des champs
+     */
+    public static Map<String, Object> stay(String sin, Integer idRoom, Object startDate, Object endDate) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sinCustomer", sin);
+        payload.put("idRoom", idRoom);
+        payload.put("startDate", startDate);
+        payload.put("endDate", endDate);
+        return payload;
+    }
+
+    /**
+     * Sérialise le contenu d'un événement en JSON (les dates au format ISO).
+     */
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Contenu d'événement non sérialisable : " + payload, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Lecture
+    // -------------------------------------------------------------------------
+
+    /**
+     * Transmet les nouveaux événements à chaque consommateur enregistré.
+     */
+    @Scheduled(fixedDelayString = "${ehotel.outbox.poll-interval-ms:500}")
+    public void poll() {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                if (knownConsumers.add(listener.consumerName())) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            offsetRepository.createIfAbsent(listener.consumerName()));
+                }
+                while (deliverBatch(listener)) {
+                    // lot complet : il reste probablement des événements à transmettre
+                }
+            } catch (RuntimeException e) {
+                knownConsumers.remove(listener.consumerName());
+                log.warn("Consommateur d'outbox {} en échec, lot rejoué au prochain passage",
+                        listener.consumerName(), e);
+            }
+        });
+    }
+
+    /**
+     * Transmet un lot d'événements à un consommateur et fait avancer sa position.
+     *
+     * @param listener Le consommateur
+     * @return true si le lot était complet (il reste peut-être des événements)
+     */
+    private boolean deliverBatch(OutboxListener listener) {
+        Boolean full = transactionTemplate.execute(status -> {
+            Optional<OutboxConsumerOffset> locked = offsetRepository.lock(listener.consumerName());
+            if (locked.isEmpty()) {
+                return false; // traité par une autre instance
+            }
+            OutboxConsumerOffset offset = locked.get();
+            List<OutboxEvent> events = outboxEventRepository.findBatchAfter(
+                    offset.getLastTxId(), offset.getLastEventId(), batchSize);
+            if (events.isEmpty()) {
+                return false;
+            }
+            listener.onEvents(events);
+            // Position = (tx_id, id) du dernier événement : l'ID seul ne suit pas l'ordre des COMMIT
+            OutboxEvent last = events.get(events.size() - 1);
+            offset.setLastTxId(last.getTxId());
+            offset.setLastEventId(last.getId());
+            offset.setUpdatedAt(LocalDateTime.now());
+            return events.size() == batchSize;
+        });
+        return Boolean.TRUE.equals(full);
+    }
+
+    /**
+     * Supprime les événements lus par tous les consommateurs et plus anciens que la rétention.
+     */
+    @Scheduled(fixedDelayString = "${ehotel.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.purgeConsumedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Outbox : {} événements consommés supprimés", deleted);
+        }
+    }
+}
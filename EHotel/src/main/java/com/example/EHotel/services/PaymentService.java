@@ -1,14 +1,23 @@
 package com.example.EHotel.services;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
+// Imports de la page de liste, de ses filtres et de ses lignes
+import com.example.EHotel.dtos.KeysetPage;
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.PaymentRowDTO;
 // Import de l'entité Payment (paiement)
 import com.example.EHotel.model.hotel.Payment;
+import com.example.EHotel.model.outbox.OutboxEvent;
 // Import du dépôt JPA pour les opérations sur les paiements
 import com.example.EHotel.repositories.hotel.PaymentRepository;
 
@@ -25,6 +34,17 @@ import com.example.EHotel.repositories.hotel.PaymentRepository;
 @Transactional  // Toutes les méthodes s'exécutent dans un contexte transactionnel
 public class PaymentService {
 
+    /** Lignes de l'historique des paiements ; getPayments() ajoute les filtres saisis */
+    private static final String PAYMENT_ROWS = """
+            SELECT new com.example.EHotel.dtos.PaymentRowDTO(
+                   p.idPayment, c.firstname, c.lastname, h.name, r.roomNumber,
+                   p.amount, p.paymentDate, p.paymentMethod, p.paymentStatus)
+            FROM Payment p
+            JOIN p.rental l
+            JOIN l.customer c
+            JOIN l.room r
+            JOIN r.hotel h""";
+
     /**
      * Dépôt JPA pour l'accès à la base de données (table "payment").
      * Injecté automatiquement par Spring via @Autowired.
@@ -32,6 +52,14 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    /** Outbox transactionnelle : chaque paiement publie un événement dans la même transaction */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** EntityManager JPA : requête de l'historique construite selon les filtres saisis */
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Enregistre un nouveau paiement en base de données.
      *
@@ -39,16 +67,34 @@ public class PaymentService {
      */
     @SuppressWarnings("null")
     public void addPayment(Payment payment) {
-        paymentRepository.save(payment);
+        Payment saved = paymentRepository.save(payment);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("idRental", saved.getRental().getIdRental());
+        payload.put("paymentDate", saved.getPaymentDate());
+        payload.put("amount", saved.getAmount());
+        payload.put("paymentMethod", saved.getPaymentMethod());
+        payload.put("paymentStatus", saved.getPaymentStatus());
+        outboxService.publish(OutboxEvent.PAYMENT, saved.getIdPayment(), OutboxEvent.CREATED, payload);
     }
 
     /**
-     * Récupère la liste de tous les paiements enregistrés dans le système.
-     * Utilisée pour afficher l'historique complet des paiements.
+     * Récupère une page de l'historique des paiements, filtrée, du plus récent au plus ancien.
+     * Une seule requête, d'au plus ListFilterDTO.PAGE_SIZE + 1 lignes, quelle que soit la page.
      *
-     * @return Liste complète de tous les paiements (vide si aucun)
+     * @param filter Les filtres et la position de la page
+     * @return La page de paiements et la position de la page suivante
      */
-    public List<Payment> getPayments() {
-        return paymentRepository.findAll();
+    @ReadOnlyTransactional
+    public KeysetPage<PaymentRowDTO> getPayments(ListFilterDTO filter) {
+        List<PaymentRowDTO> rows = new ListPageQuery<>(PAYMENT_ROWS, PaymentRowDTO.class)
+                .filter("h.idHotel = :idHotel", "idHotel", filter.getIdHotel())
+                .filter("c.sinCustomer = :sinCustomer", "sinCustomer", filter.getSinCustomer())
+                .filter("p.paymentStatus = :status", "status", filter.getStatus())
+                .filter("p.paymentDate >= :fromDate", "fromDate", filter.getFrom())
+                .filter("p.paymentDate <= :toDate", "toDate", filter.getTo())
+                .after("(p.paymentDate, p.idPayment)", "<", filter)
+                .fetch(entityManager, "p.paymentDate DESC, p.idPayment DESC", ListFilterDTO.PAGE_SIZE + 1);
+        return KeysetPage.of(rows, ListFilterDTO.PAGE_SIZE, PaymentRowDTO::getPaymentDate, PaymentRowDTO::getIdPayment);
     }
 }
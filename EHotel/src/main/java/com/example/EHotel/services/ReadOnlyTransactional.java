@@ -0,0 +1,32 @@
+package com.example.EHotel.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transaction en lecture seule, pour les méthodes de consultation des services.
+ *
+ * Les services sont annotés jakarta.transaction.Transactional au niveau de la classe, qui
+ * n'a pas d'attribut readOnly : cette annotation (posée sur la méthode, elle l'emporte sur
+ * celle de la classe) ouvre une transaction Spring readOnly = true. Conséquences :
+ *   - Hibernate ne vérifie ni ne synchronise les entités lues (pas de flush, pas de copie
+ *     pour la détection des modifications)
+ *   - la connexion est marquée en lecture seule (BEGIN READ ONLY côté PostgreSQL)
+ *   - si un réplica est configuré (ehotel.replica.enabled), la transaction y est routée
+ *     (ReplicaRoutingDataSource), sauf pendant la fenêtre read-your-writes d'un utilisateur
+ *
+ * Appelée depuis une transaction en écriture, la méthode s'exécute dans celle-ci (sur le
+ * primaire). Ne pas l'utiliser pour une lecture qui précède une écriture fondée sur son
+ * résultat (ex : findUnusedId) : le réplica peut être en retard sur le primaire.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
@@ -0,0 +1,231 @@
+package com.example.EHotel.services;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Instantané et projections des listes déroulantes
+import com.example.EHotel.dtos.ChoiceDTO;
+import com.example.EHotel.dtos.ManagerOptionDTO;
+import com.example.EHotel.dtos.ReferenceData;
+import com.example.EHotel.repositories.employee.EmployeeRepository;
+import com.example.EHotel.repositories.hotel.HotelRepository;
+import com.example.EHotel.repositories.hotelchain.HotelChainRepository;
+import com.example.EHotel.services.TableVersionService.Table;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Données de référence des formulaires (chaînes, hôtels, gérants possibles, capacités,
+ * vues, rôles), gardées en mémoire.
+ *
+ * Ces listes changent quelques fois par jour mais étaient relues à chaque affichage de
+ * formulaire et à chaque erreur de validation. get() renvoie un instantané immuable
+ * (ReferenceData) partagé par toutes les requêtes, sans requête SQL tant qu'il est à jour.
+ *
+ * L'instantané porte les versions des tables hotel et employee (TableVersionService,
+ * incrémentées à la validation de chaque écriture des services) : après une écriture, le
+ * premier formulaire affiché reconstruit un nouvel instantané, en trois instructions, qui
+ * remplace l'ancien. Les chaînes ne sont pas modifiées par l'application. Par sécurité
+ * (écritures d'une autre instance, modifications faites directement en base), un instantané
+ * est aussi reconstruit après ehotel.reference-data.max-age-seconds.
+ *
+ * Capacités, vues et rôles sont les valeurs des contraintes CHECK du schéma (colonnes
+ * room.capacity, room.view, employee.role), avec leur libellé.
+ *
+ * Les gérants possibles ne sont pas envoyés en entier aux formulaires d'hôtel : le sélecteur
+ * les cherche par préfixe (findManagers) dans un index trié construit avec l'instantané.
+ */
+@Service
+public class ReferenceDataService {
+
+    /** Nombre maximal de gérants renvoyés par une recherche du sélecteur */
+    public static final int MAX_MANAGER_CANDIDATES = 20;
+
+    /** Capacités de chambre (contrainte chk_capacity) */
+    public static final List<ChoiceDTO> CAPACITIES = List.of(
+            new ChoiceDTO("Simple", "Simple"),
+            new ChoiceDTO("Double", "Double"),
+            new ChoiceDTO("Triple", "Triple"),
+            new ChoiceDTO("Quadruple", "Quadruple"),
+            new ChoiceDTO("Suite", "Suite"),
+            new ChoiceDTO("Penthouse", "Penthouse"));
+
+    /** Vues de chambre (contrainte chk_view) */
+    public static final List<ChoiceDTO> VIEWS = List.of(
+            new ChoiceDTO("Sea", "Mer"),
+            new ChoiceDTO("Mountain", "Montagne"),
+            new ChoiceDTO("City", "Ville"),
+            new ChoiceDTO("Garden", "Jardin"),
+            new ChoiceDTO("Pool", "Piscine"),
+            new ChoiceDTO("Lake", "Lac"),
+            new ChoiceDTO("Forest", "Forêt"),
+            new ChoiceDTO("River", "Rivière"),
+            new ChoiceDTO("Park", "Parc"),
+            new ChoiceDTO("Courtyard", "Cour intérieure"),
+            new ChoiceDTO("Street", "Rue"),
+            new ChoiceDTO("Other", "Autre"));
+
+    /** Rôles des employés (contrainte chk_role) */
+    public static final List<ChoiceDTO> ROLES = List.of(
+            new ChoiceDTO("Manager", "Manager"),
+            new ChoiceDTO("Receptionist", "Réceptionniste"),
+            new ChoiceDTO("Housekeeper", "Femme de ménage"),
+            new ChoiceDTO("Maintenance", "Maintenance"),
+            new ChoiceDTO("Security", "Sécurité"),
+            new ChoiceDTO("Cook", "Cuisinier"),
+            new ChoiceDTO("Waiter", "Serveur"),
+            new ChoiceDTO("Concierge", "Concierge"),
+            new ChoiceDTO("Valet", "Valet"),
+            new ChoiceDTO("Driver", "Chauffeur"),
+            new ChoiceDTO("Spa therapist", "Thérapeute spa"),
+            new ChoiceDTO("Fitness instructor", "Instructeur fitness"),
+            new ChoiceDTO("Lifeguard", "Maître nageur"),
+            new ChoiceDTO("Accountant", "Comptable"),
+            new ChoiceDTO("Human resources", "Ressources humaines"),
+            new ChoiceDTO("Marketing", "Marketing"),
+            new ChoiceDTO("Customer service", "Service client"));
+
+    /** Dépôt des chaînes hôtelières */
+    @Autowired
+    private HotelChainRepository hotelChainRepository;
+
+    /** Dépôt des hôtels */
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    /** Dépôt des employés */
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    /** Versions des tables, pour savoir si l'instantané est à jour */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Gestionnaire de transactions, pour la lecture d'un nouvel instantané */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Âge maximal d'un instantané, même sans écriture connue */
+    @Value("${ehotel.reference-data.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    /**
+     * Transaction de lecture d'un instantané. Pas en lecture seule : elle reste sur le
+     * primaire, car un instantané lu sur un réplica en retard serait gardé jusqu'à la
+     * prochaine écriture.
+     */
+    private TransactionTemplate loadTransaction;
+
+    /**
+     * Verrou de reconstruction : un seul thread lit un nouvel instantané, les autres l'attendent.
+     * Un ReentrantLock plutôt que synchronized : la lecture fait des allers-retours avec la base,
+     * et un thread virtuel qui attend un moniteur bloque son thread porteur.
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /** Instantané courant et son index des gérants (null avant le premier formulaire) */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Prépare la transaction de lecture.
+     */
+    @PostConstruct
+    void init() {
+        loadTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Renvoie les données de référence à jour : l'instantané courant, ou un nouvel instantané
+     * si les tables lues ont changé depuis sa construction.
+     *
+     * @return L'instantané (immuable, à ne pas modifier)
+     */
+    public ReferenceData get() {
+        return current().data;
+    }
+
+    /**
+     * Recherche par préfixe des gérants possibles (sélecteur de gérant des formulaires
+     * d'hôtel), dans l'index en mémoire de l'instantané courant.
+     *
+     * @param prefix       Le début du prénom, du nom ou du NAS (null ou vide : par nom)
+     * @param idHotel      Seulement les employés de cet hôtel (null : tous)
+     * @param idHotelChain Seulement les employés d'un hôtel de cette chaîne (null : toutes)
+     * @return Au plus MAX_MANAGER_CANDIDATES gérants
+     */
+    public List<ManagerOptionDTO> findManagers(String prefix, Integer idHotel, Integer idHotelChain) {
+        return current().managers.find(prefix, idHotel, idHotelChain, MAX_MANAGER_CANDIDATES);
+    }
+
+    /**
+     * @param sinEmployee Le NAS d'un employé
+     * @return Le gérant possible de ce NAS (option déjà choisie d'un formulaire), ou null
+     */
+    public ManagerOptionDTO getManager(String sinEmployee) {
+        return current().managers.get(sinEmployee);
+    }
+
+    /**
+     * Renvoie l'instantané à jour, reconstruit si les tables lues ont changé.
+     */
+    private Snapshot current() {
+        // Versions lues avant la construction : une écriture validée pendant la lecture
+        // rendra l'instantané périmé dès la requête suivante, jamais l'inverse
+        String version = tableVersionService.etag(Table.HOTEL, Table.EMPLOYEE);
+        Snapshot current = snapshot;
+        if (isCurrent(current, version)) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            // Un autre thread a pu reconstruire l'instantané pendant l'attente
+            current = snapshot;
+            if (isCurrent(current, version)) {
+                return current;
+            }
+            ReferenceData data = loadTransaction.execute(status -> new ReferenceData(
+                    version, System.nanoTime(),
+                    hotelChainRepository.findOptions(),
+                    hotelRepository.findOptions(),
+                    employeeRepository.findManagerOptions(),
+                    CAPACITIES, VIEWS, ROLES));
+            current = new Snapshot(data, new ManagerIndex(data.getManagers()));
+            snapshot = current;
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * @param current L'instantané (null s'il n'a jamais été construit)
+     * @param version Les versions actuelles des tables lues
+     * @return true si l'instantané est à jour et n'a pas dépassé son âge maximal
+     */
+    private boolean isCurrent(Snapshot current, String version) {
+        return current != null
+                && current.data.getVersion().equals(version)
+                && System.nanoTime() - current.data.getBuiltAt() < maxAgeSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Un instantané et l'index des gérants construit avec lui, remplacés ensemble.
+     */
+    private static final class Snapshot {
+
+        private final ReferenceData data;
+
+        private final ManagerIndex managers;
+
+        Snapshot(ReferenceData data, ManagerIndex managers) {
+            this.data = data;
+            this.managers = managers;
+        }
+    }
+}
@@ -3,12 +3,23 @@ package com.example.EHotel.services;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+// Imports de la page de liste, de ses filtres et de ses lignes
+import com.example.EHotel.dtos.KeysetPage;
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.StayRowDTO;
 // Import de l'entité Rental (location active)
 import com.example.EHotel.model.hotel.Rental;
+import com.example.EHotel.model.outbox.OutboxEvent;
 // Import du dépôt JPA pour les opérations sur les locations
 import com.example.EHotel.repositories.hotel.RentalRepository;
+import com.example.EHotel.repositories.hotel.RentalRepository.CheckedInRental;
+import com.example.EHotel.services.TableVersionService.Table;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 /**
@@ -25,6 +36,15 @@ import jakarta.transaction.Transactional;
 @Transactional  // Toutes les méthodes s'exécutent dans un contexte transactionnel
 public class RentalService {
 
+    /** Lignes de la liste des locations ; getRentals() ajoute les filtres saisis */
+    private static final String RENTAL_ROWS = """
+            SELECT new com.example.EHotel.dtos.StayRowDTO(
+                   l.idRental, c.firstname, c.lastname, h.name, r.roomNumber, l.startDate, l.endDate)
+            FROM Rental l
+            JOIN l.customer c
+            JOIN l.room r
+            JOIN r.hotel h""";
+
     /**
      * Dépôt JPA pour l'accès à la base de données (table "rental").
      * Injecté automatiquement par Spring via @Autowired.
@@ -32,6 +52,22 @@ public class RentalService {
     @Autowired
     private RentalRepository rentalRepository;
 
+    /** Archivage asynchrone des nouvelles locations (remplace le trigger archieve_rental) */
+    @Autowired
+    private ArchiveWriter archiveWriter;
+
+    /** Outbox transactionnelle : chaque modification publie un événement dans la même transaction */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Compteurs de modification des tables (ETags des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** EntityManager JPA : requête de la liste construite selon les filtres saisis */
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Enregistre une nouvelle location en base de données.
      * Appelé lors de la transformation d'un Booking en Rental.
@@ -41,6 +77,58 @@ public class RentalService {
     @SuppressWarnings("null")
     public void addRental(Rental rental) {
         rentalRepository.save(rental);
+        archiveWriter.archiveRental(rental);
+        publish(rental, OutboxEvent.CREATED);
+    }
+
+    /**
+     * Check-in groupé : transforme en locations toutes les réservations d'un hôtel
+     * dont la date d'arrivée est arrivalDate, en une seule instruction SQL ensembliste.
+     *
+     * @param idHotel     L'identifiant de l'hôtel
+     * @param arrivalDate La date d'arrivée des réservations à transformer
+     * @return Le nombre de réservations transformées en locations
+     */
+    public int checkIn(int idHotel, LocalDate arrivalDate) {
+        return archive(rentalRepository.checkInByHotelAndDate(idHotel, arrivalDate));
+    }
+
+    /**
+     * Check-in groupé : transforme en locations une sélection de réservations,
+     * en une seule instruction SQL ensembliste.
+     *
+     * @param bookingIds Les identifiants des réservations à transformer
+     * @return Le nombre de réservations transformées en locations
+     */
+    public int checkIn(Collection<Integer> bookingIds) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            return 0;
+        }
+        return archive(rentalRepository.checkInByBookingIds(bookingIds));
+    }
+
+    /**
+     * Transmet à l'archivage asynchrone les locations créées par un check-in groupé, et publie
+     * pour chacune les mêmes événements que le check-in unitaire (location créée, réservation
+     * supprimée).
+     *
+     * @param rentals Les locations créées, avec la réservation dont chacune provient
+     * @return Le nombre de locations créées
+     */
+    private int archive(List<CheckedInRental> rentals) {
+        for (CheckedInRental r : rentals) {
+            archiveWriter.archiveRental(r.getIdRental(), r.getSinCustomer(), r.getIdRoom(),
+                    r.getStartDate(), r.getEndDate());
+            outboxService.publish(OutboxEvent.RENTAL, r.getIdRental(), OutboxEvent.CREATED,
+                    OutboxService.stay(r.getSinCustomer(), r.getIdRoom(), r.getStartDate(), r.getEndDate()));
+            outboxService.publish(OutboxEvent.BOOKING, r.getIdBooking(), OutboxEvent.DELETED,
+                    OutboxService.stay(r.getSinCustomer(), r.getIdRoom(), r.getStartDate(), r.getEndDate()));
+        }
+        if (!rentals.isEmpty()) {
+            // Le check-in ensembliste supprime les réservations transformées
+            tableVersionService.bump(Table.BOOKING);
+        }
+        return rentals.size();
     }
 
     /**
@@ -49,6 +137,7 @@ public class RentalService {
      * @param id Identifiant unique de la location
      * @return La location correspondante, ou null si non trouvée
      */
+    @ReadOnlyTransactional
     public Rental getRental(int id) {
         return rentalRepository.findById(id).orElse(null);
     }
@@ -59,7 +148,10 @@ public class RentalService {
      * @param id Identifiant de la location à supprimer
      */
     public void deleteRental(int id) {
-        rentalRepository.deleteById(id);
+        rentalRepository.findById(id).ifPresent(rental -> {
+            rentalRepository.delete(rental);
+            publish(rental, OutboxEvent.DELETED);
+        });
     }
 
     /**
@@ -70,6 +162,19 @@ public class RentalService {
     @SuppressWarnings("null")
     public void updateRental(Rental rental) {
         rentalRepository.save(rental);
+        publish(rental, OutboxEvent.UPDATED);
+    }
+
+    /**
+     * Publie un événement de location dans l'outbox (transaction courante).
+     *
+     * @param rental    La location concernée
+     * @param eventType Le type d'événement (OutboxEvent.CREATED, UPDATED, DELETED)
+     */
+    private void publish(Rental rental, String eventType) {
+        outboxService.publish(OutboxEvent.RENTAL, rental.getIdRental(), eventType,
+                OutboxService.stay(rental.getCustomer().getSinCustomer(), rental.getRoom().getIdRoom(),
+                        rental.getStartDate(), rental.getEndDate()));
     }
 
     /**
@@ -87,11 +192,21 @@ public class RentalService {
     }
 
     /**
-     * Récupère toutes les locations actives dans le système.
+     * Récupère une page de la liste des locations, filtrée, par date d'arrivée.
+     * Une seule requête, d'au plus ListFilterDTO.PAGE_SIZE + 1 lignes, quelle que soit la page.
      *
-     * @return Liste complète de toutes les locations actives (vide si aucune)
+     * @param filter Les filtres et la position de la page
+     * @return La page de locations et la position de la page suivante
      */
-    public List<Rental> getRentals() {
-        return rentalRepository.findAll();
+    @ReadOnlyTransactional
+    public KeysetPage<StayRowDTO> getRentals(ListFilterDTO filter) {
+        List<StayRowDTO> rows = new ListPageQuery<>(RENTAL_ROWS, StayRowDTO.class)
+                .filter("h.idHotel = :idHotel", "idHotel", filter.getIdHotel())
+                .filter("c.sinCustomer = :sinCustomer", "sinCustomer", filter.getSinCustomer())
+                .filter("l.startDate >= :fromDate", "fromDate", filter.getFrom())
+                .filter("l.startDate <= :toDate", "toDate", filter.getTo())
+                .after("(l.startDate, l.idRental)", ">", filter)
+                .fetch(entityManager, "l.startDate, l.idRental", ListFilterDTO.PAGE_SIZE + 1);
+        return KeysetPage.of(rows, ListFilterDTO.PAGE_SIZE, StayRowDTO::getStartDate, StayRowDTO::getId);
     }
 }
@@ -0,0 +1,444 @@
+package com.example.EHotel.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Imports des DTOs utilisés
+import com.example.EHotel.dtos.BookingSlotDTO;
+import com.example.EHotel.dtos.StayDTO;
+// Imports des entités manipulées
+import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.model.outbox.OutboxEvent;
+// Imports des dépôts JPA utilisés
+import com.example.EHotel.repositories.hotel.AllotmentRepository;
+import com.example.EHotel.repositories.hotel.BookingRepository;
+import com.example.EHotel.repositories.hotel.RentalRepository;
+import com.example.EHotel.repositories.hotel.RoomRepository;
+import com.example.EHotel.repositories.hotel.BookingRepository.NewSlot;
+import com.example.EHotel.repositories.hotel.RoomRepository.GroupRoom;
+import com.example.EHotel.repositories.hotel.RoomRepository.RoomGroup;
+import com.example.EHotel.services.TableVersionService.Table;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service d'affectation des réservations aux chambres physiques.
+ *
+ * Un client réserve en pratique une capacité (Simple, Double, ...), pas une chambre précise.
+ * Laisser chaque réservation sur la chambre choisie au moment de la réservation fragmente
+ * le calendrier : de longs séjours sont refusés alors qu'ils tiendraient si les réservations
+ * précédentes étaient regroupées. Ce service réaffecte, pour chaque groupe (hôtel, capacité),
+ * les réservations futures aux chambres du groupe.
+ *
+ * Algorithme (coloration d'un graphe d'intervalles) :
+ *   1. Les occupations fixées (locations en cours, réservations commencées, chambres et
+ *      réservations d'un bloc de groupe) donnent pour chaque chambre son dernier jour occupé ;
+ *      les chambres sont rangées dans une TreeMap par ce jour
+ *   2. Les réservations futures sont parcourues par date de début croissante (les plus longues
+ *      d'abord à date égale) ; chacune est placée dans la chambre libérée le plus tard possible
+ *      avant son arrivée (floorEntry : "best fit", qui minimise le trou laissé), en gardant sa
+ *      chambre actuelle à égalité pour limiter les déplacements
+ *   3. Le parcours par date de début utilise le nombre minimal de chambres : si une réservation
+ *      ne peut pas être placée, le groupe est déjà en conflit et rien n'est modifié
+ * Le coût est O(n log n) pour n réservations du groupe : quelques millisecondes pour un hôtel
+ * de 1 000 chambres.
+ *
+ * Les chambres du groupe sont verrouillées pendant l'affectation (SELECT ... FOR UPDATE),
+ * les réservations déplacées sont mises à jour par lot JDBC et publient un événement
+ * BookingUpdated (avec la chambre précédente) dans l'outbox.
+ *
+ * Déclenchement :
+ *   - à chaque nouvelle réservation (consommateur de l'outbox) : seule la nouvelle réservation
+ *     est placée (place()), les autres réservations du groupe ne bougent pas. Elle rejoint la
+ *     chambre libre sur ses dates libérée le plus tard avant son arrivée (même floorEntry que
+ *     ci-dessus, sur les dernières nuits occupées actuelles). Les occupations du groupe sont lues
+ *     sans verrou ; seules sa chambre actuelle et la chambre choisie sont verrouillées, puis la
+ *     place est revérifiée. Les réservations concurrentes des autres chambres ne sont pas bloquées
+ *   - chaque nuit, réaffectation complète de tous les groupes (ehotel.assignment.nightly-cron)
+ */
+@Service
+public class RoomAssignmentService implements OutboxListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAssignmentService.class);
+
+    /**
+     * Groupe de chambres interchangeables.
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité
+     */
+    record Group(int idHotel, String capacity) {
+    }
+
+    /** Dépôt JPA des chambres (groupes, verrouillage) */
+    @Autowired
+    private RoomRepository roomRepository;
+
+    /** Dépôt JPA des réservations (réservations déplaçables et commencées) */
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    /** Dépôt JPA des locations (occupations en cours) */
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    /** Dépôt JPA des blocs de groupe (chambres retenues) */
+    @Autowired
+    private AllotmentRepository allotmentRepository;
+
+    /** Accès JDBC direct pour la mise à jour par lot des chambres affectées */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Outbox : publication des réservations déplacées */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Compteurs de modification des tables (ETags des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Gestionnaire de transactions, pour une transaction par groupe */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Transaction indépendante par groupe : un groupe en échec n'annule pas les autres */
+    private TransactionTemplate groupTransaction;
+
+    /**
+     * Prépare la transaction d'affectation.
+     */
+    @PostConstruct
+    void init() {
+        groupTransaction = new TransactionTemplate(transactionManager);
+        groupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // -------------------------------------------------------------------------
+    // Déclenchement
+    // -------------------------------------------------------------------------
+
+    @Override
+    public String consumerName() {
+        return "room-assignment";
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        Set<Integer> created = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            if (OutboxEvent.BOOKING.equals(event.getAggregateType())
+                    && OutboxEvent.CREATED.equals(event.getEventType())) {
+                created.add(Integer.valueOf(event.getAggregateId()));
+            }
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+        // Une seule lecture pour le lot : réservations encore déplaçables et groupe de leur chambre
+        for (NewSlot slot : bookingRepository.findNewSlots(created, LocalDate.now())) {
+            placeQuietly(slot);
+        }
+    }
+
+    /**
+     * Passe complète de nuit : réaffecte tous les groupes (hôtel, capacité).
+     */
+    @Scheduled(cron = "${ehotel.assignment.nightly-cron:0 30 1 * * *}")
+    public void reassignAll() {
+        int moved = 0;
+        for (RoomGroup group : roomRepository.findGroups()) {
+            moved += reassignQuietly(new Group(group.getIdHotel(), group.getCapacity()));
+        }
+        log.info("Affectation des chambres : {} réservations déplacées", moved);
+    }
+
+    /**
+     * Réaffecte un groupe dans sa propre transaction ; une erreur est journalisée sans être propagée.
+     *
+     * @return Le nombre de réservations déplacées
+     */
+    private int reassignQuietly(Group group) {
+        try {
+            Integer moved = groupTransaction.execute(status -> reassign(group.idHotel(), group.capacity()));
+            return moved != null ? moved : 0;
+        } catch (RuntimeException e) {
+            log.warn("Affectation des chambres impossible pour l'hôtel {} ({})",
+                    group.idHotel(), group.capacity(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Place une nouvelle réservation dans sa propre transaction ; une erreur est journalisée
+     * sans être propagée (la passe de nuit replacera la réservation).
+     */
+    private void placeQuietly(NewSlot slot) {
+        try {
+            groupTransaction.executeWithoutResult(status -> place(slot));
+        } catch (RuntimeException e) {
+            log.warn("Placement de la réservation {} impossible", slot.getIdBooking(), e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Placement d'une nouvelle réservation
+    // -------------------------------------------------------------------------
+
+    /**
+     * Déplace une nouvelle réservation vers la chambre de son groupe libérée le plus tard
+     * avant son arrivée, si ce n'est pas déjà la sienne. Doit être appelée dans une transaction.
+     *
+     * @param slot La réservation créée et son groupe
+     * @return true si la réservation a été déplacée
+     */
+    boolean place(NewSlot slot) {
+        LocalDate today = LocalDate.now();
+        BookingSlotDTO booking = new BookingSlotDTO(slot.getIdBooking(), slot.getSinCustomer(), slot.getIdRoom(),
+                slot.getStartDate(), slot.getEndDate());
+
+        // Occupations du groupe jusqu'à la fin de la réservation, lues sans verrou
+        List<GroupRoom> rooms = roomRepository.findGroupRooms(slot.getIdHotel(), slot.getCapacity());
+        List<Integer> roomIds = rooms.stream().map(GroupRoom::getIdRoom).toList();
+        List<StayDTO> stays = new ArrayList<>(bookingRepository.findStays(roomIds, today, booking.getEndDate()));
+        stays.addAll(rentalRepository.findStays(roomIds, today, booking.getEndDate()));
+        stays.addAll(allotmentRepository.findHeld(slot.getIdHotel(), slot.getCapacity(), today));
+        removeOwnStay(stays, booking);
+
+        Integer chosen = place(eligibleRooms(rooms, stays, booking), stays, booking, today);
+        if (chosen == null || chosen.equals(booking.getIdRoom())) {
+            return false;
+        }
+
+        // Verrou des deux seules chambres touchées, dans l'ordre des ID (pas d'interblocage),
+        // puis nouvelle vérification de la chambre choisie, réservée entre-temps peut-être
+        roomRepository.lockById(Math.min(chosen, booking.getIdRoom()));
+        roomRepository.lockById(Math.max(chosen, booking.getIdRoom()));
+        if (bookingRepository.existsOverlap(chosen, booking.getIdBooking(), booking.getStartDate(), booking.getEndDate())
+                || rentalRepository.existsOverlap(chosen, booking.getStartDate(), booking.getEndDate())
+                || allotmentRepository.findHeld(slot.getIdHotel(), slot.getCapacity(), today).stream()
+                        .anyMatch(stay -> stay.getIdRoom().equals(chosen)
+                                && stay.overlaps(booking.getStartDate(), booking.getEndDate()))) {
+            return false;
+        }
+        // Réservation modifiée, supprimée ou enregistrée depuis la lecture : rien n'est déplacé
+        int updated = jdbcTemplate.update("""
+                UPDATE booking SET id_room = ?, version = version + 1
+                WHERE id_booking = ? AND id_room = ? AND start_date = ? AND end_date = ?
+                """, chosen, booking.getIdBooking(), booking.getIdRoom(), booking.getStartDate(), booking.getEndDate());
+        if (updated == 0) {
+            return false;
+        }
+        publishMove(booking, chosen);
+        tableVersionService.bump(Table.BOOKING);
+        return true;
+    }
+
+    /**
+     * Retire des occupations lues celle de la réservation à placer.
+     */
+    private static void removeOwnStay(List<StayDTO> stays, BookingSlotDTO booking) {
+        stays.stream()
+                .filter(stay -> stay.getIdRoom().equals(booking.getIdRoom())
+                        && stay.getStartDate().equals(booking.getStartDate())
+                        && stay.getEndDate().equals(booking.getEndDate()))
+                .findFirst()
+                .ifPresent(stays::remove);
+    }
+
+    /**
+     * Chambres pouvant recevoir la réservation : chambres disponibles, chambres occupées sur la
+     * période lue et chambre actuelle de la réservation. Une chambre indisponible sans occupation
+     * lue (hors service, ou réservée seulement après cette réservation) n'est pas candidate ;
+     * la passe de nuit, qui lit tout le groupe, peut l'utiliser.
+     */
+    private static List<Integer> eligibleRooms(List<GroupRoom> rooms, List<StayDTO> stays, BookingSlotDTO booking) {
+        Set<Integer> used = new HashSet<>();
+        stays.forEach(stay -> used.add(stay.getIdRoom()));
+        used.add(booking.getIdRoom());
+        List<Integer> eligible = new ArrayList<>();
+        for (GroupRoom room : rooms) {
+            if (Boolean.TRUE.equals(room.getAvailability()) || used.contains(room.getIdRoom())) {
+                eligible.add(room.getIdRoom());
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Choix "best fit" de la chambre d'une seule réservation : parmi les chambres libres sur
+     * toutes ses nuits, celle dont la dernière nuit occupée avant l'arrivée est la plus tardive
+     * (floorEntry), sa chambre actuelle à égalité.
+     *
+     * @param rooms   Les chambres éligibles
+     * @param stays   Les autres occupations du groupe, jusqu'à la fin de la réservation
+     * @param booking La réservation à placer
+     * @param today   La date du jour
+     * @return La chambre choisie, ou null si aucune chambre n'est libre sur ses dates
+     */
+    static Integer place(List<Integer> rooms, List<StayDTO> stays, BookingSlotDTO booking, LocalDate today) {
+        Set<Integer> taken = new HashSet<>();
+        for (StayDTO stay : stays) {
+            if (stay.overlaps(booking.getStartDate(), booking.getEndDate())) {
+                taken.add(stay.getIdRoom());
+            }
+        }
+        Map<Integer, LocalDate> lastNight = new HashMap<>();
+        for (Integer idRoom : rooms) {
+            if (!taken.contains(idRoom)) {
+                lastNight.put(idRoom, today);
+            }
+        }
+        for (StayDTO stay : stays) {
+            lastNight.computeIfPresent(stay.getIdRoom(),
+                    (id, last) -> stay.getEndDate().isAfter(last) ? stay.getEndDate() : last);
+        }
+
+        TreeMap<LocalDate, TreeSet<Integer>> byLastNight = new TreeMap<>();
+        lastNight.forEach((idRoom, last) -> byLastNight.computeIfAbsent(last, k -> new TreeSet<>()).add(idRoom));
+        Map.Entry<LocalDate, TreeSet<Integer>> fit = byLastNight.floorEntry(booking.getStartDate().minusDays(1));
+        if (fit == null) {
+            return null;
+        }
+        TreeSet<Integer> candidates = fit.getValue();
+        return candidates.contains(booking.getIdRoom()) ? booking.getIdRoom() : candidates.first();
+    }
+
+    // -------------------------------------------------------------------------
+    // Affectation
+    // -------------------------------------------------------------------------
+
+    /**
+     * Réaffecte les réservations futures d'un groupe (hôtel, capacité) aux chambres du groupe.
+     * Doit être appelée dans une transaction.
+     *
+     * @param idHotel  L'hôtel
+     * @param capacity La capacité
+     * @return Le nombre de réservations déplacées
+     */
+    public int reassign(int idHotel, String capacity) {
+        LocalDate today = LocalDate.now();
+        List<Room> rooms = roomRepository.lockGroup(idHotel, capacity);
+        List<BookingSlotDTO> movable = bookingRepository.findMovable(idHotel, capacity, today);
+        if (movable.size() < 2) {
+            return 0;
+        }
+        List<StayDTO> pinned = new ArrayList<>(bookingRepository.findStarted(idHotel, capacity, today));
+        pinned.addAll(rentalRepository.findCurrent(idHotel, capacity, today));
+        // Les chambres retenues par un bloc de groupe ne reçoivent pas d'autre réservation avant sa fin
+        pinned.addAll(allotmentRepository.findHeld(idHotel, capacity, today));
+
+        Map<Integer, Integer> assignment = assign(eligibleRooms(rooms, pinned, movable), pinned, movable, today);
+        if (assignment == null) {
+            log.warn("Hôtel {} ({}) : réservations en conflit, affectation inchangée", idHotel, capacity);
+            return 0;
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        for (BookingSlotDTO booking : movable) {
+            Integer idRoom = assignment.get(booking.getIdBooking());
+            if (!idRoom.equals(booking.getIdRoom())) {
+                updates.add(new Object[] { idRoom, booking.getIdBooking() });
+                publishMove(booking, idRoom);
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE booking SET id_room = ?, version = version + 1 WHERE id_booking = ?", updates);
+            tableVersionService.bump(Table.BOOKING);
+        }
+        return updates.size();
+    }
+
+    /**
+     * Chambres pouvant recevoir des réservations : chambres disponibles, et chambres
+     * occupées (location en cours) ou portant déjà une réservation du groupe.
+     * Une chambre indisponible sans occupation (hors service) ne reçoit pas de nouvelle réservation.
+     */
+    private static List<Integer> eligibleRooms(List<Room> rooms, List<StayDTO> pinned, List<BookingSlotDTO> movable) {
+        Set<Integer> used = new HashSet<>();
+        pinned.forEach(stay -> used.add(stay.getIdRoom()));
+        movable.forEach(booking -> used.add(booking.getIdRoom()));
+        List<Integer> eligible = new ArrayList<>();
+        for (Room room : rooms) {
+            if (Boolean.TRUE.equals(room.getAvailability()) || used.contains(room.getIdRoom())) {
+                eligible.add(room.getIdRoom());
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Affectation gloutonne "best fit" des réservations triées par date de début.
+     *
+     * @param rooms   Les chambres éligibles
+     * @param pinned  Les occupations fixées
+     * @param movable Les réservations à affecter, triées par date de début
+     * @param today   La date du jour
+     * @return idBooking → idRoom, ou null si une réservation ne peut pas être placée
+     */
+    static Map<Integer, Integer> assign(List<Integer> rooms, List<StayDTO> pinned,
+                                        List<BookingSlotDTO> movable, LocalDate today) {
+        // Dernier jour occupé de chaque chambre (aujourd'hui au plus tôt : les réservations sont futures)
+        Map<Integer, LocalDate> lastNight = new HashMap<>();
+        for (Integer idRoom : rooms) {
+            lastNight.put(idRoom, today);
+        }
+        for (StayDTO stay : pinned) {
+            lastNight.computeIfPresent(stay.getIdRoom(),
+                    (id, last) -> stay.getEndDate().isAfter(last) ? stay.getEndDate() : last);
+        }
+
+        // Chambres rangées par dernier jour occupé
+        TreeMap<LocalDate, TreeSet<Integer>> byLastNight = new TreeMap<>();
+        lastNight.forEach((idRoom, last) -> byLastNight.computeIfAbsent(last, k -> new TreeSet<>()).add(idRoom));
+
+        Map<Integer, Integer> assignment = new HashMap<>();
+        for (BookingSlotDTO booking : movable) {
+            // Chambre libérée le plus tard possible avant l'arrivée (dates incluses : veille au plus tard)
+            Map.Entry<LocalDate, TreeSet<Integer>> fit = byLastNight.floorEntry(booking.getStartDate().minusDays(1));
+            if (fit == null) {
+                return null;
+            }
+            TreeSet<Integer> candidates = fit.getValue();
+            Integer chosen = candidates.contains(booking.getIdRoom()) ? booking.getIdRoom() : candidates.first();
+            candidates.remove(chosen);
+            if (candidates.isEmpty()) {
+                byLastNight.remove(fit.getKey());
+            }
+            byLastNight.computeIfAbsent(booking.getEndDate(), k -> new TreeSet<>()).add(chosen);
+            assignment.put(booking.getIdBooking(), chosen);
+        }
+        return assignment;
+    }
+
+    /**
+     * Publie le déplacement d'une réservation dans l'outbox (chambre précédente incluse :
+     * la liste d'attente réévalue les nuits libérées sur cette chambre).
+     */
+    private void publishMove(BookingSlotDTO booking, Integer idRoom) {
+        Map<String, Object> payload = OutboxService.stay(booking.getSinCustomer(), idRoom,
+                booking.getStartDate(), booking.getEndDate());
+        payload.put("previousIdRoom", booking.getIdRoom());
+        payload.put("previousStartDate", booking.getStartDate());
+        payload.put("previousEndDate", booking.getEndDate());
+        outboxService.publish(OutboxEvent.BOOKING, booking.getIdBooking(), OutboxEvent.UPDATED, payload);
+    }
+}
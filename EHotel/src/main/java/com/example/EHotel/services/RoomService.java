@@ -5,16 +5,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 // Import du DTO de critères de recherche
+import com.example.EHotel.dtos.RoomRowDTO;
 import com.example.EHotel.dtos.RoomSearchCriteriaDTO;
-// Import de l'entité Room
+// Import des entités Room et Hotel (cache de second niveau)
+import com.example.EHotel.model.hotel.Hotel;
 import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.model.outbox.OutboxEvent;
 // Import du dépôt JPA pour les opérations sur les chambres
 import com.example.EHotel.repositories.hotel.RoomRepository;
+import com.example.EHotel.services.TableVersionService.Table;
 
 // Annotation pour la gestion transactionnelle
 import jakarta.transaction.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service gérant la logique métier liée aux chambres d'hôtel.
@@ -36,16 +43,44 @@ public class RoomService {
      */
     private final RoomRepository roomRepository;
 
+    /**
+     * Outbox transactionnelle : l'ajout ou la modification d'une chambre publie un événement
+     * (la liste d'attente réévalue alors les demandes de l'hôtel concerné).
+     */
+    private final OutboxService outboxService;
+
+    /** Nouvel essai des modifications en conflit (verrouillage optimiste) */
+    private final OptimisticRetry optimisticRetry;
+
+    /** Compteurs de modification des tables (ETags des pages de liste) */
+    private final TableVersionService tableVersionService;
+
+    /**
+     * Cache de second niveau : le nombre de chambres en attente de l'hôtel (Hotel.pendingRooms,
+     * compté par un déclencheur) change à l'ajout et à la suppression d'une chambre.
+     */
+    private final EntityCacheService entityCacheService;
+
     /**
      * Constructeur avec injection de dépendance par constructeur.
      * Cette approche est préférable à l'injection par champ car elle permet
      * les tests unitaires et garantit l'immuabilité de la référence.
      *
      * @param roomRepository Le dépôt JPA des chambres, injecté par Spring
+     * @param outboxService  Le service d'outbox, injecté par Spring
+     * @param optimisticRetry La politique de nouvel essai, injectée par Spring
+     * @param tableVersionService Les compteurs de modification, injectés par Spring
+     * @param entityCacheService  Le cache de second niveau, injecté par Spring
      */
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, OutboxService outboxService,
+                       OptimisticRetry optimisticRetry, TableVersionService tableVersionService,
+                       EntityCacheService entityCacheService) {
         this.roomRepository = roomRepository;
+        this.outboxService = outboxService;
+        this.optimisticRetry = optimisticRetry;
+        this.tableVersionService = tableVersionService;
+        this.entityCacheService = entityCacheService;
     }
 
     /**
@@ -58,6 +93,7 @@ public class RoomService {
      * @param criteria Objet contenant tous les critères de filtrage
      * @return Liste des chambres correspondant aux critères (vide si aucune)
      */
+    @ReadOnlyTransactional
     public List<Room> findAvailableRooms(RoomSearchCriteriaDTO criteria) {
         return roomRepository.findAvailableRooms(criteria);
     }
@@ -68,6 +104,7 @@ public class RoomService {
      * @param id Identifiant unique de la chambre
      * @return La chambre correspondante, ou null si non trouvée
      */
+    @ReadOnlyTransactional
     public Room findRoomById(int id) {
         return roomRepository.findById(id).orElse(null);
     }
@@ -78,10 +115,44 @@ public class RoomService {
      * @param hotelId Identifiant de l'hôtel dont on veut les chambres
      * @return Liste des chambres de cet hôtel (vide si l'hôtel n'a pas de chambres)
      */
+    @ReadOnlyTransactional
     public List<Room> findRoomsByHotelId(int hotelId) {
         return roomRepository.findByHotelId(hotelId);
     }
 
+    /**
+     * Recherche les chambres disponibles, en projection à plat (API JSON).
+     *
+     * @param criteria Objet contenant tous les critères de filtrage
+     * @return Les chambres correspondant aux critères, par prix
+     */
+    @ReadOnlyTransactional
+    public List<RoomRowDTO> findAvailableRoomRows(RoomSearchCriteriaDTO criteria) {
+        return roomRepository.findAvailableRows(criteria);
+    }
+
+    /**
+     * Récupère une chambre en projection à plat (API JSON).
+     *
+     * @param id Identifiant de la chambre
+     * @return La chambre, ou null si non trouvée
+     */
+    @ReadOnlyTransactional
+    public RoomRowDTO findRoomRow(int id) {
+        return roomRepository.findRow(id).orElse(null);
+    }
+
+    /**
+     * Récupère les chambres d'un hôtel en projection à plat (API JSON).
+     *
+     * @param hotelId Identifiant de l'hôtel
+     * @return Les chambres de l'hôtel, par numéro
+     */
+    @ReadOnlyTransactional
+    public List<RoomRowDTO> findRoomRowsByHotelId(int hotelId) {
+        return roomRepository.findRowsByHotelId(hotelId);
+    }
+
     /**
      * Enregistre une nouvelle chambre en base de données.
      *
@@ -90,7 +161,10 @@ public class RoomService {
      */
     @SuppressWarnings("null")
     public Room saveRoom(Room room) {
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        publish(saved, OutboxEvent.CREATED);
+        entityCacheService.evict(Hotel.class, saved.getHotel().getIdHotel());
+        return saved;
     }
 
     /**
@@ -99,18 +173,61 @@ public class RoomService {
      * @param id Identifiant de la chambre à supprimer
      */
     public void deleteRoom(int id) {
-        roomRepository.deleteById(id);
+        // Chargée comme le ferait deleteById, pour connaître l'hôtel à évincer du cache
+        roomRepository.findById(id).ifPresent(room -> {
+            roomRepository.delete(room);
+            entityCacheService.evict(Hotel.class, room.getHotel().getIdHotel());
+        });
+        // Les réservations de la chambre disparaissent avec elle
+        tableVersionService.bump(Table.ROOM, Table.BOOKING);
     }
 
     /**
-     * Met à jour une chambre existante en base de données.
+     * Met à jour les champs modifiables d'une chambre (l'hôtel associé reste inchangé).
      *
-     * @param room La chambre avec les nouvelles valeurs à persister
-     * @return La chambre mise à jour
+     * La modification n'est appliquée que si la chambre n'a pas changé depuis l'affichage
+     * du formulaire (même version) : une modification concurrente, ou le passage de la chambre
+     * à indisponible par une réservation, n'est jamais écrasée silencieusement.
+     * Un conflit à l'écriture est rejoué par OptimisticRetry ; la relecture constate alors
+     * le changement de version.
+     *
+     * @param id      Identifiant de la chambre à modifier
+     * @param changes Les nouvelles valeurs, avec la version lue par le formulaire
+     * @return true si la chambre a été modifiée, false si elle a changé entre-temps ou n'existe plus
      */
-    @SuppressWarnings("null")
-    public Room updateRoom(Room room) {
-        return roomRepository.save(room);
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public boolean updateRoom(int id, Room changes) {
+        return optimisticRetry.execute("room.update", () -> {
+            Room room = roomRepository.findById(id).orElse(null);
+            if (room == null || !Objects.equals(room.getVersion(), changes.getVersion())) {
+                return false;
+            }
+            room.setRoomNumber(changes.getRoomNumber());
+            room.setAvailability(changes.getAvailability());
+            room.setPrice(changes.getPrice());
+            room.setView(changes.getView());
+            room.setExtensible(changes.getExtensible());
+            room.setCapacity(changes.getCapacity());
+            publish(room, OutboxEvent.UPDATED);
+            return true;
+        });
+    }
+
+    /**
+     * Publie un événement de chambre dans l'outbox (transaction courante).
+     *
+     * @param room      La chambre concernée
+     * @param eventType Le type d'événement (OutboxEvent.CREATED, UPDATED)
+     */
+    private void publish(Room room, String eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("idRoom", room.getIdRoom());
+        payload.put("idHotel", room.getHotel().getIdHotel());
+        payload.put("capacity", room.getCapacity());
+        payload.put("price", room.getPrice());
+        payload.put("availability", room.getAvailability());
+        outboxService.publish(OutboxEvent.ROOM, room.getIdRoom(), eventType, payload);
+        tableVersionService.bump(Table.ROOM);
     }
 
     /**
@@ -118,6 +235,7 @@ public class RoomService {
      *
      * @return Liste complète de toutes les chambres en base
      */
+    @ReadOnlyTransactional
     public List<Room> findAllRooms() {
         return roomRepository.findAll();
     }
@@ -0,0 +1,65 @@
+package com.example.EHotel.services;
+
+import java.sql.SQLException;
+
+import io.r2dbc.spi.R2dbcException;
+
+/**
+ * Codes SQLSTATE de PostgreSQL reconnus par l'application, et recherche d'un code dans la
+ * chaîne des causes d'une exception (JPA, Spring JDBC ou R2DBC).
+ *
+ * Seules les erreurs attendues sont converties en message pour l'utilisateur (chambre
+ * prise, NAS déjà utilisé) ; les autres (connexion perdue, erreur SQL) remontent telles
+ * quelles et donnent une erreur 5xx.
+ */
+public final class SqlStates {
+
+    /** RAISE EXCEPTION d'un déclencheur : check_room_availability (chambre indisponible ou retenue) */
+    public static final String ROOM_UNAVAILABLE = "P0001";
+
+    /** Violation d'une clé unique ou primaire */
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    /** Classe des violations de contrainte (clé étrangère, CHECK, NOT NULL, unicité) */
+    public static final String INTEGRITY_CONSTRAINT_CLASS = "23";
+
+    private SqlStates() {
+    }
+
+    /**
+     * @param error Une exception levée par un accès à la base
+     * @param state Le code SQLSTATE cherché
+     * @return true si l'une des causes porte exactement ce code
+     */
+    public static boolean is(Throwable error, String state) {
+        String found = of(error);
+        return found != null && found.equals(state);
+    }
+
+    /**
+     * @param error Une exception levée par un accès à la base
+     * @return true si l'erreur est une violation de contrainte (classe 23)
+     */
+    public static boolean isConstraintViolation(Throwable error) {
+        String found = of(error);
+        return found != null && found.startsWith(INTEGRITY_CONSTRAINT_CLASS);
+    }
+
+    /**
+     * @param error Une exception levée par un accès à la base
+     * @return Le code SQLSTATE de la première cause qui en porte un, ou null
+     */
+    public static String of(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            String state = cause instanceof SQLException sql ? sql.getSQLState()
+                    : cause instanceof R2dbcException r2dbc ? r2dbc.getSqlState() : null;
+            if (state != null) {
+                return state;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.EHotel.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Type d'agrégat et d'événement des chambres libérées
+import com.example.EHotel.model.outbox.OutboxEvent;
+import com.example.EHotel.services.TableVersionService.Table;
+
+// Micrometer : métriques exposées par Spring Boot Actuator (/actuator/metrics)
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tâche de nuit qui fait avancer l'état des séjours terminés.
+ *
+ * Rien d'autre ne libère une chambre une fois son séjour terminé : le déclencheur
+ * update_room_availability ne s'exécute que sur un UPDATE de booking ou rental, et
+ * ces lignes ne sont jamais modifiées après leur insertion.
+ *
+ * Chaque passage exécute quelques instructions SQL ensemblistes, sur les index end_date :
+ *   1. les réservations terminées (end_date < aujourd'hui, jamais transformées en location)
+ *      sont copiées dans booking_archieve puis supprimées
+ *   2. les locations terminées sans paiement "Pending" sont copiées dans rental_archieve,
+ *      et leurs paiements (réglés ou remboursés) dans payment_archieve, puis supprimées ;
+ *      les locations avec un paiement en attente restent ouvertes
+ *   3. les chambres dont un séjour s'est terminé pendant la fenêtre ehotel.roll.lookback-days
+ *      et qui n'ont plus de séjour en cours ni à venir redeviennent disponibles ; un événement
+ *      ROOM est publié pour chacune (la liste d'attente les réexamine)
+ *
+ * Les étapes 1 et 2 sont découpées en lots de ehotel.roll.chunk-size lignes, chacun dans sa
+ * propre transaction (FOR UPDATE SKIP LOCKED : plusieurs instances peuvent s'exécuter en même
+ * temps sans traiter deux fois une ligne). Un rapport est journalisé à la fin du passage et
+ * les compteurs ehotel.roll.processed (étiquette "kind") sont incrémentés.
+ */
+@Service
+public class StayRollService {
+
+    private static final Logger log = LoggerFactory.getLogger(StayRollService.class);
+
+    /**
+     * Bilan d'un passage.
+     *
+     * @param expiredBookings Réservations terminées archivées et supprimées
+     * @param closedRentals   Locations terminées archivées et supprimées
+     * @param archivedPayments Paiements archivés et supprimés avec ces locations
+     * @param releasedRooms   Chambres redevenues disponibles
+     * @param pendingRentals  Locations terminées laissées ouvertes (paiement en attente)
+     * @param elapsed         Durée du passage
+     */
+    public record RollReport(int expiredBookings, int closedRentals, int archivedPayments,
+                             int releasedRooms, int pendingRentals, Duration elapsed) {
+    }
+
+    /** Archive puis supprime un lot de réservations terminées */
+    private static final String EXPIRE_BOOKINGS = """
+            WITH expired AS (
+                DELETE FROM booking
+                WHERE id_booking IN (
+                    SELECT id_booking
+                    FROM booking
+                    WHERE end_date < ?
+                    ORDER BY end_date
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id_booking, sin_customer, id_room, start_date, end_date
+            ), archived AS (
+                INSERT INTO booking_archieve (id_booking, sin_customer, id_room, start_date, end_date)
+                SELECT id_booking, sin_customer, id_room, start_date, end_date
+                FROM expired
+                ON CONFLICT DO NOTHING
+            )
+            SELECT COUNT(*) FROM expired
+            """;
+
+    /**
+     * Archive puis supprime un lot de locations terminées sans paiement en attente, et leurs
+     * paiements : chaque paiement supprimé est copié dans payment_archieve par la même instruction.
+     */
+    private static final String CLOSE_RENTALS = """
+            WITH closed AS (
+                DELETE FROM rental
+                WHERE id_rental IN (
+                    SELECT r.id_rental
+                    FROM rental r
+                    WHERE r.end_date < ?
+                      AND NOT EXISTS (
+                            SELECT 1 FROM payment p
+                            WHERE p.id_rental = r.id_rental AND p.payment_status = 'Pending'
+                          )
+                    ORDER BY r.end_date
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id_rental, sin_customer, id_room, start_date, end_date
+            ), archived AS (
+                INSERT INTO rental_archieve (id_rental, sin_customer, id_room, start_date, end_date)
+                SELECT id_rental, sin_customer, id_room, start_date, end_date
+                FROM closed
+                ON CONFLICT DO NOTHING
+            ), payments AS (
+                DELETE FROM payment
+                WHERE id_rental IN (SELECT id_rental FROM closed)
+                RETURNING id_payment, id_rental, payment_date, amount, payment_method, payment_status
+            ), archived_payments AS (
+                INSERT INTO payment_archieve (id_payment, id_rental, payment_date, amount,
+                                              payment_method, payment_status)
+                SELECT id_payment, id_rental, payment_date, amount, payment_method, payment_status
+                FROM payments
+                ON CONFLICT DO NOTHING
+            )
+            SELECT (SELECT COUNT(*) FROM closed), (SELECT COUNT(*) FROM payments)
+            """;
+
+    /**
+     * Rend disponibles les chambres dont un séjour s'est terminé dans la fenêtre [since, today)
+     * et qui n'ont plus aucun séjour en cours ou à venir. Les archives contiennent tous les
+     * séjours (y compris ceux déjà supprimés par les étapes précédentes).
+     */
+    private static final String RELEASE_ROOMS = """
+            UPDATE room r
+            SET availability = TRUE, version = version + 1
+            WHERE r.availability = FALSE
+              AND r.id_room IN (
+                    SELECT id_room FROM booking_archieve WHERE end_date >= ? AND end_date < ?
+                    UNION
+                    SELECT id_room FROM rental_archieve WHERE end_date >= ? AND end_date < ?
+                  )
+              AND NOT EXISTS (SELECT 1 FROM booking b WHERE b.id_room = r.id_room AND b.end_date >= ?)
+              AND NOT EXISTS (SELECT 1 FROM rental l WHERE l.id_room = r.id_room AND l.end_date >= ?)
+            RETURNING r.id_room, r.id_hotel, r.capacity, r.price
+            """;
+
+    /** Locations terminées qui restent ouvertes faute de paiement réglé */
+    private static final String COUNT_PENDING_RENTALS = """
+            SELECT COUNT(*)
+            FROM rental r
+            WHERE r.end_date < ?
+              AND EXISTS (
+                    SELECT 1 FROM payment p
+                    WHERE p.id_rental = r.id_rental AND p.payment_status = 'Pending'
+                  )
+            """;
+
+    /** Accès JDBC direct : chaque étape est une instruction SQL ensembliste */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Outbox : publication des chambres libérées */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Compteurs de modification des tables (ETags des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Registre Micrometer pour les compteurs de lignes traitées */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Gestionnaire de transactions, pour une transaction par lot */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Nombre maximal de lignes supprimées par transaction */
+    @Value("${ehotel.roll.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Fenêtre (en jours) des fins de séjour examinées pour libérer les chambres */
+    @Value("${ehotel.roll.lookback-days:7}")
+    private int lookbackDays;
+
+    /** Transaction indépendante par lot : un lot validé n'est pas annulé par le suivant */
+    private TransactionTemplate chunkTransaction;
+
+    /**
+     * Prépare la transaction des lots.
+     */
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Passage de nuit, pour la date du jour.
+     */
+    @Scheduled(cron = "${ehotel.roll.cron:0 5 0 * * *}")
+    public void nightly() {
+        roll(LocalDate.now());
+    }
+
+    /**
+     * Archive les séjours terminés avant une date et libère les chambres correspondantes.
+     *
+     * @param today Premier jour encore en cours (les séjours finis avant sont traités)
+     * @return Le bilan du passage
+     */
+    public RollReport roll(LocalDate today) {
+        long started = System.nanoTime();
+
+        int expiredBookings = 0;
+        int expired;
+        do {
+            expired = chunkTransaction.execute(status ->
+                    jdbcTemplate.queryForObject(EXPIRE_BOOKINGS, Integer.class, today, chunkSize));
+            expiredBookings += expired;
+        } while (expired == chunkSize);
+
+        int closedRentals = 0;
+        int archivedPayments = 0;
+        int[] closed;
+        do {
+            closed = chunkTransaction.execute(status ->
+                    jdbcTemplate.queryForObject(CLOSE_RENTALS,
+                            (rs, rowNum) -> new int[] { rs.getInt(1), rs.getInt(2) }, today, chunkSize));
+            closedRentals += closed[0];
+            archivedPayments += closed[1];
+        } while (closed[0] == chunkSize);
+
+        Integer releasedRooms = chunkTransaction.execute(status -> releaseRooms(today));
+        Integer pendingRentals = jdbcTemplate.queryForObject(COUNT_PENDING_RENTALS, Integer.class, today);
+
+        // Lots déjà validés : les compteurs augmentent immédiatement
+        if (expiredBookings > 0) {
+            tableVersionService.bump(Table.BOOKING);
+        }
+        if (releasedRooms != null && releasedRooms > 0) {
+            tableVersionService.bump(Table.ROOM);
+        }
+
+        RollReport report = new RollReport(expiredBookings, closedRentals, archivedPayments,
+                releasedRooms, pendingRentals, Duration.ofNanos(System.nanoTime() - started));
+        publishReport(report);
+        return report;
+    }
+
+    /**
+     * Libère les chambres dont le dernier séjour est terminé et publie un événement par chambre.
+     *
+     * @param today Premier jour encore en cours
+     * @return Le nombre de chambres libérées
+     */
+    private int releaseRooms(LocalDate today) {
+        LocalDate since = today.minusDays(lookbackDays);
+        List<Map<String, Object>> rooms = jdbcTemplate.queryForList(RELEASE_ROOMS,
+                since, today, since, today, today, today);
+        for (Map<String, Object> room : rooms) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("idRoom", room.get("id_room"));
+            payload.put("idHotel", room.get("id_hotel"));
+            payload.put("capacity", room.get("capacity"));
+            payload.put("price", room.get("price"));
+            payload.put("availability", true);
+            outboxService.publish(OutboxEvent.ROOM, room.get("id_room"), OutboxEvent.UPDATED, payload);
+        }
+        return rooms.size();
+    }
+
+    /**
+     * Journalise le bilan d'un passage et met à jour les compteurs Micrometer.
+     */
+    private void publishReport(RollReport report) {
+        meterRegistry.counter("ehotel.roll.processed", "kind", "bookings.expired").increment(report.expiredBookings());
+        meterRegistry.counter("ehotel.roll.processed", "kind", "rentals.closed").increment(report.closedRentals());
+        meterRegistry.counter("ehotel.roll.processed", "kind", "payments.archived").increment(report.archivedPayments());
+        meterRegistry.counter("ehotel.roll.processed", "kind", "rooms.released").increment(report.releasedRooms());
+
+        log.info("Séjours terminés : {} réservations archivées, {} locations clôturées ({} paiements archivés), "
+                        + "{} chambres libérées en {} ms",
+                report.expiredBookings(), report.closedRentals(), report.archivedPayments(),
+                report.releasedRooms(), report.elapsed().toMillis());
+        if (report.pendingRentals() > 0) {
+            log.warn("Séjours terminés : {} locations restent ouvertes (paiement en attente)", report.pendingRentals());
+        }
+    }
+}
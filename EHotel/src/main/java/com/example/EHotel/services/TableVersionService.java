@@ -0,0 +1,121 @@
+package com.example.EHotel.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Compteurs de modification par table, pour les GET conditionnels des pages de liste
+ * (ETag fort, réponse 304 Not Modified).
+ *
+ * Chaque service qui écrit dans une table appelle bump() : le compteur de la table augmente
+ * après la validation de la transaction (jamais avant : une page rendue entre l'incrément
+ * et la validation porterait la nouvelle version avec les anciennes données). Hors
+ * transaction (chemin réactif), l'incrément est immédiat. Les tables modifiées par une même
+ * transaction sont regroupées : une seule synchronisation, quel que soit le nombre d'écritures.
+ *
+ * L'ETag d'une page combine l'époque de l'instance (date de démarrage : un redémarrage
+ * invalide toutes les ETags émises) et les compteurs des tables affichées. Une page
+ * inchangée se vérifie donc par une comparaison en mémoire, sans requête SQL.
+ *
+ * Les compteurs sont propres à l'instance : derrière plusieurs instances sans affinité de
+ * session, désactiver les ETags (ehotel.etag.enabled=false), car les écritures faites par
+ * une autre instance ne sont pas vues.
+ */
+@Service
+public class TableVersionService {
+
+    /** Tables suivies (celles affichées par les pages de liste à ETag) */
+    public enum Table {
+        HOTEL, ROOM, CUSTOMER, BOOKING, EMPLOYEE
+    }
+
+    /** Époque de l'instance, préfixe de toutes les ETags */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Compteur de modification de chaque table */
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+
+    public TableVersionService() {
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    /**
+     * Signale une écriture dans des tables : leurs compteurs augmentent à la validation
+     * de la transaction courante (sans effet si elle est annulée), ou immédiatement hors
+     * transaction.
+     *
+     * @param tables Les tables modifiées
+     */
+    public void bump(Table... tables) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(List.of(tables));
+            return;
+        }
+        // Une seule synchronisation par transaction, quel que soit le nombre d'écritures
+        // (les synchronisations d'une transaction suspendue, REQUIRES_NEW, ne sont pas visibles)
+        PendingTables pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingTables p && p.owner() == this) {
+                pending = p;
+                break;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingTables();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        Collections.addAll(pending.tables, tables);
+    }
+
+    /**
+     * Construit l'ETag d'une page à partir des compteurs des tables qu'elle affiche.
+     *
+     * @param tables Les tables affichées par la page
+     * @return La valeur de l'ETag (sans guillemets), ex : "m1x2k3-4.0.17"
+     */
+    public String etag(Table... tables) {
+        StringBuilder etag = new StringBuilder(epoch).append('-');
+        for (int i = 0; i < tables.length; i++) {
+            if (i > 0) {
+                etag.append('.');
+            }
+            etag.append(versions.get(tables[i]).get());
+        }
+        return etag.toString();
+    }
+
+    private void increment(Collection<Table> tables) {
+        for (Table table : tables) {
+            versions.get(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * Tables modifiées par la transaction courante, incrémentées à sa validation.
+     */
+    private class PendingTables implements TransactionSynchronization {
+
+        private final Set<Table> tables = EnumSet.noneOf(Table.class);
+
+        TableVersionService owner() {
+            return TableVersionService.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            increment(tables);
+        }
+    }
+}
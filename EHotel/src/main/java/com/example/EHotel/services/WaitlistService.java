@@ -0,0 +1,556 @@
+package com.example.EHotel.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Imports des DTOs utilisés
+import com.example.EHotel.dtos.StayDTO;
+import com.example.EHotel.dtos.WaitlistDTO;
+// Imports des entités manipulées
+import com.example.EHotel.model.customer.Customer;
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.model.hotel.WaitlistEntry;
+import com.example.EHotel.model.outbox.OutboxEvent;
+// Imports des dépôts JPA utilisés
+import com.example.EHotel.repositories.customer.CustomerRepository;
+import com.example.EHotel.repositories.hotel.BookingRepository;
+import com.example.EHotel.repositories.hotel.HotelRepository;
+import com.example.EHotel.repositories.hotel.RentalRepository;
+import com.example.EHotel.repositories.hotel.RoomRepository;
+import com.example.EHotel.repositories.hotel.WaitlistRepository;
+import com.example.EHotel.repositories.hotelchain.HotelChainRepository;
+import com.example.EHotel.services.TableVersionService.Table;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+
+/**
+ * Service de liste d'attente avec promotion automatique lorsqu'une chambre se libère.
+ *
+ * Les demandes en attente sont indexées en mémoire par hôtel (ou par chaîne) puis par nuit :
+ * pour chaque hôtel, une TreeMap associe chaque nuit demandée aux demandes qui la couvrent.
+ * Une libération de chambre ne réévalue donc que les demandes de son hôtel et de sa chaîne
+ * dont les nuits chevauchent la période libérée (subMap), jamais toute la liste.
+ *
+ * Les libérations arrivent par l'outbox (OutboxListener) :
+ *   - réservation supprimée ou location supprimée : période libérée sur une chambre
+ *   - dates d'une réservation modifiées : seules les nuits retirées de la réservation
+ *   - réservation déplacée sur une autre chambre : sa période sur l'ancienne chambre
+ *   - chambre ajoutée ou modifiée : toutes les nuits à venir de l'hôtel
+ *
+ * Pour chaque chambre concernée, les demandes compatibles (capacité, prix maximum) sont
+ * essayées dans l'ordre d'inscription : la première dont la période ne chevauche aucune
+ * réservation ni location de la chambre est promue
+ * en réservation (BookingService.bookRoom), puis les suivantes si la chambre reste libre
+ * sur leurs dates. Chaque promotion a sa propre transaction : un échec (chambre reprise
+ * entre-temps) n'empêche pas d'essayer la demande suivante.
+ *
+ * L'index est tenu à jour demande par demande, sans relire la liste d'attente :
+ *   - inscription : la demande est indexée après le COMMIT, et un événement waitlist/Created
+ *     est publié dans l'outbox ; à sa lecture, une demande absente de l'index (inscrite sur
+ *     une autre instance) est chargée par son identifiant. L'outbox livre les événements dans
+ *     l'ordre des COMMIT : aucune demande n'est sautée, quel que soit l'ordre des ID
+ *   - promotion : la demande est retirée de l'index, qu'elle ait réussi ou qu'elle ait déjà
+ *     été promue ailleurs
+ * La liste complète n'est lue qu'au démarrage et chaque nuit, après l'expiration des demandes
+ * dont la date d'arrivée est passée.
+ */
+@Service
+public class WaitlistService implements OutboxListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    /**
+     * Demande en attente telle qu'indexée en mémoire (sans entités JPA attachées).
+     *
+     * @param id           Identifiant de la demande (ordre de priorité)
+     * @param sinCustomer  NAS du client
+     * @param idHotel      Hôtel demandé (null pour une demande sur une chaîne)
+     * @param idHotelChain Chaîne demandée (null pour une demande sur un hôtel)
+     * @param capacity     Capacité demandée
+     * @param startDate    Date de début
+     * @param endDate      Date de fin
+     * @param maxPrice     Prix maximum par nuit
+     */
+    record Waiter(Integer id, String sinCustomer, Integer idHotel, Integer idHotelChain, String capacity,
+                  LocalDate startDate, LocalDate endDate, Double maxPrice) {
+
+        /** Vrai si la chambre correspond à la capacité et au budget de la demande */
+        boolean accepts(Room room) {
+            return capacity.equals(room.getCapacity()) && room.getPrice() <= maxPrice;
+        }
+    }
+
+    /** Dépôt JPA de la liste d'attente */
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    /** Dépôt JPA des clients (upsert lors de l'inscription) */
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    /** Dépôt JPA des hôtels (référence de l'hôtel demandé) */
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    /** Dépôt JPA des chaînes hôtelières (référence de la chaîne demandée) */
+    @Autowired
+    private HotelChainRepository hotelChainRepository;
+
+    /** Dépôt JPA des chambres (chambre libérée) */
+    @Autowired
+    private RoomRepository roomRepository;
+
+    /** Dépôt JPA des réservations (occupation restante de la chambre libérée) */
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    /** Dépôt JPA des locations (occupation restante de la chambre libérée) */
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    /** Outbox : publication des inscriptions (index des autres instances) */
+    @Autowired
+    private OutboxService outboxService;
+
+    /** Service des réservations : la promotion passe par le chemin de réservation normal */
+    @Autowired
+    private BookingService bookingService;
+
+    /** Compteurs de modification des tables (ETags des pages de liste) */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Lecture du contenu JSON des événements de l'outbox */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Gestionnaire de transactions, pour une transaction par promotion */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Transaction indépendante de celle du lot d'événements (REQUIRES_NEW) */
+    private TransactionTemplate promotionTransaction;
+
+    /** Verrou de l'index (lecture de l'outbox, inscription, reconstruction nocturne) */
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    /** Demandes indexées, par identifiant */
+    private final Map<Integer, Waiter> waiters = new HashMap<>();
+
+    /** Index des demandes sur un hôtel : idHotel → nuit → identifiants des demandes */
+    private final Map<Integer, NavigableMap<LocalDate, Set<Integer>>> byHotel = new HashMap<>();
+
+    /** Index des demandes sur une chaîne : idHotelChain → nuit → identifiants des demandes */
+    private final Map<Integer, NavigableMap<LocalDate, Set<Integer>>> byChain = new HashMap<>();
+
+    /**
+     * Prépare la transaction de promotion.
+     */
+    @PostConstruct
+    void init() {
+        promotionTransaction = new TransactionTemplate(transactionManager);
+        promotionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // -------------------------------------------------------------------------
+    // Inscription
+    // -------------------------------------------------------------------------
+
+    /**
+     * Inscrit un client en liste d'attente, en créant le client s'il est inconnu.
+     * La demande est indexée après le COMMIT (sur les autres instances, à la lecture de
+     * l'événement waitlist/Created).
+     *
+     * @param dto Les données du formulaire d'inscription
+     * @return La demande enregistrée
+     */
+    @Transactional
+    public WaitlistEntry join(WaitlistDTO dto) {
+        customerRepository.insertIfAbsent(new Customer(
+            dto.getSinCustomer(),
+            dto.getFirstname(),
+            dto.getLastname(),
+            dto.getCheckInDate(),
+            dto.getStreetNumber(),
+            dto.getStreetName(),
+            dto.getCity(),
+            dto.getPostalCode(),
+            dto.getCountry()
+        ));
+        tableVersionService.bump(Table.CUSTOMER);
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCustomer(customerRepository.getReferenceById(dto.getSinCustomer()));
+        if (dto.getIdHotel() != null) {
+            entry.setHotel(hotelRepository.getReferenceById(dto.getIdHotel()));
+        } else {
+            entry.setHotelChain(hotelChainRepository.getReferenceById(dto.getHotelChainId()));
+        }
+        entry.setCapacity(dto.getRoomCapacity());
+        entry.setStartDate(dto.getStartDate());
+        entry.setEndDate(dto.getEndDate());
+        entry.setMaxPrice(dto.getMaxPrice());
+        entry.setStatus(WaitlistEntry.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+        WaitlistEntry saved = waitlistRepository.save(entry);
+
+        outboxService.publish(OutboxEvent.WAITLIST, saved.getIdWaitlist(), OutboxEvent.CREATED,
+                Map.of("idWaitlist", saved.getIdWaitlist()));
+        Waiter waiter = toWaiter(saved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(List.of(waiter));
+            }
+        });
+        return saved;
+    }
+
+    // -------------------------------------------------------------------------
+    // Réaction aux événements de l'outbox
+    // -------------------------------------------------------------------------
+
+    @Override
+    public String consumerName() {
+        return "waitlist";
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        loadJoined(events);
+        if (isEmpty()) {
+            return;
+        }
+        for (OutboxEvent event : events) {
+            JsonNode payload = readPayload(event);
+            switch (event.getAggregateType()) {
+                case OutboxEvent.BOOKING, OutboxEvent.RENTAL -> {
+                    if (OutboxEvent.DELETED.equals(event.getEventType())) {
+                        roomFreed(payload.path("idRoom").asInt(),
+                                LocalDate.parse(payload.path("startDate").asText()),
+                                LocalDate.parse(payload.path("endDate").asText()));
+                    } else if (OutboxEvent.BOOKING.equals(event.getAggregateType())
+                            && OutboxEvent.UPDATED.equals(event.getEventType())) {
+                        bookingChanged(payload);
+                    }
+                }
+                case OutboxEvent.ROOM -> roomFreed(payload.path("idRoom").asInt(), LocalDate.now(), null);
+                default -> {
+                    // Les paiements ne libèrent aucune chambre
+                }
+            }
+        }
+    }
+
+    /**
+     * Réévalue les nuits libérées par une modification de réservation : seules les nuits
+     * de l'ancienne période absentes de la nouvelle sont examinées. Si les anciennes dates
+     * ne sont pas connues (mise à jour complète), toutes les nuits à venir de la chambre le sont.
+     */
+    private void bookingChanged(JsonNode payload) {
+        int idRoom = payload.path("idRoom").asInt();
+        if (!payload.hasNonNull("previousStartDate")) {
+            roomFreed(idRoom, LocalDate.now(), null);
+            return;
+        }
+        StayDTO previous = new StayDTO(idRoom,
+                LocalDate.parse(payload.path("previousStartDate").asText()),
+                LocalDate.parse(payload.path("previousEndDate").asText()));
+        if (payload.hasNonNull("previousIdRoom") && payload.path("previousIdRoom").asInt() != idRoom) {
+            // Réservation déplacée sur une autre chambre : toute l'ancienne période est libérée
+            roomFreed(payload.path("previousIdRoom").asInt(), previous.getStartDate(), previous.getEndDate());
+            return;
+        }
+        for (StayDTO freed : previous.minus(LocalDate.parse(payload.path("startDate").asText()),
+                LocalDate.parse(payload.path("endDate").asText()))) {
+            roomFreed(idRoom, freed.getStartDate(), freed.getEndDate());
+        }
+    }
+
+    /**
+     * Réévalue les demandes pouvant profiter d'une chambre sur une période.
+     *
+     * @param idRoom La chambre libérée (ou ajoutée, modifiée)
+     * @param from   Première nuit libérée
+     * @param to     Dernière nuit libérée (null : toutes les nuits à venir)
+     */
+    private void roomFreed(int idRoom, LocalDate from, LocalDate to) {
+        // Pas de test de room.availability : une location en cours la met à FALSE alors que
+        // les nuits libérées peuvent être libres ; seul le chevauchement ci-dessous décide
+        Room room = roomRepository.findById(idRoom).orElse(null);
+        if (room == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today)) {
+            from = today;
+        }
+        if (to != null && to.isBefore(from)) {
+            return;
+        }
+
+        List<Waiter> candidates = candidates(room, from, to);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Occupation actuelle de la chambre sur l'ensemble des périodes candidates
+        LocalDate minStart = candidates.stream().map(Waiter::startDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate maxEnd = candidates.stream().map(Waiter::endDate).max(LocalDate::compareTo).orElseThrow();
+        List<StayDTO> stays = new ArrayList<>(bookingRepository.findStays(List.of(idRoom), minStart, maxEnd));
+        stays.addAll(rentalRepository.findStays(List.of(idRoom), minStart, maxEnd));
+
+        for (Waiter waiter : candidates) {
+            if (stays.stream().anyMatch(s -> s.overlaps(waiter.startDate(), waiter.endDate()))) {
+                continue;
+            }
+            if (promote(waiter, idRoom)) {
+                stays.add(new StayDTO(idRoom, waiter.startDate(), waiter.endDate()));
+            }
+        }
+    }
+
+    /**
+     * Demandes de l'hôtel et de la chaîne de la chambre couvrant au moins une nuit de la période,
+     * compatibles avec la chambre, par ordre d'inscription.
+     */
+    private List<Waiter> candidates(Room room, LocalDate from, LocalDate to) {
+        SortedSet<Integer> ids = new TreeSet<>();
+        indexLock.lock();
+        try {
+            collect(byHotel.get(room.getHotel().getIdHotel()), from, to, ids);
+            collect(byChain.get(room.getHotel().getHotelChain().getId()), from, to, ids);
+            LocalDate today = LocalDate.now();
+            List<Waiter> result = new ArrayList<>();
+            for (Integer id : ids) {
+                Waiter waiter = waiters.get(id);
+                if (waiter != null && !waiter.startDate().isBefore(today) && waiter.accepts(room)) {
+                    result.add(waiter);
+                }
+            }
+            return result;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute à ids les demandes indexées sur les nuits [from, to] (to null : sans limite).
+     */
+    private static void collect(NavigableMap<LocalDate, Set<Integer>> nights, LocalDate from, LocalDate to,
+                                Set<Integer> ids) {
+        if (nights == null) {
+            return;
+        }
+        NavigableMap<LocalDate, Set<Integer>> range = to == null
+                ? nights.tailMap(from, true)
+                : nights.subMap(from, true, to, true);
+        range.values().forEach(ids::addAll);
+    }
+
+    /**
+     * Promeut une demande en réservation, dans sa propre transaction.
+     *
+     * @param waiter La demande à promouvoir
+     * @param idRoom La chambre attribuée
+     * @return true si la réservation a été créée
+     */
+    private boolean promote(Waiter waiter, int idRoom) {
+        try {
+            Boolean promoted = promotionTransaction.execute(status -> {
+                WaitlistEntry entry = waitlistRepository.lockById(waiter.id()).orElse(null);
+                if (entry == null || !WaitlistEntry.WAITING.equals(entry.getStatus())) {
+                    return false; // déjà promue ou expirée (ex : par une autre instance)
+                }
+                Booking booking = bookingService.bookRoom(waiter.sinCustomer(), idRoom,
+                        waiter.startDate(), waiter.endDate());
+                entry.setStatus(WaitlistEntry.PROMOTED);
+                entry.setIdBooking(booking.getIdBooking());
+                return true;
+            });
+            unindex(waiter.id());
+            return Boolean.TRUE.equals(promoted);
+        } catch (RuntimeException e) {
+            // Chambre reprise entre-temps (refus du trigger) : la demande reste en attente
+            log.info("Promotion de la demande {} sur la chambre {} refusée : {}",
+                    waiter.id(), idRoom, e.getMessage());
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Index mémoire
+    // -------------------------------------------------------------------------
+
+    /**
+     * Indexe les demandes inscrites du lot (événements waitlist/Created) qui ne le sont pas
+     * encore : seules ces demandes sont lues, par identifiant.
+     */
+    private void loadJoined(List<OutboxEvent> events) {
+        Set<Integer> missing = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (OutboxEvent.WAITLIST.equals(event.getAggregateType())
+                    && OutboxEvent.CREATED.equals(event.getEventType())) {
+                missing.add(Integer.valueOf(event.getAggregateId()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        indexLock.lock();
+        try {
+            missing.removeAll(waiters.keySet());
+        } finally {
+            indexLock.unlock();
+        }
+        if (!missing.isEmpty()) {
+            index(waitlistRepository.findWaitingByIds(missing).stream().map(WaitlistService::toWaiter).toList());
+        }
+    }
+
+    /**
+     * Copie une demande pour l'index (sans entités JPA attachées).
+     */
+    private static Waiter toWaiter(WaitlistEntry entry) {
+        Integer idHotel = entry.getHotel() != null ? entry.getHotel().getIdHotel() : null;
+        Integer idChain = entry.getHotelChain() != null ? entry.getHotelChain().getId() : null;
+        return new Waiter(entry.getIdWaitlist(), entry.getCustomer().getSinCustomer(), idHotel, idChain,
+                entry.getCapacity(), entry.getStartDate(), entry.getEndDate(), entry.getMaxPrice());
+    }
+
+    /**
+     * Ajoute des demandes à l'index, sur chacune de leurs nuits. Une demande déjà indexée
+     * (inscription locale puis son événement) est ignorée.
+     */
+    private void index(List<Waiter> added) {
+        indexLock.lock();
+        try {
+            for (Waiter waiter : added) {
+                if (waiters.putIfAbsent(waiter.id(), waiter) != null) {
+                    continue;
+                }
+                NavigableMap<LocalDate, Set<Integer>> nights = waiter.idHotel() != null
+                        ? byHotel.computeIfAbsent(waiter.idHotel(), k -> new TreeMap<>())
+                        : byChain.computeIfAbsent(waiter.idHotelChain(), k -> new TreeMap<>());
+                for (LocalDate night = waiter.startDate(); !night.isAfter(waiter.endDate());
+                        night = night.plusDays(1)) {
+                    nights.computeIfAbsent(night, k -> new TreeSet<>()).add(waiter.id());
+                }
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Retire une demande de l'index (promue, expirée ou déjà traitée ailleurs).
+     */
+    private void unindex(Integer id) {
+        indexLock.lock();
+        try {
+            Waiter waiter = waiters.remove(id);
+            if (waiter == null) {
+                return;
+            }
+            NavigableMap<LocalDate, Set<Integer>> nights = waiter.idHotel() != null
+                    ? byHotel.get(waiter.idHotel())
+                    : byChain.get(waiter.idHotelChain());
+            if (nights == null) {
+                return;
+            }
+            for (LocalDate night = waiter.startDate(); !night.isAfter(waiter.endDate()); night = night.plusDays(1)) {
+                Set<Integer> ids = nights.get(night);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    nights.remove(night);
+                }
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Vrai si aucune demande n'est indexée (aucun événement à examiner).
+     */
+    private boolean isEmpty() {
+        indexLock.lock();
+        try {
+            return waiters.isEmpty();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Expire chaque nuit les demandes dont la date d'arrivée est passée, puis reconstruit
+     * l'index depuis la base (demandes promues ou expirées sur une autre instance).
+     */
+    @Scheduled(cron = "${ehotel.waitlist.expire-cron:0 15 0 * * *}")
+    public void expireAndRebuild() {
+        Integer expired = promotionTransaction.execute(status -> waitlistRepository.expireBefore(LocalDate.now()));
+        rebuild();
+        log.info("Liste d'attente : {} demandes expirées, index reconstruit", expired);
+    }
+
+    /**
+     * Construit l'index au démarrage : les inscriptions antérieures ne seront plus lues
+     * dans l'outbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Lecture sous le verrou : une inscription validée pendant la lecture est indexée
+        // après elle (afterCommit, événement), jamais effacée par la reconstruction
+        indexLock.lock();
+        try {
+            List<Waiter> waiting = promotionTransaction.execute(status ->
+                    waitlistRepository.findWaiting().stream().map(WaitlistService::toWaiter).toList());
+            waiters.clear();
+            byHotel.clear();
+            byChain.clear();
+            index(waiting);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Lit le contenu JSON d'un événement de l'outbox.
+     */
+    private JsonNode readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Événement d'outbox illisible : " + event.getId(), e);
+        }
+    }
+}
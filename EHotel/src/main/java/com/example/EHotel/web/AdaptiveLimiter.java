@@ -0,0 +1,210 @@
+package com.example.EHotel.web;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de concurrence adaptative (AIMD) avec file d'attente bornée et délai maximal.
+ *
+ * La limite (nombre de requêtes traitées simultanément) s'ajuste à la latence observée :
+ *   - requête plus rapide que la latence cible : augmentation additive (+1 par "fenêtre"
+ *     de limit requêtes), uniquement si la limite est réellement utilisée
+ *   - requête plus lente que la cible, ou en erreur : diminution multiplicative (limit × backoff),
+ *     au plus une fois par fenêtre d'échantillonnage : seule une requête admise après la dernière
+ *     diminution peut déclencher la suivante (comme TCP, une fois par aller-retour). Sinon une
+ *     rafale de réponses lentes, toutes dues à la même surcharge, ferait chuter la limite à minLimit
+ * Sous surcharge, la limite descend jusqu'à ce que la latence redevienne acceptable,
+ * au lieu de laisser toutes les requêtes ralentir ensemble en attendant le pool Hikari.
+ *
+ * Les requêtes au-delà de la limite attendent dans une file bornée, chacune au plus maxWait :
+ * file pleine ou délai dépassé → refus immédiat. Une place libérée est remise directement à la
+ * première requête de la file (ordre d'arrivée) ; une nouvelle requête n'est admise sans attendre
+ * que si la file est vide.
+ *
+ * Un ReentrantLock est utilisé plutôt que synchronized pour ne pas bloquer
+ * le thread porteur d'un thread virtuel en attente.
+ */
+class AdaptiveLimiter {
+
+    /** Nom de l'endpoint protégé (métriques, journaux) */
+    private final String name;
+
+    /** Bornes de la limite */
+    private final int minLimit;
+    private final int maxLimit;
+
+    /** Latence cible, en nanosecondes */
+    private final long targetLatencyNanos;
+
+    /** Facteur de diminution multiplicative (ex : 0.9) */
+    private final double backoffRatio;
+
+    /** Nombre maximal de requêtes en attente */
+    private final int queueSize;
+
+    /** Attente maximale d'une requête dans la file, en nanosecondes */
+    private final long maxWaitNanos;
+
+    /** Verrou de l'état du limiteur */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Requêtes en attente, dans l'ordre d'arrivée */
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+
+    /** Limite courante (fractionnaire pour l'augmentation additive) */
+    private double limit;
+
+    /** Requêtes en cours de traitement */
+    private int inFlight;
+
+    /** Vrai après la première diminution (lastDecreaseNanos est alors renseigné) */
+    private boolean decreased;
+
+    /** Début (System.nanoTime) de la fenêtre ouverte par la dernière diminution */
+    private long lastDecreaseNanos;
+
+    /** Requêtes refusées depuis le démarrage */
+    private long rejected;
+
+    AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis,
+                    double backoffRatio, int queueSize, long maxWaitMillis) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.backoffRatio = backoffRatio;
+        this.queueSize = queueSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Requête en attente : la place lui est remise par release() (granted), sous le verrou.
+     */
+    private final class Waiter {
+        private final Condition turn = lock.newCondition();
+        private boolean granted;
+    }
+
+    /**
+     * Demande l'admission d'une requête, en attendant au plus maxWait dans la file.
+     *
+     * @return true si la requête est admise (release() doit alors être appelée), false si refusée
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queue.size() >= queueSize) {
+                rejected++;
+                return false;
+            }
+            Waiter waiter = new Waiter();
+            queue.addLast(waiter);
+            try {
+                long remaining = maxWaitNanos;
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.turn.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // Place déjà remise : la requête est admise, l'interruption reste signalée
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+                queue.remove(waiter);
+                throw e;
+            }
+            if (!waiter.granted) {
+                // Délai dépassé : la requête quitte la file sans place
+                queue.remove(waiter);
+                rejected++;
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libère la place d'une requête admise et ajuste la limite selon sa latence.
+     *
+     * @param latencyNanos Durée de traitement de la requête
+     * @param success      false si la requête a échoué (exception, erreur 5xx)
+     */
+    void release(long latencyNanos, boolean success) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            if (!success || latencyNanos > targetLatencyNanos) {
+                // Requête admise avant la dernière diminution : déjà comptée dans cette fenêtre
+                if (!decreased || now - latencyNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    decreased = true;
+                    lastDecreaseNanos = now;
+                }
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            // Places libres remises aux requêtes en attente, dans l'ordre d'arrivée
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                Waiter next = queue.pollFirst();
+                next.granted = true;
+                inFlight++;
+                next.turn.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getWaiting() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.EHotel.web;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Micrometer : métriques exposées par Spring Boot Actuator (/actuator/metrics)
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtre de contrôle d'admission des endpoints d'écriture et de recherche.
+ *
+ * Pendant un pic de trafic (ventes flash), POST /room/booking et POST /room/search saturaient
+ * le pool de connexions Hikari : toutes les requêtes ralentissaient ensemble.
+ * Chaque endpoint protégé (ehotel.admission.endpoints, sous la forme "MÉTHODE /chemin")
+ * dispose de sa propre limite de concurrence adaptative (AdaptiveLimiter, AIMD sur la latence) :
+ *   - en dessous de la limite, la requête est traitée immédiatement
+ *   - au-delà, elle attend dans une file bornée, au plus ehotel.admission.max-wait-ms
+ *   - file pleine ou délai dépassé : réponse 503 immédiate avec l'en-tête Retry-After
+ *     et la page "overloaded" (réessayer dans quelques secondes)
+ * La latence des requêtes admises reste ainsi bornée sous surcharge.
+ *
+ * Métriques par endpoint : ehotel.admission.limit, ehotel.admission.inflight,
+ * ehotel.admission.queued et ehotel.admission.rejected (tag "endpoint").
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    /** Registre Micrometer pour les métriques des limites */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Active ou désactive le contrôle d'admission */
+    @Value("${ehotel.admission.enabled:true}")
+    private boolean enabled;
+
+    /** Endpoints protégés ("POST /room/booking", ...) */
+    @Value("${ehotel.admission.endpoints:POST /room/booking,POST /room/search,POST /room/booking/bulk}")
+    private String[] endpoints;
+
+    /** Limite de concurrence initiale, minimale et maximale par endpoint */
+    @Value("${ehotel.admission.initial-limit:8}")
+    private int initialLimit;
+
+    @Value("${ehotel.admission.min-limit:2}")
+    private int minLimit;
+
+    @Value("${ehotel.admission.max-limit:20}")
+    private int maxLimit;
+
+    /** Latence au-delà de laquelle la limite diminue */
+    @Value("${ehotel.admission.target-latency-ms:250}")
+    private long targetLatencyMillis;
+
+    /** Facteur de diminution multiplicative de la limite */
+    @Value("${ehotel.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    /** Taille de la file d'attente par endpoint */
+    @Value("${ehotel.admission.queue-size:50}")
+    private int queueSize;
+
+    /** Attente maximale dans la file */
+    @Value("${ehotel.admission.max-wait-ms:1000}")
+    private long maxWaitMillis;
+
+    /** Valeur de l'en-tête Retry-After des réponses 503 */
+    @Value("${ehotel.admission.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    /** Limiteurs par endpoint protégé ("MÉTHODE /chemin") */
+    private final Map<String, AdaptiveLimiter> limiters = new HashMap<>();
+
+    /**
+     * Crée un limiteur par endpoint protégé et enregistre ses métriques.
+     */
+    @PostConstruct
+    void init() {
+        for (String endpoint : endpoints) {
+            String key = endpoint.trim();
+            AdaptiveLimiter limiter = new AdaptiveLimiter(key, initialLimit, minLimit, maxLimit,
+                    targetLatencyMillis, backoffRatio, queueSize, maxWaitMillis);
+            limiters.put(key, limiter);
+
+            Gauge.builder("ehotel.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("endpoint", key).description("Limite de concurrence courante").register(meterRegistry);
+            Gauge.builder("ehotel.admission.inflight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("endpoint", key).description("Requêtes en cours de traitement").register(meterRegistry);
+            Gauge.builder("ehotel.admission.queued", limiter, AdaptiveLimiter::getWaiting)
+                    .tag("endpoint", key).description("Requêtes en attente d'admission").register(meterRegistry);
+            FunctionCounter.builder("ehotel.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                    .tag("endpoint", key).description("Requêtes refusées (503)").register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limiterFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveLimiter limiter = limiterFor(request);
+
+        boolean admitted;
+        try {
+            admitted = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(request, response, limiter);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Répond 503 avec Retry-After et la page "overloaded" (rendue par OverloadController).
+     */
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdaptiveLimiter limiter)
+            throws ServletException, IOException {
+        log.debug("Requête refusée sur {} (limite {})", limiter.getName(), limiter.getLimit());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        request.setAttribute("retryAfter", retryAfterSeconds);
+        request.getRequestDispatcher("/overloaded").forward(request, response);
+    }
+
+    /**
+     * Limiteur de l'endpoint appelé, ou null s'il n'est pas protégé.
+     */
+    private AdaptiveLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return limiters.get(request.getMethod() + " " + path);
+    }
+}
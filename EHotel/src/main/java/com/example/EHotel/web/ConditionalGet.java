@@ -0,0 +1,72 @@
+package com.example.EHotel.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import com.example.EHotel.datasource.ReplicaRoutingDataSource;
+import com.example.EHotel.services.TableVersionService;
+import com.example.EHotel.services.TableVersionService.Table;
+
+/**
+ * GET conditionnel des pages de liste (ETag fort calculé par TableVersionService).
+ *
+ * Appelé en tête d'une méthode de contrôleur, avant toute requête :
+ *
+ *   if (conditionalGet.notModified(request, "", Table.HOTEL)) {
+ *       return null; // 304 Not Modified, rien n'est lu ni rendu
+ *   }
+ *
+ * La réponse porte Cache-Control: no-cache : le navigateur garde la page mais la revalide
+ * à chaque affichage (If-None-Match). Une page qui affiche un message flash (après une
+ * redirection) n'est jamais servie en 304, le message serait perdu.
+ *
+ * Avec un réplica, une page à ETag est toujours lue sur le primaire : lue sur un réplica en
+ * retard, elle porterait la nouvelle version avec les anciennes données.
+ */
+@Component
+public class ConditionalGet {
+
+    /** Compteurs de modification des tables */
+    @Autowired
+    private TableVersionService tableVersionService;
+
+    /** Active ou désactive les ETags des pages de liste */
+    @Value("${ehotel.etag.enabled:true}")
+    private boolean enabled;
+
+    /** Réplica configuré (ReplicaRoutingDataSource) */
+    @Value("${ehotel.replica.enabled:false}")
+    private boolean replicaEnabled;
+
+    /**
+     * Compare l'ETag de la page à celle envoyée par le navigateur et, si elles sont égales,
+     * prépare la réponse 304.
+     *
+     * @param request La requête (et sa réponse)
+     * @param suffix  Partie de l'ETag qui ne dépend pas des tables (ex : la date du jour
+     *                si la page l'affiche), ou chaîne vide
+     * @param tables  Les tables affichées par la page
+     * @return true si la page est inchangée : le contrôleur doit renvoyer null
+     */
+    public boolean notModified(ServletWebRequest request, String suffix, Table... tables) {
+        if (!enabled || RequestContextUtils.getInputFlashMap(request.getRequest()) != null) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        if (request.checkNotModified(tableVersionService.etag(tables) + suffix)) {
+            return true;
+        }
+        // Page rendue : lue sur le primaire, dont les données correspondent toujours à l'ETag
+        // (le réplica peut être en retard sur les compteurs ; remis à zéro par ReadYourWritesFilter)
+        if (replicaEnabled) {
+            ReplicaRoutingDataSource.requirePrimary(true);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.EHotel.web;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.example.EHotel.datasource.ReplicaRoutingDataSource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Fenêtre read-your-writes des lectures routées vers le réplica.
+ *
+ * Le réplica peut avoir quelques instants de retard sur le primaire : sans précaution,
+ * la liste affichée juste après un ajout (redirection après POST) pourrait ne pas contenir
+ * la ligne ajoutée. Toute requête d'écriture (POST, PUT, PATCH, DELETE) dépose donc un
+ * cookie valable ehotel.replica.read-your-writes-seconds ; tant qu'il est présent, toutes
+ * les lectures de cet utilisateur vont au primaire (ReplicaRoutingDataSource.requirePrimary).
+ * Les autres utilisateurs continuent de lire sur le réplica.
+ *
+ * Inactif sans réplica (ehotel.replica.enabled=false).
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** Nom du cookie de la fenêtre read-your-writes */
+    private static final String COOKIE = "ehotel-primary";
+
+    /** Active le filtre (réplica configuré) */
+    @Value("${ehotel.replica.enabled:false}")
+    private boolean enabled;
+
+    /** Durée de la fenêtre après une écriture, supérieure au retard habituel du réplica */
+    @Value("${ehotel.replica.read-your-writes-seconds:5}")
+    private int windowSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !HttpMethod.GET.matches(request.getMethod())
+                && !HttpMethod.HEAD.matches(request.getMethod())
+                && !HttpMethod.OPTIONS.matches(request.getMethod());
+        if (write) {
+            // Déposé avant le traitement : la réponse (redirection) peut être envoyée à tout moment
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        ReplicaRoutingDataSource.requirePrimary(write || WebUtils.getCookie(request, COOKIE) != null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.requirePrimary(false);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.EHotel.web;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rendu Thymeleaf en flux des listes complètes ("Tout afficher").
+ *
+ * Le moteur Thymeleaf de Spring MVC rend une page entière en mémoire avant de l'envoyer ;
+ * ici la page est envoyée morceau par morceau, pendant la lecture des lignes :
+ *   1. le squelette de la page (en-tête, tableau vide) est rendu avec une liste vide, puis
+ *      coupé au marqueur ROWS_MARKER placé dans le tbody du template
+ *   2. la première moitié est écrite et envoyée : le navigateur commence l'affichage
+ *   3. chaque lot de lignes reçu est rendu avec le fragment "rows" du même template
+ *      (th:fragment="rows", itération sur ${rows}), écrit et envoyé
+ *   4. la seconde moitié du squelette termine la page
+ * La mémoire utilisée ne dépend que de la taille d'un lot, pas de la longueur de la liste.
+ *
+ * La réponse est un StreamingResponseBody : l'écriture se fait sur un thread de traitement
+ * asynchrone de Spring MVC (délai maximal : spring.mvc.async.request-timeout).
+ */
+@Component
+public class StreamingTemplateRenderer {
+
+    /** Marqueur placé dans le tbody des templates rendus en flux, là où s'insèrent les lignes */
+    public static final String ROWS_MARKER = "<!--rows-->";
+
+    /** Sélecteur du fragment d'une ligne de tableau, itéré sur la variable "rows" */
+    private static final Set<String> ROWS_FRAGMENT = Set.of("rows");
+
+    /** Moteur Thymeleaf configuré par Spring Boot (mêmes templates que les vues MVC) */
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    /**
+     * Prépare la réponse en flux d'un template.
+     *
+     * @param template Le nom du template (doit contenir ROWS_MARKER et un fragment "rows")
+     * @param model    Les variables de la page (hors lignes)
+     * @param rows     Le producteur des lignes : reçoit le consommateur des lots et l'appelle
+     *                 pour chaque lot, dans l'ordre
+     * @param request  La requête (liens @{...} du template)
+     * @param response La réponse
+     * @return La réponse HTML, écrite au fil des lots
+     */
+    public <T> ResponseEntity<StreamingResponseBody> render(String template, Map<String, Object> model,
+                                                            Consumer<Consumer<List<T>>> rows,
+                                                            HttpServletRequest request,
+                                                            HttpServletResponse response) {
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response);
+        WebContext context = new WebContext(exchange, request.getLocale(), model);
+
+        // Squelette de la page, coupé là où s'insèrent les lignes
+        context.setVariable("rows", List.of());
+        String page = templateEngine.process(template, context);
+        int marker = page.indexOf(ROWS_MARKER);
+        if (marker < 0) {
+            throw new IllegalStateException("Le template " + template + " ne contient pas " + ROWS_MARKER);
+        }
+        String head = page.substring(0, marker);
+        String tail = page.substring(marker + ROWS_MARKER.length());
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(head);
+            writer.flush();
+            rows.accept(chunk -> {
+                context.setVariable("rows", chunk);
+                templateEngine.process(template, ROWS_FRAGMENT, context, writer);
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.write(tail);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.EHotel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Tests d'intégration du nombre d'instructions SQL des pages de liste
+ * (réservations, locations, paiements).
+ *
+ * Chaque page doit être rendue avec exactement deux instructions, quel que soit le nombre
+ * de lignes affichées : la page elle-même (projection StayRowDTO ou PaymentRowDTO) et la
+ * liste déroulante des hôtels (HotelOptionDTO). Une sélection par ligne, par client ou
+ * par hôtel (N+1) fait échouer le test.
+ *
+ * Les instructions sont comptées par un StatementInspector Hibernate, pour le seul thread
+ * du test : MockMvc exécute la requête dans ce thread, les tâches planifiées (outbox,
+ * compteurs) ne sont pas comptées.
+ *
+ * Test d'intégration : la base est un conteneur PostgreSQL jetable (Testcontainers), créé
+ * avec ../schema.sql, comme docker-compose.yml, puis list-pages.sql (plusieurs lignes par
+ * liste, sans quoi un N+1 passerait inaperçu). Sans Docker, le test est ignoré.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.EHotel.ListPageStatementCountTests$StatementCounter")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ListPageStatementCountTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("db_hotel")
+            .withCopyFileToContainer(MountableFile.forHostPath("../schema.sql"),
+                    "/docker-entrypoint-initdb.d/01-schema.sql")
+            .withCopyFileToContainer(MountableFile.forClasspathResource("list-pages.sql"),
+                    "/docker-entrypoint-initdb.d/02-list-pages.sql");
+
+    /**
+     * Dirige les chemins JDBC et R2DBC vers le conteneur.
+     */
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+    }
+
+    /** Instructions attendues par page : les lignes de la page et les hôtels du filtre */
+    private static final int STATEMENTS_PER_PAGE = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Compte les instructions SQL préparées par Hibernate dans le thread courant.
+     * Instancié par Hibernate (propriété statement_inspector), d'où la classe publique.
+     */
+    public static class StatementCounter implements StatementInspector {
+
+        private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.set(COUNT.get() + 1);
+            return sql;
+        }
+
+        static void reset() {
+            COUNT.set(0);
+        }
+
+        static int count() {
+            return COUNT.get();
+        }
+    }
+
+    /**
+     * Rend une page et renvoie le nombre d'instructions exécutées pour la rendre.
+     *
+     * @param url L'URL de la page, avec ses filtres
+     * @return Le nombre d'instructions SQL
+     */
+    private int statementsFor(String url) throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return StatementCounter.count();
+    }
+
+    @Test
+    void bookingsPageRunsTwoStatements() throws Exception {
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor("/booking/bookings"));
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor("/booking/bookings?idHotel=1&from=2000-01-01"));
+    }
+
+    @Test
+    void rentalsPageRunsTwoStatements() throws Exception {
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor("/booking/rentals"));
+        assertEquals(STATEMENTS_PER_PAGE,
+                statementsFor("/booking/rentals?afterDate=2000-01-01&afterId=0"));
+    }
+
+    @Test
+    void paymentsPageRunsTwoStatements() throws Exception {
+        assertEquals(STATEMENTS_PER_PAGE, statementsFor("/payment/payments"));
+        assertEquals(STATEMENTS_PER_PAGE,
+                statementsFor("/payment/payments?status=Paid&afterDate=2999-01-01&afterId=2147483647"));
+    }
+}
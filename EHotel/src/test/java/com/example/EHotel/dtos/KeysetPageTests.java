@@ -0,0 +1,57 @@
+package com.example.EHotel.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires de la construction d'une page paginée par clé (KeysetPage.of) :
+ * la ligne supplémentaire lue indique la page suivante et n'est pas affichée.
+ */
+class KeysetPageTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void lastPageHasNoNextPosition() {
+        KeysetPage<StayRowDTO> page = KeysetPage.of(rows(3), 3, StayRowDTO::getStartDate, StayRowDTO::getId);
+
+        assertEquals(3, page.getItems().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextDate());
+        assertNull(page.getNextId());
+    }
+
+    @Test
+    void extraRowIsDroppedAndGivesTheNextPosition() {
+        KeysetPage<StayRowDTO> page = KeysetPage.of(rows(4), 3, StayRowDTO::getStartDate, StayRowDTO::getId);
+
+        assertEquals(List.of(1, 2, 3), page.getItems().stream().map(StayRowDTO::getId).toList());
+        assertTrue(page.hasNext());
+        // La position est celle de la dernière ligne affichée, pas de la ligne supplémentaire
+        assertEquals(TODAY.plusDays(3), page.getNextDate());
+        assertEquals(3, page.getNextId());
+    }
+
+    @Test
+    void emptyListIsALastPage() {
+        KeysetPage<StayRowDTO> page = KeysetPage.of(List.of(), 3, StayRowDTO::getStartDate, StayRowDTO::getId);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    private static List<StayRowDTO> rows(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new StayRowDTO(i, "Jean", "Tremblay", "Hôtel", 100 + i,
+                        TODAY.plusDays(i), TODAY.plusDays(i + 2)))
+                .toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.EHotel.reactive;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.services.TableVersionService;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import jakarta.validation.Validation;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests unitaires de la réservation du chemin réactif (ReactiveRoomHandler.book) : code HTTP
+ * renvoyé selon le code SQLSTATE de l'erreur de la base, sans base de données.
+ */
+class ReactiveRoomHandlerTests {
+
+    private final ReactiveRoomRepository repository = mock(ReactiveRoomRepository.class);
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveRoomHandler handler = new ReactiveRoomHandler(repository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new TableVersionService());
+        client = WebTestClient.bindToRouterFunction(
+                RouterFunctions.route().POST("/reactive/room/booking", handler::book).build()).build();
+    }
+
+    @Test
+    void returnsCreatedWithTheBookingId() {
+        when(repository.book(any())).thenReturn(Mono.just(42));
+        post().expectStatus().isCreated().expectBody().jsonPath("$.idBooking").isEqualTo(42);
+    }
+
+    @Test
+    void mapsTheAvailabilityTriggerToConflict() {
+        failWith(new R2dbcException("The room is not available.", "P0001") {
+        });
+        post().expectStatus().isEqualTo(HttpStatus.CONFLICT).expectBody().jsonPath("$.idRoom").exists();
+    }
+
+    @Test
+    void mapsConstraintViolationsToBadRequest() {
+        failWith(new R2dbcDataIntegrityViolationException("violates check constraint \"chk_start_date\"", "23514"));
+        post().expectStatus().isBadRequest().expectBody().jsonPath("$.booking").exists();
+    }
+
+    @Test
+    void leavesOtherDatabaseErrorsAsServerErrors() {
+        failWith(new R2dbcNonTransientResourceException("connection lost", "08006"));
+        post().expectStatus().is5xxServerError();
+    }
+
+    private void failWith(R2dbcException error) {
+        when(repository.book(any())).thenReturn(Mono.error(error));
+    }
+
+    private WebTestClient.ResponseSpec post() {
+        return client.post().uri("/reactive/room/booking").bodyValue(booking()).exchange();
+    }
+
+    private static BookingDTO booking() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        BookingDTO dto = new BookingDTO();
+        dto.setSinCustomer("111-111-111");
+        dto.setFirstname("Jeanne");
+        dto.setLastname("Tremblay");
+        dto.setStreetNumber(12);
+        dto.setStreetName("Rue Principale");
+        dto.setCity("Ottawa");
+        dto.setPostalCode("K1A 0B1");
+        dto.setCountry("Canada");
+        dto.setIdRoom(7);
+        dto.setStartDate(start);
+        dto.setEndDate(start.plusDays(2));
+        return dto;
+    }
+}
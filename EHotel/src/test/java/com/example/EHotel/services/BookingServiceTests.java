@@ -0,0 +1,125 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.EHotel.dtos.BookingDTO;
+import com.example.EHotel.dtos.BookingResultDTO;
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.repositories.customer.CustomerRepository;
+import com.example.EHotel.repositories.hotel.BookingRepository;
+import com.example.EHotel.repositories.hotel.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+/**
+ * Tests unitaires de la réservation groupée (BookingService.addBookings) : contrôle des
+ * séjours d'un même lot dans une même chambre, sans base de données.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingServiceTests {
+
+    private static final int ROOM = 7;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private ArchiveWriter archiveWriter;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private TableVersionService tableVersionService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ReflectionTestUtils.setField(bookingService, "validator", validator);
+        ReflectionTestUtils.setField(bookingService, "batchSize", 50);
+
+        Room room = new Room();
+        room.setIdRoom(ROOM);
+        room.setAvailability(true);
+        when(roomRepository.findAllById(anyCollection())).thenReturn(List.of(room));
+        when(customerRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(bookingRepository.findStays(anyCollection(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void acceptsDisjointStaysInTheSameRoom() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        List<BookingResultDTO> results = bookingService.addBookings(List.of(
+                booking("111-111-111", start, start.plusDays(2)),
+                booking("222-222-222", start.plusDays(3), start.plusDays(5))));
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        verify(entityManager, times(2)).persist(any(Booking.class));
+    }
+
+    @Test
+    void rejectsOverlappingStaysInTheSameRoom() {
+        LocalDate start = LocalDate.now().plusDays(10);
+        List<BookingResultDTO> results = bookingService.addBookings(List.of(
+                booking("111-111-111", start, start.plusDays(3)),
+                booking("222-222-222", start.plusDays(2), start.plusDays(5)),
+                booking("333-333-333", start.plusDays(4), start.plusDays(6))));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(1, results.get(1).getIndex());
+        // Le séjour refusé ne bloque pas la chambre : le suivant, disjoint du premier, passe
+        assertTrue(results.get(2).isSuccess());
+        verify(entityManager, times(2)).persist(any(Booking.class));
+    }
+
+    private static BookingDTO booking(String sin, LocalDate start, LocalDate end) {
+        BookingDTO dto = new BookingDTO();
+        dto.setSinCustomer(sin);
+        dto.setFirstname("Jeanne");
+        dto.setLastname("Tremblay");
+        dto.setStreetNumber(12);
+        dto.setStreetName("Rue Principale");
+        dto.setCity("Ottawa");
+        dto.setPostalCode("K1A 0B1");
+        dto.setCountry("Canada");
+        dto.setIdRoom(ROOM);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        return dto;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.EHotel.dtos.ListFilterDTO;
+import com.example.EHotel.dtos.StayRowDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Tests unitaires de la construction des requêtes de pages de liste (ListPageQuery) :
+ * seuls les filtres saisis deviennent des prédicats, la position est une comparaison de ligne.
+ */
+@ExtendWith(MockitoExtension.class)
+class ListPageQueryTests {
+
+    private static final String SELECT = "SELECT b FROM Booking b";
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<StayRowDTO> query;
+
+    @Test
+    void firstPageWithoutFiltersHasNoWhereClause() {
+        assertEquals("SELECT b FROM Booking b ORDER BY b.startDate, b.idBooking",
+                bookings(new ListFilterDTO()).jpql("b.startDate, b.idBooking"));
+    }
+
+    @Test
+    void addsOnlyTheFiltersThatAreSet() {
+        ListFilterDTO filter = new ListFilterDTO();
+        filter.setIdHotel(3);
+        filter.setTo(DATE);
+
+        assertEquals("SELECT b FROM Booking b WHERE h.idHotel = :idHotel AND b.startDate <= :toDate"
+                        + " ORDER BY b.startDate, b.idBooking",
+                bookings(filter).jpql("b.startDate, b.idBooking"));
+    }
+
+    @Test
+    void continuesAfterTheLastRowWithARowComparison() {
+        ListFilterDTO filter = new ListFilterDTO();
+        filter.setAfterDate(DATE);
+        filter.setAfterId(42);
+        when(entityManager.createQuery(anyString(), eq(StayRowDTO.class))).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        bookings(filter).fetch(entityManager, "b.startDate, b.idBooking", ListFilterDTO.PAGE_SIZE + 1);
+
+        verify(entityManager).createQuery("SELECT b FROM Booking b"
+                + " WHERE (b.startDate, b.idBooking) > (:afterDate, :afterId)"
+                + " ORDER BY b.startDate, b.idBooking", StayRowDTO.class);
+        verify(query).setParameter("afterDate", DATE);
+        verify(query).setParameter("afterId", 42);
+        verify(query, never()).setParameter(eq("idHotel"), any());
+        verify(query).setMaxResults(ListFilterDTO.PAGE_SIZE + 1);
+    }
+
+    @Test
+    void ignoresAnIncompletePosition() {
+        ListFilterDTO filter = new ListFilterDTO();
+        filter.setAfterDate(DATE);
+
+        assertEquals("SELECT b FROM Booking b ORDER BY b.startDate, b.idBooking",
+                bookings(filter).jpql("b.startDate, b.idBooking"));
+    }
+
+    private static ListPageQuery<StayRowDTO> bookings(ListFilterDTO filter) {
+        return new ListPageQuery<>(SELECT, StayRowDTO.class)
+                .filter("h.idHotel = :idHotel", "idHotel", filter.getIdHotel())
+                .filter("b.startDate <= :toDate", "toDate", filter.getTo())
+                .after("(b.startDate, b.idBooking)", ">", filter);
+    }
+}
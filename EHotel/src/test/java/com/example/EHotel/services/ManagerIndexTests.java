@@ -0,0 +1,60 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.EHotel.dtos.ManagerOptionDTO;
+
+/**
+ * Tests unitaires de l'index des gérants possibles (ManagerIndex.find) : recherche par
+ * préfixe du prénom, du nom ou du NAS, sans accents ni doublons, filtres et limite.
+ */
+class ManagerIndexTests {
+
+    private static final ManagerOptionDTO AUBERT = new ManagerOptionDTO("111-111-111", "Anne", "Aubert", 1, 10);
+    private static final ManagerOptionDTO BELANGER = new ManagerOptionDTO("222-222-222", "Éric", "Bélanger", 2, 10);
+    private static final ManagerOptionDTO CHAREST = new ManagerOptionDTO("333-333-333", "Eric", "Charest", 3, 20);
+
+    /** Triés par nom et prénom, comme EmployeeRepository.findManagerOptions() */
+    private final ManagerIndex index = new ManagerIndex(List.of(AUBERT, BELANGER, CHAREST));
+
+    @Test
+    void findsByFirstnameLastnameOrSinIgnoringAccentsAndCase() {
+        assertEquals(List.of(BELANGER), index.find("belan", null, null, 20));
+        assertEquals(List.of(BELANGER), index.find("ÉRIC B", null, null, 20));
+        assertEquals(List.of(CHAREST), index.find("333-", null, null, 20));
+    }
+
+    @Test
+    void returnsEachManagerOnceInKeyOrder() {
+        // "Anne Aubert" et "Aubert Anne" commencent toutes deux par "a"
+        assertEquals(List.of(AUBERT), index.find("a", null, null, 20));
+        // "eric belanger" précède "eric charest"
+        assertEquals(List.of(BELANGER, CHAREST), index.find("eric", null, null, 20));
+    }
+
+    @Test
+    void appliesHotelChainFiltersAndLimit() {
+        assertEquals(List.of(CHAREST), index.find("eric", null, 20, 20));
+        assertEquals(List.of(BELANGER), index.find("eric", 2, null, 20));
+        assertEquals(List.of(BELANGER), index.find("eric", null, null, 1));
+    }
+
+    @Test
+    void emptyPrefixListsManagersByName() {
+        assertEquals(List.of(AUBERT, BELANGER), index.find(" ", null, 10, 20));
+        assertEquals(List.of(AUBERT, BELANGER, CHAREST), index.find(null, null, null, 20));
+    }
+
+    @Test
+    void getsAManagerBySin() {
+        assertSame(CHAREST, index.get("333-333-333"));
+        assertNull(index.get("999-999-999"));
+        assertNull(index.get(null));
+    }
+}
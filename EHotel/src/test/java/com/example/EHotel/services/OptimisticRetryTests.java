@@ -0,0 +1,98 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests unitaires de la politique de nouvel essai (OptimisticRetry) : rejeu des conflits,
+ * abandon après le dernier essai et métriques, sans base de données.
+ */
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryTests {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OptimisticRetry optimisticRetry;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(optimisticRetry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(optimisticRetry, "maxAttempts", 3);
+        ReflectionTestUtils.setField(optimisticRetry, "baseDelayMs", 0L);
+        ReflectionTestUtils.setField(optimisticRetry, "maxDelayMs", 0L);
+        ReflectionTestUtils.invokeMethod(optimisticRetry, "init");
+    }
+
+    @Test
+    void replaysTheWorkUntilItCommits() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = optimisticRetry.execute("room.update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, count("ehotel.retry.conflicts"));
+        assertEquals(2.0, count("ehotel.retry.retries"));
+        assertEquals(0.0, count("ehotel.retry.exhausted"));
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> optimisticRetry.execute("room.update", () -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, count("ehotel.retry.conflicts"));
+        assertEquals(2.0, count("ehotel.retry.retries"));
+        assertEquals(1.0, count("ehotel.retry.exhausted"));
+    }
+
+    @Test
+    void doesNotReplayOtherErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(DataIntegrityViolationException.class,
+                () -> optimisticRetry.execute("room.update", () -> {
+                    attempts.incrementAndGet();
+                    throw new DataIntegrityViolationException("chk_price");
+                }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, count("ehotel.retry.conflicts"));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "operation", "room.update").count();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Room", 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EHotel.model.outbox.OutboxConsumerOffset;
+import com.example.EHotel.model.outbox.OutboxEvent;
+import com.example.EHotel.repositories.outbox.OutboxConsumerOffsetRepository;
+import com.example.EHotel.repositories.outbox.OutboxEventRepository;
+
+/**
+ * Tests unitaires de la lecture de l'outbox (OutboxService.poll) : la table outbox_event est
+ * simulée en mémoire, avec le filtre et l'ordre de findBatchAfter(), sans base de données.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTests {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxConsumerOffsetRepository offsetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<OutboxListener> listeners;
+
+    @InjectMocks
+    private OutboxService outboxService;
+
+    /** Événements visibles (transactions validées) */
+    private final List<OutboxEvent> table = new ArrayList<>();
+
+    /** Plus ancienne transaction encore en cours (txid_snapshot_xmin) */
+    private long xmin;
+
+    /** ID des événements reçus par le consommateur, dans l'ordre */
+    private final List<Long> delivered = new ArrayList<>();
+
+    private final OutboxConsumerOffset offset = new OutboxConsumerOffset("test", 0L, 0L, LocalDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "batchSize", 200);
+        ReflectionTestUtils.setField(outboxService, "transactionTemplate", new TransactionTemplate(transactionManager));
+
+        OutboxListener listener = new OutboxListener() {
+            @Override
+            public String consumerName() {
+                return "test";
+            }
+
+            @Override
+            public void onEvents(List<OutboxEvent> events) {
+                events.forEach(e -> delivered.add(e.getId()));
+            }
+        };
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+        when(offsetRepository.lock(anyString())).thenReturn(Optional.of(offset));
+        // Même filtre et même ordre que la requête native
+        when(outboxEventRepository.findBatchAfter(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterTx = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return table.stream()
+                    .filter(e -> e.getTxId() < xmin)
+                    .filter(e -> e.getTxId() > afterTx || (e.getTxId() == afterTx && e.getId() > afterId))
+                    .sorted(Comparator.comparing(OutboxEvent::getTxId).thenComparing(OutboxEvent::getId))
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    @Test
+    void deliversTransactionsCommittedOutOfIdOrder() {
+        // La transaction 101 a reçu l'ID 10 (bloc de séquence plus ancien) et n'est pas encore validée ;
+        // la transaction 100 a reçu l'ID 60 et est validée
+        commit(100, 60);
+        xmin = 101;
+        outboxService.poll();
+        assertEquals(List.of(60L), delivered);
+        assertEquals(100L, offset.getLastTxId());
+        assertEquals(60L, offset.getLastEventId());
+
+        // L'ID 10 devient visible après l'ID 60 : il n'est pas sauté
+        commit(101, 10);
+        xmin = 102;
+        outboxService.poll();
+        assertEquals(List.of(60L, 10L), delivered);
+        assertEquals(101L, offset.getLastTxId());
+        assertEquals(10L, offset.getLastEventId());
+
+        // Plus rien à lire : aucun événement n'est transmis deux fois
+        outboxService.poll();
+        assertEquals(List.of(60L, 10L), delivered);
+    }
+
+    private void commit(long txId, long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTxId(txId);
+        table.add(event);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.EHotel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.EHotel.dtos.BookingSlotDTO;
+import com.example.EHotel.dtos.StayDTO;
+
+/**
+ * Tests unitaires de l'affectation gloutonne "best fit" (RoomAssignmentService.assign)
+ * et du placement d'une nouvelle réservation seule (RoomAssignmentService.place).
+ * Les dates de fin sont incluses : une chambre est libre le lendemain du dernier jour occupé.
+ */
+class RoomAssignmentServiceTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void placesABookingInTheRoomFreedTheDayBefore() {
+        // La réservation 2 commence le lendemain de la fin de la 1 : elle rejoint sa chambre
+        // et laisse la chambre 2 entièrement libre
+        List<BookingSlotDTO> movable = List.of(
+                slot(1, 1, day(2), day(4)),
+                slot(2, 2, day(5), day(8)));
+
+        Map<Integer, Integer> assignment = RoomAssignmentService.assign(List.of(1, 2), List.of(), movable, TODAY);
+
+        assertEquals(Map.of(1, 1, 2, 1), assignment);
+    }
+
+    @Test
+    void splitsOverlappingBookingsAcrossRoomsAndKeepsCurrentRoomsOnTies() {
+        List<BookingSlotDTO> movable = List.of(
+                slot(1, 2, day(2), day(6)),
+                slot(2, 1, day(3), day(4)),
+                slot(3, 3, day(7), day(9)));
+
+        Map<Integer, Integer> assignment = RoomAssignmentService.assign(List.of(1, 2, 3), List.of(), movable, TODAY);
+
+        // Deux chambres libres depuis aujourd'hui : chacune garde sa réservation actuelle
+        assertEquals(2, assignment.get(1));
+        assertEquals(1, assignment.get(2));
+        assertNotEquals(assignment.get(1), assignment.get(2));
+        // La chambre 2 (libérée le jour 6) est la plus proche de l'arrivée du jour 7
+        assertEquals(2, assignment.get(3));
+    }
+
+    @Test
+    void avoidsRoomsHeldByPinnedStays() {
+        // Location en cours dans la chambre 1 jusqu'au jour 5
+        List<StayDTO> pinned = List.of(new StayDTO(1, TODAY, day(5)));
+        List<BookingSlotDTO> movable = List.of(slot(1, 1, day(3), day(4)));
+
+        Map<Integer, Integer> assignment = RoomAssignmentService.assign(List.of(1, 2), pinned, movable, TODAY);
+
+        assertEquals(2, assignment.get(1));
+    }
+
+    @Test
+    void returnsNullWhenTheGroupHasNoCapacityLeft() {
+        List<BookingSlotDTO> movable = List.of(
+                slot(1, 1, day(2), day(5)),
+                slot(2, 2, day(3), day(6)),
+                slot(3, 1, day(4), day(4)));
+
+        assertNull(RoomAssignmentService.assign(List.of(1, 2), List.of(), movable, TODAY));
+    }
+
+    @Test
+    void placesANewBookingAloneInTheRoomFreedLatestBeforeItsArrival() {
+        // Chambre 1 libérée le jour 4, chambre 2 le jour 2, chambre 3 occupée sur les dates
+        List<StayDTO> stays = List.of(
+                new StayDTO(1, day(1), day(4)),
+                new StayDTO(2, day(1), day(2)),
+                new StayDTO(3, day(4), day(8)));
+
+        assertEquals(1, RoomAssignmentService.place(List.of(1, 2, 3), stays, slot(9, 3, day(5), day(7)), TODAY));
+    }
+
+    @Test
+    void keepsTheCurrentRoomOnTiesAndReturnsNullWhenNoRoomIsFree() {
+        List<StayDTO> stays = List.of(new StayDTO(1, day(1), day(3)), new StayDTO(2, day(1), day(3)));
+
+        assertEquals(2, RoomAssignmentService.place(List.of(1, 2), stays, slot(9, 2, day(4), day(6)), TODAY));
+        assertNull(RoomAssignmentService.place(List.of(1, 2), stays, slot(9, 2, day(3), day(6)), TODAY));
+    }
+
+    private static LocalDate day(int offset) {
+        return TODAY.plusDays(offset);
+    }
+
+    private static BookingSlotDTO slot(int idBooking, int idRoom, LocalDate start, LocalDate end) {
+        return new BookingSlotDTO(idBooking, "111-111-111", idRoom, start, end);
+    }
+}
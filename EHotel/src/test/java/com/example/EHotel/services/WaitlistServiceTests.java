@@ -0,0 +1,186 @@
+package com.example.EHotel.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.EHotel.dtos.StayDTO;
+import com.example.EHotel.model.customer.Customer;
+import com.example.EHotel.model.hotel.Booking;
+import com.example.EHotel.model.hotel.Hotel;
+import com.example.EHotel.model.hotel.Room;
+import com.example.EHotel.model.hotel.WaitlistEntry;
+import com.example.EHotel.model.hotelchain.HotelChain;
+import com.example.EHotel.model.outbox.OutboxEvent;
+import com.example.EHotel.repositories.hotel.BookingRepository;
+import com.example.EHotel.repositories.hotel.RentalRepository;
+import com.example.EHotel.repositories.hotel.RoomRepository;
+import com.example.EHotel.repositories.hotel.WaitlistRepository;
+
+/**
+ * Tests unitaires de la promotion de la liste d'attente (WaitlistService.onEvents) :
+ * index tenu à jour par les événements d'inscription et décision par chevauchement,
+ * sans base de données.
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTests {
+
+    private static final int ROOM = 5;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final Hotel hotel = new Hotel();
+
+    private final LocalDate start = LocalDate.now().plusDays(10);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.invokeMethod(waitlistService, "init");
+
+        HotelChain chain = new HotelChain();
+        chain.setId(1);
+        hotel.setIdHotel(3);
+        hotel.setHotelChain(chain);
+    }
+
+    @Test
+    void indexesJoinedEntriesFromTheirEventsAndIgnoresRoomAvailability() {
+        WaitlistEntry later = entry(11, "222-222-222");
+        WaitlistEntry earlier = entry(10, "111-111-111");
+
+        // Premier lot : seule la demande 11 est validée
+        when(waitlistRepository.findWaitingByIds(Set.of(11))).thenReturn(List.of(later));
+        waitlistService.onEvents(List.of(joined(11)));
+
+        // La demande 10 est validée ensuite ; une location en cours a mis la chambre à FALSE
+        when(waitlistRepository.findWaitingByIds(Set.of(10))).thenReturn(List.of(earlier));
+        when(roomRepository.findById(ROOM)).thenReturn(Optional.of(room(false)));
+        when(bookingRepository.findStays(anyCollection(), any(), any())).thenReturn(List.of());
+        when(rentalRepository.findStays(anyCollection(), any(), any())).thenReturn(List.of());
+        when(waitlistRepository.lockById(10)).thenReturn(Optional.of(earlier));
+        when(bookingService.bookRoom(anyString(), anyInt(), any(), any())).thenReturn(booking());
+        waitlistService.onEvents(List.of(joined(10), bookingDeleted()));
+
+        // La plus ancienne demande passe en premier ; la 11, sur les mêmes nuits, reste en attente
+        verify(bookingService).bookRoom("111-111-111", ROOM, start, start.plusDays(2));
+        verify(bookingService, never()).bookRoom(eq("222-222-222"), anyInt(), any(), any());
+        // Seules les demandes inscrites sont lues : jamais toute la liste d'attente
+        verify(waitlistRepository, never()).findWaiting();
+    }
+
+    @Test
+    void keepsWaitingWhenARentalOverlapsTheFreedDates() {
+        WaitlistEntry waiting = entry(10, "111-111-111");
+        when(waitlistRepository.findWaitingByIds(Set.of(10))).thenReturn(List.of(waiting));
+        when(roomRepository.findById(ROOM)).thenReturn(Optional.of(room(true)));
+        when(bookingRepository.findStays(anyCollection(), any(), any())).thenReturn(List.of());
+        when(rentalRepository.findStays(anyCollection(), any(), any()))
+                .thenReturn(List.of(new StayDTO(ROOM, start.plusDays(1), start.plusDays(4))));
+
+        waitlistService.onEvents(List.of(joined(10), bookingDeleted()));
+
+        verify(bookingService, never()).bookRoom(anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void doesNotReloadAnEntryAlreadyIndexedByTheRebuild() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(waitlistRepository.findWaiting()).thenReturn(List.of(entry(10, "111-111-111")));
+        waitlistService.rebuild();
+
+        waitlistService.onEvents(List.of(joined(10)));
+
+        verify(waitlistRepository, never()).findWaitingByIds(anyCollection());
+    }
+
+    private WaitlistEntry entry(int id, String sin) {
+        Customer customer = new Customer();
+        customer.setSinCustomer(sin);
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setIdWaitlist(id);
+        entry.setCustomer(customer);
+        entry.setHotel(hotel);
+        entry.setCapacity("Double");
+        entry.setStartDate(start);
+        entry.setEndDate(start.plusDays(2));
+        entry.setMaxPrice(200.0);
+        entry.setStatus(WaitlistEntry.WAITING);
+        return entry;
+    }
+
+    private Room room(boolean availability) {
+        Room room = new Room();
+        room.setIdRoom(ROOM);
+        room.setHotel(hotel);
+        room.setCapacity("Double");
+        room.setPrice(150.0);
+        room.setAvailability(availability);
+        return room;
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setIdBooking(42);
+        return booking;
+    }
+
+    private OutboxEvent bookingDeleted() {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(OutboxEvent.BOOKING);
+        event.setEventType(OutboxEvent.DELETED);
+        event.setPayload("{\"idRoom\":" + ROOM + ",\"startDate\":\"" + start
+                + "\",\"endDate\":\"" + start.plusDays(2) + "\"}");
+        return event;
+    }
+
+    private static OutboxEvent joined(int id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(OutboxEvent.WAITLIST);
+        event.setAggregateId(String.valueOf(id));
+        event.setEventType(OutboxEvent.CREATED);
+        event.setPayload("{\"idWaitlist\":" + id + "}");
+        return event;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.EHotel.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires de la limite de concurrence adaptative (AdaptiveLimiter) : AIMD par fenêtre
+ * et remise des places libérées aux requêtes en attente dans l'ordre d'arrivée.
+ */
+class AdaptiveLimiterTests {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void decreasesOncePerSamplingWindow() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 10, 1, 20, 100, 0.5, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire());
+        }
+
+        // Trois réponses lentes admises avant la diminution : une seule diminution
+        for (int i = 0; i < 3; i++) {
+            limiter.release(SLOW, true);
+        }
+        assertEquals(5.0, limiter.getLimit());
+
+        // Une requête admise après la diminution ouvre la fenêtre suivante
+        assertTrue(limiter.acquire());
+        limiter.release(0, false);
+        assertEquals(2.5, limiter.getLimit());
+    }
+
+    @Test
+    void increasesAdditivelyOnlyWhenSaturated() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 20, 100, 0.5, 0, 0);
+        assertTrue(limiter.acquire());
+        limiter.release(FAST, true);
+        assertEquals(2.0, limiter.getLimit());
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        limiter.release(FAST, true);
+        assertEquals(2.5, limiter.getLimit());
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 100, 0.5, 0, 0);
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void handsFreedSlotsToWaitersInArrivalOrder() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 100, 0.5, 2, 10_000);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(limiter.acquire());
+
+        Thread first = waiter(limiter, "first", admitted, done);
+        awaitWaiting(limiter, 1);
+        Thread second = waiter(limiter, "second", admitted, done);
+        awaitWaiting(limiter, 2);
+
+        // La place est remise à la première requête de la file avant même son réveil :
+        // une nouvelle arrivée ne peut pas la prendre
+        limiter.release(FAST, true);
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getWaiting());
+
+        done.countDown();
+        first.join(5_000);
+        second.join(5_000);
+        assertEquals(List.of("first", "second"), admitted);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static Thread waiter(AdaptiveLimiter limiter, String name, List<String> admitted,
+                                 CountDownLatch done) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (limiter.acquire()) {
+                    admitted.add(name);
+                    done.await();
+                    limiter.release(FAST, true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(AdaptiveLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getWaiting() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, limiter.getWaiting());
+    }
+}
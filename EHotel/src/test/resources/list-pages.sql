@@ -0,0 +1,26 @@
+-- Lignes des pages de liste pour ListPageStatementCountTests
+-- Exécuté après schema.sql à la création du conteneur : plusieurs clients, hôtels et chambres
+-- par liste, pour qu'une sélection par ligne (N+1) change le nombre d'instructions.
+
+INSERT INTO customer (sin_customer, firstname, lastname, check_in_date, street_number, street_name, city, postal_code, country)
+VALUES ('900-000-001', 'Anne', 'Aubert', CURRENT_DATE, 10, 'Rue Principale', 'Ottawa', 'K1A 0B1', 'CA'),
+       ('900-000-002', 'Éric', 'Bélanger', CURRENT_DATE, 20, 'Rue King', 'Toronto', 'M5H 2N2', 'CA'),
+       ('900-000-003', 'Marie', 'Charest', CURRENT_DATE, 30, 'Rue Sainte-Catherine', 'Montréal', 'H3B 1A1', 'CA');
+
+-- Chambres d'hôtels différents : la première chambre de chacun des trois premiers hôtels
+INSERT INTO booking (id_booking, sin_customer, id_room, start_date, end_date)
+SELECT 900000 + n, '900-000-00' || n, r.id_room, CURRENT_DATE + 10 + n, CURRENT_DATE + 12 + n
+FROM (SELECT id_room, ROW_NUMBER() OVER (ORDER BY id_hotel, id_room) AS n
+      FROM (SELECT DISTINCT ON (id_hotel) id_room, id_hotel FROM room ORDER BY id_hotel, id_room) first_rooms) r
+WHERE n <= 3;
+
+INSERT INTO rental (id_rental, sin_customer, id_room, start_date, end_date)
+SELECT 900000 + n, '900-000-00' || n, r.id_room, CURRENT_DATE + n, CURRENT_DATE + 2 + n
+FROM (SELECT id_room, ROW_NUMBER() OVER (ORDER BY id_hotel DESC, id_room) AS n
+      FROM (SELECT DISTINCT ON (id_hotel) id_room, id_hotel FROM room ORDER BY id_hotel, id_room) first_rooms) r
+WHERE n <= 3;
+
+INSERT INTO payment (id_rental, payment_date, amount, payment_method, payment_status)
+SELECT id_rental, CURRENT_DATE, 150.00, 'Credit card', 'Paid'
+FROM rental
+WHERE id_rental > 900000;
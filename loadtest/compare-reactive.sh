@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compare le chemin MVC (Tomcat, JDBC) et le chemin réactif (Reactor Netty, R2DBC) sur la même
+# instance, avec le même pool de connexions (10) et beaucoup de clients lents simultanés.
+#
+#   ./loadtest/compare-reactive.sh      # VUS, THINK, HOLD, RAMP, ROOM_MAX transmis à k6
+#
+# Le contrôle d'admission (qui ne protège que le chemin MVC) est désactivé pendant la mesure.
+# Résultats : loadtest/results/{mvc,reactive}.{txt,json}
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd -P)"
+COMPOSE=(docker compose -f "$ROOT_DIR/docker-compose.yml")
+APP_PORT="${EHOTEL_APP_PORT:-8080}"
+REACTIVE_PORT="${EHOTEL_REACTIVE_PORT:-8081}"
+K6_IMAGE="${K6_IMAGE:-grafana/k6:0.49.0}"
+
+mkdir -p "$ROOT_DIR/loadtest/results"
+
+run_target() {
+  local target="$1"
+  echo "=== Chemin $target ==="
+  "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+  EHOTEL_ADMISSION_ENABLED=false "${COMPOSE[@]}" up -d --build
+
+  for _ in $(seq 1 90); do
+    if curl -fsS "http://localhost:${APP_PORT}/actuator/health" >/dev/null 2>&1; then
+      break
+    fi
+    sleep 2
+  done
+
+  docker run --rm --network host -u "$(id -u)" \
+    -v "$ROOT_DIR/loadtest:/scripts" -w /scripts \
+    -e TARGET="$target" \
+    -e MVC_URL="http://localhost:${APP_PORT}" -e REACTIVE_URL="http://localhost:${REACTIVE_PORT}" \
+    -e VUS="${VUS:-2000}" -e THINK="${THINK:-1}" -e HOLD="${HOLD:-2m}" -e RAMP="${RAMP:-1m}" \
+    -e ROOM_MAX="${ROOM_MAX:-200}" \
+    "$K6_IMAGE" run --quiet reactive.js
+}
+
+run_target mvc
+run_target reactive
+
+"${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+
+echo
+echo "=== Comparaison (pool de 10 connexions dans les deux cas) ==="
+cat "$ROOT_DIR/loadtest/results/mvc.txt" "$ROOT_DIR/loadtest/results/reactive.txt"
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compare le débit et la latence p99 entre les threads de plateforme et les threads
+# virtuels (profil Spring "virtual"), à taille de pool JDBC égale. Les deux modes
+# tournent sur la même image Java 21 : seul le profil Spring change entre les mesures.
+#
+#   ./loadtest/compare.sh            # VUS, HOLD, RAMP, ROOM_MAX transmis à k6
+#
+# Le contrôle d'admission est désactivé pendant la mesure : il bornerait la
+# concurrence de la même façon dans les deux modes et masquerait la différence.
+# Résultats : loadtest/results/{platform,virtual}.{txt,json}
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd -P)"
+COMPOSE=(docker compose -f "$ROOT_DIR/docker-compose.yml")
+APP_PORT="${EHOTEL_APP_PORT:-8080}"
+K6_IMAGE="${K6_IMAGE:-grafana/k6:0.49.0}"
+
+mkdir -p "$ROOT_DIR/loadtest/results"
+
+run_mode() {
+  local mode="$1"
+  echo "=== Mode $mode ==="
+  "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+  "${COMPOSE[@]}" up -d --build
+
+  for _ in $(seq 1 90); do
+    if curl -fsS "http://localhost:${APP_PORT}/actuator/health" >/dev/null 2>&1; then
+      break
+    fi
+    sleep 2
+  done
+
+  docker run --rm --network host -u "$(id -u)" \
+    -v "$ROOT_DIR/loadtest:/scripts" -w /scripts \
+    -e BASE_URL="http://localhost:${APP_PORT}" -e MODE="$mode" \
+    -e VUS="${VUS:-400}" -e HOLD="${HOLD:-2m}" -e RAMP="${RAMP:-30s}" -e ROOM_MAX="${ROOM_MAX:-200}" \
+    "$K6_IMAGE" run --quiet ehotel.js
+
+  if [ "$mode" = "virtual" ]; then
+    echo "--- Threads épinglés (jdk.tracePinnedThreads) ---"
+    "${COMPOSE[@]}" logs app 2>/dev/null | grep -A4 "pinned" | head -40 || echo "aucun"
+  fi
+}
+
+export EHOTEL_ADMISSION_ENABLED=false
+export EHOTEL_JAVA_VERSION=21 EHOTEL_MAVEN_PROFILES=virtual-threads
+
+EHOTEL_SPRING_PROFILES= run_mode platform
+EHOTEL_SPRING_PROFILES=virtual run_mode virtual
+
+"${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+
+echo
+echo "=== Comparaison (pool JDBC : 10 connexions dans les deux modes) ==="
+cat "$ROOT_DIR/loadtest/results/platform.txt" "$ROOT_DIR/loadtest/results/virtual.txt"
@@ -0,0 +1,106 @@
+// Test de charge k6 : recherche de chambres et réservation (voir compare.sh)
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e MODE=platform ehotel.js
+//
+// Chaque itération lance une recherche (POST /room/search), puis une fois sur
+// BOOKING_RATIO tente une réservation sur une chambre et une période aléatoires.
+// Une réservation refusée (chambre déjà prise) reste une réponse 200 : seul le
+// temps de traitement est mesuré ici, pas le taux de réussite métier.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+const ROOM_MAX = parseInt(__ENV.ROOM_MAX || '200', 10);
+const BOOKING_RATIO = parseInt(__ENV.BOOKING_RATIO || '5', 10);
+const CAPACITIES = ['Simple', 'Double', 'Triple', 'Quadruple', 'Suite', 'Penthouse'];
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: __ENV.RAMP || '30s', target: parseInt(__ENV.VUS || '400', 10) },
+                { duration: __ENV.HOLD || '2m', target: parseInt(__ENV.VUS || '400', 10) },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    // Seuils vides : ils forcent seulement k6 à calculer les métriques par endpoint
+    thresholds: {
+        'http_req_duration{name:search}': [],
+        'http_req_duration{name:booking}': [],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { mode: MODE },
+};
+
+function pick(values) {
+    return values[Math.floor(Math.random() * values.length)];
+}
+
+function isoDate(daysFromNow) {
+    const d = new Date();
+    d.setUTCDate(d.getUTCDate() + daysFromNow);
+    return d.toISOString().slice(0, 10);
+}
+
+function search() {
+    const start = 30 + Math.floor(Math.random() * 300);
+    const res = http.post(`${BASE_URL}/room/search`, {
+        roomCapacity: pick(CAPACITIES),
+        maxPrice: '500',
+        startNumber: '1',
+        roomsNumber: '1',
+        startDate: isoDate(start),
+        endDate: isoDate(start + 1 + Math.floor(Math.random() * 6)),
+    }, { tags: { name: 'search' } });
+    check(res, { 'search 200': (r) => r.status === 200 });
+}
+
+function book() {
+    const start = 400 + Math.floor(Math.random() * 2000);
+    const sin = [0, 0, 0].map(() => String(100 + Math.floor(Math.random() * 900))).join('-');
+    const res = http.post(`${BASE_URL}/room/booking`, {
+        sinCustomer: sin,
+        firstname: 'Charge',
+        lastname: 'Test',
+        streetNumber: '1',
+        streetName: 'Rue Principale',
+        city: 'Ottawa',
+        postalCode: 'K1A 0B1',
+        country: 'Canada',
+        idRoom: String(1 + Math.floor(Math.random() * ROOM_MAX)),
+        startDate: isoDate(start),
+        endDate: isoDate(start + 1 + Math.floor(Math.random() * 3)),
+    }, { tags: { name: 'booking' }, redirects: 0 });
+    check(res, { 'booking handled': (r) => r.status === 200 || r.status === 302 });
+}
+
+export default function () {
+    search();
+    if (Math.random() * BOOKING_RATIO < 1) {
+        book();
+    }
+}
+
+export function handleSummary(data) {
+    const m = data.metrics;
+    const line = (name, metric) => metric
+        ? `${MODE.padEnd(9)} ${name.padEnd(8)} p99 ${metric.values['p(99)'].toFixed(1)} ms, avg ${metric.values.avg.toFixed(1)} ms`
+        : '';
+    const report = [
+        `${MODE.padEnd(9)} total    ${m.http_reqs.values.rate.toFixed(1)} req/s, `
+            + `échecs ${(m.http_req_failed.values.rate * 100).toFixed(2)} %, `
+            + `p99 ${m.http_req_duration.values['p(99)'].toFixed(1)} ms`,
+        line('search', m['http_req_duration{name:search}']),
+        line('booking', m['http_req_duration{name:booking}']),
+    ].filter((l) => l).join('\n') + '\n';
+    return {
+        stdout: report,
+        [`results/${MODE}.json`]: JSON.stringify(data, null, 2),
+        [`results/${MODE}.txt`]: report,
+    };
+}
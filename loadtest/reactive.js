@@ -0,0 +1,147 @@
+// Test de charge k6 : chemin MVC (Tomcat / JDBC) contre chemin réactif (Netty / R2DBC)
+//
+//   k6 run -e TARGET=mvc      reactive.js
+//   k6 run -e TARGET=reactive reactive.js
+//
+// Beaucoup de clients simultanés (VUS, 2000 par défaut), chacun lent : il marque une pause
+// (THINK, en secondes) entre deux requêtes sur une connexion gardée ouverte. Un scénario
+// séparé relève le nombre de threads de la JVM (/actuator/metrics/jvm.threads.live) pendant
+// le test, pour comparer le débit et la latence p99 au nombre de threads utilisés.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const TARGET = __ENV.TARGET || 'reactive';
+const MVC_URL = __ENV.MVC_URL || 'http://localhost:8080';
+const REACTIVE_URL = __ENV.REACTIVE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+const THINK = parseFloat(__ENV.THINK || '1');
+const ROOM_MAX = parseInt(__ENV.ROOM_MAX || '200', 10);
+const BOOKING_RATIO = parseInt(__ENV.BOOKING_RATIO || '5', 10);
+const CAPACITIES = ['Simple', 'Double', 'Triple', 'Quadruple', 'Suite', 'Penthouse'];
+
+const serverThreads = new Trend('server_threads');
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: __ENV.RAMP || '1m', target: VUS },
+                { duration: __ENV.HOLD || '2m', target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+        threads: {
+            executor: 'constant-vus',
+            exec: 'sampleThreads',
+            vus: 1,
+            duration: __ENV.THREADS_DURATION || '3m10s',
+        },
+    },
+    // Seuils vides : ils forcent seulement k6 à calculer les métriques par endpoint
+    thresholds: {
+        'http_req_duration{name:search}': [],
+        'http_req_duration{name:booking}': [],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { target: TARGET },
+};
+
+function pick(values) {
+    return values[Math.floor(Math.random() * values.length)];
+}
+
+function isoDate(daysFromNow) {
+    const d = new Date();
+    d.setUTCDate(d.getUTCDate() + daysFromNow);
+    return d.toISOString().slice(0, 10);
+}
+
+function criteria() {
+    const start = 30 + Math.floor(Math.random() * 300);
+    return {
+        roomCapacity: pick(CAPACITIES),
+        maxPrice: '500',
+        hotelChainId: String(1 + Math.floor(Math.random() * 5)),
+        startNumber: '1',
+        roomsNumber: '1',
+        startDate: isoDate(start),
+        endDate: isoDate(start + 1 + Math.floor(Math.random() * 6)),
+    };
+}
+
+function booking() {
+    const start = 400 + Math.floor(Math.random() * 2000);
+    return {
+        sinCustomer: [0, 0, 0].map(() => String(100 + Math.floor(Math.random() * 900))).join('-'),
+        firstname: 'Charge',
+        lastname: 'Test',
+        streetNumber: 1,
+        streetName: 'Rue Principale',
+        city: 'Ottawa',
+        postalCode: 'K1A 0B1',
+        country: 'Canada',
+        idRoom: 1 + Math.floor(Math.random() * ROOM_MAX),
+        startDate: isoDate(start),
+        endDate: isoDate(start + 1 + Math.floor(Math.random() * 3)),
+    };
+}
+
+function search() {
+    const c = criteria();
+    const res = TARGET === 'mvc'
+        ? http.post(`${MVC_URL}/room/search`, c, { tags: { name: 'search' } })
+        : http.get(`${REACTIVE_URL}/reactive/room/search?` + Object.entries(c)
+            .map(([k, v]) => `${k}=${encodeURIComponent(v)}`).join('&'), { tags: { name: 'search' } });
+    check(res, { 'search 200': (r) => r.status === 200 });
+}
+
+function book() {
+    const b = booking();
+    const res = TARGET === 'mvc'
+        ? http.post(`${MVC_URL}/room/booking`, Object.fromEntries(Object.entries(b).map(([k, v]) => [k, String(v)])),
+            { tags: { name: 'booking' }, redirects: 0 })
+        : http.post(`${REACTIVE_URL}/reactive/room/booking`, JSON.stringify(b),
+            { headers: { 'Content-Type': 'application/json' }, tags: { name: 'booking' } });
+    // Réservation refusée (chambre prise) : réponse normale, seul le temps de traitement compte
+    check(res, { 'booking handled': (r) => [200, 201, 302, 409].includes(r.status) });
+}
+
+export default function () {
+    search();
+    if (Math.random() * BOOKING_RATIO < 1) {
+        book();
+    }
+    sleep(THINK);
+}
+
+export function sampleThreads() {
+    const res = http.get(`${MVC_URL}/actuator/metrics/jvm.threads.live`, { tags: { name: 'actuator' } });
+    if (res.status === 200) {
+        serverThreads.add(res.json('measurements.0.value'));
+    }
+    sleep(5);
+}
+
+export function handleSummary(data) {
+    const m = data.metrics;
+    const line = (name, metric) => metric
+        ? `${TARGET.padEnd(9)} ${name.padEnd(8)} p99 ${metric.values['p(99)'].toFixed(1)} ms, `
+          + `avg ${metric.values.avg.toFixed(1)} ms`
+        : '';
+    const report = [
+        `${TARGET.padEnd(9)} total    ${m.http_reqs.values.rate.toFixed(1)} req/s, `
+            + `échecs ${(m.http_req_failed.values.rate * 100).toFixed(2)} %, `
+            + `threads JVM max ${m.server_threads ? m.server_threads.values.max : '?'}`,
+        line('search', m['http_req_duration{name:search}']),
+        line('booking', m['http_req_duration{name:booking}']),
+    ].filter((l) => l).join('\n') + '\n';
+    return {
+        stdout: report,
+        [`results/${TARGET}.json`]: JSON.stringify(data, null, 2),
+        [`results/${TARGET}.txt`]: report,
+    };
+}
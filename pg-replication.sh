@@ -0,0 +1,6 @@
+#!/usr/bin/env bash
+# Exécuté une seule fois, à l'initialisation de la base primaire (docker-entrypoint-initdb.d) :
+# autorise les connexions de réplication du réplica (service db-replica, profil "replica").
+set -euo pipefail
+
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
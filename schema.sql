@@ -251,6 +251,22 @@ CREATE TABLE IF NOT EXISTS payment (
     CONSTRAINT chk_payment_status CHECK (payment_status in ('Paid', 'Pending', 'Refunded'))
 );
 
+-- Settled payments (Paid, Refunded) of closed rentals, moved here by the nightly roll
+-- (StayRollService) when their rental leaves the rental table: the payment history of a
+-- stay is kept along with its rental_archieve row. No CHECK on payment_date (past dates).
+
+CREATE TABLE IF NOT EXISTS payment_archieve(
+    id_payment INTEGER NOT NULL,
+    id_rental INTEGER NOT NULL,
+    payment_date DATE NOT NULL,
+    amount NUMERIC(8, 2) NOT NULL,
+    payment_method VARCHAR(100) NOT NULL,
+    payment_status VARCHAR(100) NOT NULL,
+    PRIMARY KEY(id_payment)
+);
+
+CREATE INDEX IF NOT EXISTS idx_payment_archieve_rental ON payment_archieve(id_rental);
+
 CREATE TABLE IF NOT EXISTS commodity(
     name VARCHAR(255) NOT NULL,
     PRIMARY KEY(name)
@@ -279,6 +295,181 @@ CREATE TABLE IF NOT EXISTS room_problem(
     FOREIGN KEY (id_problem) REFERENCES problem(id)
 );
 
+-- Per-room calendar indexes
+-- Overlap checks (existsOverlap) scan the stays of the room starting on or before the end of
+-- the period through these indexes and stop at the first one ending on or after its start.
+-- Rows of one room can overlap (nothing in the schema forbids it), so the latest-starting
+-- stay is not necessarily the latest-ending one and a single probe would not be enough.
+
+CREATE INDEX IF NOT EXISTS idx_booking_room_start ON booking(id_room, start_date);
+CREATE INDEX IF NOT EXISTS idx_rental_room_start ON rental(id_room, start_date);
+
+-- End-date indexes for the nightly roll job (StayRollService)
+-- Finished stays are found by end_date range: expired bookings, closed rentals, and
+-- the rooms whose stays ended recently (archives hold every stay, even deleted ones).
+
+CREATE INDEX IF NOT EXISTS idx_booking_end_date ON booking(end_date);
+CREATE INDEX IF NOT EXISTS idx_rental_end_date ON rental(end_date);
+CREATE INDEX IF NOT EXISTS idx_booking_archieve_end_date ON booking_archieve(end_date);
+CREATE INDEX IF NOT EXISTS idx_rental_archieve_end_date ON rental_archieve(end_date);
+CREATE INDEX IF NOT EXISTS idx_payment_rental ON payment(id_rental);
+
+-- Keyset pagination of the bookings, rentals and payments list pages
+-- Each page reads the next rows after the last (date, id) shown, in index order, optionally
+-- restricted to one customer or one payment status. The hotel filter goes through the rooms
+-- of the hotel (idx_room_id_hotel) and the per-room calendar indexes above.
+
+CREATE INDEX IF NOT EXISTS idx_booking_start_id ON booking(start_date, id_booking);
+CREATE INDEX IF NOT EXISTS idx_booking_customer_start_id ON booking(sin_customer, start_date, id_booking);
+CREATE INDEX IF NOT EXISTS idx_rental_start_id ON rental(start_date, id_rental);
+CREATE INDEX IF NOT EXISTS idx_rental_customer_start_id ON rental(sin_customer, start_date, id_rental);
+CREATE INDEX IF NOT EXISTS idx_payment_date_id ON payment(payment_date, id_payment);
+CREATE INDEX IF NOT EXISTS idx_payment_status_date_id ON payment(payment_status, payment_date, id_payment);
+
+-- Customer search (CustomerService.searchCustomers)
+-- SIN prefix: LIKE 'prefix%' needs text_pattern_ops (the primary key index follows the
+-- database collation). Names and cities: pg_trgm GIN indexes serve both substring matches
+-- (ILIKE '%term%') and typo-tolerant word matches (term <% column). Terms shorter than a
+-- trigram fall back to a lowercase prefix match. Results are read in (lastname, firstname, SIN)
+-- order, after the last row of the previous page.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_customer_sin_prefix ON customer(sin_customer text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_name_trgm ON customer USING gin ((firstname || ' ' || lastname) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_city_trgm ON customer USING gin (city gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_lastname_prefix ON customer(lower(lastname) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_city_prefix ON customer(lower(city) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_name_sin ON customer(lastname, firstname, sin_customer);
+
+-- Waitlist
+-- Requests for a hotel or a whole chain when no room is available.
+-- Waiting requests are indexed in memory by hotel/chain and night (WaitlistService);
+-- they are promoted to bookings when a matching room frees up.
+
+CREATE TABLE IF NOT EXISTS waitlist_entry(
+    id_waitlist SERIAL PRIMARY KEY,
+    sin_customer VARCHAR(18) NOT NULL,
+    id_hotel INTEGER,
+    id_hotel_chain INTEGER,
+    capacity VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    max_price NUMERIC(8, 2) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    id_booking INTEGER,
+    FOREIGN KEY (sin_customer) REFERENCES customer(sin_customer),
+    FOREIGN KEY (id_hotel) REFERENCES hotel(id_hotel),
+    FOREIGN KEY (id_hotel_chain) REFERENCES hotel_chain(id_hotel_chain),
+    CONSTRAINT chk_waitlist_target CHECK (id_hotel IS NOT NULL OR id_hotel_chain IS NOT NULL),
+    CONSTRAINT chk_waitlist_status CHECK (status in ('Waiting', 'Promoted', 'Expired'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting ON waitlist_entry(id_waitlist) WHERE status = 'Waiting';
+
+-- Transactional outbox
+-- Every booking, rental and payment change writes an event in the same transaction.
+-- Consumers read events in (tx_id, id) order from their own offset (at-least-once delivery).
+-- Ids come from a pooled sequence and do not follow commit order; tx_id lets readers skip
+-- events whose earlier transactions are still running, and the offset stores both values.
+
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_event(
+    id BIGINT NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(50) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    tx_id BIGINT DEFAULT txid_current(),
+    PRIMARY KEY(id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_consumer_offset(
+    consumer VARCHAR(100) NOT NULL,
+    last_tx_id BIGINT NOT NULL DEFAULT 0,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY(consumer)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_tx ON outbox_event(tx_id, id);
+
+-- Pending counter deltas (hotel.rooms_number, hotel_chain.hotels_number)
+-- Room and hotel triggers append one row per statement and owner instead of updating the
+-- parent row, so concurrent inserts never wait on each other. CounterService periodically
+-- folds the deltas into the parent row; readers add the pending deltas to the stored value.
+
+CREATE TABLE IF NOT EXISTS counter_delta(
+    counter_name VARCHAR(20) NOT NULL,
+    owner_id INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    CONSTRAINT chk_counter_name CHECK (counter_name in ('hotel.rooms', 'chain.hotels'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_counter_delta_owner ON counter_delta(counter_name, owner_id);
+
+-- Row versions (optimistic locking)
+-- Incremented by Hibernate (@Version) on every update of these rows; the room availability
+-- triggers and the application's own SQL updates increment it too. An update based on a
+-- stale copy of the row fails instead of silently overwriting the concurrent change.
+
+ALTER TABLE room ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE rental ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE hotel ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE payment ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Group allotments (room blocks)
+-- A conference or a tour operator holds a block of rooms of one capacity in one hotel for a
+-- period. The held rooms leave general inventory in one statement (allotment_room); attendees
+-- pick up rooms from the block by decrementing the per-night counter (allotment_night) with a
+-- single conditional UPDATE. At the cutoff date the block is released in one batch and its
+-- unused rooms go back to general inventory (AllotmentService).
+
+CREATE TABLE IF NOT EXISTS allotment(
+    id_allotment SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    id_hotel INTEGER NOT NULL,
+    capacity VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    rooms_count INTEGER NOT NULL,
+    cutoff_date DATE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (id_hotel) REFERENCES hotel(id_hotel),
+    CONSTRAINT chk_allotment_dates CHECK (start_date <= end_date AND cutoff_date <= start_date),
+    CONSTRAINT chk_allotment_rooms CHECK (rooms_count > 0),
+    CONSTRAINT chk_allotment_status CHECK (status in ('Held', 'Released'))
+);
+
+CREATE TABLE IF NOT EXISTS allotment_room(
+    id_allotment INTEGER NOT NULL,
+    id_room INTEGER NOT NULL,
+    PRIMARY KEY (id_allotment, id_room),
+    FOREIGN KEY (id_allotment) REFERENCES allotment(id_allotment) ON DELETE CASCADE,
+    FOREIGN KEY (id_room) REFERENCES room(id_room) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS allotment_night(
+    id_allotment INTEGER NOT NULL,
+    night DATE NOT NULL,
+    remaining INTEGER NOT NULL,
+    PRIMARY KEY (id_allotment, night),
+    FOREIGN KEY (id_allotment) REFERENCES allotment(id_allotment) ON DELETE CASCADE,
+    CONSTRAINT chk_allotment_remaining CHECK (remaining >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_allotment_room_room ON allotment_room(id_room);
+CREATE INDEX IF NOT EXISTS idx_allotment_held_cutoff ON allotment(cutoff_date) WHERE status = 'Held';
+
+-- Bookings picked up from a block keep a reference to it (the availability trigger lets them
+-- use the block's rooms; a cancellation gives the nights back to the block)
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS id_allotment INTEGER REFERENCES allotment(id_allotment);
+
 
 
 -- Alterations
@@ -332,80 +523,89 @@ FOREIGN KEY (id_hotel) REFERENCES hotel(id_hotel) ON DELETE CASCADE;
 
 -- Triggers
 
--- Déclencheur pour incrémenter hotels_number lors de l'insertion d'un nouvel hôtel
--- Création du déclencheur pour l'incrémentation
-CREATE OR REPLACE FUNCTION increment_hotels_number()
+-- Compteurs hotels_number et rooms_number
+-- Les anciens déclencheurs (increment_/decrement_hotels_number, increment_/decrement_rooms_number)
+-- mettaient à jour la ligne parente à chaque insertion : les insertions concurrentes de chambres
+-- d'un même hôtel attendaient toutes le verrou de cette ligne. Les déclencheurs ci-dessous sont
+-- exécutés une fois par instruction et n'ajoutent que des lignes dans counter_delta.
+-- Les instructions suivantes retirent les anciens déclencheurs des bases créées par une version précédente.
+DROP TRIGGER IF EXISTS increment_hotels_number_trigger ON hotel;
+DROP TRIGGER IF EXISTS decrement_hotels_number_trigger ON hotel;
+DROP TRIGGER IF EXISTS increment_rooms_trigger ON room;
+DROP TRIGGER IF EXISTS decrement_rooms_trigger ON room;
+DROP FUNCTION IF EXISTS increment_hotels_number();
+DROP FUNCTION IF EXISTS decrement_hotels_number();
+DROP FUNCTION IF EXISTS increment_rooms_number();
+DROP FUNCTION IF EXISTS decrement_rooms_number();
+
+-- Création des fonctions : une ligne de delta par chaîne (ou hôtel) touchée par l'instruction
+CREATE OR REPLACE FUNCTION hotels_inserted()
 RETURNS TRIGGER AS $$
 BEGIN
-    UPDATE hotel_chain
-    SET hotels_number = hotels_number + 1
-    WHERE id_hotel_chain = NEW.id_hotel_chain;
-    RETURN NEW;
+    INSERT INTO counter_delta (counter_name, owner_id, delta)
+    SELECT 'chain.hotels', id_hotel_chain, COUNT(*) FROM new_rows GROUP BY id_hotel_chain;
+    RETURN NULL;
 END;
 $$ LANGUAGE plpgsql;
 
--- Création du déclencheur pour la décrémentation
-CREATE OR REPLACE FUNCTION decrement_hotels_number()
+CREATE OR REPLACE FUNCTION hotels_deleted()
 RETURNS TRIGGER AS $$
 BEGIN
-    UPDATE hotel_chain
-    SET hotels_number = hotels_number - 1
-    WHERE id_hotel_chain = OLD.id_hotel_chain;
-    RETURN OLD;
+    INSERT INTO counter_delta (counter_name, owner_id, delta)
+    SELECT 'chain.hotels', id_hotel_chain, -COUNT(*) FROM old_rows GROUP BY id_hotel_chain;
+    RETURN NULL;
 END;
 $$ LANGUAGE plpgsql;
 
--- Association des déclencheurs aux opérations d'insertion et de suppression
-CREATE TRIGGER increment_hotels_number_trigger
-AFTER INSERT ON hotel
-FOR EACH ROW
-EXECUTE FUNCTION increment_hotels_number();
-
-CREATE TRIGGER decrement_hotels_number_trigger
-AFTER DELETE ON hotel
-FOR EACH ROW
-EXECUTE FUNCTION decrement_hotels_number();
-
-
--- Création du déclencheur pour l'incrémentation
-CREATE OR REPLACE FUNCTION increment_rooms_number()
+CREATE OR REPLACE FUNCTION rooms_inserted()
 RETURNS TRIGGER AS $$
 BEGIN
-    UPDATE hotel
-    SET rooms_number = rooms_number + 1
-    WHERE id_hotel = NEW.id_hotel;
-    RETURN NEW;
+    INSERT INTO counter_delta (counter_name, owner_id, delta)
+    SELECT 'hotel.rooms', id_hotel, COUNT(*) FROM new_rows GROUP BY id_hotel;
+    RETURN NULL;
 END;
 $$ LANGUAGE plpgsql;
 
--- Création du déclencheur pour la décrémentation
-CREATE OR REPLACE FUNCTION decrement_rooms_number()
+CREATE OR REPLACE FUNCTION rooms_deleted()
 RETURNS TRIGGER AS $$
 BEGIN
-    UPDATE hotel
-    SET rooms_number = rooms_number - 1
-    WHERE id_hotel = OLD.id_hotel;
-    RETURN OLD;
+    INSERT INTO counter_delta (counter_name, owner_id, delta)
+    SELECT 'hotel.rooms', id_hotel, -COUNT(*) FROM old_rows GROUP BY id_hotel;
+    RETURN NULL;
 END;
 $$ LANGUAGE plpgsql;
 
 -- Association des déclencheurs aux opérations d'insertion et de suppression
-CREATE TRIGGER increment_rooms_trigger
+CREATE TRIGGER hotels_inserted_trigger
+AFTER INSERT ON hotel
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION hotels_inserted();
+
+CREATE TRIGGER hotels_deleted_trigger
+AFTER DELETE ON hotel
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION hotels_deleted();
+
+CREATE TRIGGER rooms_inserted_trigger
 AFTER INSERT ON room
-FOR EACH ROW
-EXECUTE FUNCTION increment_rooms_number();
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION rooms_inserted();
 
-CREATE TRIGGER decrement_rooms_trigger
+CREATE TRIGGER rooms_deleted_trigger
 AFTER DELETE ON room
-FOR EACH ROW
-EXECUTE FUNCTION decrement_rooms_number();
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION rooms_deleted();
 
 -- Create a trigger to update the availability of a room when a booking is made
 CREATE OR REPLACE FUNCTION update_room_availability()
 RETURNS TRIGGER AS $$
 BEGIN
     UPDATE room
-    SET availability = FALSE
+    SET availability = FALSE, version = version + 1
     WHERE id_room = NEW.id_room;
     RETURN NEW;
 END;
@@ -417,46 +617,24 @@ FOR EACH ROW
 EXECUTE FUNCTION update_room_availability();
 
 
--- Create a trigger to archive bookings
-CREATE FUNCTION archieve_booking()
-RETURNS TRIGGER AS $$
-BEGIN
-    INSERT INTO booking_archieve (id_booking, sin_customer, id_room, start_date, end_date)
-    VALUES (NEW.id_booking, NEW.sin_customer, NEW.id_room, NEW.start_date, NEW.end_date);
-    
-    RETURN NEW;
-END;
-$$ LANGUAGE plpgsql;
-
--- Attach the trigger to the booking table
-CREATE TRIGGER booking_archiving_trigger
-AFTER INSERT ON booking
-FOR EACH ROW
-EXECUTE FUNCTION archieve_booking();
-
--- Create a trigger to archive rentals
-CREATE FUNCTION archieve_rental()
-RETURNS TRIGGER AS $$
-BEGIN
-    INSERT INTO rental_archieve (id_rental, sin_customer, id_room, start_date, end_date)
-    VALUES (NEW.id_rental, NEW.sin_customer, NEW.id_room, NEW.start_date, NEW.end_date);
-    
-    RETURN NEW;
-END;
-$$ LANGUAGE plpgsql;
-
--- Attach the trigger to the rental table
-CREATE TRIGGER rental_archiving_trigger
-AFTER INSERT ON rental
-FOR EACH ROW
-EXECUTE FUNCTION archieve_rental();
+-- Archiving of bookings and rentals
+-- The archieve_booking / archieve_rental triggers used to copy every new row into
+-- booking_archieve / rental_archieve inside the user's transaction. Archiving is now done
+-- asynchronously by the application (ArchiveWriter): rows are journaled locally, then written
+-- in batches with multi-row INSERT ... ON CONFLICT DO NOTHING. At startup, live bookings and
+-- rentals that have no archive row (crash between COMMIT and journaling) are archived again.
+-- The statements below remove the old triggers from databases created with a previous version.
+DROP TRIGGER IF EXISTS booking_archiving_trigger ON booking;
+DROP TRIGGER IF EXISTS rental_archiving_trigger ON rental;
+DROP FUNCTION IF EXISTS archieve_booking();
+DROP FUNCTION IF EXISTS archieve_rental();
 
 -- Create a trigger to update the availability of a room when a rental is made
 CREATE OR REPLACE FUNCTION update_room_availability_rental()
 RETURNS TRIGGER AS $$
 BEGIN
     UPDATE room
-    SET availability = FALSE
+    SET availability = FALSE, version = version + 1
     WHERE id_room = NEW.id_room;
     RETURN NEW;
 END;
@@ -468,15 +646,31 @@ FOR EACH ROW
 EXECUTE FUNCTION update_room_availability_rental();
 
 -- Create a function to check room availability before insertion
+-- The room row is share-locked so that a concurrent block creation (FOR UPDATE SKIP LOCKED)
+-- either skips the room or is seen by the allotment check below.
+-- Rooms held by a block overlapping the booking are only open to bookings picked up from it.
 CREATE OR REPLACE FUNCTION check_room_availability()
 RETURNS TRIGGER AS $$
 BEGIN
     IF NOT EXISTS (
-        SELECT 1 FROM room WHERE id_room = NEW.id_room AND availability = TRUE
+        SELECT 1 FROM room WHERE id_room = NEW.id_room AND availability = TRUE FOR SHARE
     ) THEN
         RAISE EXCEPTION 'The room is not available.';
     END IF;
 
+    IF EXISTS (
+        SELECT 1
+        FROM allotment_room ar
+        JOIN allotment a ON a.id_allotment = ar.id_allotment
+        WHERE ar.id_room = NEW.id_room
+          AND a.status = 'Held'
+          AND a.start_date <= NEW.end_date
+          AND a.end_date >= NEW.start_date
+          AND a.id_allotment IS DISTINCT FROM NEW.id_allotment
+    ) THEN
+        RAISE EXCEPTION 'The room is held by a group allotment.';
+    END IF;
+
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
@@ -490,7 +684,7 @@ EXECUTE FUNCTION check_room_availability();
 -- Function to update room availability
 CREATE OR REPLACE FUNCTION update_room_availability() RETURNS TRIGGER AS $$
 BEGIN
-    UPDATE room SET availability = TRUE WHERE id_room = NEW.id_room AND CURRENT_DATE > NEW.end_date;
+    UPDATE room SET availability = TRUE, version = version + 1 WHERE id_room = NEW.id_room AND CURRENT_DATE > NEW.end_date;
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;